@@ -173,6 +173,33 @@ class GtfsFaresV2ServiceTest implements PlanTestConstants {
     assertEquals(Set.of(expressPass), expressProducts);
   }
 
+  @Test
+  void requestScoped() {
+    var requestService = service.requestScoped();
+    var i1 = newItinerary(A, 0)
+      .walk(20, A)
+      .faresV2Rail(ID, 0, 50, B, localNetwork)
+      .faresV2Rail(ID, 60, 100, C, expressNetwork)
+      .build();
+    // The same legs in another itinerary of the request
+    var i2 = newItinerary(A, 0)
+      .walk(20, A)
+      .faresV2Rail(ID, 0, 50, B, localNetwork)
+      .faresV2Rail(ID, 60, 100, C, expressNetwork)
+      .build();
+
+    for (var i : List.of(i1, i2, i1)) {
+      var expected = service.getProducts(i);
+      var result = requestService.getProducts(i);
+      assertEquals(expected.itineraryProducts(), result.itineraryProducts());
+      for (var leg : i.getLegs()) {
+        assertEquals(expected.getProducts(leg), result.getProducts(leg));
+      }
+    }
+    var localLeg = i2.getLegs().get(1);
+    assertEquals(Set.of(localPass), requestService.getProducts(i2).getProducts(localLeg));
+  }
+
   @Nested
   public class AreaId {
 
@@ -168,6 +168,30 @@ public class FlexIntegrationTest {
     assertEquals("2021-12-02T13:00-05:00[America/New_York]", flex.getStartTime().toString());
   }
 
+  /**
+   * With the temporary edge overlay the edges to the destination are not added to the graph. The
+   * flex path from the stop in the graph to the destination must still be found.
+   */
+  @Test
+  void flexDirectWithTemporaryEdgeOverlay() {
+    var from = new GenericLocation(33.85281, -84.60271);
+    var to = new GenericLocation(33.86701256815635, -84.61787939071655);
+
+    var expected = getItineraries(from, to, true);
+
+    OTPFeature.TemporaryEdgeOverlay.testOn(() -> {
+      var itineraries = getItineraries(from, to, true);
+
+      assertEquals(
+        expected.stream().map(Itinerary::toStr).toList(),
+        itineraries.stream().map(Itinerary::toStr).toList()
+      );
+      var flex = itineraries.get(0).getTransitLeg(1);
+      assertTrue(flex.isFlexibleTrip());
+      assertEquals("Destination (part of Flex Zone 2)", flex.getTo().name.toString());
+    });
+  }
+
   @AfterAll
   static void teardown() {
     OTPFeature.enableFeatures(Map.of(OTPFeature.FlexRouting, false));
@@ -0,0 +1,70 @@
+package org.opentripplanner.ext.flex.flexpathcalculator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.opentripplanner.street.model._data.StreetModelForTest.V1;
+import static org.opentripplanner.street.model._data.StreetModelForTest.V2;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.opentripplanner.astar.model.ShortestPathTree;
+import org.opentripplanner.framework.i18n.NonLocalizedString;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.TemporaryStreetLocation;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.state.State;
+import org.opentripplanner.street.search.strategy.DominanceFunctions;
+
+class StreetFlexPathCacheTest {
+
+  private static final Duration MAX_DURATION = Duration.ofMinutes(45);
+
+  private final AtomicInteger searches = new AtomicInteger();
+  private final StreetFlexPathCache subject = new StreetFlexPathCache(1_000_000);
+
+  @Test
+  void reuseTreeFromSameVertex() {
+    var tree = get(V1, false);
+    assertSame(tree, get(V1, false));
+    assertEquals(1, searches.get());
+
+    // Another vertex, direction or duration limit is a new search
+    get(V2, false);
+    get(V1, true);
+    subject.get(V1, false, Duration.ofMinutes(10), this::search);
+    assertEquals(4, searches.get());
+  }
+
+  @Test
+  void doNotCacheTreesFromTemporaryVertices() {
+    var origin = new TemporaryStreetLocation(
+      "origin",
+      new Coordinate(0, 0),
+      new NonLocalizedString("origin"),
+      false
+    );
+    get(origin, false);
+    get(origin, false);
+    assertEquals(2, searches.get());
+    assertEquals(0, subject.size());
+  }
+
+  @Test
+  void limitCachedVertices() {
+    var cache = new StreetFlexPathCache(1);
+    cache.get(V1, false, MAX_DURATION, this::search);
+    cache.get(V2, false, MAX_DURATION, this::search);
+    assertEquals(1, cache.size());
+  }
+
+  private ShortestPathTree<State, Edge, Vertex> get(Vertex vertex, boolean reverseDirection) {
+    return subject.get(vertex, reverseDirection, MAX_DURATION, this::search);
+  }
+
+  private ShortestPathTree<State, Edge, Vertex> search() {
+    searches.incrementAndGet();
+    return new ShortestPathTree<>(new DominanceFunctions.EarliestArrival());
+  }
+}
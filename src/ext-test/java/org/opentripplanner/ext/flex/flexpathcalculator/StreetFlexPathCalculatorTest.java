@@ -0,0 +1,70 @@
+package org.opentripplanner.ext.flex.flexpathcalculator;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.opentripplanner.framework.i18n.NonLocalizedString;
+import org.opentripplanner.street.model.edge.TemporaryFreeEdge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.TemporaryStreetLocation;
+import org.opentripplanner.street.model.vertex.TemporaryVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+class StreetFlexPathCalculatorTest {
+
+  private static final Duration MAX_DURATION = Duration.ofMinutes(45);
+
+  private final StreetVertex origin = intersectionVertex("origin", 0, 0);
+  private final StreetVertex destination = intersectionVertex("destination", 0.01, 0);
+  private final StreetFlexPathCache sharedCache = new StreetFlexPathCache(1_000_000);
+
+  @BeforeEach
+  void setUp() {
+    streetEdge(origin, destination);
+  }
+
+  @Test
+  void sameOriginToDifferentTemporaryDestinations() {
+    // The first request caches the tree from the origin, while its temporary vertex is linked
+    var first = temporaryDestination("first");
+    var calculator = new StreetFlexPathCalculator(false, MAX_DURATION, sharedCache);
+    assertNotNull(calculator.calculateFlexPath(origin, destination, 0, 1));
+    assertNotNull(calculator.calculateFlexPath(origin, first, 0, 1));
+    TemporaryVertex.dispose(first);
+
+    // The second request finds its own temporary destination from the same origin
+    var second = temporaryDestination("second");
+    calculator = new StreetFlexPathCalculator(false, MAX_DURATION, sharedCache);
+    assertNotNull(calculator.calculateFlexPath(origin, destination, 0, 1));
+    assertNotNull(calculator.calculateFlexPath(origin, second, 0, 1));
+    TemporaryVertex.dispose(second);
+
+    var sharedTree = sharedCache.get(
+      origin,
+      false,
+      MAX_DURATION,
+      () -> fail("The tree should be cached")
+    );
+    assertTrue(sharedTree.getVertices().contains(destination));
+    assertFalse(sharedTree.getVertices().stream().anyMatch(v -> v instanceof TemporaryVertex));
+  }
+
+  private Vertex temporaryDestination(String name) {
+    var vertex = new TemporaryStreetLocation(
+      name,
+      new Coordinate(0, 0.01),
+      new NonLocalizedString(name),
+      true
+    );
+    TemporaryFreeEdge.createTemporaryFreeEdge(destination, vertex);
+    return vertex;
+  }
+}
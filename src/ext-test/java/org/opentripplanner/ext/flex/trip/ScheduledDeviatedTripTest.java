@@ -141,7 +141,9 @@ public class ScheduledDeviatedTripTest extends FlexTest {
       1,
       1,
       List.of(from),
-      List.of(to)
+      List.of(to),
+      List.of(),
+      new DebugTimingAggregator()
     );
 
     var filter = new DecorateWithFare(graph.getFareService());
@@ -156,6 +158,28 @@ public class ScheduledDeviatedTripTest extends FlexTest {
     OTPFeature.enableFeatures(Map.of(OTPFeature.FlexRouting, false));
   }
 
+  @Test
+  void evaluateTemplatesInParallel() {
+    OTPFeature.enableFeatures(Map.of(OTPFeature.FlexRouting, true));
+    var trip = getFlexTrip();
+    var from = getNearbyStop(trip, "from-stop");
+    var to = getNearbyStop(trip, "to-stop");
+
+    var sequential = createFlexOnlyItineraries(from, to);
+    OTPFeature.enableFeatures(Map.of(OTPFeature.ParallelRouting, true));
+    var parallel = createFlexOnlyItineraries(from, to);
+
+    assertFalse(sequential.isEmpty());
+    assertEquals(
+      sequential.stream().map(Itinerary::getDuration).toList(),
+      parallel.stream().map(Itinerary::getDuration).toList()
+    );
+
+    OTPFeature.enableFeatures(
+      Map.of(OTPFeature.FlexRouting, false, OTPFeature.ParallelRouting, false)
+    );
+  }
+
   /**
    * Trips which consist of flex and fixed-schedule stops should work in transit mode.
    * <p>
@@ -260,6 +284,23 @@ public class ScheduledDeviatedTripTest extends FlexTest {
     return result.getItineraries();
   }
 
+  private static List<Itinerary> createFlexOnlyItineraries(NearbyStop from, NearbyStop to) {
+    var router = new FlexRouter(
+      graph,
+      new DefaultTransitService(transitModel),
+      FlexConfig.DEFAULT,
+      OffsetDateTime.parse("2021-11-12T10:15:24-05:00").toInstant(),
+      false,
+      1,
+      1,
+      List.of(from),
+      List.of(to),
+      List.of(),
+      new DebugTimingAggregator()
+    );
+    return List.copyOf(router.createFlexOnlyItineraries());
+  }
+
   private static NearbyStop getNearbyStop(FlexTrip<?, ?> trip) {
     return getNearbyStop(trip, "nearby-stop");
   }
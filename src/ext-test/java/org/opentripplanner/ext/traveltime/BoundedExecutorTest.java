@@ -0,0 +1,69 @@
+package org.opentripplanner.ext.traveltime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.Test;
+
+class BoundedExecutorTest {
+
+  /** Collect the submitted tasks, run them when the test says so. */
+  private final List<Runnable> pool = new ArrayList<>();
+  private final BoundedExecutor subject = new BoundedExecutor(pool::add, 2);
+
+  @Test
+  void runAtMostMaxTasksAtTheSameTime() {
+    var done = new ArrayList<Integer>();
+    for (int i = 0; i < 5; ++i) {
+      int task = i;
+      subject.execute(() -> done.add(task));
+    }
+    assertEquals(2, pool.size());
+
+    // A finished task submits the next one
+    pool.remove(0).run();
+    assertEquals(2, pool.size());
+
+    while (!pool.isEmpty()) {
+      pool.remove(0).run();
+    }
+    assertEquals(List.of(0, 1, 2, 3, 4), done);
+  }
+
+  @Test
+  void aFailedTaskStartsTheNextTask() {
+    subject.execute(() -> {
+      throw new IllegalStateException();
+    });
+    subject.execute(() -> {});
+    subject.execute(() -> {});
+    assertEquals(2, pool.size());
+
+    assertThrows(IllegalStateException.class, () -> pool.remove(0).run());
+    assertEquals(2, pool.size());
+  }
+
+  @Test
+  void aRejectedTaskIsRunInTheCallingThread() {
+    var rejectAll = new BoundedExecutor(
+      it -> {
+        throw new RejectedExecutionException();
+      },
+      2
+    );
+    var done = new ArrayList<Integer>();
+    for (int i = 0; i < 3; ++i) {
+      int task = i;
+      rejectAll.execute(() -> done.add(task));
+    }
+    assertEquals(List.of(0, 1, 2), done);
+  }
+
+  @Test
+  void maxRunningMustBePositive() {
+    assertThrows(IllegalArgumentException.class, () -> new BoundedExecutor(Runnable::run, 0));
+  }
+}
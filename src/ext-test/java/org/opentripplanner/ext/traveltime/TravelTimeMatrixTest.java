@@ -0,0 +1,88 @@
+package org.opentripplanner.ext.traveltime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.opentripplanner.raptor._data.transit.TestAccessEgress.walk;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor.api.response.StopArrivals;
+
+class TravelTimeMatrixTest {
+
+  private static final int N = TravelTimeMatrix.NOT_REACHED;
+  private static final int DEPARTURE_TIME = 1000;
+  private static final Duration MAX_DURATION = Duration.ofSeconds(600);
+
+  /** Stop 0 and 1 are reached, stop 2 is not. */
+  private final StopArrivals arrivals = arrivals(1300, 1100, N);
+
+  @Test
+  void bestCombinationOfArrivalAndEgress() {
+    var egressByDestination = List.of(
+      // The later arrival has the shorter egress
+      List.of(walk(0, 60), walk(1, 300)),
+      List.of(walk(0, 60), walk(1, 100)),
+      // One egress stop is not reached
+      List.of(walk(2, 10), walk(1, 20))
+    );
+
+    assertArrayEquals(new int[] { 360, 200, 120 }, travelTimes(egressByDestination));
+  }
+
+  @Test
+  void notReached() {
+    var egressByDestination = List.of(
+      // Not linked to the street network, or no stops nearby
+      List.<TestAccessEgress>of(),
+      List.of(walk(2, 10))
+    );
+
+    assertArrayEquals(new int[] { N, N }, travelTimes(egressByDestination));
+  }
+
+  @Test
+  void maxDuration() {
+    var egressByDestination = List.of(
+      // Arrives exactly at the max duration
+      List.of(walk(1, 500)),
+      List.of(walk(1, 501)),
+      List.of(walk(0, 301), walk(1, 502))
+    );
+
+    assertArrayEquals(new int[] { 600, N, N }, travelTimes(egressByDestination));
+  }
+
+  private int[] travelTimes(List<List<TestAccessEgress>> egress) {
+    var result = new int[egress.size()];
+    Arrays.fill(result, N);
+    TravelTimeMatrix.setTravelTimes(result, arrivals, egress, DEPARTURE_TIME, MAX_DURATION);
+    return result;
+  }
+
+  private static StopArrivals arrivals(int... arrivalTimes) {
+    return new StopArrivals() {
+      @Override
+      public boolean reached(int stopIndex) {
+        return arrivalTimes[stopIndex] != N;
+      }
+
+      @Override
+      public int bestArrivalTime(int stopIndex) {
+        return arrivalTimes[stopIndex];
+      }
+
+      @Override
+      public boolean reachedByTransit(int stopIndex) {
+        return reached(stopIndex);
+      }
+
+      @Override
+      public int bestTransitArrivalTime(int stopIndex) {
+        return bestArrivalTime(stopIndex);
+      }
+    };
+  }
+}
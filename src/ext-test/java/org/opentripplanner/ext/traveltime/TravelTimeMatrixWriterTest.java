@@ -0,0 +1,49 @@
+package org.opentripplanner.ext.traveltime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class TravelTimeMatrixWriterTest {
+
+  private static final int N = TravelTimeMatrix.NOT_REACHED;
+
+  private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+  @Test
+  void csv() throws IOException {
+    write("csv");
+
+    assertEquals(
+      "origin,0,1,2\n0,600,,1200\n1,,,30\n",
+      out.toString(StandardCharsets.UTF_8).replace(System.lineSeparator(), "\n")
+    );
+  }
+
+  @Test
+  void binary() throws IOException {
+    write("binary");
+
+    var in = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+    var result = new int[8];
+    for (int i = 0; i < result.length; ++i) {
+      result[i] = in.readInt();
+    }
+    assertArrayEquals(new int[] { 2, 3, 600, N, 1200, N, N, 30 }, result);
+    assertEquals(-1, in.read());
+  }
+
+  private void write(String format) throws IOException {
+    var writer = TravelTimeMatrixWriter.of(format, out);
+    writer.writeHeader(2, 3);
+    writer.writeOrigin(0, new int[] { 600, N, 1200 });
+    writer.writeOrigin(1, new int[] { N, N, 30 });
+    writer.flush();
+  }
+}
@@ -0,0 +1,68 @@
+package org.opentripplanner.ext.traveltime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor.api.response.StopArrivals;
+
+class TravelTimePercentilesTest {
+
+  private static final int N = TravelTimePercentiles.NOT_REACHED;
+
+  @Test
+  void percentiles() {
+    var subject = new TravelTimePercentiles(3, 1000);
+
+    // Stop 0 is always reached, stop 1 only for the earliest departure time, and stop 2 is
+    // reached after the max travel time
+    subject.iterationComplete(300, arrivals(N, N, 2000));
+    subject.iterationComplete(200, arrivals(700, N, 2000));
+    subject.iterationComplete(100, arrivals(400, N, 2000));
+    subject.iterationComplete(0, arrivals(400, 100, 2000));
+
+    assertEquals(4, subject.numberOfDepartureTimes());
+
+    int[][] result = subject.percentiles(List.of(0, 50, 100));
+
+    // The travel times to stop 0 are not reached, 500, 300 and 400
+    assertArrayEquals(new int[] { 300, 100, N }, result[0]);
+    assertArrayEquals(new int[] { 400, N, N }, result[1]);
+    assertArrayEquals(new int[] { N, N, N }, result[2]);
+  }
+
+  @Test
+  void rank() {
+    assertEquals(0, TravelTimePercentiles.rank(0, 60));
+    assertEquals(2, TravelTimePercentiles.rank(5, 60));
+    assertEquals(29, TravelTimePercentiles.rank(50, 60));
+    assertEquals(56, TravelTimePercentiles.rank(95, 60));
+    assertEquals(59, TravelTimePercentiles.rank(100, 60));
+    assertEquals(0, TravelTimePercentiles.rank(50, 1));
+  }
+
+  private static StopArrivals arrivals(int... transitArrivalTimes) {
+    return new StopArrivals() {
+      @Override
+      public boolean reached(int stopIndex) {
+        return reachedByTransit(stopIndex);
+      }
+
+      @Override
+      public int bestArrivalTime(int stopIndex) {
+        return bestTransitArrivalTime(stopIndex);
+      }
+
+      @Override
+      public boolean reachedByTransit(int stopIndex) {
+        return transitArrivalTimes[stopIndex] != N;
+      }
+
+      @Override
+      public int bestTransitArrivalTime(int stopIndex) {
+        return transitArrivalTimes[stopIndex];
+      }
+    };
+  }
+}
@@ -22,6 +22,12 @@ public record GtfsFaresService(DefaultFareService faresV1, GtfsFaresV2Service fa
     }
     return fare;
   }
+
+  @Override
+  public FareService requestScoped() {
+    return new GtfsFaresService(faresV1, faresV2.requestScoped());
+  }
+
   /**
    * Add a complex set of fare products for a specific leg;
    */
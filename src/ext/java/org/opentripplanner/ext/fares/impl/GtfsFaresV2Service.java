@@ -1,19 +1,23 @@
 package org.opentripplanner.ext.fares.impl;
 
-import static java.util.Objects.isNull;
-import static java.util.Objects.nonNull;
-
 import com.google.common.collect.Multimap;
 import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.opentripplanner.ext.fares.model.FareDistance;
 import org.opentripplanner.ext.fares.model.FareLegRule;
 import org.opentripplanner.ext.fares.model.FareTransferRule;
@@ -23,31 +27,69 @@ import org.opentripplanner.model.plan.Itinerary;
 import org.opentripplanner.model.plan.Leg;
 import org.opentripplanner.model.plan.ScheduledTransitLeg;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
-import org.opentripplanner.transit.model.site.StopLocation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Calculates the GTFS Fares V2 products of an itinerary.
+ * <p>
+ * The leg rules are indexed by feed, network and areas when the service is created, so matching a
+ * leg only looks at the few rules which can apply to it instead of all the rules of all feeds.
+ * <p>
+ * The itineraries of one routing request share many legs, and every leg is also matched as the
+ * next leg of the transfer rules. Use {@link #requestScoped()} to get a service which remembers the
+ * products of the legs it has already matched.
+ */
 public final class GtfsFaresV2Service implements Serializable {
 
   private static final Logger LOG = LoggerFactory.getLogger(GtfsFaresV2Service.class);
-  private final List<FareLegRule> legRules;
-  private final List<FareTransferRule> transferRules;
+  private static final List<String> NO_RULE_VALUE = Collections.singletonList(null);
+
   private final Multimap<FeedScopedId, String> stopAreas;
   private final Set<String> networksWithRules;
   private final Set<String> fromAreasWithRules;
   private final Set<String> toAreasWithRules;
+  private final Map<LegRuleKey, List<FareLegRule>> legRulesByKey;
+  private final Map<FeedScopedId, FareLegRule> legRuleByGroupId;
+  private final Map<String, List<FareTransferRule>> transferRulesByFeed;
+
+  /** Only set on the request scoped copies, the shared instance does not remember any legs. */
+  @Nullable
+  private final transient Memo memo;
 
   public GtfsFaresV2Service(
     List<FareLegRule> legRules,
     List<FareTransferRule> fareTransferRules,
     Multimap<FeedScopedId, String> stopAreas
   ) {
-    this.legRules = legRules;
-    this.transferRules = fareTransferRules;
     this.networksWithRules = findNetworksWithRules(legRules);
     this.fromAreasWithRules = findAreasWithRules(legRules, FareLegRule::fromAreaId);
     this.toAreasWithRules = findAreasWithRules(legRules, FareLegRule::toAreaId);
     this.stopAreas = stopAreas;
+    this.legRulesByKey = indexLegRules(legRules);
+    this.legRuleByGroupId = indexLegRulesByGroupId(legRules);
+    this.transferRulesByFeed =
+      fareTransferRules.stream().collect(Collectors.groupingBy(FareTransferRule::feedId));
+    this.memo = null;
+  }
+
+  private GtfsFaresV2Service(GtfsFaresV2Service original, Memo memo) {
+    this.stopAreas = original.stopAreas;
+    this.networksWithRules = original.networksWithRules;
+    this.fromAreasWithRules = original.fromAreasWithRules;
+    this.toAreasWithRules = original.toAreasWithRules;
+    this.legRulesByKey = original.legRulesByKey;
+    this.legRuleByGroupId = original.legRuleByGroupId;
+    this.transferRulesByFeed = original.transferRulesByFeed;
+    this.memo = memo;
+  }
+
+  /**
+   * Return a copy of this service which remembers the matched rules and products of each leg. Use
+   * it for the itineraries of one request only, the memory is never cleared.
+   */
+  public GtfsFaresV2Service requestScoped() {
+    return new GtfsFaresV2Service(this, new Memo());
   }
 
   public ProductResult getProducts(Itinerary itinerary) {
@@ -87,6 +129,30 @@ public final class GtfsFaresV2Service implements Serializable {
       .collect(Collectors.toSet());
   }
 
+  /**
+   * Index the rules by the feed, network and areas they apply to. A rule without a network or area
+   * is indexed with {@code null}, it only applies to legs not covered by any rule with a value.
+   */
+  private static Map<LegRuleKey, List<FareLegRule>> indexLegRules(List<FareLegRule> legRules) {
+    var index = new HashMap<LegRuleKey, List<FareLegRule>>();
+    for (FareLegRule rule : legRules) {
+      index.computeIfAbsent(LegRuleKey.of(rule), k -> new ArrayList<>()).add(rule);
+    }
+    return index;
+  }
+
+  private static Map<FeedScopedId, FareLegRule> indexLegRulesByGroupId(
+    List<FareLegRule> legRules
+  ) {
+    var index = new HashMap<FeedScopedId, FareLegRule>();
+    for (FareLegRule rule : legRules) {
+      if (rule.legGroupId() != null) {
+        index.putIfAbsent(rule.legGroupId(), rule);
+      }
+    }
+    return index;
+  }
+
   private Set<FareProduct> productsCoveringItinerary(
     Itinerary itinerary,
     Collection<LegProducts> legProducts
@@ -124,7 +190,7 @@ public final class GtfsFaresV2Service implements Serializable {
   }
 
   private boolean appliesToAllLegs(FareLegRule legRule, List<ScheduledTransitLeg> transitLegs) {
-    return transitLegs.stream().allMatch(leg -> legMatchesRule(leg, legRule));
+    return transitLegs.stream().allMatch(leg -> findLegRules(leg).contains(legRule));
   }
 
   private boolean coversItineraryWithFreeTransfers(
@@ -146,33 +212,28 @@ public final class GtfsFaresV2Service implements Serializable {
     );
   }
 
-  private boolean legMatchesRule(ScheduledTransitLeg leg, FareLegRule rule) {
-    // make sure that you only get rules for the correct feed
-    return (
-      leg.getAgency().getId().getFeedId().equals(rule.feedId()) &&
-      matchesNetworkId(leg, rule) &&
-      // apply only those fare leg rules which have the correct area ids
-      // if area id is null, the rule applies to all legs UNLESS there is another rule that
-      // covers this area
-      matchesArea(leg.getFrom().stop, rule.fromAreaId(), fromAreasWithRules) &&
-      matchesArea(leg.getTo().stop, rule.toAreaId(), toAreasWithRules) &&
-      matchesDistance(leg, rule)
-    );
-  }
-
   private LegProducts getLegProduct(
     ScheduledTransitLeg leg,
     Optional<ScheduledTransitLeg> nextLeg
   ) {
-    var legRules =
-      this.legRules.stream().filter(r -> legMatchesRule(leg, r)).collect(Collectors.toSet());
+    Set<LegProducts.ProductWithTransfer> products;
+    if (memo == null) {
+      products = findProducts(leg, nextLeg);
+    } else {
+      var key = new LegPairKey(LegKey.of(leg), nextLeg.map(LegKey::of).orElse(null));
+      products = memo.products.computeIfAbsent(key, k -> findProducts(leg, nextLeg));
+    }
+    // The leg products are looked up by leg instance, so they are created for every leg
+    return new LegProducts(leg, nextLeg, products);
+  }
 
-    var transferRulesForLeg = transferRules
-      .stream()
-      .filter(t -> t.feedId().equals(leg.getAgency().getId().getFeedId()))
-      .toList();
+  private Set<LegProducts.ProductWithTransfer> findProducts(
+    ScheduledTransitLeg leg,
+    Optional<ScheduledTransitLeg> nextLeg
+  ) {
+    var transferRulesForLeg = transferRulesByFeed.getOrDefault(feedId(leg), List.of());
 
-    var products = legRules
+    return findLegRules(leg)
       .stream()
       .map(rule -> {
         var transferRulesToNextLeg = transferRulesForLeg
@@ -184,8 +245,68 @@ public final class GtfsFaresV2Service implements Serializable {
         return new LegProducts.ProductWithTransfer(rule, transferRulesToNextLeg);
       })
       .collect(Collectors.toSet());
+  }
 
-    return new LegProducts(leg, nextLeg, products);
+  private Set<FareLegRule> findLegRules(ScheduledTransitLeg leg) {
+    if (memo == null) {
+      return matchLegRules(leg);
+    }
+    return memo.legRules.computeIfAbsent(LegKey.of(leg), k -> matchLegRules(leg));
+  }
+
+  /**
+   * Find the rules for the feed of the leg which match the network and areas of the leg, and then
+   * check the distance of the few candidates.
+   * <p>
+   * If area id is null, the rule applies to all legs UNLESS there is another rule that covers this
+   * area. The same goes for the network id.
+   */
+  private Set<FareLegRule> matchLegRules(ScheduledTransitLeg leg) {
+    var feedId = feedId(leg);
+    var networkIds = valuesWithRules(routeNetworkIds(leg), networksWithRules);
+    var fromAreaIds = valuesWithRules(
+      stopAreas.get(leg.getFrom().stop.getId()),
+      fromAreasWithRules
+    );
+    var toAreaIds = valuesWithRules(stopAreas.get(leg.getTo().stop.getId()), toAreasWithRules);
+
+    var result = new HashSet<FareLegRule>();
+    for (String networkId : networkIds) {
+      for (String fromAreaId : fromAreaIds) {
+        for (String toAreaId : toAreaIds) {
+          var key = new LegRuleKey(feedId, networkId, fromAreaId, toAreaId);
+          for (FareLegRule rule : legRulesByKey.getOrDefault(key, List.of())) {
+            if (matchesDistance(leg, rule)) {
+              result.add(rule);
+            }
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Return the values which have rules, or a single {@code null} to look up the rules without a
+   * value if there are none.
+   */
+  private static List<String> valuesWithRules(Collection<String> values, Set<String> withRules) {
+    var result = values.stream().filter(withRules::contains).distinct().toList();
+    return result.isEmpty() ? NO_RULE_VALUE : result;
+  }
+
+  private static List<String> routeNetworkIds(ScheduledTransitLeg leg) {
+    return leg
+      .getRoute()
+      .getGroupsOfRoutes()
+      .stream()
+      .map(group -> group.getId().getId())
+      .filter(Objects::nonNull)
+      .toList();
+  }
+
+  private static String feedId(ScheduledTransitLeg leg) {
+    return leg.getAgency().getId().getFeedId();
   }
 
   private static boolean checkForWildcards(FareTransferRule t) {
@@ -205,42 +326,13 @@ public final class GtfsFaresV2Service implements Serializable {
     return nextLeg
       .map(nLeg -> {
         var maybeFareRule = getFareLegRuleByGroupId(t.toLegGroup());
-        return maybeFareRule.map(rule -> legMatchesRule(nLeg, rule)).orElse(false);
+        return maybeFareRule.map(rule -> findLegRules(nLeg).contains(rule)).orElse(false);
       })
       .orElse(false);
   }
 
   private Optional<FareLegRule> getFareLegRuleByGroupId(@Nonnull FeedScopedId groupId) {
-    return legRules.stream().filter(lr -> groupId.equals(lr.legGroupId())).findAny();
-  }
-
-  private boolean matchesArea(StopLocation stop, String areaId, Set<String> areasWithRules) {
-    var stopAreas = this.stopAreas.get(stop.getId());
-    return (
-      (isNull(areaId) && stopAreas.stream().noneMatch(areasWithRules::contains)) ||
-      (nonNull(areaId) && stopAreas.contains(areaId))
-    );
-  }
-
-  /**
-   * Get the fare products that match the network_id. If the network id of the product is null it
-   * depends on the presence/absence of other rules with that network id.
-   */
-  private boolean matchesNetworkId(ScheduledTransitLeg leg, FareLegRule rule) {
-    var routesNetworkIds = leg
-      .getRoute()
-      .getGroupsOfRoutes()
-      .stream()
-      .map(group -> group.getId().getId())
-      .filter(Objects::nonNull)
-      .toList();
-
-    return (
-      (
-        isNull(rule.networkId()) && networksWithRules.stream().noneMatch(routesNetworkIds::contains)
-      ) ||
-      routesNetworkIds.contains(rule.networkId())
-    );
+    return Optional.ofNullable(legRuleByGroupId.get(groupId));
   }
 
   private boolean matchesDistance(ScheduledTransitLeg leg, FareLegRule rule) {
@@ -275,4 +367,55 @@ public final class GtfsFaresV2Service implements Serializable {
         .orElse(Set.of());
     }
   }
+
+  /**
+   * The feed, network and areas a leg rule applies to, {@code null} means any network or area not
+   * covered by other rules.
+   */
+  private record LegRuleKey(
+    String feedId,
+    @Nullable String networkId,
+    @Nullable String fromAreaId,
+    @Nullable String toAreaId
+  )
+    implements Serializable {
+    static LegRuleKey of(FareLegRule rule) {
+      return new LegRuleKey(rule.feedId(), rule.networkId(), rule.fromAreaId(), rule.toAreaId());
+    }
+  }
+
+  /**
+   * Legs do not implement equals, so the memo uses the trip, service date, stops and stop
+   * positions of the leg. The rules do not depend on the time of the leg, so this is the same leg
+   * for the fare calculation. The stops are part of the key since a real-time update may change
+   * the pattern.
+   */
+  private record LegKey(
+    FeedScopedId tripId,
+    LocalDate serviceDate,
+    FeedScopedId fromStopId,
+    FeedScopedId toStopId,
+    int boardStopPosInPattern,
+    int alightStopPosInPattern
+  ) {
+    static LegKey of(ScheduledTransitLeg leg) {
+      return new LegKey(
+        leg.getTrip().getId(),
+        leg.getServiceDate(),
+        leg.getFrom().stop.getId(),
+        leg.getTo().stop.getId(),
+        leg.getBoardStopPosInPattern(),
+        leg.getAlightStopPosInPattern()
+      );
+    }
+  }
+
+  private record LegPairKey(LegKey leg, @Nullable LegKey nextLeg) {}
+
+  private static final class Memo {
+
+    private final Map<LegKey, Set<FareLegRule>> legRules = new ConcurrentHashMap<>();
+    private final Map<LegPairKey, Set<LegProducts.ProductWithTransfer>> products =
+      new ConcurrentHashMap<>();
+  }
 }
@@ -6,6 +6,8 @@ import com.google.common.collect.Multimap;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import javax.annotation.Nullable;
+import org.opentripplanner.ext.flex.flexpathcalculator.StreetFlexPathCache;
 import org.opentripplanner.ext.flex.trip.FlexTrip;
 import org.opentripplanner.model.PathTransfer;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
@@ -24,6 +26,9 @@ public class FlexIndex {
 
   private final Map<FeedScopedId, FlexTrip<?, ?>> tripById = new HashMap<>();
 
+  /** Created on first use, see {@link #getStreetFlexPathCache(int)}. */
+  private volatile StreetFlexPathCache streetFlexPathCache;
+
   public FlexIndex(TransitModel transitModel) {
     for (PathTransfer transfer : transitModel.getAllPathTransfers()) {
       transfersToStop.put(transfer.to, transfer);
@@ -66,4 +71,28 @@ public class FlexIndex {
   public Collection<FlexTrip<?, ?>> getAllFlexTrips() {
     return tripById.values();
   }
+
+  /**
+   * The car shortest path trees of the flex searches, shared between requests. The cache is
+   * created with the given size the first time this method is called.
+   *
+   * @return {@code null} if the size is zero, the trees are then not shared
+   */
+  @Nullable
+  public StreetFlexPathCache getStreetFlexPathCache(int maxCachedVertices) {
+    if (maxCachedVertices <= 0) {
+      return null;
+    }
+    var result = streetFlexPathCache;
+    if (result == null) {
+      synchronized (this) {
+        result = streetFlexPathCache;
+        if (result == null) {
+          result = new StreetFlexPathCache(maxCachedVertices);
+          streetFlexPathCache = result;
+        }
+      }
+    }
+    return result;
+  }
 }
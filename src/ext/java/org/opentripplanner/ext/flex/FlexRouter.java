@@ -2,16 +2,19 @@ package org.opentripplanner.ext.flex;
 
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
+import io.micrometer.core.instrument.Timer;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.opentripplanner.ext.flex.flexpathcalculator.DirectFlexPathCalculator;
@@ -20,13 +23,16 @@ import org.opentripplanner.ext.flex.flexpathcalculator.StreetFlexPathCalculator;
 import org.opentripplanner.ext.flex.template.FlexAccessTemplate;
 import org.opentripplanner.ext.flex.template.FlexEgressTemplate;
 import org.opentripplanner.ext.flex.trip.FlexTrip;
+import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.application.OTPRequestTimeoutException;
 import org.opentripplanner.framework.time.ServiceDateUtils;
 import org.opentripplanner.model.plan.Itinerary;
 import org.opentripplanner.routing.algorithm.mapping.GraphPathToItineraryMapper;
+import org.opentripplanner.routing.framework.DebugTimingAggregator;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.graphfinder.NearbyStop;
 import org.opentripplanner.standalone.config.sandbox.FlexConfig;
+import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.transit.model.site.StopLocation;
 import org.opentripplanner.transit.service.TransitService;
 
@@ -43,6 +49,7 @@ public class FlexRouter {
   private final FlexPathCalculator accessFlexPathCalculator;
   private final FlexPathCalculator egressFlexPathCalculator;
   private final GraphPathToItineraryMapper graphPathToItineraryMapper;
+  private final DebugTimingAggregator debugTimingAggregator;
 
   /* Request data */
   private final ZonedDateTime startOfTime;
@@ -64,7 +71,9 @@ public class FlexRouter {
     int additionalPastSearchDays,
     int additionalFutureSearchDays,
     Collection<NearbyStop> streetAccesses,
-    Collection<NearbyStop> egressTransfers
+    Collection<NearbyStop> egressTransfers,
+    Collection<Vertex> temporaryVertices,
+    DebugTimingAggregator debugTimingAggregator
   ) {
     this.graph = graph;
     this.transitService = transitService;
@@ -72,6 +81,7 @@ public class FlexRouter {
     this.streetAccesses = streetAccesses;
     this.streetEgresses = egressTransfers;
     this.flexIndex = transitService.getFlexIndex();
+    this.debugTimingAggregator = debugTimingAggregator;
     this.graphPathToItineraryMapper =
       new GraphPathToItineraryMapper(
         transitService.getTimeZone(),
@@ -80,10 +90,21 @@ public class FlexRouter {
       );
 
     if (graph.hasStreets) {
+      var sharedCache = flexIndex.getStreetFlexPathCache(config.streetPathCacheSize());
       this.accessFlexPathCalculator =
-        new StreetFlexPathCalculator(false, config.maxFlexTripDuration());
+        new StreetFlexPathCalculator(
+          false,
+          config.maxFlexTripDuration(),
+          sharedCache,
+          temporaryVertices
+        );
       this.egressFlexPathCalculator =
-        new StreetFlexPathCalculator(true, config.maxFlexTripDuration());
+        new StreetFlexPathCalculator(
+          true,
+          config.maxFlexTripDuration(),
+          sharedCache,
+          temporaryVertices
+        );
     } else {
       // this is only really useful in tests. in real world scenarios you're unlikely to get useful
       // results if you don't have streets
@@ -121,54 +142,59 @@ public class FlexRouter {
     Multimap<StopLocation, NearbyStop> streetEgressByStop = HashMultimap.create();
     streetEgresses.forEach(it -> streetEgressByStop.put(it.stop, it));
 
-    Collection<Itinerary> itineraries = new ArrayList<>();
-
-    for (FlexAccessTemplate template : this.flexAccessTemplates) {
-      StopLocation transferStop = template.getTransferStop();
-      if (
-        this.flexEgressTemplates.stream()
-          .anyMatch(t -> t.getAccessEgressStop().equals(transferStop))
-      ) {
-        for (NearbyStop egress : streetEgressByStop.get(transferStop)) {
-          Itinerary itinerary = template.createDirectGraphPath(
-            egress,
-            arriveBy,
-            departureTime,
-            startOfTime,
-            graphPathToItineraryMapper
-          );
-          if (itinerary != null) {
-            itineraries.add(itinerary);
-          }
+    Set<StopLocation> egressTemplateStops = this.flexEgressTemplates.stream()
+      .map(FlexEgressTemplate::getAccessEgressStop)
+      .collect(Collectors.toSet());
+
+    return evaluateTemplates(
+      this.flexAccessTemplates,
+      template -> {
+        StopLocation transferStop = template.getTransferStop();
+        if (!egressTemplateStops.contains(transferStop)) {
+          return Stream.empty();
         }
+        return streetEgressByStop
+          .get(transferStop)
+          .stream()
+          .map(egress ->
+            template.createDirectGraphPath(
+              egress,
+              arriveBy,
+              departureTime,
+              startOfTime,
+              graphPathToItineraryMapper
+            )
+          )
+          .filter(Objects::nonNull);
       }
-    }
-
-    return itineraries;
+    );
   }
 
   public Collection<FlexAccessEgress> createFlexAccesses() {
     OTPRequestTimeoutException.checkForTimeout();
     calculateFlexAccessTemplates();
 
-    return this.flexAccessTemplates.stream()
-      .flatMap(template -> template.createFlexAccessEgressStream(graph, transitService))
-      .toList();
+    return evaluateTemplates(
+      this.flexAccessTemplates,
+      template -> template.createFlexAccessEgressStream(graph, transitService)
+    );
   }
 
   public Collection<FlexAccessEgress> createFlexEgresses() {
     OTPRequestTimeoutException.checkForTimeout();
     calculateFlexEgressTemplates();
 
-    return this.flexEgressTemplates.stream()
-      .flatMap(template -> template.createFlexAccessEgressStream(graph, transitService))
-      .toList();
+    return evaluateTemplates(
+      this.flexEgressTemplates,
+      template -> template.createFlexAccessEgressStream(graph, transitService)
+    );
   }
 
   private void calculateFlexAccessTemplates() {
     if (this.flexAccessTemplates != null) {
       return;
     }
+    Timer.Sample started = debugTimingAggregator.startedFlexPhase();
 
     // Fetch the closest flexTrips reachable from the access stops
     this.flexAccessTemplates =
@@ -187,12 +213,15 @@ public class FlexRouter {
             )
         )
         .toList();
+
+    debugTimingAggregator.finishedFlexTemplates(started);
   }
 
   private void calculateFlexEgressTemplates() {
     if (this.flexEgressTemplates != null) {
       return;
     }
+    Timer.Sample started = debugTimingAggregator.startedFlexPhase();
 
     // Fetch the closest flexTrips reachable from the egress stops
     this.flexEgressTemplates =
@@ -211,6 +240,44 @@ public class FlexRouter {
             )
         )
         .toList();
+
+    debugTimingAggregator.finishedFlexTemplates(started);
+  }
+
+  /**
+   * Evaluate the templates, this is where the flex paths are calculated. With the
+   * {@link OTPFeature#ParallelRouting} feature the templates are evaluated in parallel in the
+   * common fork-join pool. The result is in the order of the templates either way.
+   * <p>
+   * The common pool is used in the same way as for the other parts of the routing running in
+   * parallel, see {@code RoutingWorker}, a dedicated executor is not needed:
+   * <ul>
+   *   <li>
+   *     The tasks are short and CPU-bound, they do not block on I/O. The only waiting is for a
+   *     street tree being computed by another template, see {@link StreetFlexPathCalculator}, and
+   *     that template is running, so the wait always ends.
+   *   </li>
+   *   <li>
+   *     The calling thread takes part in the evaluation of the parallel stream, so the templates
+   *     are evaluated even if all the threads of the pool are busy with other requests.
+   *   </li>
+   *   <li>
+   *     The pool has one thread for each processor, so the flex evaluation can not start more
+   *     threads than the server can run. Raptor uses its own thread pool and is not slowed down by
+   *     a full common pool.
+   *   </li>
+   * </ul>
+   */
+  private <T, R> List<R> evaluateTemplates(List<T> templates, Function<T, Stream<R>> evaluate) {
+    Timer.Sample started = debugTimingAggregator.startedFlexPhase();
+    try {
+      var stream = OTPFeature.ParallelRouting.isOn()
+        ? templates.parallelStream()
+        : templates.stream();
+      return stream.flatMap(evaluate).toList();
+    } finally {
+      debugTimingAggregator.finishedFlexPaths(started);
+    }
   }
 
   private Stream<AccessEgressAndNearbyStop> getClosestFlexTrips(
@@ -0,0 +1,69 @@
+package org.opentripplanner.ext.flex.flexpathcalculator;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.Duration;
+import java.util.function.Supplier;
+import org.opentripplanner.astar.model.ShortestPathTree;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.TemporaryVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.state.State;
+
+/**
+ * Share the car shortest path trees of the {@link StreetFlexPathCalculator} between requests. The
+ * flex searches do not depend on the request, they always use the default car preferences and the
+ * configured max flex trip duration. So the tree from a flex stop vertex found by one request is
+ * the same for all later requests, and is reused instead of running a new search.
+ * <p>
+ * The trees are cached by the origin vertex of the one-to-many search, the search direction and
+ * the duration limit. Trees from the temporary vertices of a request are not cached, and the
+ * cached trees must be built without the temporary edges of the request, since they are removed
+ * when the request is done.
+ * <p>
+ * The size of the cache is limited by the total number of vertices in the cached trees, see
+ * {@link org.opentripplanner.standalone.config.sandbox.FlexConfig#streetPathCacheSize()}. The
+ * least recently used trees are evicted first.
+ */
+public class StreetFlexPathCache {
+
+  private final Cache<CacheKey, ShortestPathTree<State, Edge, Vertex>> cache;
+
+  public StreetFlexPathCache(long maxCachedVertices) {
+    this.cache =
+      CacheBuilder
+        .newBuilder()
+        .maximumWeight(maxCachedVertices)
+        .<CacheKey, ShortestPathTree<State, Edge, Vertex>>weigher((key, tree) ->
+          Math.max(1, tree.getVertexCount())
+        )
+        .build();
+  }
+
+  /**
+   * Return the cached tree, or run the search and cache the result. The search runs once, if two
+   * requests need the same tree at the same time the second waits for the first.
+   */
+  ShortestPathTree<State, Edge, Vertex> get(
+    Vertex originVertex,
+    boolean reverseDirection,
+    Duration maxFlexTripDuration,
+    Supplier<ShortestPathTree<State, Edge, Vertex>> search
+  ) {
+    if (originVertex instanceof TemporaryVertex) {
+      return search.get();
+    }
+    var key = new CacheKey(originVertex, reverseDirection, maxFlexTripDuration);
+    return cache.asMap().computeIfAbsent(key, k -> search.get());
+  }
+
+  long size() {
+    return cache.size();
+  }
+
+  private record CacheKey(
+    Vertex originVertex,
+    boolean reverseDirection,
+    Duration maxFlexTripDuration
+  ) {}
+}
@@ -1,16 +1,22 @@
 package org.opentripplanner.ext.flex.flexpathcalculator;
 
 import java.time.Duration;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
 import org.opentripplanner.astar.model.GraphPath;
 import org.opentripplanner.astar.model.ShortestPathTree;
+import org.opentripplanner.astar.spi.SkipEdgeStrategy;
 import org.opentripplanner.astar.strategy.DurationSkipEdgeStrategy;
 import org.opentripplanner.framework.geometry.GeometryUtils;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.StreetMode;
 import org.opentripplanner.routing.api.request.request.StreetRequest;
 import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.TemporaryEdge;
+import org.opentripplanner.street.model.vertex.TemporaryVertex;
 import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.street.search.StreetSearchBuilder;
 import org.opentripplanner.street.search.state.State;
@@ -29,16 +35,62 @@ import org.opentripplanner.street.search.strategy.DominanceFunctions;
  * configured so that the caching is done with either the origin or destination vertex as the key.
  * The one-to-many search will then either be done in the forward or the reverse direction depending
  * on this configuration.
+ * <p>
+ * The trees do not depend on the request, so they may also be shared between requests with a
+ * {@link StreetFlexPathCache}. The shared trees are built without the temporary edges of the
+ * request, and are not used if the origin or destination is a temporary vertex. Those paths are
+ * found in a tree only cached in this instance.
+ * <p>
+ * The calculator is thread-safe, the flex templates of a request may be evaluated in parallel.
+ * Each tree is computed once, a template needing a tree which is being computed waits for it.
  */
 public class StreetFlexPathCalculator implements FlexPathCalculator {
 
-  private final Map<Vertex, ShortestPathTree<State, Edge, Vertex>> cache = new HashMap<>();
+  private final Map<Vertex, ShortestPathTree<State, Edge, Vertex>> cache =
+    new ConcurrentHashMap<>();
+  private final Map<Vertex, ShortestPathTree<State, Edge, Vertex>> sharedTrees =
+    new ConcurrentHashMap<>();
   private final boolean reverseDirection;
   private final Duration maxFlexTripDuration;
 
+  @Nullable
+  private final StreetFlexPathCache sharedCache;
+
+  private final Collection<Vertex> temporaryVertices;
+
   public StreetFlexPathCalculator(boolean reverseDirection, Duration maxFlexTripDuration) {
+    this(reverseDirection, maxFlexTripDuration, null);
+  }
+
+  /**
+   * @param sharedCache the trees shared between requests, if null the trees are only cached in
+   *                    this instance
+   */
+  public StreetFlexPathCalculator(
+    boolean reverseDirection,
+    Duration maxFlexTripDuration,
+    @Nullable StreetFlexPathCache sharedCache
+  ) {
+    this(reverseDirection, maxFlexTripDuration, sharedCache, List.of());
+  }
+
+  /**
+   * @param sharedCache the trees shared between requests, if null the trees are only cached in
+   *                    this instance
+   * @param temporaryVertices the temporary vertices of the request, the searches which are not
+   *                          shared reach the temporary vertices connected to these, see
+   *                          {@link StreetSearchBuilder#setTemporaryVertices(Collection)}
+   */
+  public StreetFlexPathCalculator(
+    boolean reverseDirection,
+    Duration maxFlexTripDuration,
+    @Nullable StreetFlexPathCache sharedCache,
+    Collection<Vertex> temporaryVertices
+  ) {
     this.reverseDirection = reverseDirection;
     this.maxFlexTripDuration = maxFlexTripDuration;
+    this.sharedCache = sharedCache;
+    this.temporaryVertices = temporaryVertices;
   }
 
   @Override
@@ -48,12 +100,21 @@ public class StreetFlexPathCalculator implements FlexPathCalculator {
     Vertex originVertex = reverseDirection ? tov : fromv;
     Vertex destinationVertex = reverseDirection ? fromv : tov;
 
+    boolean temporary =
+      originVertex instanceof TemporaryVertex || destinationVertex instanceof TemporaryVertex;
+
+    // The templates sharing an origin may be evaluated at the same time, compute the tree once
+    // and let the others wait for it
     ShortestPathTree<State, Edge, Vertex> shortestPathTree;
-    if (cache.containsKey(originVertex)) {
-      shortestPathTree = cache.get(originVertex);
+    if (sharedCache == null || temporary) {
+      shortestPathTree = cache.computeIfAbsent(originVertex, v -> routeToMany(v, false));
     } else {
-      shortestPathTree = routeToMany(originVertex);
-      cache.put(originVertex, shortestPathTree);
+      shortestPathTree =
+        sharedTrees.computeIfAbsent(
+          originVertex,
+          v ->
+            sharedCache.get(v, reverseDirection, maxFlexTripDuration, () -> routeToMany(v, true))
+        );
     }
 
     GraphPath<State, Edge, Vertex> path = shortestPathTree.getPath(destinationVertex);
@@ -74,18 +135,43 @@ public class StreetFlexPathCalculator implements FlexPathCalculator {
     );
   }
 
-  private ShortestPathTree<State, Edge, Vertex> routeToMany(Vertex vertex) {
+  /**
+   * @param skipTemporaryEdges do not traverse the temporary edges of the requests, so that the tree
+   *                           can be shared with other requests
+   */
+  private ShortestPathTree<State, Edge, Vertex> routeToMany(
+    Vertex vertex,
+    boolean skipTemporaryEdges
+  ) {
     RouteRequest routingRequest = new RouteRequest();
     routingRequest.setArriveBy(reverseDirection);
 
+    SkipEdgeStrategy<State, Edge> skipEdgeStrategy = new DurationSkipEdgeStrategy<>(
+      maxFlexTripDuration
+    );
+    if (skipTemporaryEdges) {
+      var durationStrategy = skipEdgeStrategy;
+      skipEdgeStrategy =
+        (current, edge) -> isTemporary(edge) || durationStrategy.shouldSkipEdge(current, edge);
+    }
+
     return StreetSearchBuilder
       .of()
-      .setSkipEdgeStrategy(new DurationSkipEdgeStrategy<>(maxFlexTripDuration))
+      .setSkipEdgeStrategy(skipEdgeStrategy)
       .setDominanceFunction(new DominanceFunctions.EarliestArrival())
       .setRequest(routingRequest)
       .setStreetRequest(new StreetRequest(StreetMode.CAR))
       .setFrom(reverseDirection ? null : vertex)
       .setTo(reverseDirection ? vertex : null)
+      .setTemporaryVertices(skipTemporaryEdges ? List.of() : temporaryVertices)
       .getShortestPathTree();
   }
+
+  private static boolean isTemporary(Edge edge) {
+    return (
+      edge instanceof TemporaryEdge ||
+      edge.getFromVertex() instanceof TemporaryVertex ||
+      edge.getToVertex() instanceof TemporaryVertex
+    );
+  }
 }
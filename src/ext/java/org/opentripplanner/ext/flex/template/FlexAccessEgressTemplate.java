@@ -3,8 +3,11 @@ package org.opentripplanner.ext.flex.template;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Stream;
 import javax.annotation.Nullable;
 import org.opentripplanner.ext.flex.FlexAccessEgress;
@@ -99,7 +102,13 @@ public abstract class FlexAccessEgressTemplate {
     if (transferStop instanceof RegularStop stop) {
       TransitStopVertex flexVertex = graph.getStopVertexForStopId(stop.getId());
       return Stream
-        .of(getFlexAccessEgress(new ArrayList<>(), flexVertex, (RegularStop) transferStop))
+        .of(
+          getFlexAccessEgress(
+            new ArrayList<>(),
+            getFlexEdge(flexVertex, transferStop),
+            (RegularStop) transferStop
+          )
+        )
         .filter(Objects::nonNull);
     }
     // transferStop is Location Area/Line
@@ -108,6 +117,11 @@ public abstract class FlexAccessEgressTemplate {
         flexConfig.maxTransferDuration().getSeconds() *
         accessEgress.state.getRequest().preferences().walk().speed();
 
+      // Many transfers start at the same vertex of the area, so the flex path to each vertex is
+      // only calculated once. The transfers from a vertex the flex trip can not reach are dropped
+      // before they are traversed.
+      Map<Vertex, Optional<FlexTripEdge>> flexEdgeByVertex = new HashMap<>();
+
       return getTransfersFromTransferStop(transitService)
         .stream()
         .filter(pathTransfer -> pathTransfer.getDistanceMeters() <= maxDistanceMeters)
@@ -115,8 +129,15 @@ public abstract class FlexAccessEgressTemplate {
         .map(transfer -> {
           List<Edge> edges = getTransferEdges(transfer);
           Vertex flexVertex = getFlexVertex(edges.get(0));
+          var flexEdge = flexEdgeByVertex.computeIfAbsent(
+            flexVertex,
+            v -> Optional.ofNullable(getFlexEdge(v, transferStop))
+          );
+          if (flexEdge.isEmpty()) {
+            return null;
+          }
           RegularStop finalStop = getFinalStop(transfer);
-          return getFlexAccessEgress(edges, flexVertex, finalStop);
+          return getFlexAccessEgress(edges, flexEdge.get(), finalStop);
         })
         .filter(Objects::nonNull);
     }
@@ -179,11 +200,9 @@ public abstract class FlexAccessEgressTemplate {
   @Nullable
   protected FlexAccessEgress getFlexAccessEgress(
     List<Edge> transferEdges,
-    Vertex flexVertex,
+    @Nullable FlexTripEdge flexEdge,
     RegularStop stop
   ) {
-    var flexEdge = getFlexEdge(flexVertex, transferStop);
-
     // Drop none routable and  very short(<10s) trips
     if (flexEdge == null || flexEdge.getTimeInSeconds() < MIN_FLEX_TRIP_DURATION_SECONDS) {
       return null;
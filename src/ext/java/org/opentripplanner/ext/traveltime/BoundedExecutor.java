@@ -0,0 +1,92 @@
+package org.opentripplanner.ext.traveltime;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Run tasks in a shared executor, but never more than a given number at the same time. The other
+ * tasks wait in a queue owned by this class, not in the queue of the shared executor. This keeps
+ * one large request from filling the queue of a shared thread pool ahead of the tasks of other
+ * requests.
+ * <p>
+ * A task which throws an exception does not stop the next tasks from running. A task rejected
+ * by the shared executor is run in the calling thread.
+ */
+class BoundedExecutor implements Executor {
+
+  private final Executor delegate;
+  private final int maxRunning;
+  private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+  private int running = 0;
+
+  BoundedExecutor(Executor delegate, int maxRunning) {
+    if (maxRunning < 1) {
+      throw new IllegalArgumentException("maxRunning must be at least 1: " + maxRunning);
+    }
+    this.delegate = delegate;
+    this.maxRunning = maxRunning;
+  }
+
+  @Override
+  public void execute(Runnable task) {
+    queue.add(task);
+    startNext();
+  }
+
+  /**
+   * Start queued tasks until {@code maxRunning} tasks are running or the queue is empty. If the
+   * shared executor rejects a task, because it is shut down or full, the task is run in the
+   * calling thread. The task is never dropped, the caller may be waiting for its result.
+   */
+  private void startNext() {
+    RuntimeException failure = null;
+    Runnable next;
+    while ((next = pollNext()) != null) {
+      Runnable task = next;
+      try {
+        delegate.execute(() -> {
+          try {
+            task.run();
+          } finally {
+            taskDone();
+            startNext();
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        // Run the task here, and keep going with the rest of the queue even if it fails
+        try {
+          task.run();
+        } catch (RuntimeException taskFailure) {
+          if (failure == null) {
+            failure = taskFailure;
+          } else {
+            failure.addSuppressed(taskFailure);
+          }
+        } finally {
+          taskDone();
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /** Take the next task from the queue, or return null if it is empty or too many are running. */
+  private synchronized Runnable pollNext() {
+    if (running >= maxRunning) {
+      return null;
+    }
+    Runnable next = queue.poll();
+    if (next != null) {
+      ++running;
+    }
+    return next;
+  }
+
+  private synchronized void taskDone() {
+    --running;
+  }
+}
@@ -20,7 +20,8 @@ import org.slf4j.LoggerFactory;
 public class IsochroneRenderer {
 
   private static final Logger LOG = LoggerFactory.getLogger(IsochroneRenderer.class);
-  private static final SimpleFeatureType contourSchema = makeContourSchema();
+  private static final SimpleFeatureType contourSchema = makeContourSchema(false);
+  private static final SimpleFeatureType percentileContourSchema = makeContourSchema(true);
 
   static List<IsochroneData> renderIsochrones(
     ZSampleGrid<WTWD> sampleGrid,
@@ -71,7 +72,33 @@ public class IsochroneRenderer {
     return featureCollection;
   }
 
-  private static SimpleFeatureType makeContourSchema() {
+  /**
+   * Create a feature collection with the isochrones of each travel time percentile. The
+   * percentile is added as an attribute of each feature.
+   *
+   * @param isochrones the isochrones for each of the percentiles, in the same order
+   */
+  static SimpleFeatureCollection makePercentileContourFeatures(
+    List<Integer> percentiles,
+    List<List<IsochroneData>> isochrones
+  ) {
+    DefaultFeatureCollection featureCollection = new DefaultFeatureCollection(
+      null,
+      percentileContourSchema
+    );
+    SimpleFeatureBuilder fbuilder = new SimpleFeatureBuilder(percentileContourSchema);
+    for (int i = 0; i < percentiles.size(); i++) {
+      for (IsochroneData isochrone : isochrones.get(i)) {
+        fbuilder.add(isochrone.geometry());
+        fbuilder.add(isochrone.cutoffSec());
+        fbuilder.add(percentiles.get(i));
+        featureCollection.add(fbuilder.buildFeature(null));
+      }
+    }
+    return featureCollection;
+  }
+
+  private static SimpleFeatureType makeContourSchema(boolean withPercentile) {
     /* Create the output feature schema. */
     SimpleFeatureTypeBuilder typeBuilder = new SimpleFeatureTypeBuilder();
     typeBuilder.setName("contours");
@@ -80,6 +107,9 @@ public class IsochroneRenderer {
     // Do not use "geom" or "geometry" below, it seems to broke shapefile generation
     typeBuilder.add("the_geom", MultiPolygon.class);
     typeBuilder.add("time", Long.class);
+    if (withPercentile) {
+      typeBuilder.add("percentile", Integer.class);
+    }
     return typeBuilder.buildFeatureType();
   }
 }
@@ -4,6 +4,7 @@ import static javax.imageio.ImageWriteParam.MODE_EXPLICIT;
 
 import jakarta.ws.rs.core.StreamingOutput;
 import java.awt.image.DataBuffer;
+import java.util.List;
 import javax.media.jai.RasterFactory;
 import org.geotools.api.parameter.GeneralParameterValue;
 import org.geotools.api.parameter.ParameterValueGroup;
@@ -24,29 +25,49 @@ import org.opentripplanner.ext.traveltime.geometry.ZSampleGrid;
 public class RasterRenderer {
 
   static StreamingOutput createGeoTiffRaster(ZSampleGrid<WTWD> sampleGrid) {
-    int minX = sampleGrid.getXMin();
-    int minY = sampleGrid.getYMin();
-    int maxY = sampleGrid.getYMax();
+    return createGeoTiffRaster(List.of(sampleGrid));
+  }
+
+  /**
+   * Create a raster with one band for each sample grid. The grids must have the same center and
+   * cell size, the raster covers the union of the grids.
+   */
+  static StreamingOutput createGeoTiffRaster(List<ZSampleGrid<WTWD>> sampleGrids) {
+    var first = sampleGrids.get(0);
+    int minX = sampleGrids.stream().mapToInt(ZSampleGrid::getXMin).min().orElseThrow();
+    int maxX = sampleGrids.stream().mapToInt(ZSampleGrid::getXMax).max().orElseThrow();
+    int minY = sampleGrids.stream().mapToInt(ZSampleGrid::getYMin).min().orElseThrow();
+    int maxY = sampleGrids.stream().mapToInt(ZSampleGrid::getYMax).max().orElseThrow();
 
-    int width = sampleGrid.getXMax() - minX + 1;
+    int width = maxX - minX + 1;
     int height = maxY - minY + 1;
 
-    Coordinate center = sampleGrid.getCenter();
+    Coordinate center = first.getCenter();
 
-    double resX = sampleGrid.getCellSize().x;
-    double resY = sampleGrid.getCellSize().y;
+    double resX = first.getCellSize().x;
+    double resY = first.getCellSize().y;
 
-    var raster = RasterFactory.createBandedRaster(DataBuffer.TYPE_INT, width, height, 1, null);
+    var raster = RasterFactory.createBandedRaster(
+      DataBuffer.TYPE_INT,
+      width,
+      height,
+      sampleGrids.size(),
+      null
+    );
     var dataBuffer = raster.getDataBuffer();
 
     // Initialize with NO DATA value
-    for (int i = 0; i < dataBuffer.getSize(); i++) {
-      dataBuffer.setElem(i, Integer.MIN_VALUE);
+    for (int bank = 0; bank < dataBuffer.getNumBanks(); bank++) {
+      for (int i = 0; i < dataBuffer.getSize(); i++) {
+        dataBuffer.setElem(bank, i, Integer.MIN_VALUE);
+      }
     }
 
-    for (var s : sampleGrid) {
-      final WTWD z = s.getZ();
-      raster.setSample(s.getX() - minX, maxY - s.getY(), 0, z.wTime / z.w);
+    for (int band = 0; band < sampleGrids.size(); band++) {
+      for (var s : sampleGrids.get(band)) {
+        final WTWD z = s.getZ();
+        raster.setSample(s.getX() - minX, maxY - s.getY(), band, z.wTime / z.w);
+      }
     }
 
     ReferencedEnvelope geom = new GridGeometry2D(
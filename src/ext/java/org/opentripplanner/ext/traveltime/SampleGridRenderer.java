@@ -22,13 +22,25 @@ public class SampleGridRenderer {
   public static ZSampleGrid<WTWD> getSampleGrid(
     ShortestPathTree<State, Edge, Vertex> spt,
     TravelTimeRequest traveltimeRequest
+  ) {
+    Coordinate coordinateOrigin = spt.getAllStates().iterator().next().getVertex().getCoordinate();
+    return getSampleGrid(spt, traveltimeRequest, coordinateOrigin);
+  }
+
+  /**
+   * Create a sample grid centered at the given origin. Grids with the same origin share the same
+   * cells, so they can be combined into one raster.
+   */
+  public static ZSampleGrid<WTWD> getSampleGrid(
+    ShortestPathTree<State, Edge, Vertex> spt,
+    TravelTimeRequest traveltimeRequest,
+    Coordinate coordinateOrigin
   ) {
     final double offRoadDistanceMeters = traveltimeRequest.offRoadDistanceMeters;
     final double offRoadWalkSpeedMps = 1.00; // m/s, off-road walk speed
 
     // Create a sample grid based on the SPT.
     long t1 = System.currentTimeMillis();
-    Coordinate coordinateOrigin = spt.getAllStates().iterator().next().getVertex().getCoordinate();
     final double gridSizeMeters = traveltimeRequest.precisionMeters;
     final double cosLat = Math.cos(Math.toRadians(coordinateOrigin.y));
     double dY = Math.toDegrees(gridSizeMeters / SphericalDistanceLibrary.RADIUS_OF_EARTH_IN_M);
@@ -0,0 +1,303 @@
+package org.opentripplanner.ext.traveltime;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+import org.opentripplanner.framework.time.ServiceDateUtils;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
+import org.opentripplanner.raptor.api.model.SearchDirection;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.api.response.StopArrivals;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressRouter;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.DefaultAccessEgress;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.AccessEgressMapper;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRoutingRequestTransitData;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RouteRequestTransitDataProviderFilter;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.routing.error.RoutingValidationException;
+import org.opentripplanner.standalone.api.OtpServerRequestContext;
+import org.opentripplanner.street.search.TemporaryVerticesContainer;
+
+/**
+ * Calculate the travel time from each origin to each destination, departing at the time of the
+ * request. For each origin the access stops are found with a street search, and a Raptor
+ * {@link RaptorProfile#BEST_TIME} search finds the earliest arrival time at every stop. The
+ * travel time to a destination is the earliest arrival at one of the stops near the destination
+ * plus the egress duration from that stop.
+ * <p>
+ * The transit data and the egress stops of the destinations are shared by all origins. The
+ * origins are routed in parallel in the Raptor thread pool, or in the request thread if the pool
+ * is not configured. At most half of the pool threads are used by one matrix at the same time,
+ * the rest of the searches wait in a queue of the matrix, so the searches of other requests using
+ * the pool are not queued behind all the searches of the matrix. The direct street path from the
+ * origin to the destination is not searched for, so a trip without transit is only found if it
+ * passes a stop.
+ * <p>
+ * If the request times out, or the matrix is not done within the timeout given to the
+ * constructor, the searches not yet started are cancelled, see {@link #cancel()}.
+ */
+class TravelTimeMatrix {
+
+  /** The travel time for a destination which is not reached within the max duration. */
+  static final int NOT_REACHED = -1;
+
+  private final OtpServerRequestContext serverContext;
+  private final RouteRequest request;
+  private final Duration maxDuration;
+  private final Instant deadline;
+  private final int departureTime;
+  private final RaptorRoutingRequestTransitData transitData;
+  private final RaptorService<TripSchedule> raptorService;
+  private final Executor executor;
+  private final Collection<CompletableFuture<?>> tasks = new ConcurrentLinkedQueue<>();
+  private final List<Collection<DefaultAccessEgress>> egressByDestination;
+  private volatile boolean cancelled = false;
+
+  TravelTimeMatrix(
+    OtpServerRequestContext serverContext,
+    RouteRequest request,
+    List<GenericLocation> destinations,
+    Duration maxDuration,
+    Duration timeout
+  ) {
+    this.serverContext = serverContext;
+    this.request = request;
+    this.maxDuration = maxDuration;
+    this.deadline = Instant.now().plus(timeout);
+
+    var transitService = serverContext.transitService();
+    Instant startTime = request.dateTime();
+    Instant endTime = startTime.plus(maxDuration);
+    ZoneId zoneId = transitService.getTimeZone();
+    LocalDate startDate = LocalDate.ofInstant(startTime, zoneId);
+    LocalDate endDate = LocalDate.ofInstant(endTime, zoneId);
+    ZonedDateTime startOfTime = ServiceDateUtils.asStartOfService(startDate, zoneId);
+    this.departureTime = ServiceDateUtils.secondsSinceStartOfTime(startOfTime, startTime);
+
+    this.transitData =
+      new RaptorRoutingRequestTransitData(
+        transitService.getRealtimeTransitLayer(),
+        startOfTime,
+        0,
+        (int) Period.between(startDate, endDate).get(ChronoUnit.DAYS),
+        new RouteRequestTransitDataProviderFilter(request),
+        request
+      );
+    var raptorConfig = serverContext.raptorConfig();
+    this.raptorService = new RaptorService<>(raptorConfig);
+    this.executor =
+      raptorConfig.isMultiThreaded()
+        ? new BoundedExecutor(raptorConfig.threadPool(), maxParallelSearches(raptorConfig))
+        : Runnable::run;
+    // Start all egress searches before waiting for the first one
+    var egressSearches = destinations.stream().map(it -> submit(() -> findEgress(it))).toList();
+    this.egressByDestination = egressSearches.stream().map(this::await).toList();
+  }
+
+  /**
+   * Route each origin in the thread pool. The travel times in seconds for each origin are
+   * completed in any order, but returned in the order of the origins, so the caller can write
+   * the result as soon as the next origin is done. Use {@link #await(CompletableFuture)} to get
+   * the result.
+   */
+  List<CompletableFuture<int[]>> routeAsync(List<GenericLocation> origins) {
+    return origins.stream().map(it -> submit(() -> route(it))).toList();
+  }
+
+  /**
+   * Wait for the result of a search. If the request thread is interrupted, because the request
+   * timed out, or the timeout of the matrix is passed, the searches are cancelled.
+   */
+  <T> T await(CompletableFuture<T> task) {
+    try {
+      long timeLeft = Math.max(0, Duration.between(Instant.now(), deadline).toMillis());
+      return task.get(timeLeft, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      cancel();
+      throw new OTPRequestTimeoutException();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      cancel();
+      throw new OTPRequestTimeoutException();
+    } catch (ExecutionException e) {
+      cancel();
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  /**
+   * Cancel the searches not yet started. Call this when the result is no longer needed, the
+   * searches would otherwise keep the thread pool busy after the request is done.
+   */
+  void cancel() {
+    cancelled = true;
+    tasks.forEach(it -> it.cancel(false));
+  }
+
+  int[] route(GenericLocation origin) {
+    int[] travelTimes = new int[egressByDestination.size()];
+    Arrays.fill(travelTimes, NOT_REACHED);
+    if (cancelled) {
+      return travelTimes;
+    }
+    // Only has an effect if the origins are routed in the request thread
+    OTPRequestTimeoutException.checkForTimeout();
+
+    var originRequest = request.clone();
+    originRequest.setFrom(origin);
+
+    Collection<DefaultAccessEgress> accessList;
+    try (
+      var temporaryVertices = new TemporaryVerticesContainer(
+        serverContext.graph(),
+        originRequest,
+        originRequest.journey().access().mode(),
+        StreetMode.NOT_SET
+      )
+    ) {
+      accessList = streetSearch(originRequest, temporaryVertices, false);
+    } catch (RoutingValidationException e) {
+      // The origin is not linked to the street network
+      return travelTimes;
+    }
+    if (accessList.isEmpty()) {
+      return travelTimes;
+    }
+
+    var arrivals = routeTransit(accessList);
+    setTravelTimes(travelTimes, arrivals, egressByDestination, departureTime, maxDuration);
+    return travelTimes;
+  }
+
+  /**
+   * Set the travel time to each destination, using the best combination of the arrival at a stop
+   * and the egress from it. A destination which is reached after the max duration is not set, it
+   * keeps the {@link #NOT_REACHED} value.
+   */
+  static void setTravelTimes(
+    int[] travelTimes,
+    StopArrivals arrivals,
+    List<? extends Collection<? extends RaptorAccessEgress>> egressByDestination,
+    int departureTime,
+    Duration maxDuration
+  ) {
+    int maxArrivalTime = departureTime + (int) maxDuration.toSeconds();
+
+    for (int i = 0; i < travelTimes.length; ++i) {
+      int bestArrivalTime = Integer.MAX_VALUE;
+      for (RaptorAccessEgress egress : egressByDestination.get(i)) {
+        if (arrivals.reached(egress.stop())) {
+          int arrivalTime = arrivals.bestArrivalTime(egress.stop()) + egress.durationInSeconds();
+          bestArrivalTime = Math.min(bestArrivalTime, arrivalTime);
+        }
+      }
+      if (bestArrivalTime <= maxArrivalTime) {
+        travelTimes[i] = bestArrivalTime - departureTime;
+      }
+    }
+  }
+
+  /** Use at most half of the Raptor thread pool for one matrix, and at least one thread. */
+  private static int maxParallelSearches(RaptorConfig<?> raptorConfig) {
+    return Math.max(1, raptorConfig.tuningParameters().searchThreadPoolSize() / 2);
+  }
+
+  private <T> CompletableFuture<T> submit(Supplier<T> search) {
+    var task = CompletableFuture.supplyAsync(search, executor);
+    tasks.add(task);
+    return task;
+  }
+
+  private StopArrivals routeTransit(Collection<DefaultAccessEgress> accessList) {
+    var builder = new RaptorRequestBuilder<TripSchedule>();
+
+    builder
+      .profile(RaptorProfile.BEST_TIME)
+      .searchDirection(SearchDirection.FORWARD)
+      .searchParams()
+      .earliestDepartureTime(departureTime)
+      .latestArrivalTime(departureTime + (int) maxDuration.toSeconds())
+      .searchOneIterationOnly()
+      .timetable(false)
+      .allowEmptyAccessEgressPaths(true)
+      .constrainedTransfers(false)
+      .addAccessPaths(accessList);
+
+    return raptorService.route(builder.build(), transitData).getArrivals();
+  }
+
+  private Collection<DefaultAccessEgress> findEgress(GenericLocation destination) {
+    if (cancelled) {
+      return List.of();
+    }
+    var destinationRequest = request.clone();
+    destinationRequest.setTo(destination);
+
+    try (
+      var temporaryVertices = new TemporaryVerticesContainer(
+        serverContext.graph(),
+        destinationRequest,
+        StreetMode.NOT_SET,
+        destinationRequest.journey().egress().mode()
+      )
+    ) {
+      return streetSearch(destinationRequest, temporaryVertices, true);
+    } catch (RoutingValidationException e) {
+      // The destination is not linked to the street network, and can not be reached
+      return List.of();
+    }
+  }
+
+  private Collection<DefaultAccessEgress> streetSearch(
+    RouteRequest searchRequest,
+    TemporaryVerticesContainer temporaryVertices,
+    boolean fromTarget
+  ) {
+    StreetRequest streetRequest = fromTarget
+      ? searchRequest.journey().egress()
+      : searchRequest.journey().access();
+    Duration maxStreetDuration = searchRequest
+      .preferences()
+      .street()
+      .accessEgress()
+      .maxDuration()
+      .valueOf(streetRequest.mode());
+
+    var stops = AccessEgressRouter.streetSearch(
+      searchRequest,
+      temporaryVertices,
+      serverContext.transitService(),
+      streetRequest,
+      null,
+      fromTarget,
+      maxDuration.compareTo(maxStreetDuration) < 0 ? maxDuration : maxStreetDuration,
+      0
+    );
+    return AccessEgressMapper.mapNearbyStops(stops, fromTarget);
+  }
+}
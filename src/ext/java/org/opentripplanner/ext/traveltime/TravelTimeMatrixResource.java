@@ -0,0 +1,117 @@
+package org.opentripplanner.ext.traveltime;
+
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.opentripplanner.api.common.LocationStringParser;
+import org.opentripplanner.api.parameter.QualifiedModeSet;
+import org.opentripplanner.framework.time.DurationUtils;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.request.filter.SelectRequest;
+import org.opentripplanner.routing.api.request.request.filter.TransitFilterRequest;
+import org.opentripplanner.standalone.api.OtpServerRequestContext;
+import org.opentripplanner.transit.model.basic.MainAndSubMode;
+
+/**
+ * The travel time from each of the origins to each of the destinations, departing at the given
+ * time. See {@link TravelTimeMatrix} for how the travel times are calculated and
+ * {@link TravelTimeMatrixWriter} for the formats of the result.
+ */
+@Path("/traveltime/matrix")
+public class TravelTimeMatrixResource {
+
+  /** Each origin is a transit search, larger matrices must be split into several requests. */
+  static final int MAX_ORIGINS = 1000;
+
+  /** Each destination is a street search, the egress stops are kept during the request. */
+  static final int MAX_DESTINATIONS = 5000;
+
+  /**
+   * The maximum time to compute a matrix. The server {@code apiProcessingTimeout} is off by
+   * default, and without this a search stuck in the thread pool would keep the request open.
+   */
+  static final Duration TIMEOUT = Duration.ofMinutes(5);
+
+  private final OtpServerRequestContext serverContext;
+
+  public TravelTimeMatrixResource(@Context OtpServerRequestContext serverContext) {
+    this.serverContext = serverContext;
+  }
+
+  @GET
+  @Produces({ "text/csv", "application/octet-stream" })
+  public Response getTravelTimeMatrix(
+    @QueryParam("origin") List<String> origins,
+    @QueryParam("destination") List<String> destinations,
+    @QueryParam("time") String time,
+    @QueryParam("maxDuration") @DefaultValue("60m") String maxDuration,
+    @QueryParam("modes") String modes,
+    @QueryParam("format") @DefaultValue("csv") String format
+  ) {
+    if (origins.isEmpty() || destinations.isEmpty()) {
+      throw new BadRequestException("At least one origin and one destination is required.");
+    }
+    if (origins.size() > MAX_ORIGINS || destinations.size() > MAX_DESTINATIONS) {
+      throw new BadRequestException(
+        "At most " + MAX_ORIGINS + " origins and " + MAX_DESTINATIONS + " destinations are allowed."
+      );
+    }
+    if (!format.equals("csv") && !format.equals("binary")) {
+      throw new BadRequestException("Unknown format: " + format);
+    }
+
+    RouteRequest request = serverContext.defaultRouteRequest();
+    request.setDateTime(time != null ? Instant.parse(time) : Instant.now());
+
+    if (modes != null) {
+      var modeSet = new QualifiedModeSet(modes);
+      request.journey().setModes(modeSet.getRequestModes());
+      var transitModes = modeSet.getTransitModes().stream().map(MainAndSubMode::new).toList();
+      var select = SelectRequest.of().withTransportModes(transitModes).build();
+      var filter = TransitFilterRequest.of().addSelect(select).build();
+      request.journey().transit().setFilters(List.of(filter));
+    }
+
+    var originLocations = parseLocations(origins);
+    var matrix = new TravelTimeMatrix(
+      serverContext,
+      request,
+      parseLocations(destinations),
+      DurationUtils.duration(maxDuration),
+      TIMEOUT
+    );
+
+    StreamingOutput out = outputStream -> {
+      try {
+        var writer = TravelTimeMatrixWriter.of(format, outputStream);
+        writer.writeHeader(originLocations.size(), destinations.size());
+
+        List<CompletableFuture<int[]>> travelTimes = matrix.routeAsync(originLocations);
+        for (int i = 0; i < travelTimes.size(); ++i) {
+          writer.writeOrigin(i, matrix.await(travelTimes.get(i)));
+        }
+        writer.flush();
+      } finally {
+        // Do not keep routing if the client is gone or the request timed out
+        matrix.cancel();
+      }
+    };
+
+    return Response.ok(out, TravelTimeMatrixWriter.mediaType(format)).build();
+  }
+
+  private static List<GenericLocation> parseLocations(List<String> locations) {
+    return locations.stream().map(LocationStringParser::fromOldStyleString).toList();
+  }
+}
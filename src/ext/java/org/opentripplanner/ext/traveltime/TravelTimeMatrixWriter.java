@@ -0,0 +1,108 @@
+package org.opentripplanner.ext.traveltime;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Write a travel time matrix, one origin at the time, so the result can be streamed while the
+ * next origins are routed. The travel times are in seconds.
+ */
+abstract class TravelTimeMatrixWriter {
+
+  /**
+   * @param format either {@code csv} or {@code binary}
+   */
+  static TravelTimeMatrixWriter of(String format, OutputStream out) {
+    return switch (format) {
+      case "csv" -> new CsvWriter(out);
+      case "binary" -> new BinaryWriter(out);
+      default -> throw new IllegalArgumentException("Unknown format: " + format);
+    };
+  }
+
+  static String mediaType(String format) {
+    return "binary".equals(format) ? "application/octet-stream" : "text/csv";
+  }
+
+  abstract void writeHeader(int nOrigins, int nDestinations) throws IOException;
+
+  abstract void writeOrigin(int originIndex, int[] travelTimes) throws IOException;
+
+  abstract void flush() throws IOException;
+
+  /**
+   * One line for each origin, starting with the origin index followed by the travel time to each
+   * destination. The travel time is empty if the destination is not reached.
+   */
+  private static class CsvWriter extends TravelTimeMatrixWriter {
+
+    private final BufferedWriter out;
+
+    private CsvWriter(OutputStream out) {
+      this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    void writeHeader(int nOrigins, int nDestinations) throws IOException {
+      out.write("origin");
+      for (int i = 0; i < nDestinations; ++i) {
+        out.write(",");
+        out.write(Integer.toString(i));
+      }
+      out.newLine();
+    }
+
+    @Override
+    void writeOrigin(int originIndex, int[] travelTimes) throws IOException {
+      out.write(Integer.toString(originIndex));
+      for (int travelTime : travelTimes) {
+        out.write(",");
+        if (travelTime != TravelTimeMatrix.NOT_REACHED) {
+          out.write(Integer.toString(travelTime));
+        }
+      }
+      out.newLine();
+    }
+
+    @Override
+    void flush() throws IOException {
+      out.flush();
+    }
+  }
+
+  /**
+   * Big-endian 32-bit integers: the number of origins and the number of destinations, followed by
+   * the travel time to each destination for each origin, -1 if the destination is not reached.
+   */
+  private static class BinaryWriter extends TravelTimeMatrixWriter {
+
+    private final DataOutputStream out;
+
+    private BinaryWriter(OutputStream out) {
+      this.out = new DataOutputStream(new BufferedOutputStream(out));
+    }
+
+    @Override
+    void writeHeader(int nOrigins, int nDestinations) throws IOException {
+      out.writeInt(nOrigins);
+      out.writeInt(nDestinations);
+    }
+
+    @Override
+    void writeOrigin(int originIndex, int[] travelTimes) throws IOException {
+      for (int travelTime : travelTimes) {
+        out.writeInt(travelTime);
+      }
+    }
+
+    @Override
+    void flush() throws IOException {
+      out.flush();
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package org.opentripplanner.ext.traveltime;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.opentripplanner.raptor.api.response.StopArrivals;
+import org.opentripplanner.raptor.api.response.StopArrivalsListener;
+
+/**
+ * Collect the transit travel time to every stop for each departure time in the Raptor
+ * search-window, and calculate travel time percentiles for each stop. The travel times are kept
+ * in one primitive array per Range Raptor iteration, so a one-hour window with one iteration per
+ * minute costs 60 arrays of the size of the number of stops.
+ * <p>
+ * The travel time for a departure time includes the wait at the origin, so the percentiles
+ * describe the travel time experienced by someone leaving at a random time in the window.
+ */
+class TravelTimePercentiles implements StopArrivalsListener {
+
+  /** The travel time for a stop which is not reached within the max travel time. */
+  static final int NOT_REACHED = Integer.MAX_VALUE;
+
+  private final int nStops;
+  private final int maxTravelTime;
+  private final List<int[]> travelTimesByIteration = new ArrayList<>();
+
+  /**
+   * @param maxTravelTime the max travel time in seconds, stops reached later are not reached
+   */
+  TravelTimePercentiles(int nStops, int maxTravelTime) {
+    this.nStops = nStops;
+    this.maxTravelTime = maxTravelTime;
+  }
+
+  @Override
+  public void iterationComplete(int iterationDepartureTime, StopArrivals arrivals) {
+    int[] travelTimes = new int[nStops];
+    for (int stop = 0; stop < nStops; ++stop) {
+      int travelTime = arrivals.reachedByTransit(stop)
+        ? arrivals.bestTransitArrivalTime(stop) - iterationDepartureTime
+        : NOT_REACHED;
+      travelTimes[stop] = travelTime <= maxTravelTime ? travelTime : NOT_REACHED;
+    }
+    travelTimesByIteration.add(travelTimes);
+  }
+
+  int numberOfDepartureTimes() {
+    return travelTimesByIteration.size();
+  }
+
+  /**
+   * Calculate the travel time percentiles for every stop, using the nearest-rank method. A stop
+   * which is not reached for a share of the departure times larger than the percentile is
+   * {@link #NOT_REACHED}.
+   *
+   * @param percentiles the percentiles, each in the range [0, 100]
+   * @return the travel times in seconds, indexed by percentile and stop index
+   */
+  int[][] percentiles(List<Integer> percentiles) {
+    int n = travelTimesByIteration.size();
+    int[][] result = new int[percentiles.size()][nStops];
+    int[] stopTravelTimes = new int[n];
+
+    for (int stop = 0; stop < nStops; ++stop) {
+      for (int i = 0; i < n; ++i) {
+        stopTravelTimes[i] = travelTimesByIteration.get(i)[stop];
+      }
+      Arrays.sort(stopTravelTimes);
+      for (int p = 0; p < percentiles.size(); ++p) {
+        result[p][stop] = n == 0 ? NOT_REACHED : stopTravelTimes[rank(percentiles.get(p), n)];
+      }
+    }
+    return result;
+  }
+
+  /**
+   * The zero based index of the nearest-rank percentile in a sorted array of size n.
+   */
+  static int rank(int percentile, int n) {
+    // ceil(percentile * n / 100) - 1, in integer arithmetic to avoid rounding errors
+    int rank = (percentile * n + 99) / 100 - 1;
+    return Math.max(0, Math.min(n - 1, rank));
+  }
+}
@@ -1,5 +1,6 @@
 package org.opentripplanner.ext.traveltime;
 
+import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
@@ -9,6 +10,7 @@ import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.StreamingOutput;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.Period;
@@ -19,7 +21,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.function.IntFunction;
 import org.geotools.data.geojson.GeoJSONWriter;
+import org.geotools.data.simple.SimpleFeatureCollection;
+import org.locationtech.jts.geom.Coordinate;
 import org.opentripplanner.api.common.LocationStringParser;
 import org.opentripplanner.api.parameter.QualifiedModeSet;
 import org.opentripplanner.astar.model.ShortestPathTree;
@@ -32,7 +37,7 @@ import org.opentripplanner.raptor.api.model.SearchDirection;
 import org.opentripplanner.raptor.api.request.RaptorProfile;
 import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
 import org.opentripplanner.raptor.api.response.RaptorResponse;
-import org.opentripplanner.raptor.api.response.StopArrivals;
+import org.opentripplanner.raptor.api.response.StopArrivalsListener;
 import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressRouter;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.DefaultAccessEgress;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
@@ -63,6 +68,8 @@ import org.opentripplanner.transit.service.TransitService;
 @Path("/traveltime")
 public class TravelTimeResource {
 
+  private static final List<Integer> DEFAULT_PERCENTILES = List.of(5, 50, 95);
+
   private final RouteRequest routingRequest;
   private final RaptorRoutingRequestTransitData requestTransitDataProvider;
   private final Instant startTime;
@@ -73,19 +80,37 @@ public class TravelTimeResource {
   private final Graph graph;
   private final TransitService transitService;
 
+  /**
+   * The departure time window, if set the travel times are percentiles over all departure
+   * times in the window, instead of the travel time for one departure time.
+   */
+  private final Duration window;
+  private final List<Integer> percentiles;
+
   public TravelTimeResource(
     @Context OtpServerRequestContext serverContext,
     @QueryParam("location") String location,
     @QueryParam("time") String time,
     @QueryParam("cutoff") @DefaultValue("60m") List<String> cutoffs,
     @QueryParam("modes") String modes,
-    @QueryParam("arriveBy") @DefaultValue("false") boolean arriveBy
+    @QueryParam("arriveBy") @DefaultValue("false") boolean arriveBy,
+    @QueryParam("window") String window,
+    @QueryParam("percentile") List<Integer> percentiles
   ) {
     this.graph = serverContext.graph();
     this.transitService = serverContext.transitService();
     routingRequest = serverContext.defaultRouteRequest();
     routingRequest.setArriveBy(arriveBy);
 
+    this.window = window != null ? DurationUtils.duration(window) : null;
+    this.percentiles = percentiles.isEmpty() ? DEFAULT_PERCENTILES : percentiles;
+    if (this.window != null && arriveBy) {
+      throw new BadRequestException("A departure time window is not supported with arriveBy.");
+    }
+    if (this.percentiles.stream().anyMatch(it -> it < 0 || it > 100)) {
+      throw new BadRequestException("A percentile must be in the range [0, 100].");
+    }
+
     if (modes != null) {
       var modeSet = new QualifiedModeSet(modes);
       routingRequest.journey().setModes(modeSet.getRequestModes());
@@ -113,7 +138,10 @@ public class TravelTimeResource {
       routingRequest.setTo(parsedLocation);
     } else {
       startTime = requestTime;
-      endTime = startTime.plus(traveltimeRequest.maxCutoff);
+      endTime =
+        startTime
+          .plus(this.window != null ? this.window : Duration.ZERO)
+          .plus(traveltimeRequest.maxCutoff);
       routingRequest.setFrom(parsedLocation);
     }
 
@@ -139,10 +167,19 @@ public class TravelTimeResource {
   @Path("/isochrone")
   @Produces(MediaType.APPLICATION_JSON)
   public Response getIsochrones() {
-    ZSampleGrid<WTWD> sampleGrid = getSampleGrid();
-
-    var isochrones = IsochroneRenderer.renderIsochrones(sampleGrid, traveltimeRequest);
-    var features = IsochroneRenderer.makeContourFeatures(isochrones);
+    SimpleFeatureCollection features;
+    if (window == null) {
+      ZSampleGrid<WTWD> sampleGrid = getSampleGrid();
+      var isochrones = IsochroneRenderer.renderIsochrones(sampleGrid, traveltimeRequest);
+      features = IsochroneRenderer.makeContourFeatures(isochrones);
+    } else {
+      List<ZSampleGrid<WTWD>> sampleGrids = getPercentileSampleGrids();
+      List<List<IsochroneData>> isochrones = new ArrayList<>();
+      for (var sampleGrid : sampleGrids) {
+        isochrones.add(IsochroneRenderer.renderIsochrones(sampleGrid, traveltimeRequest));
+      }
+      features = IsochroneRenderer.makePercentileContourFeatures(percentiles, isochrones);
+    }
 
     StreamingOutput out = outputStream -> {
       try (final GeoJSONWriter geoJSONWriter = new GeoJSONWriter(outputStream)) {
@@ -157,8 +194,9 @@ public class TravelTimeResource {
   @Path("/surface")
   @Produces("image/tiff")
   public Response getSurface() {
-    ZSampleGrid<WTWD> sampleGrid = getSampleGrid();
-    StreamingOutput streamingOutput = RasterRenderer.createGeoTiffRaster(sampleGrid);
+    StreamingOutput streamingOutput = window == null
+      ? RasterRenderer.createGeoTiffRaster(getSampleGrid())
+      : RasterRenderer.createGeoTiffRaster(getPercentileSampleGrids());
     return Response.ok().entity(streamingOutput).build();
   }
 
@@ -172,12 +210,60 @@ public class TravelTimeResource {
       )
     ) {
       var accessList = getAccess(temporaryVertices);
-      var arrivals = route(accessList).getArrivals();
-      var spt = getShortestPathTree(temporaryVertices, arrivals);
+      var arrivals = route(accessList, null).getArrivals();
+      var spt = getShortestPathTree(
+        temporaryVertices,
+        index ->
+          arrivals.reachedByTransit(index)
+            ? startOfTime.plusSeconds(arrivals.bestTransitArrivalTime(index)).toInstant()
+            : null
+      );
       return SampleGridRenderer.getSampleGrid(spt, traveltimeRequest);
     }
   }
 
+  /**
+   * Route all departure times in the window in one Range Raptor search, and create one sample
+   * grid for each percentile. The street search from the stops is done once per percentile,
+   * starting each stop at the percentile of the travel time to that stop. The travel time to a
+   * location is the minimum over the stops near it, so the result is an upper bound of the true
+   * percentile of the door-to-door travel time, which would need one street search for each
+   * departure time.
+   */
+  private List<ZSampleGrid<WTWD>> getPercentileSampleGrids() {
+    try (
+      var temporaryVertices = new TemporaryVerticesContainer(
+        graph,
+        routingRequest,
+        getAccessRequest(routingRequest).mode(),
+        StreetMode.NOT_SET
+      )
+    ) {
+      var accessList = getAccess(temporaryVertices);
+      var travelTimes = new TravelTimePercentiles(
+        requestTransitDataProvider.numberOfStops(),
+        (int) traveltimeRequest.maxCutoff.toSeconds()
+      );
+      route(accessList, travelTimes);
+
+      // Use the same grid for all percentiles, so they can be combined into one raster
+      Coordinate center = temporaryVertices.getFromVertices().iterator().next().getCoordinate();
+
+      List<ZSampleGrid<WTWD>> sampleGrids = new ArrayList<>();
+      for (int[] stopTravelTimes : travelTimes.percentiles(percentiles)) {
+        var spt = getShortestPathTree(
+          temporaryVertices,
+          index ->
+            stopTravelTimes[index] == TravelTimePercentiles.NOT_REACHED
+              ? null
+              : startTime.plusSeconds(stopTravelTimes[index])
+        );
+        sampleGrids.add(SampleGridRenderer.getSampleGrid(spt, traveltimeRequest, center));
+      }
+      return sampleGrids;
+    }
+  }
+
   private Collection<DefaultAccessEgress> getAccess(TemporaryVerticesContainer temporaryVertices) {
     final Collection<NearbyStop> accessStops = AccessEgressRouter.streetSearch(
       routingRequest,
@@ -194,7 +280,7 @@ public class TravelTimeResource {
 
   private ShortestPathTree<State, Edge, Vertex> getShortestPathTree(
     TemporaryVerticesContainer temporaryVertices,
-    StopArrivals arrivals
+    IntFunction<Instant> stopArrivalTime
   ) {
     return StreetSearchBuilder
       .of()
@@ -209,12 +295,16 @@ public class TravelTimeResource {
       .setStreetRequest(getEgressRequest(routingRequest))
       .setVerticesContainer(temporaryVertices)
       .setDominanceFunction(new DominanceFunctions.EarliestArrival())
-      .setInitialStates(getInitialStates(arrivals, temporaryVertices))
+      .setInitialStates(getInitialStates(stopArrivalTime, temporaryVertices))
       .getShortestPathTree();
   }
 
+  /**
+   * @param stopArrivalTime the arrival time at a stop by stop index, {@code null} if the stop is
+   *                        not reached
+   */
   private List<State> getInitialStates(
-    StopArrivals arrivals,
+    IntFunction<Instant> stopArrivalTime,
     TemporaryVerticesContainer temporaryVertices
   ) {
     List<State> initialStates = new ArrayList<>();
@@ -243,16 +333,14 @@ public class TravelTimeResource {
       .build();
 
     for (RegularStop stop : transitService.listRegularStops()) {
-      int index = stop.getIndex();
-      if (!arrivals.reachedByTransit(index)) {
+      Instant time = stopArrivalTime.apply(stop.getIndex());
+      if (time == null) {
         continue;
       }
-      final int arrivalTime = arrivals.bestTransitArrivalTime(index);
       Vertex v = graph.getStopVertexForStopId(stop.getId());
       if (v == null) {
         continue;
       }
-      Instant time = startOfTime.plusSeconds(arrivalTime).toInstant();
       List<StateData> egressStateDatas = StateData.getInitialStateDatas(
         egressStreetSearchRequest,
         mode -> new TravelTimeStateData(mode, time.getEpochSecond())
@@ -269,19 +357,32 @@ public class TravelTimeResource {
     return initialStates;
   }
 
-  private RaptorResponse<TripSchedule> route(Collection<? extends RaptorAccessEgress> accessList) {
+  /**
+   * @param stopArrivalsListener if set, all departure times in the window are routed and the
+   *                             listener is notified for each of them
+   */
+  private RaptorResponse<TripSchedule> route(
+    Collection<? extends RaptorAccessEgress> accessList,
+    StopArrivalsListener stopArrivalsListener
+  ) {
     RaptorRequestBuilder<TripSchedule> builder = new RaptorRequestBuilder<>();
 
     builder
       .profile(RaptorProfile.BEST_TIME)
+      .stopArrivalsListener(stopArrivalsListener)
       .searchParams()
       .earliestDepartureTime(ServiceDateUtils.secondsSinceStartOfTime(startOfTime, startTime))
       .latestArrivalTime(ServiceDateUtils.secondsSinceStartOfTime(startOfTime, endTime))
-      .searchOneIterationOnly()
       .timetable(false)
       .allowEmptyAccessEgressPaths(true)
       .constrainedTransfers(false); // TODO: Not compatible with best times
 
+    if (stopArrivalsListener != null) {
+      builder.searchParams().searchWindow(window);
+    } else {
+      builder.searchParams().searchOneIterationOnly();
+    }
+
     if (routingRequest.arriveBy()) {
       builder.searchDirection(SearchDirection.REVERSE).searchParams().addEgressPaths(accessList);
     } else {
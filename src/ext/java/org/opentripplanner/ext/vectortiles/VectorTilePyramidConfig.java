@@ -0,0 +1,123 @@
+package org.opentripplanner.ext.vectortiles;
+
+import static org.opentripplanner.inspector.vector.LayerParameters.EXPANSION_FACTOR;
+import static org.opentripplanner.inspector.vector.LayerParameters.MIN_ZOOM;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_5;
+
+import java.util.List;
+import java.util.Locale;
+import org.opentripplanner.inspector.vector.LayerParameters;
+import org.opentripplanner.standalone.config.framework.json.NodeAdapter;
+
+/**
+ * This class is responsible for mapping the build configuration of the vector tile layers which
+ * are pre-rendered when the graph is built, see {@link VectorTilePyramidModule}.
+ */
+public class VectorTilePyramidConfig {
+
+  private static final Locale DEFAULT_LOCALE = new Locale("en", "US");
+
+  private final Locale locale;
+  private final List<LayerParameters<VectorTilesResource.LayerType>> layers;
+
+  public VectorTilePyramidConfig(String parameterName, NodeAdapter root) {
+    var c = root
+      .of(parameterName)
+      .since(V2_5)
+      .summary("Vector tile layers to pre-render when the graph is built.")
+      .description(
+        """
+        The tiles of the `Stop` and `Station` layers are rendered when the graph is built and
+        stored in the graph. The server serves them without any query or encoding, if the layer
+        is configured with the same name, type, mapper and expansion factor in the
+        `vectorTileLayers` of the router configuration.
+        """
+      )
+      .asObject();
+
+    this.locale =
+      c
+        .of("locale")
+        .since(V2_5)
+        .summary("The language of the text in the pre-rendered tiles.")
+        .description(
+          "Requests in other languages are rendered by the server, as if the tiles were not " +
+          "pre-rendered."
+        )
+        .asLocale(DEFAULT_LOCALE);
+
+    this.layers =
+      c
+        .of("layers")
+        .since(V2_5)
+        .summary("The layers to pre-render.")
+        .asObjects(VectorTilePyramidConfig::mapLayer);
+  }
+
+  public Locale locale() {
+    return locale;
+  }
+
+  public List<LayerParameters<VectorTilesResource.LayerType>> layers() {
+    return layers;
+  }
+
+  /**
+   * Return true if any layer should be pre-rendered.
+   */
+  public boolean isConfigured() {
+    return !layers.isEmpty();
+  }
+
+  private static LayerParameters<VectorTilesResource.LayerType> mapLayer(NodeAdapter node) {
+    return new Layer(
+      node
+        .of("name")
+        .since(V2_5)
+        .summary("The name of the layer in the vector tile layers of the server.")
+        .asString(),
+      node
+        .of("type")
+        .since(V2_5)
+        .summary("Type of the layer, only `Stop` and `Station` can be pre-rendered.")
+        .asEnum(VectorTilesResource.LayerType.class),
+      node
+        .of("mapper")
+        .since(V2_5)
+        .summary(
+          "Describes the mapper converting from the OTP model entities to the vector tile properties."
+        )
+        .asString(),
+      node
+        .of("maxZoom")
+        .since(V2_5)
+        .summary("Pre-render the tiles up to this zoom level.")
+        .description(
+          "Each extra zoom level roughly quadruples the number of tiles for dense areas. Tiles " +
+          "above this zoom level are rendered by the server."
+        )
+        .asInt(),
+      node
+        .of("minZoom")
+        .since(V2_5)
+        .summary("Pre-render the tiles from this zoom level.")
+        .asInt(MIN_ZOOM),
+      node
+        .of("expansionFactor")
+        .since(V2_5)
+        .summary("How far outside its boundaries should the tile contain information.")
+        .description("This must be the same as the expansion factor of the layer in the server.")
+        .asDouble(EXPANSION_FACTOR)
+    );
+  }
+
+  record Layer(
+    String name,
+    VectorTilesResource.LayerType type,
+    String mapper,
+    int maxZoom,
+    int minZoom,
+    double expansionFactor
+  )
+    implements LayerParameters<VectorTilesResource.LayerType> {}
+}
@@ -0,0 +1,74 @@
+package org.opentripplanner.ext.vectortiles;
+
+import org.opentripplanner.ext.vectortiles.layers.stations.StationsLayerBuilder;
+import org.opentripplanner.ext.vectortiles.layers.stops.StopsLayerBuilder;
+import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+import org.opentripplanner.inspector.vector.TilePyramidBuilder;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.transit.service.DefaultTransitService;
+import org.opentripplanner.transit.service.TransitModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pre-render the tiles of the static vector tile layers in the {@link VectorTilePyramidConfig} of
+ * the build configuration, and store them in the graph. The server serves these tiles without
+ * running any query, see {@link org.opentripplanner.inspector.vector.TilePyramid}.
+ * <p>
+ * Only the stop and station layers are pre-rendered. The other layers are updated in realtime.
+ */
+public class VectorTilePyramidModule implements GraphBuilderModule {
+
+  private static final Logger LOG = LoggerFactory.getLogger(VectorTilePyramidModule.class);
+
+  private final Graph graph;
+  private final TransitModel transitModel;
+  private final VectorTilePyramidConfig config;
+
+  public VectorTilePyramidModule(
+    Graph graph,
+    TransitModel transitModel,
+    VectorTilePyramidConfig config
+  ) {
+    this.graph = graph;
+    this.transitModel = transitModel;
+    this.config = config;
+  }
+
+  @Override
+  public void buildGraph() {
+    transitModel.index();
+    var transitService = new DefaultTransitService(transitModel);
+    var locale = config.locale();
+    var builder = new TilePyramidBuilder(locale);
+
+    for (var layer : config.layers()) {
+      if (layer.type().isRealtime()) {
+        LOG.warn(
+          "The vector tile layer '{}' is updated in realtime, it can not be pre-rendered.",
+          layer.name()
+        );
+        continue;
+      }
+      LOG.info("Pre-render vector tile layer '{}' up to zoom {}...", layer.name(), layer.maxZoom());
+      builder.addLayer(
+        layer,
+        layer.maxZoom(),
+        () ->
+          switch (layer.type()) {
+            case Stop -> new StopsLayerBuilder(transitService, layer, locale);
+            case Station -> new StationsLayerBuilder(transitService, layer, locale);
+            default -> throw new IllegalArgumentException(layer.type().name());
+          }
+      );
+    }
+
+    var pyramid = builder.build();
+    graph.setVectorTilePyramid(pyramid);
+    LOG.info(
+      "Pre-rendered {} vector tiles, {} bytes.",
+      pyramid.numberOfTiles(),
+      pyramid.sizeInBytes()
+    );
+  }
+}
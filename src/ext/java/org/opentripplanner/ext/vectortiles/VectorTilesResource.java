@@ -68,7 +68,9 @@ public class VectorTilesResource {
       Arrays.asList(requestedLayers.split(",")),
       serverContext.vectorTileLayers().layers(),
       VectorTilesResource::crateLayerBuilder,
-      serverContext
+      serverContext,
+      serverContext.vectorTileCache(),
+      LayerType::isRealtime
     );
   }
 
@@ -136,13 +138,27 @@ public class VectorTilesResource {
   }
 
   public enum LayerType {
-    Stop,
-    Station,
-    VehicleRental,
-    VehicleRentalVehicle,
-    VehicleRentalStation,
-    VehicleParking,
-    VehicleParkingGroup,
+    Stop(false),
+    Station(false),
+    VehicleRental(true),
+    VehicleRentalVehicle(true),
+    VehicleRentalStation(true),
+    VehicleParking(true),
+    VehicleParkingGroup(true);
+
+    private final boolean realtime;
+
+    LayerType(boolean realtime) {
+      this.realtime = realtime;
+    }
+
+    /**
+     * A realtime layer is updated by the graph updaters, and its cached tiles are invalidated
+     * when the places in them change. The other layers are cached for the lifetime of the graph.
+     */
+    public boolean isRealtime() {
+      return realtime;
+    }
   }
 
   public interface LayersParameters<T extends Enum<T>> {
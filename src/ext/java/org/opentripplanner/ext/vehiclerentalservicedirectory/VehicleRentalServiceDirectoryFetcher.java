@@ -9,6 +9,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import org.locationtech.jts.geom.Envelope;
 import org.opentripplanner.ext.vehiclerentalservicedirectory.api.VehicleRentalServiceDirectoryFetcherParameters;
 import org.opentripplanner.framework.io.OtpHttpClient;
 import org.opentripplanner.framework.io.OtpHttpClientException;
@@ -36,21 +38,25 @@ public class VehicleRentalServiceDirectoryFetcher {
   private final VertexLinker vertexLinker;
   private final VehicleRentalRepository repository;
   private final OtpHttpClient otpHttpClient;
+  private final Consumer<Envelope> realtimeStreetUpdateListener;
 
   public VehicleRentalServiceDirectoryFetcher(
     VertexLinker vertexLinker,
     VehicleRentalRepository repository,
-    OtpHttpClient otpHttpClient
+    OtpHttpClient otpHttpClient,
+    Consumer<Envelope> realtimeStreetUpdateListener
   ) {
     this.vertexLinker = vertexLinker;
     this.repository = repository;
     this.otpHttpClient = otpHttpClient;
+    this.realtimeStreetUpdateListener = realtimeStreetUpdateListener;
   }
 
   public static List<GraphUpdater> createUpdatersFromEndpoint(
     VehicleRentalServiceDirectoryFetcherParameters parameters,
     VertexLinker vertexLinker,
-    VehicleRentalRepository repository
+    VehicleRentalRepository repository,
+    Consumer<Envelope> realtimeStreetUpdateListener
   ) {
     LOG.info("Fetching list of updaters from {}", parameters.getUrl());
 
@@ -66,7 +72,8 @@ public class VehicleRentalServiceDirectoryFetcher {
     var serviceDirectory = new VehicleRentalServiceDirectoryFetcher(
       vertexLinker,
       repository,
-      otpHttpClient
+      otpHttpClient,
+      realtimeStreetUpdateListener
     );
     return serviceDirectory.createUpdatersFromEndpoint(parameters, sources);
   }
@@ -148,7 +155,13 @@ public class VehicleRentalServiceDirectoryFetcher {
       vehicleRentalParameters.sourceParameters(),
       otpHttpClient
     );
-    return new VehicleRentalUpdater(vehicleRentalParameters, dataSource, vertexLinker, repository);
+    return new VehicleRentalUpdater(
+      vehicleRentalParameters,
+      dataSource,
+      vertexLinker,
+      repository,
+      realtimeStreetUpdateListener
+    );
   }
 
   private static JsonNode listSources(VehicleRentalServiceDirectoryFetcherParameters parameters) {
@@ -0,0 +1,98 @@
+package org.opentripplanner.astar.model;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.opentripplanner.astar.spi.AStarPriorityQueue;
+
+/**
+ * Compare the A* priority queue implementations: the {@link BinHeap}, the {@link DAryHeap} and
+ * the {@link BucketQueue}, with the same bucket width as the street search.
+ * <p>
+ * The {@code randomKeys} benchmark inserts a set of elements with random keys and extracts them
+ * all again. The {@code monotoneKeys} benchmark has the access pattern of a search without a
+ * heuristic: each extracted element inserts a few new elements with a key a few seconds after
+ * its own key.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AStarPriorityQueueBenchmark {
+
+  private static final int BRANCHING = 3;
+
+  public enum QueueType {
+    BIN_HEAP(BinHeap::new),
+    D_ARY_HEAP(DAryHeap::new),
+    BUCKET_QUEUE(() -> new BucketQueue<>(1.0));
+
+    private final Supplier<AStarPriorityQueue<Integer>> factory;
+
+    QueueType(Supplier<AStarPriorityQueue<Integer>> factory) {
+      this.factory = factory;
+    }
+  }
+
+  @Param
+  public QueueType queue;
+
+  @Param({ "1000", "100000" })
+  public int size;
+
+  private Integer[] elements;
+  private double[] keys;
+  private double[] steps;
+
+  @Setup
+  public void setup() {
+    var random = new Random(42);
+    elements = new Integer[size];
+    keys = new double[size];
+    steps = new double[size];
+    for (int i = 0; i < size; ++i) {
+      elements[i] = i;
+      keys[i] = random.nextDouble() * 3600.0;
+      steps[i] = 1.0 + random.nextDouble() * 30.0;
+    }
+  }
+
+  @Benchmark
+  public void randomKeys(Blackhole bh) {
+    var heap = queue.factory.get();
+    for (int i = 0; i < size; ++i) {
+      heap.insert(elements[i], keys[i]);
+    }
+    while (!heap.isEmpty()) {
+      bh.consume(heap.extractMin());
+    }
+  }
+
+  @Benchmark
+  public void monotoneKeys(Blackhole bh) {
+    var heap = queue.factory.get();
+    heap.insert(elements[0], 0.0);
+    int inserted = 1;
+    while (!heap.isEmpty()) {
+      double key = heap.peekMinKey();
+      bh.consume(heap.extractMin());
+      for (int i = 0; i < BRANCHING && inserted < size; ++i, ++inserted) {
+        heap.insert(elements[inserted], key + steps[inserted]);
+      }
+    }
+  }
+}
@@ -0,0 +1,123 @@
+package org.opentripplanner.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compare the JMH results of a benchmark run with a baseline, and write the comparison as a
+ * markdown table. Both files are in the JMH JSON format ({@code -rf json}). This is used by the CI
+ * benchmark job, where the baseline is the result of the last run on the main branch.
+ * <p>
+ * A change larger than {@link #THRESHOLD_PERCENT} is marked in the report. The comparison never
+ * fails, the benchmarks run on shared CI machines and the numbers are only an indication. A
+ * missing baseline is reported, and the results are listed without comparison.
+ * <p>
+ * Usage: {@code BenchmarkBaseline <baseline.json> <result.json> <report.md>}
+ */
+public class BenchmarkBaseline {
+
+  private static final double THRESHOLD_PERCENT = 10.0;
+  private static final String ALLOC_RATE = "gc.alloc.rate.norm";
+  private static final String TABLE_HEADER =
+    "| Benchmark | Unit | Baseline | Result | Change | Alloc. baseline | Alloc. result |\n" +
+    "|---|---|---:|---:|---:|---:|---:|\n";
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 3) {
+      throw new IllegalArgumentException(
+        "Usage: BenchmarkBaseline <baseline.json> <result.json> <report.md>"
+      );
+    }
+    var baselineFile = new File(args[0]);
+    var baseline = baselineFile.exists() ? readResults(baselineFile) : Map.<String, JsonNode>of();
+    var results = readResults(new File(args[1]));
+
+    var buf = new StringBuilder("## Benchmarks\n\n");
+    if (baseline.isEmpty()) {
+      buf.append("No baseline found, the results are not compared.\n\n");
+    }
+    buf.append(TABLE_HEADER);
+
+    for (var e : results.entrySet()) {
+      var result = e.getValue();
+      var base = baseline.get(e.getKey());
+      buf
+        .append("| ")
+        .append(e.getKey())
+        .append(" | ")
+        .append(result.at("/primaryMetric/scoreUnit").asText())
+        .append(" | ")
+        .append(base == null ? "-" : format(score(base)))
+        .append(" | ")
+        .append(format(score(result)))
+        .append(" | ")
+        .append(base == null ? "-" : change(result, base))
+        .append(" | ")
+        .append(base == null ? "-" : format(allocRate(base)))
+        .append(" | ")
+        .append(format(allocRate(result)))
+        .append(" |\n");
+    }
+    Files.writeString(Path.of(args[2]), buf.toString());
+  }
+
+  /** Read the results and index them by the benchmark name and the parameters, sorted. */
+  private static Map<String, JsonNode> readResults(File file) throws IOException {
+    var result = new TreeMap<String, JsonNode>();
+    for (JsonNode it : new ObjectMapper().readTree(file)) {
+      result.put(key(it), it);
+    }
+    return result;
+  }
+
+  /** The class and method name of the benchmark, followed by the JMH parameters. */
+  private static String key(JsonNode result) {
+    var name = result.get("benchmark").asText();
+    int classNameStart = name.lastIndexOf('.', name.lastIndexOf('.') - 1) + 1;
+    var buf = new StringBuilder(name.substring(classNameStart));
+    var params = result.get("params");
+    if (params != null) {
+      params
+        .fields()
+        .forEachRemaining(p ->
+          buf.append(' ').append(p.getKey()).append('=').append(p.getValue().asText())
+        );
+    }
+    return buf.toString();
+  }
+
+  /**
+   * The change in percent. The benchmarks measure either the time per operation, where a lower
+   * score is better, or the throughput, where a higher score is better.
+   */
+  private static String change(JsonNode result, JsonNode baseline) {
+    double percent = 100.0 * (score(result) - score(baseline)) / score(baseline);
+    var text = String.format(Locale.ROOT, "%+.1f%%", percent);
+    if (Math.abs(percent) < THRESHOLD_PERCENT) {
+      return text;
+    }
+    boolean lowerIsBetter = !"thrpt".equals(result.get("mode").asText());
+    boolean better = lowerIsBetter ? percent < 0 : percent > 0;
+    return "**" + text + (better ? " faster" : " slower") + "**";
+  }
+
+  private static double score(JsonNode result) {
+    return result.at("/primaryMetric/score").asDouble();
+  }
+
+  private static double allocRate(JsonNode result) {
+    var node = result.at("/secondaryMetrics/" + ALLOC_RATE + "/score");
+    return node.isMissingNode() ? Double.NaN : node.asDouble();
+  }
+
+  private static String format(double value) {
+    return Double.isNaN(value) ? "-" : String.format(Locale.ROOT, "%.3f", value);
+  }
+}
@@ -0,0 +1,28 @@
+package org.opentripplanner.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run the OTP JMH benchmarks. All benchmarks are run if no benchmark is selected on the command
+ * line. The GC profiler is always attached, so the allocation rate({@code gc.alloc.rate.norm}) is
+ * reported for each benchmark. Any other JMH command line option can be passed in.
+ * <p>
+ * Use the maven {@code benchmark} profile to run it, see the pom.xml.
+ */
+public class BenchmarkRunner {
+
+  private static final String ALL_BENCHMARKS = "org\\.opentripplanner\\..*Benchmark";
+
+  public static void main(String[] args) throws Exception {
+    var cmdLineOptions = new CommandLineOptions(args);
+    var options = new OptionsBuilder().parent(cmdLineOptions).addProfiler(GCProfiler.class);
+
+    if (cmdLineOptions.getIncludes().isEmpty()) {
+      options.include(ALL_BENCHMARKS);
+    }
+    new Runner(options.build()).run();
+  }
+}
@@ -0,0 +1,60 @@
+package org.opentripplanner.raptor.util.paretoset;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Add vectors with three criteria (arrival-time, number-of-transfers and cost) to a pareto set.
+ * This is the same kind of vectors the multi-criteria Raptor store for each stop arrival.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParetoSetBenchmark {
+
+  private static final ParetoComparator<Vector> COMPARATOR = (l, r) ->
+    l.time() < r.time() || l.transfers() < r.transfers() || l.cost() < r.cost();
+
+  @Param({ "100", "10000" })
+  public int nVectors;
+
+  private Vector[] vectors;
+  private ParetoSet<Vector> set;
+
+  @Setup
+  public void setup() {
+    var random = new Random(42);
+    vectors = new Vector[nVectors];
+    for (int i = 0; i < nVectors; ++i) {
+      // Time and cost is correlated, like in a real search
+      int time = random.nextInt(3600);
+      vectors[i] = new Vector(time, random.nextInt(5), time + random.nextInt(1200));
+    }
+    set = new ParetoSet<>(COMPARATOR);
+  }
+
+  @Benchmark
+  public int add() {
+    set.clear();
+    for (Vector v : vectors) {
+      set.add(v);
+    }
+    return set.size();
+  }
+
+  private record Vector(int time, int transfers, int cost) {}
+}
@@ -0,0 +1,104 @@
+package org.opentripplanner.routing.algorithm.filterchain;
+
+import static org.opentripplanner.model.plan.TestItineraryBuilder.newItinerary;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.framework.time.TimeUtils;
+import org.opentripplanner.model.plan.Itinerary;
+import org.opentripplanner.model.plan.Place;
+import org.opentripplanner.model.plan.SortOrder;
+import org.opentripplanner.routing.api.request.framework.CostLinearFunction;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+
+/**
+ * Run the itinerary filter chain on a set of generated itineraries. The filters flag the
+ * itineraries they remove, so a fresh set is generated before each invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItineraryListFilterChainBenchmark {
+
+  private static final TransitModelForTest TEST_MODEL = TransitModelForTest.of();
+  private static final Place A = Place.forStop(TEST_MODEL.stop("A").build());
+  private static final Place B = Place.forStop(TEST_MODEL.stop("B").build());
+  private static final Place C = Place.forStop(TEST_MODEL.stop("C").build());
+  private static final Place D = Place.forStop(TEST_MODEL.stop("D").build());
+  private static final Place E = Place.forStop(TEST_MODEL.stop("E").build());
+  private static final int START_TIME = TimeUtils.time("08:00");
+
+  @Param({ "50", "500" })
+  public int nItineraries;
+
+  private ItineraryListFilterChain chain;
+  private List<Itinerary> itineraries;
+  private final Random random = new Random(42);
+
+  @Setup
+  public void setupChain() {
+    chain =
+      new ItineraryListFilterChainBuilder(SortOrder.STREET_AND_ARRIVAL_TIME)
+        .withMaxNumberOfItineraries(20)
+        .withRemoveTransitWithHigherCostThanBestOnStreetOnly(
+          CostLinearFunction.of(Duration.ZERO, 1.0)
+        )
+        .build();
+  }
+
+  @Setup(Level.Invocation)
+  public void setupItineraries() {
+    itineraries = new ArrayList<>(nItineraries);
+    for (int i = 0; i < nItineraries; ++i) {
+      itineraries.add(createItinerary(i));
+    }
+  }
+
+  @Benchmark
+  public List<Itinerary> filter() {
+    return chain.filter(itineraries);
+  }
+
+  /**
+   * Create a walk-all-the-way itinerary or an itinerary with one or two bus legs.
+   */
+  private Itinerary createItinerary(int tripId) {
+    int start = START_TIME + random.nextInt(3600);
+
+    if (tripId % 25 == 0) {
+      return newItinerary(A, start).walk(1800 + random.nextInt(1800), D).build();
+    }
+
+    int walk = 60 + random.nextInt(300);
+    int board = start + walk + random.nextInt(600);
+    int alight = board + 300 + random.nextInt(1200);
+    var builder = newItinerary(A, start).walk(walk, B);
+
+    if (random.nextBoolean()) {
+      builder.bus(tripId, board, alight, C);
+    } else {
+      int board2 = alight + 60 + random.nextInt(600);
+      int alight2 = board2 + 300 + random.nextInt(600);
+      builder.bus(tripId, board, alight, E).bus(tripId + 10_000, board2, alight2, C);
+    }
+    return builder.walk(60 + random.nextInt(300), D).build();
+  }
+}
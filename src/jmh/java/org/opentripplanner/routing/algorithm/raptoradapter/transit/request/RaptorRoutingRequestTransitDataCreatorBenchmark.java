@@ -0,0 +1,160 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner._support.time.ZoneIds;
+import org.opentripplanner.framework.time.ServiceDateUtils;
+import org.opentripplanner.model.StopTime;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.basic.TransitMode;
+import org.opentripplanner.transit.model.network.RoutingTripPattern;
+import org.opentripplanner.transit.model.network.StopPattern;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.site.RegularStop;
+import org.opentripplanner.transit.model.timetable.ScheduledTripTimes;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+
+/**
+ * Create the {@link TripPatternForDates} used by Raptor for a three-day search window. This is
+ * done for every routing request, unless the result is cached. The {@code createTripPatterns}
+ * benchmark covers the whole path used by a request: look up the patterns running on each day,
+ * filter the patterns and the trip times with the filter of a default request, and merge the
+ * patterns of each day. The {@code merge} benchmark only covers the last step. The network is
+ * generated: a set of patterns with random stops, each pattern running a trip every 15 minutes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RaptorRoutingRequestTransitDataCreatorBenchmark {
+
+  private static final TransitModelForTest TEST_MODEL = TransitModelForTest.of();
+  private static final LocalDate DATE = LocalDate.of(2024, 2, 14);
+  private static final int N_STOPS = 2000;
+  private static final int N_STOPS_IN_PATTERN = 12;
+  private static final int N_TRIPS_IN_PATTERN = 20;
+
+  @Param({ "500", "5000" })
+  public int nPatterns;
+
+  private ZonedDateTime transitSearchTimeZero;
+  private List<TripPatternForDate> patternsForDates;
+  private TransitLayer transitLayer;
+  private TransitDataProviderFilter filter;
+
+  @Setup
+  public void setup() {
+    var random = new Random(42);
+    transitSearchTimeZero = ServiceDateUtils.asStartOfService(DATE, ZoneIds.OSLO);
+
+    var stops = new ArrayList<RegularStop>(N_STOPS);
+    for (int i = 0; i < N_STOPS; ++i) {
+      stops.add(TEST_MODEL.stop("S" + i, 59.9 + i * 0.0001, 10.7).build());
+    }
+
+    patternsForDates = new ArrayList<>();
+    Map<LocalDate, List<TripPatternForDate>> patternsRunningOnDate = new HashMap<>();
+    for (int p = 0; p < nPatterns; ++p) {
+      var pattern = createPattern(p, stops, random);
+      var tripTimes = createTripTimes(p);
+      for (var date : List.of(DATE.minusDays(1), DATE, DATE.plusDays(1))) {
+        var patternForDate = new TripPatternForDate(pattern, tripTimes, List.of(), date);
+        patternsForDates.add(patternForDate);
+        for (var runningDate : patternForDate.getRunningPeriodDates()) {
+          patternsRunningOnDate
+            .computeIfAbsent(runningDate, d -> new ArrayList<>())
+            .add(patternForDate);
+        }
+      }
+    }
+
+    transitLayer =
+      new TransitLayer(
+        patternsRunningOnDate,
+        null,
+        null,
+        TEST_MODEL.stopModelBuilder().withRegularStops(stops).build(),
+        ZoneIds.OSLO,
+        null,
+        null,
+        null,
+        null
+      );
+    filter = new RouteRequestTransitDataProviderFilter(new RouteRequest());
+  }
+
+  @Benchmark
+  public List<TripPatternForDates> createTripPatterns() {
+    return new RaptorRoutingRequestTransitDataCreator(transitLayer, transitSearchTimeZero)
+      .createTripPatterns(1, 1, filter, PriorityGroupConfigurator.empty());
+  }
+
+  @Benchmark
+  public List<TripPatternForDates> merge() {
+    return RaptorRoutingRequestTransitDataCreator.merge(
+      transitSearchTimeZero,
+      patternsForDates,
+      filter,
+      PriorityGroupConfigurator.empty()
+    );
+  }
+
+  private static RoutingTripPattern createPattern(
+    int index,
+    List<RegularStop> stops,
+    Random random
+  ) {
+    var stopTimes = new ArrayList<StopTime>(N_STOPS_IN_PATTERN);
+    for (int i = 0; i < N_STOPS_IN_PATTERN; ++i) {
+      var stopTime = new StopTime();
+      stopTime.setStop(stops.get(random.nextInt(stops.size())));
+      stopTimes.add(stopTime);
+    }
+    return TripPattern
+      .of(TransitModelForTest.id("P" + index))
+      .withRoute(TransitModelForTest.route("R" + index).withMode(TransitMode.BUS).build())
+      .withStopPattern(new StopPattern(stopTimes))
+      .build()
+      .getRoutingTripPattern();
+  }
+
+  private static List<TripTimes> createTripTimes(int patternIndex) {
+    var result = new ArrayList<TripTimes>(N_TRIPS_IN_PATTERN);
+    for (int t = 0; t < N_TRIPS_IN_PATTERN; ++t) {
+      int[] departures = new int[N_STOPS_IN_PATTERN];
+      for (int s = 0; s < N_STOPS_IN_PATTERN; ++s) {
+        departures[s] = 5 * 3600 + t * 15 * 60 + s * 120;
+      }
+      result.add(
+        ScheduledTripTimes
+          .of()
+          .withTrip(TransitModelForTest.trip("T" + patternIndex + "-" + t).build())
+          .withDepartureTimes(departures)
+          .build()
+      );
+    }
+    return result;
+  }
+}
@@ -0,0 +1,104 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.raptor._data.transit.TestRoute;
+import org.opentripplanner.raptor._data.transit.TestTripPattern;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.model.SearchDirection;
+import org.opentripplanner.raptor.spi.RaptorTripScheduleSearch;
+
+/**
+ * Search for the first trip to board and the last trip to alight in a synthetic route. The
+ * route have a trip every 5 minutes, and the number of trips decide if the binary search is used
+ * or not. Each benchmark invocation performs {@link #N_SEARCHES} searches with random times and
+ * stop positions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TripScheduleSearchBenchmark {
+
+  private static final int N_STOPS = 20;
+  private static final int N_SEARCHES = 1000;
+  private static final int FIRST_DEPARTURE = 4 * 3600;
+  private static final int HEADWAY = 5 * 60;
+  private static final int HOP_TIME = 2 * 60;
+
+  @Param({ "10", "200" })
+  public int nTrips;
+
+  private RaptorTripScheduleSearch<TestTripSchedule> boardSearch;
+  private RaptorTripScheduleSearch<TestTripSchedule> alightSearch;
+  private final int[] times = new int[N_SEARCHES];
+  private final int[] stopPositions = new int[N_SEARCHES];
+
+  @Setup
+  public void setup() {
+    int[] stops = new int[N_STOPS];
+    for (int i = 0; i < N_STOPS; ++i) {
+      stops[i] = i + 1;
+    }
+    var route = TestRoute
+      .route(TestTripPattern.pattern("R1", stops))
+      .withTimetable(createTrips());
+
+    boardSearch = route.tripSearch(SearchDirection.FORWARD);
+    alightSearch = route.tripSearch(SearchDirection.REVERSE);
+
+    var random = new Random(42);
+    int lastDeparture = FIRST_DEPARTURE + nTrips * HEADWAY + N_STOPS * HOP_TIME;
+    for (int i = 0; i < N_SEARCHES; ++i) {
+      times[i] = FIRST_DEPARTURE + random.nextInt(lastDeparture - FIRST_DEPARTURE);
+      stopPositions[i] = random.nextInt(N_STOPS);
+    }
+  }
+
+  @Benchmark
+  public int boardSearch() {
+    return search(boardSearch);
+  }
+
+  @Benchmark
+  public int alightSearch() {
+    return search(alightSearch);
+  }
+
+  private int search(RaptorTripScheduleSearch<TestTripSchedule> search) {
+    int found = 0;
+    for (int i = 0; i < N_SEARCHES; ++i) {
+      if (!search.search(times[i], stopPositions[i]).empty()) {
+        ++found;
+      }
+    }
+    return found;
+  }
+
+  private TestTripSchedule.Builder[] createTrips() {
+    var trips = new TestTripSchedule.Builder[nTrips];
+    for (int t = 0; t < nTrips; ++t) {
+      int[] departures = new int[N_STOPS];
+      for (int s = 0; s < N_STOPS; ++s) {
+        departures[s] = FIRST_DEPARTURE + t * HEADWAY + s * HOP_TIME;
+      }
+      trips[t] = schedule().departures(departures);
+    }
+    return trips;
+  }
+}
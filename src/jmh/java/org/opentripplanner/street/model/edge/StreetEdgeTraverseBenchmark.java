@@ -0,0 +1,70 @@
+package org.opentripplanner.street.model.edge;
+
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.vertex.IntersectionVertex;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.state.State;
+
+/**
+ * Traverse a generated street of {@link #N_EDGES} connected edges. The street zigzags, so turn
+ * costs are calculated for each intersection. Each invocation traverse all edges, starting from
+ * the first vertex.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StreetEdgeTraverseBenchmark {
+
+  private static final int N_EDGES = 1000;
+
+  @Param({ "WALK", "BIKE", "CAR" })
+  public StreetMode mode;
+
+  private IntersectionVertex start;
+  private StreetEdge[] edges;
+  private StreetSearchRequest request;
+
+  @Setup
+  public void setup() {
+    var random = new Random(42);
+    edges = new StreetEdge[N_EDGES];
+
+    var from = start = intersectionVertex("V0", 59.9, 10.7);
+    for (int i = 0; i < N_EDGES; ++i) {
+      double lat = from.getLat() + 0.0005;
+      double lon = from.getLon() + (random.nextBoolean() ? 0.0005 : -0.0005);
+      var to = intersectionVertex("V" + (i + 1), lat, lon);
+      edges[i] = streetEdge(from, to, 50 + random.nextInt(100), StreetTraversalPermission.ALL);
+      from = to;
+    }
+    request = StreetSearchRequest.of().withMode(mode).build();
+  }
+
+  @Benchmark
+  public State traverse() {
+    var state = new State(start, request);
+    for (StreetEdge edge : edges) {
+      state = edge.traverse(state)[0];
+    }
+    return state;
+  }
+}
@@ -32,6 +32,7 @@ import org.opentripplanner.ext.restapi.resources.BikeRental;
 import org.opentripplanner.ext.restapi.resources.IndexAPI;
 import org.opentripplanner.ext.restapi.resources.PlannerResource;
 import org.opentripplanner.ext.restapi.resources.Routers;
+import org.opentripplanner.ext.traveltime.TravelTimeMatrixResource;
 import org.opentripplanner.ext.traveltime.TravelTimeResource;
 import org.opentripplanner.ext.vectortiles.VectorTilesResource;
 import org.opentripplanner.framework.application.OTPFeature;
@@ -62,6 +63,7 @@ public class APIEndpoints {
     addIfEnabled(SandboxAPIParkAndRideApi, ParkAndRideResource.class);
     addIfEnabled(SandboxAPIGeocoder, GeocoderResource.class);
     addIfEnabled(SandboxAPITravelTime, TravelTimeResource.class);
+    addIfEnabled(SandboxAPITravelTime, TravelTimeMatrixResource.class);
 
     // scheduled to be removed
     addIfEnabled(APIBikeRental, BikeRental.class);
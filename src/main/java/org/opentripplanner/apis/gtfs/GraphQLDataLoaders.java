@@ -0,0 +1,174 @@
+package org.opentripplanner.apis.gtfs;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import org.dataloader.BatchLoader;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderFactory;
+import org.dataloader.DataLoaderRegistry;
+import org.opentripplanner.model.StopTimesInPattern;
+import org.opentripplanner.routing.alertpatch.TransitAlert;
+import org.opentripplanner.routing.stoptimes.ArrivalDeparture;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+import org.opentripplanner.transit.model.network.Route;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.site.StopLocation;
+import org.opentripplanner.transit.service.TransitService;
+
+/**
+ * Batched and memoized loading of the relations which are expensive to resolve one object at the
+ * time, like the patterns and the stop times of a stop. A query like "stops in an area, with their
+ * routes and stop times" resolves the same relation for many, often repeated, objects. The data
+ * loaders collect the keys of each level of the query and load them in one batch, and each key is
+ * only loaded once per request.
+ * <p>
+ * A new registry is created for each GraphQL request, so nothing is cached between requests and
+ * the realtime updates are seen by the next request.
+ */
+public class GraphQLDataLoaders {
+
+  private static final String PATTERNS_FOR_STOP = "patternsForStop";
+  private static final String ROUTES_FOR_STOP = "routesForStop";
+  private static final String ALERTS_FOR_STOP = "alertsForStop";
+  private static final String STOP_TIMES_FOR_STOP = "stopTimesForStop";
+
+  static final String BATCH_SIZE_METRIC_NAME = "graphql.dataloader.batch.size";
+
+  /**
+   * The arguments of {@link TransitService#stopTimesForStop}, used as the key of the stop times
+   * loader. The start time is the raw argument in epoch seconds, {@code 0} is the time of the
+   * request. It is resolved by the loader, so the keys of the default start time are equal.
+   */
+  public record StopTimesForStopKey(
+    StopLocation stop,
+    long startTime,
+    Duration timeRange,
+    int numberOfDepartures,
+    ArrivalDeparture arrivalDeparture,
+    boolean includeCancelledTrips
+  ) {
+    Instant startTime(Instant requestTime) {
+      return startTime != 0 ? Instant.ofEpochSecond(startTime) : requestTime;
+    }
+  }
+
+  /**
+   * @param meterRegistry the batch sizes are recorded in this registry, if it is not null
+   */
+  static DataLoaderRegistry createRegistry(
+    TransitService transitService,
+    @Nullable MeterRegistry meterRegistry
+  ) {
+    // "Now" is the same for all fields of the request
+    var requestTime = Instant.now();
+    var registry = new DataLoaderRegistry();
+    registry.register(
+      PATTERNS_FOR_STOP,
+      newDataLoader(
+        PATTERNS_FOR_STOP,
+        (StopLocation stop) -> transitService.getPatternsForStop(stop, true),
+        meterRegistry
+      )
+    );
+    registry.register(
+      ROUTES_FOR_STOP,
+      newDataLoader(ROUTES_FOR_STOP, transitService::getRoutesForStop, meterRegistry)
+    );
+    registry.register(
+      ALERTS_FOR_STOP,
+      newDataLoader(
+        ALERTS_FOR_STOP,
+        (FeedScopedId stopId) -> transitService.getTransitAlertService().getStopAlerts(stopId),
+        meterRegistry
+      )
+    );
+    registry.register(
+      STOP_TIMES_FOR_STOP,
+      newDataLoader(
+        STOP_TIMES_FOR_STOP,
+        (StopTimesForStopKey key) ->
+          transitService.stopTimesForStop(
+            key.stop(),
+            key.startTime(requestTime),
+            key.timeRange(),
+            key.numberOfDepartures(),
+            key.arrivalDeparture(),
+            key.includeCancelledTrips()
+          ),
+        meterRegistry
+      )
+    );
+    return registry;
+  }
+
+  public static DataLoader<StopLocation, Collection<TripPattern>> patternsForStop(
+    DataFetchingEnvironment environment
+  ) {
+    return environment.getDataLoader(PATTERNS_FOR_STOP);
+  }
+
+  public static DataLoader<StopLocation, Collection<Route>> routesForStop(
+    DataFetchingEnvironment environment
+  ) {
+    return environment.getDataLoader(ROUTES_FOR_STOP);
+  }
+
+  public static DataLoader<FeedScopedId, Collection<TransitAlert>> alertsForStop(
+    DataFetchingEnvironment environment
+  ) {
+    return environment.getDataLoader(ALERTS_FOR_STOP);
+  }
+
+  public static DataLoader<StopTimesForStopKey, List<StopTimesInPattern>> stopTimesForStop(
+    DataFetchingEnvironment environment
+  ) {
+    return environment.getDataLoader(STOP_TIMES_FOR_STOP);
+  }
+
+  /**
+   * Create a data fetcher which returns a {@link CompletableFuture}. graphql-java waits for a
+   * future returned by any data fetcher, but the generated data fetcher interfaces do not allow
+   * it as the return type.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> DataFetcher<T> async(
+    Function<DataFetchingEnvironment, CompletableFuture<? extends T>> fetcher
+  ) {
+    return environment -> (T) fetcher.apply(environment);
+  }
+
+  /**
+   * Create a loader which loads each key of a batch with the given function. The transit service
+   * has no bulk lookups, so the gain is that each key is only loaded once per request.
+   */
+  static <K, V> DataLoader<K, V> newDataLoader(
+    String name,
+    Function<K, V> loader,
+    @Nullable MeterRegistry meterRegistry
+  ) {
+    DistributionSummary batchSize = meterRegistry == null
+      ? null
+      : DistributionSummary
+        .builder(BATCH_SIZE_METRIC_NAME)
+        .description("The number of keys loaded in one batch")
+        .tag("loader", name)
+        .register(meterRegistry);
+
+    BatchLoader<K, V> batchLoader = keys -> {
+      if (batchSize != null) {
+        batchSize.record(keys.size());
+      }
+      return CompletableFuture.completedFuture(keys.stream().map(loader).toList());
+    };
+    return DataLoaderFactory.newDataLoader(batchLoader);
+  }
+}
@@ -16,6 +16,7 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import org.opentripplanner.framework.graphql.QueryAdmissionControl;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -95,7 +96,8 @@ public class GtfsGraphQLAPI {
       maxResolves,
       timeout,
       locale,
-      GraphQLRequestContext.ofServerContext(serverContext)
+      GraphQLRequestContext.ofServerContext(serverContext),
+      headers.getHeaderString(QueryAdmissionControl.CLIENT_HEADER)
     );
   }
 
@@ -117,7 +119,8 @@ public class GtfsGraphQLAPI {
       maxResolves,
       timeout,
       locale,
-      GraphQLRequestContext.ofServerContext(serverContext)
+      GraphQLRequestContext.ofServerContext(serverContext),
+      headers.getHeaderString(QueryAdmissionControl.CLIENT_HEADER)
     );
   }
 }
@@ -13,19 +13,21 @@ import graphql.schema.idl.RuntimeWiring;
 import graphql.schema.idl.SchemaGenerator;
 import graphql.schema.idl.SchemaParser;
 import graphql.schema.idl.TypeDefinitionRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Metrics;
 import jakarta.ws.rs.core.Response;
 import java.net.URL;
+import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import javax.annotation.Nullable;
 import org.opentripplanner.apis.gtfs.datafetchers.AgencyImpl;
 import org.opentripplanner.apis.gtfs.datafetchers.AlertEntityTypeResolver;
 import org.opentripplanner.apis.gtfs.datafetchers.AlertImpl;
@@ -86,8 +88,10 @@ import org.opentripplanner.apis.gtfs.datafetchers.stopAtDistanceImpl;
 import org.opentripplanner.apis.gtfs.model.StopPosition;
 import org.opentripplanner.ext.actuator.MicrometerGraphQLInstrumentation;
 import org.opentripplanner.framework.application.OTPFeature;
-import org.opentripplanner.framework.concurrent.OtpRequestThreadFactory;
 import org.opentripplanner.framework.graphql.GraphQLResponseSerializer;
+import org.opentripplanner.framework.graphql.QueryAdmissionControl;
+import org.opentripplanner.framework.graphql.QueryCostCalculator;
+import org.opentripplanner.framework.graphql.QueryCostInstrumentation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -97,10 +101,13 @@ class GtfsGraphQLIndex {
 
   private static final GraphQLSchema indexSchema = buildSchema();
 
-  static final ExecutorService threadPool = Executors.newCachedThreadPool(
-    OtpRequestThreadFactory.of("gtfs-api-%d")
+  private static final QueryCostCalculator queryCostCalculator = new QueryCostCalculator(
+    Set.of("plan"),
+    ChronoUnit.SECONDS
   );
 
+  private static final QueryAdmissionControl admissionControl = QueryAdmissionControl.ofDefaults();
+
   protected static GraphQLSchema buildSchema() {
     try {
       URL url = Objects.requireNonNull(GtfsGraphQLIndex.class.getResource("schema.graphqls"));
@@ -189,17 +196,31 @@ class GtfsGraphQLIndex {
     int maxResolves,
     int timeoutMs,
     Locale locale,
-    GraphQLRequestContext requestContext
+    GraphQLRequestContext requestContext,
+    @Nullable String clientName
   ) {
     Instrumentation instrumentation = new MaxQueryComplexityInstrumentation(maxResolves);
+    MeterRegistry meterRegistry = null;
+    // Closed when the query is done, to let the next expensive query in
+    var admission = OTPFeature.GraphQLAdmissionControl.isOn()
+      ? admissionControl.newAdmission(clientName)
+      : null;
 
     if (OTPFeature.ActuatorAPI.isOn()) {
+      meterRegistry = Metrics.globalRegistry;
       instrumentation =
         new ChainedInstrumentation(
-          new MicrometerGraphQLInstrumentation(Metrics.globalRegistry, List.of()),
+          new MicrometerGraphQLInstrumentation(meterRegistry, List.of()),
           instrumentation
         );
     }
+    if (meterRegistry != null || admission != null) {
+      instrumentation =
+        new ChainedInstrumentation(
+          instrumentation,
+          new QueryCostInstrumentation(queryCostCalculator, admission, meterRegistry, List.of())
+        );
+    }
 
     GraphQL graphQL = GraphQL.newGraphQL(indexSchema).instrumentation(instrumentation).build();
 
@@ -214,8 +235,11 @@ class GtfsGraphQLIndex {
       .context(requestContext)
       .variables(variables)
       .locale(locale)
+      .dataLoaderRegistry(
+        GraphQLDataLoaders.createRegistry(requestContext.transitService(), meterRegistry)
+      )
       .build();
-    try {
+    try (admission) {
       return graphQL.executeAsync(executionInput).get(timeoutMs, TimeUnit.MILLISECONDS);
     } catch (InterruptedException | ExecutionException | TimeoutException e) {
       return new AbortExecutionException(e).toExecutionResult();
@@ -229,7 +253,8 @@ class GtfsGraphQLIndex {
     int maxResolves,
     int timeoutMs,
     Locale locale,
-    GraphQLRequestContext requestContext
+    GraphQLRequestContext requestContext,
+    @Nullable String clientName
   ) {
     ExecutionResult executionResult = getGraphQLExecutionResult(
       query,
@@ -238,7 +263,8 @@ class GtfsGraphQLIndex {
       maxResolves,
       timeoutMs,
       locale,
-      requestContext
+      requestContext,
+      clientName
     );
 
     return Response
@@ -11,9 +11,11 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import org.opentripplanner.apis.gtfs.GraphQLDataLoaders;
 import org.opentripplanner.apis.gtfs.GraphQLRequestContext;
 import org.opentripplanner.apis.gtfs.GraphQLUtils;
 import org.opentripplanner.apis.gtfs.generated.GraphQLDataFetchers;
@@ -40,7 +42,7 @@ public class StopImpl implements GraphQLDataFetchers.GraphQLStop {
 
   @Override
   public DataFetcher<Iterable<TransitAlert>> alerts() {
-    return environment -> {
+    return GraphQLDataLoaders.async(environment -> {
       TransitAlertService alertService = getTransitService(environment).getTransitAlertService();
       var args = new GraphQLTypes.GraphQLStopAlertsArgs(environment.getArguments());
       List<GraphQLTypes.GraphQLStopAlertType> types = args.getGraphQLTypes();
@@ -113,11 +115,13 @@ public class StopImpl implements GraphQLDataFetchers.GraphQLStop {
               }
             });
         }
-        return alerts.stream().distinct().collect(Collectors.toList());
+        return CompletableFuture.completedFuture(
+          alerts.stream().distinct().collect(Collectors.toList())
+        );
       } else {
-        return alertService.getStopAlerts(id);
+        return GraphQLDataLoaders.alertsForStop(environment).load(id);
       }
-    };
+    });
   }
 
   @Override
@@ -233,7 +237,13 @@ public class StopImpl implements GraphQLDataFetchers.GraphQLStop {
 
   @Override
   public DataFetcher<Iterable<TripPattern>> patterns() {
-    return this::getPatterns;
+    return GraphQLDataLoaders.async(environment ->
+      getValue(
+        environment,
+        stop -> GraphQLDataLoaders.patternsForStop(environment).load(stop),
+        station -> null
+      )
+    );
   }
 
   @Override
@@ -243,7 +253,13 @@ public class StopImpl implements GraphQLDataFetchers.GraphQLStop {
 
   @Override
   public DataFetcher<Iterable<Route>> routes() {
-    return this::getRoutes;
+    return GraphQLDataLoaders.async(environment ->
+      getValue(
+        environment,
+        stop -> GraphQLDataLoaders.routesForStop(environment).load(stop),
+        station -> null
+      )
+    );
   }
 
   @Override
@@ -299,32 +315,17 @@ public class StopImpl implements GraphQLDataFetchers.GraphQLStop {
 
   @Override
   public DataFetcher<Iterable<StopTimesInPattern>> stoptimesForPatterns() {
-    return environment -> {
-      TransitService transitService = getTransitService(environment);
+    return GraphQLDataLoaders.async(environment -> {
       var args = new GraphQLTypes.GraphQLStopStoptimesForPatternsArgs(environment.getArguments());
-
-      Function<StopLocation, List<StopTimesInPattern>> stopTFunction = stop ->
-        transitService.stopTimesForStop(
-          stop,
-          GraphQLUtils.getTimeOrNow(args.getGraphQLStartTime()),
-          Duration.ofSeconds(args.getGraphQLTimeRange()),
-          args.getGraphQLNumberOfDepartures(),
-          args.getGraphQLOmitNonPickups() ? ArrivalDeparture.DEPARTURES : ArrivalDeparture.BOTH,
-          !args.getGraphQLOmitCanceled()
-        );
-
-      return getValue(
+      return getStopTimesForStop(
         environment,
-        stopTFunction,
-        station ->
-          station
-            .getChildStops()
-            .stream()
-            .map(stopTFunction)
-            .flatMap(Collection::stream)
-            .collect(Collectors.toList())
+        args.getGraphQLStartTime(),
+        args.getGraphQLTimeRange(),
+        args.getGraphQLNumberOfDepartures(),
+        args.getGraphQLOmitNonPickups(),
+        args.getGraphQLOmitCanceled()
       );
-    };
+    });
   }
 
   @Override
@@ -365,34 +366,28 @@ public class StopImpl implements GraphQLDataFetchers.GraphQLStop {
 
   @Override
   public DataFetcher<Iterable<TripTimeOnDate>> stoptimesWithoutPatterns() {
-    return environment -> {
-      TransitService transitService = getTransitService(environment);
+    return GraphQLDataLoaders.async(environment -> {
       var args = new GraphQLTypes.GraphQLStopStoptimesForPatternsArgs(environment.getArguments());
-
-      Function<StopLocation, Stream<StopTimesInPattern>> stopTFunction = stop ->
-        transitService
-          .stopTimesForStop(
-            stop,
-            GraphQLUtils.getTimeOrNow(args.getGraphQLStartTime()),
-            Duration.ofSeconds(args.getGraphQLTimeRange()),
-            args.getGraphQLNumberOfDepartures(),
-            args.getGraphQLOmitNonPickups() ? ArrivalDeparture.DEPARTURES : ArrivalDeparture.BOTH,
-            !args.getGraphQLOmitCanceled()
-          )
-          .stream();
-
-      Stream<StopTimesInPattern> stream = getValue(
+      var stopTimes = getStopTimesForStop(
         environment,
-        stopTFunction,
-        station -> station.getChildStops().stream().flatMap(stopTFunction)
+        args.getGraphQLStartTime(),
+        args.getGraphQLTimeRange(),
+        args.getGraphQLNumberOfDepartures(),
+        args.getGraphQLOmitNonPickups(),
+        args.getGraphQLOmitCanceled()
       );
-
-      return stream
-        .flatMap(stoptimesWithPattern -> stoptimesWithPattern.times.stream())
-        .sorted(Comparator.comparing(t -> t.getServiceDayMidnight() + t.getRealtimeDeparture()))
-        .limit(args.getGraphQLNumberOfDepartures())
-        .collect(Collectors.toList());
-    };
+      if (stopTimes == null) {
+        return null;
+      }
+      return stopTimes.thenApply(stoptimesWithPatterns ->
+        stoptimesWithPatterns
+          .stream()
+          .flatMap(stoptimesWithPattern -> stoptimesWithPattern.times.stream())
+          .sorted(Comparator.comparing(t -> t.getServiceDayMidnight() + t.getRealtimeDeparture()))
+          .limit(args.getGraphQLNumberOfDepartures())
+          .collect(Collectors.toList())
+      );
+    });
   }
 
   @Override
@@ -494,6 +489,42 @@ public class StopImpl implements GraphQLDataFetchers.GraphQLStop {
     );
   }
 
+  /**
+   * Load the stop times of a stop, or of all child stops of a station, with the stop times loader.
+   * The stop times of a stop are only looked up once per request, for the same arguments.
+   */
+  private CompletableFuture<List<StopTimesInPattern>> getStopTimesForStop(
+    DataFetchingEnvironment environment,
+    long startTime,
+    int timeRange,
+    int numberOfDepartures,
+    boolean omitNonPickups,
+    boolean omitCanceled
+  ) {
+    var loader = GraphQLDataLoaders.stopTimesForStop(environment);
+
+    Function<StopLocation, GraphQLDataLoaders.StopTimesForStopKey> key = stop ->
+      new GraphQLDataLoaders.StopTimesForStopKey(
+        stop,
+        startTime,
+        Duration.ofSeconds(timeRange),
+        numberOfDepartures,
+        omitNonPickups ? ArrivalDeparture.DEPARTURES : ArrivalDeparture.BOTH,
+        !omitCanceled
+      );
+
+    return getValue(
+      environment,
+      stop -> loader.load(key.apply(stop)),
+      station ->
+        loader
+          .loadMany(station.getChildStops().stream().map(key).toList())
+          .thenApply(stopTimes ->
+            stopTimes.stream().flatMap(Collection::stream).collect(Collectors.toList())
+          )
+    );
+  }
+
   private TransitService getTransitService(DataFetchingEnvironment environment) {
     return environment.<GraphQLRequestContext>getContext().transitService();
   }
@@ -24,6 +24,7 @@ import java.util.Map;
 import java.util.stream.Collectors;
 import org.opentripplanner.apis.transmodel.mapping.TransitIdMapper;
 import org.opentripplanner.apis.transmodel.support.GqlUtil;
+import org.opentripplanner.framework.graphql.QueryAdmissionControl;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
 import org.opentripplanner.transit.service.TransitModel;
@@ -125,7 +126,8 @@ public class TransmodelAPI {
       variables,
       operationName,
       maxResolves,
-      getTagsFromHeaders(headers)
+      getTagsFromHeaders(headers),
+      headers.getHeaderString(QueryAdmissionControl.CLIENT_HEADER)
     );
   }
 
@@ -143,7 +145,8 @@ public class TransmodelAPI {
       null,
       null,
       maxResolves,
-      getTagsFromHeaders(headers)
+      getTagsFromHeaders(headers),
+      headers.getHeaderString(QueryAdmissionControl.CLIENT_HEADER)
     );
   }
 
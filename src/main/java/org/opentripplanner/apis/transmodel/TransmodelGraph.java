@@ -10,19 +10,23 @@ import graphql.execution.instrumentation.ChainedInstrumentation;
 import graphql.execution.instrumentation.Instrumentation;
 import graphql.schema.CoercingParseValueException;
 import graphql.schema.GraphQLSchema;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.Tag;
 import jakarta.ws.rs.core.Response;
+import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.Set;
+import javax.annotation.Nullable;
 import org.opentripplanner.apis.transmodel.support.AbortOnTimeoutExecutionStrategy;
 import org.opentripplanner.apis.transmodel.support.ExecutionResultMapper;
 import org.opentripplanner.ext.actuator.MicrometerGraphQLInstrumentation;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.application.OTPRequestTimeoutException;
-import org.opentripplanner.framework.concurrent.OtpRequestThreadFactory;
+import org.opentripplanner.framework.graphql.QueryAdmissionControl;
+import org.opentripplanner.framework.graphql.QueryCostCalculator;
+import org.opentripplanner.framework.graphql.QueryCostInstrumentation;
 import org.opentripplanner.framework.lang.ObjectUtils;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
 import org.slf4j.Logger;
@@ -33,13 +37,17 @@ class TransmodelGraph {
   private static final Logger LOG = LoggerFactory.getLogger(TransmodelGraph.class);
 
   private static final int MAX_ERROR_TO_RETURN = 25;
-  private final GraphQLSchema indexSchema;
 
-  final ExecutorService threadPool;
+  private static final QueryCostCalculator queryCostCalculator = new QueryCostCalculator(
+    Set.of("trip"),
+    ChronoUnit.MINUTES
+  );
+
+  private static final QueryAdmissionControl admissionControl = QueryAdmissionControl.ofDefaults();
+
+  private final GraphQLSchema indexSchema;
 
   TransmodelGraph(GraphQLSchema schema) {
-    this.threadPool =
-      Executors.newCachedThreadPool(OtpRequestThreadFactory.of("transmodel-api-%d"));
     this.indexSchema = schema;
   }
 
@@ -49,11 +57,17 @@ class TransmodelGraph {
     Map<String, Object> variables,
     String operationName,
     int maxResolves,
-    Iterable<Tag> tracingTags
+    Iterable<Tag> tracingTags,
+    @Nullable String clientName
   ) {
-    try (var executionStrategy = new AbortOnTimeoutExecutionStrategy()) {
+    try (
+      var executionStrategy = new AbortOnTimeoutExecutionStrategy();
+      var admission = OTPFeature.GraphQLAdmissionControl.isOn()
+        ? admissionControl.newAdmission(clientName)
+        : null
+    ) {
       variables = ObjectUtils.ifNotNull(variables, new HashMap<>());
-      var instrumentation = createInstrumentation(maxResolves, tracingTags);
+      var instrumentation = createInstrumentation(maxResolves, tracingTags, admission);
       var transmodelRequestContext = createRequestContext(serverContext);
       var executionInput = createExecutionInput(
         query,
@@ -78,16 +92,29 @@ class TransmodelGraph {
     }
   }
 
-  private static Instrumentation createInstrumentation(int maxResolves, Iterable<Tag> tracingTags) {
+  private static Instrumentation createInstrumentation(
+    int maxResolves,
+    Iterable<Tag> tracingTags,
+    @Nullable QueryAdmissionControl.Admission admission
+  ) {
     Instrumentation instrumentation = new MaxQueryComplexityInstrumentation(maxResolves);
+    MeterRegistry meterRegistry = null;
 
     if (OTPFeature.ActuatorAPI.isOn()) {
+      meterRegistry = Metrics.globalRegistry;
       instrumentation =
         new ChainedInstrumentation(
-          new MicrometerGraphQLInstrumentation(Metrics.globalRegistry, tracingTags),
+          new MicrometerGraphQLInstrumentation(meterRegistry, tracingTags),
           instrumentation
         );
     }
+    if (meterRegistry != null || admission != null) {
+      instrumentation =
+        new ChainedInstrumentation(
+          instrumentation,
+          new QueryCostInstrumentation(queryCostCalculator, admission, meterRegistry, tracingTags)
+        );
+    }
     return instrumentation;
   }
 
@@ -4,14 +4,15 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
-import org.opentripplanner.astar.model.BinHeap;
 import org.opentripplanner.astar.model.GraphPath;
 import org.opentripplanner.astar.model.ShortestPathTree;
 import org.opentripplanner.astar.spi.AStarEdge;
+import org.opentripplanner.astar.spi.AStarPriorityQueue;
 import org.opentripplanner.astar.spi.AStarState;
 import org.opentripplanner.astar.spi.AStarVertex;
 import org.opentripplanner.astar.spi.DominanceFunction;
@@ -46,9 +47,10 @@ public class AStar<
   private final SearchTerminationStrategy<State> terminationStrategy;
   private final TraverseVisitor<State, Edge> traverseVisitor;
   private final Duration timeout;
+  private final Map<Vertex, List<Edge>> edgeOverlay;
 
   private final ShortestPathTree<State, Edge, Vertex> spt;
-  private final BinHeap<State> pq;
+  private final AStarPriorityQueue<State> pq;
   private final List<State> targetAcceptedStates;
 
   private State u;
@@ -64,7 +66,9 @@ public class AStar<
     SearchTerminationStrategy<State> terminationStrategy,
     DominanceFunction<State> dominanceFunction,
     @Nonnull Duration timeout,
-    Collection<State> initialStates
+    Collection<State> initialStates,
+    AStarPriorityQueue<State> priorityQueue,
+    Map<Vertex, List<Edge>> edgeOverlay
   ) {
     this.heuristic = heuristic;
     this.skipEdgeStrategy = skipEdgeStrategy;
@@ -74,11 +78,11 @@ public class AStar<
     this.arriveBy = arriveBy;
     this.terminationStrategy = terminationStrategy;
     this.timeout = Objects.requireNonNull(timeout);
+    this.edgeOverlay = edgeOverlay;
 
     this.spt = new ShortestPathTree<>(dominanceFunction);
 
-    // Initialized with a reasonable size, see #4445
-    this.pq = new BinHeap<>(1000);
+    this.pq = priorityQueue;
     this.nVisited = 0;
     this.targetAcceptedStates = new ArrayList<>();
 
@@ -107,12 +111,12 @@ public class AStar<
   private boolean iterate() {
     // print debug info
     if (verbose) {
-      double w = pq.peek_min_key();
+      double w = pq.peekMinKey();
       LOG.debug("pq min key = {}", w);
     }
 
     // get the lowest-weight state in the queue
-    u = pq.extract_min();
+    u = pq.extractMin();
 
     // check that this state has not been dominated
     // and mark vertex as visited
@@ -136,51 +140,62 @@ public class AStar<
 
     Collection<Edge> edges = arriveBy ? u_vertex.getIncoming() : u_vertex.getOutgoing();
     for (Edge edge : edges) {
-      if (skipEdgeStrategy != null && skipEdgeStrategy.shouldSkipEdge(u, edge)) {
-        continue;
+      traverse(edge);
+    }
+    // Edges of this search which are not in the edge lists of the vertex
+    List<Edge> overlayEdges = edgeOverlay.get(u_vertex);
+    if (overlayEdges != null) {
+      for (Edge edge : overlayEdges) {
+        traverse(edge);
       }
+    }
 
-      // Iterate over traversal results. When an edge leads nowhere (as indicated by
-      // returning an empty array), the iteration is over.
-      var states = edge.traverse(u);
-      for (var v : states) {
-        // Could be: for (State v : traverseEdge...)
+    return true;
+  }
 
-        if (traverseVisitor != null) {
-          traverseVisitor.visitEdge(edge);
-        }
+  private void traverse(Edge edge) {
+    if (skipEdgeStrategy != null && skipEdgeStrategy.shouldSkipEdge(u, edge)) {
+      return;
+    }
 
-        double remaining_w = heuristic.estimateRemainingWeight(v);
+    // Iterate over traversal results. When an edge leads nowhere (as indicated by
+    // returning an empty array), the iteration is over.
+    var states = edge.traverse(u);
+    for (var v : states) {
+      // Could be: for (State v : traverseEdge...)
 
-        if (remaining_w < 0 || Double.isInfinite(remaining_w)) {
-          continue;
-        }
-        double estimate = v.getWeight() + remaining_w;
-
-        if (verbose) {
-          LOG.debug("      edge {}", edge);
-          LOG.debug(
-            "      {} -> {}(w) + {}(heur) = {} vert = {}",
-            u.getWeight(),
-            v.getWeight(),
-            remaining_w,
-            estimate,
-            v.getVertex()
-          );
-        }
+      if (traverseVisitor != null) {
+        traverseVisitor.visitEdge(edge);
+      }
+
+      double remaining_w = heuristic.estimateRemainingWeight(v);
 
-        // spt.add returns true if the state is hopeful; enqueue state if it's hopeful
-        if (spt.add(v)) {
-          // report to the visitor if there is one
-          if (traverseVisitor != null) {
-            traverseVisitor.visitEnqueue();
-          }
-          pq.insert(v, estimate);
+      if (remaining_w < 0 || Double.isInfinite(remaining_w)) {
+        continue;
+      }
+      double estimate = v.getWeight() + remaining_w;
+
+      if (verbose) {
+        LOG.debug("      edge {}", edge);
+        LOG.debug(
+          "      {} -> {}(w) + {}(heur) = {} vert = {}",
+          u.getWeight(),
+          v.getWeight(),
+          remaining_w,
+          estimate,
+          v.getVertex()
+        );
+      }
+
+      // spt.add returns true if the state is hopeful; enqueue state if it's hopeful
+      if (spt.add(v)) {
+        // report to the visitor if there is one
+        if (traverseVisitor != null) {
+          traverseVisitor.visitEnqueue();
         }
+        pq.insert(v, estimate);
       }
     }
-
-    return true;
   }
 
   private void runSearch() {
@@ -188,7 +203,7 @@ public class AStar<
     long abortTime = DateUtils.absoluteTimeout(timeout);
 
     /* the core of the A* algorithm */
-    while (!pq.empty()) { // Until the priority queue is empty:
+    while (!pq.isEmpty()) { // Until the priority queue is empty:
       /*
        * Terminate based on timeout. We don't check the termination on every round, as it is
        * expensive to fetch the current time, compared to just running one more round.
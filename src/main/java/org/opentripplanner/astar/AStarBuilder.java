@@ -4,12 +4,16 @@ import java.time.Duration;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 import javax.annotation.Nonnull;
+import org.opentripplanner.astar.model.BinHeap;
 import org.opentripplanner.astar.model.GraphPath;
 import org.opentripplanner.astar.model.ShortestPathTree;
 import org.opentripplanner.astar.spi.AStarEdge;
+import org.opentripplanner.astar.spi.AStarPriorityQueue;
 import org.opentripplanner.astar.spi.AStarState;
 import org.opentripplanner.astar.spi.AStarVertex;
 import org.opentripplanner.astar.spi.DominanceFunction;
@@ -36,6 +40,8 @@ public abstract class AStarBuilder<
   private DominanceFunction<State> dominanceFunction;
   private Edge originBackEdge;
   private Collection<State> initialStates;
+  // Initialized with a reasonable size, see #4445
+  private Supplier<AStarPriorityQueue<State>> priorityQueueFactory = () -> new BinHeap<>(1000);
 
   protected AStarBuilder() {}
 
@@ -111,6 +117,15 @@ public abstract class AStarBuilder<
     return builder;
   }
 
+  /**
+   * Set the priority queue implementation to use, the default is a binary heap. See the
+   * implementations of {@link AStarPriorityQueue}.
+   */
+  public Builder setPriorityQueue(Supplier<AStarPriorityQueue<State>> priorityQueueFactory) {
+    this.priorityQueueFactory = priorityQueueFactory;
+    return builder;
+  }
+
   public ShortestPathTree<State, Edge, Vertex> getShortestPathTree() {
     return build().getShortestPathTree();
   }
@@ -150,7 +165,9 @@ public abstract class AStarBuilder<
       terminationStrategy,
       Optional.ofNullable(dominanceFunction).orElseGet(this::createDefaultDominanceFunction),
       streetRoutingTimeout(),
-      initialStates
+      initialStates,
+      priorityQueueFactory.get(),
+      createEdgeOverlay(initialStates, destination, arriveBy)
     );
   }
 
@@ -166,4 +183,17 @@ public abstract class AStarBuilder<
   );
 
   protected abstract DominanceFunction<State> createDefaultDominanceFunction();
+
+  /**
+   * Edges to traverse from a vertex in addition to the edges in the edge list of the vertex, by
+   * vertex. This is used for edges which are only part of one search. The default is no extra
+   * edges.
+   */
+  protected Map<Vertex, List<Edge>> createEdgeOverlay(
+    Collection<State> initialStates,
+    Set<Vertex> destination,
+    boolean arriveBy
+  ) {
+    return Map.of();
+  }
 }
@@ -1,8 +1,9 @@
 package org.opentripplanner.astar.model;
 
 import java.util.Arrays;
+import org.opentripplanner.astar.spi.AStarPriorityQueue;
 
-public class BinHeap<T> {
+public class BinHeap<T> implements AStarPriorityQueue<T> {
 
   private static final double GROW_FACTOR = 2.0;
 
@@ -25,6 +26,7 @@ public class BinHeap<T> {
     prio[0] = Double.NEGATIVE_INFINITY; // set sentinel
   }
 
+  @Override
   public int size() {
     return size;
   }
@@ -33,6 +35,21 @@ public class BinHeap<T> {
     return size <= 0;
   }
 
+  @Override
+  public boolean isEmpty() {
+    return empty();
+  }
+
+  @Override
+  public double peekMinKey() {
+    return peek_min_key();
+  }
+
+  @Override
+  public T extractMin() {
+    return extract_min();
+  }
+
   public double peek_min_key() {
     if (size > 0) return prio[1]; else throw new IllegalStateException(
       "An empty queue does not have a minimum key."
@@ -84,6 +101,7 @@ public class BinHeap<T> {
     size = 0;
   }
 
+  @Override
   public void insert(T e, double p) {
     int i;
     size += 1;
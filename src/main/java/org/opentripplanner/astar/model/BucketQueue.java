@@ -0,0 +1,135 @@
+package org.opentripplanner.astar.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.opentripplanner.astar.spi.AStarPriorityQueue;
+
+/**
+ * A two-level bucket queue. The elements are put in buckets by their key, each bucket covering a
+ * fixed key range(the bucket width). Only the elements in the current(lowest) bucket are ordered,
+ * using a {@link DAryHeap}. When the current bucket is empty the next non-empty bucket is moved
+ * into the heap. Inserting into a later bucket is an array append, and the heap stays small.
+ * <p>
+ * This works best for searches where the keys grow monotonically, like a Dijkstra search or an
+ * A* search with a consistent heuristic, and where the weights are integer-like (seconds). But it
+ * is correct for any sequence of keys - an element with a key before the current bucket is
+ * inserted into the heap, so elements are always extracted in key order.
+ * <p>
+ * Keys above {@code bucketWidth * MAX_BUCKETS} are all put in the last bucket.
+ */
+public class BucketQueue<T> implements AStarPriorityQueue<T> {
+
+  private static final int MAX_BUCKETS = 1 << 16;
+
+  private final double bucketWidth;
+  private final DAryHeap<T> heap = new DAryHeap<>();
+  private final List<Bucket<T>> buckets = new ArrayList<>();
+
+  /** All elements in buckets with an index less or equal to the current bucket are in the heap. */
+  private int currentBucket = 0;
+  private int size = 0;
+
+  /**
+   * @param bucketWidth the key range of each bucket. Use a width close to the typical difference
+   *                    between the keys of two consecutive states, e.g. one second.
+   */
+  public BucketQueue(double bucketWidth) {
+    if (!(bucketWidth > 0.0)) {
+      throw new IllegalArgumentException("The bucket width must be positive: " + bucketWidth);
+    }
+    this.bucketWidth = bucketWidth;
+  }
+
+  @Override
+  public void insert(T element, double key) {
+    int index = bucketIndex(key);
+    if (index <= currentBucket) {
+      heap.insert(element, key);
+    } else {
+      findOrCreateBucket(index).add(element, key);
+    }
+    ++size;
+  }
+
+  @Override
+  public T extractMin() {
+    if (size == 0) {
+      return null;
+    }
+    if (heap.isEmpty()) {
+      moveNextBucketIntoHeap();
+    }
+    --size;
+    return heap.extractMin();
+  }
+
+  @Override
+  public double peekMinKey() {
+    if (size == 0) {
+      throw new IllegalStateException("An empty queue does not have a minimum key.");
+    }
+    if (heap.isEmpty()) {
+      moveNextBucketIntoHeap();
+    }
+    return heap.peekMinKey();
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  private int bucketIndex(double key) {
+    return (int) Math.min(key / bucketWidth, MAX_BUCKETS - 1);
+  }
+
+  private Bucket<T> findOrCreateBucket(int index) {
+    while (buckets.size() <= index) {
+      buckets.add(null);
+    }
+    var bucket = buckets.get(index);
+    if (bucket == null) {
+      bucket = new Bucket<>();
+      buckets.set(index, bucket);
+    }
+    return bucket;
+  }
+
+  /**
+   * Find the next non-empty bucket and move all elements into the heap. This must only be called
+   * if the heap is empty and the queue is not.
+   */
+  private void moveNextBucketIntoHeap() {
+    Bucket<T> bucket;
+    do {
+      ++currentBucket;
+      bucket = buckets.get(currentBucket);
+    } while (bucket == null);
+
+    for (int i = 0; i < bucket.size; ++i) {
+      heap.insert(bucket.elements[i], bucket.keys[i]);
+    }
+    // Buckets before the current bucket are never used again
+    buckets.set(currentBucket, null);
+  }
+
+  private static class Bucket<T> {
+
+    @SuppressWarnings("unchecked")
+    private T[] elements = (T[]) new Object[8];
+
+    private double[] keys = new double[8];
+    private int size = 0;
+
+    void add(T element, double key) {
+      if (size == elements.length) {
+        elements = Arrays.copyOf(elements, size * 2);
+        keys = Arrays.copyOf(keys, size * 2);
+      }
+      elements[size] = element;
+      keys[size] = key;
+      ++size;
+    }
+  }
+}
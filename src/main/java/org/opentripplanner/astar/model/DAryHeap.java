@@ -0,0 +1,124 @@
+package org.opentripplanner.astar.model;
+
+import java.util.Arrays;
+import org.opentripplanner.astar.spi.AStarPriorityQueue;
+
+/**
+ * A 4-ary min-heap. Compared with a binary heap the tree is half as deep, so insert is cheaper
+ * and extract-min does fewer levels with more comparisons each. The children of a node are next
+ * to each other in the arrays, so this is more cache friendly than the binary heap - this matters
+ * for the large street searches used for access/egress.
+ * <p>
+ * The elements and keys are stored in two parallel arrays, no objects are created when elements
+ * are inserted.
+ */
+public class DAryHeap<T> implements AStarPriorityQueue<T> {
+
+  /** The number of children of each node, must be at least 2. */
+  private static final int D = 4;
+  private static final int DEFAULT_CAPACITY = 1000;
+
+  private T[] elements;
+  private double[] keys;
+  private int size = 0;
+
+  public DAryHeap() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  @SuppressWarnings("unchecked")
+  public DAryHeap(int capacity) {
+    capacity = Math.max(capacity, D);
+    this.elements = (T[]) new Object[capacity];
+    this.keys = new double[capacity];
+  }
+
+  @Override
+  public void insert(T element, double key) {
+    if (size == elements.length) {
+      grow();
+    }
+    siftUp(size, element, key);
+    ++size;
+  }
+
+  @Override
+  public T extractMin() {
+    if (size == 0) {
+      return null;
+    }
+    T min = elements[0];
+    --size;
+    T last = elements[size];
+    double lastKey = keys[size];
+    // Release the reference, the state may be garbage collected when the search is done
+    elements[size] = null;
+
+    if (size > 0) {
+      siftDown(0, last, lastKey);
+    }
+    return min;
+  }
+
+  @Override
+  public double peekMinKey() {
+    if (size == 0) {
+      throw new IllegalStateException("An empty queue does not have a minimum key.");
+    }
+    return keys[0];
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Move the hole at index {@code i} up until the parent key is less or equal to the key, then
+   * insert the element.
+   */
+  private void siftUp(int i, T element, double key) {
+    while (i > 0) {
+      int parent = (i - 1) / D;
+      if (keys[parent] <= key) {
+        break;
+      }
+      elements[i] = elements[parent];
+      keys[i] = keys[parent];
+      i = parent;
+    }
+    elements[i] = element;
+    keys[i] = key;
+  }
+
+  /**
+   * Move the hole at index {@code i} down until all children keys are greater or equal to the
+   * key, then insert the element.
+   */
+  private void siftDown(int i, T element, double key) {
+    int firstChild;
+    while ((firstChild = D * i + 1) < size) {
+      int lastChild = Math.min(firstChild + D, size);
+      int minChild = firstChild;
+      for (int c = firstChild + 1; c < lastChild; ++c) {
+        if (keys[c] < keys[minChild]) {
+          minChild = c;
+        }
+      }
+      if (keys[minChild] >= key) {
+        break;
+      }
+      elements[i] = elements[minChild];
+      keys[i] = keys[minChild];
+      i = minChild;
+    }
+    elements[i] = element;
+    keys[i] = key;
+  }
+
+  private void grow() {
+    int capacity = elements.length * 2;
+    elements = Arrays.copyOf(elements, capacity);
+    keys = Arrays.copyOf(keys, capacity);
+  }
+}
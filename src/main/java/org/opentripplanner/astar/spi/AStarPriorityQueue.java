@@ -0,0 +1,33 @@
+package org.opentripplanner.astar.spi;
+
+/**
+ * The priority queue used by the A* search to order the states by their estimated weight. Use
+ * {@link org.opentripplanner.astar.AStarBuilder#setPriorityQueue(java.util.function.Supplier)}
+ * to select the implementation used by a search.
+ * <p>
+ * The search does not remove or rekey states, a state dominated after it is inserted is dropped
+ * when it is extracted. So the queue only need to support insert and extract-min.
+ */
+public interface AStarPriorityQueue<T> {
+  /**
+   * Insert the given element with the given key. Elements with the same key can be returned in
+   * any order.
+   */
+  void insert(T element, double key);
+
+  /**
+   * Remove and return the element with the smallest key, or {@code null} if the queue is empty.
+   */
+  T extractMin();
+
+  /**
+   * Return the smallest key in the queue, throws an exception if the queue is empty.
+   */
+  double peekMinKey();
+
+  int size();
+
+  default boolean isEmpty() {
+    return size() == 0;
+  }
+}
@@ -17,11 +17,21 @@ public enum OTPFeature {
   APIBikeRental(true, false, "Enable the bike rental endpoint."),
   APIServerInfo(true, false, "Enable the server info endpoint."),
   APIUpdaterStatus(true, false, "Enable endpoint for graph updaters status."),
+  AccessEgressCache(
+    false,
+    false,
+    "Cache the stops found by the access and egress street searches, so repeated requests from the same location do not repeat the search. The size of the cache is limited by the total number of street edges in the cached paths, at most 5 million edges."
+  ),
   ConsiderPatternsForDirectTransfers(
     true,
     false,
     "Enable limiting transfers so that there is only a single transfer to each pattern."
   ),
+  ContractionHierarchies(
+    false,
+    false,
+    "Build contraction hierarchies for car, bicycle and walk during graph build, and use them to speed up direct street routing. The path is chosen using a static cost model, and then traversed with the request preferences."
+  ),
   DebugUi(
     true,
     false,
@@ -31,13 +41,28 @@ public enum OTPFeature {
       Use the [vector tiles feature if](sandbox/MapboxVectorTilesApi.md) you want a stable map tiles API.
       """
   ),
+  DistanceMatrixTransfers(
+    false,
+    false,
+    "Generate walk transfers with a shortest-distance street search instead of the full street search. This is much faster for large graphs, but does not take walk reluctance, slope or stairs into account when choosing the path."
+  ),
   FloatingBike(true, false, "Enable floating bike routing."),
+  GraphQLAdmissionControl(
+    false,
+    false,
+    "Estimate the cost of each GTFS and Transmodel GraphQL query before it is executed. Reject queries which are too expensive, and limit the number of expensive queries running at the same time. The per-client limit is advisory, clients are identified by the `OTPClientName` header set by the caller."
+  ),
   GtfsGraphQlApi(true, false, "Enable the [GTFS GraphQL API](apis/GTFS-GraphQL-API.md)."),
   GtfsGraphQlApiRentalStationFuzzyMatching(
     false,
     false,
     "Does vehicleRentalStation query also allow ids that are not feed scoped."
   ),
+  LandmarkHeuristic(
+    false,
+    false,
+    "Compute the driving distances to a few landmarks during graph build, and use them to guide the direct car search. This gives a much better estimate of the remaining distance than the straight line, but uses extra memory for each street vertex."
+  ),
   /**
    * If this feature flag is switched on, then the minimum transfer time is not the minimum transfer
    * time, but the definitive transfer time. Use this to override what we think the transfer will
@@ -61,6 +86,11 @@ public enum OTPFeature {
   ),
 
   ParallelRouting(false, false, "Enable performing parts of the trip planning in parallel."),
+  TemporaryEdgeOverlay(
+    false,
+    false,
+    "Keep the temporary edges linking the origin and destination of a request out of the shared street graph. The street search finds them in a request-local overlay instead, so concurrent requests do not lock and copy the edge lists of the street vertices."
+  ),
   TransferConstraints(
     true,
     false,
@@ -0,0 +1,85 @@
+package org.opentripplanner.framework.collection;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of primitive longs. This is used by graph searches to pack the key and the
+ * node index into one long, with the key in the high bits, so no objects are created during
+ * the search. Use {@link #pack(int, int)} to create such a value.
+ */
+public class LongMinHeap {
+
+  private long[] heap = new long[256];
+  private int size = 0;
+
+  /**
+   * Pack a non-negative key and an index into one long, ordered by the key first.
+   */
+  public static long pack(int key, int index) {
+    return ((long) key << 32) | (index & 0xFFFFFFFFL);
+  }
+
+  public static int key(long value) {
+    return (int) (value >>> 32);
+  }
+
+  public static int index(long value) {
+    return (int) value;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public void clear() {
+    size = 0;
+  }
+
+  public void insert(long value) {
+    if (size == heap.length) {
+      heap = Arrays.copyOf(heap, size * 2);
+    }
+    int i = size++;
+    while (i > 0) {
+      int parent = (i - 1) >>> 1;
+      if (heap[parent] <= value) {
+        break;
+      }
+      heap[i] = heap[parent];
+      i = parent;
+    }
+    heap[i] = value;
+  }
+
+  /** Return the smallest value without removing it, the heap must not be empty. */
+  public long peek() {
+    if (size == 0) {
+      throw new IllegalStateException("The heap is empty.");
+    }
+    return heap[0];
+  }
+
+  /** Remove and return the smallest value, the heap must not be empty. */
+  public long extractMin() {
+    long min = peek();
+    long last = heap[--size];
+    int i = 0;
+    int child;
+    while ((child = 2 * i + 1) < size) {
+      if (child + 1 < size && heap[child + 1] < heap[child]) {
+        ++child;
+      }
+      if (heap[child] >= last) {
+        break;
+      }
+      heap[i] = heap[child];
+      i = child;
+    }
+    heap[i] = last;
+    return min;
+  }
+}
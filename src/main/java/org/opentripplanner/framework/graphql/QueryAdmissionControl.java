@@ -0,0 +1,154 @@
+package org.opentripplanner.framework.graphql;
+
+import graphql.execution.AbortExecutionException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+
+/**
+ * Admission control for GraphQL queries, based on the estimated cost of the query, see
+ * {@link QueryCostCalculator}. Queries are admitted after they are parsed and validated, but
+ * before any field is resolved:
+ * <ul>
+ *   <li>A query more expensive than the max query cost is rejected.</li>
+ *   <li>
+ *     Only a limited number of expensive queries run at the same time, the next expensive query
+ *     waits in a fair queue. If it has to wait too long it is rejected. Cheap queries are not
+ *     queued, so a burst of expensive queries does not delay them.
+ *   </li>
+ *   <li>
+ *     Each client may only run a limited share of the expensive queries. The client is
+ *     identified by the {@link #CLIENT_HEADER} HTTP header, queries without the header only
+ *     count against the global limit.
+ *   </li>
+ * </ul>
+ * The per-client limit is advisory. The header is set by the caller, so a client can leave it out
+ * or send a new name with each query. The limit keeps well-behaved clients from taking all the
+ * expensive query slots, but it does not protect the server from a hostile client. Only the global
+ * limit does that.
+ * One instance is shared by all requests to an API. Each request creates an {@link Admission},
+ * which must be closed when the request is done.
+ */
+public class QueryAdmissionControl {
+
+  /**
+   * The HTTP header identifying the client, used for the per-client limit. The value is not
+   * verified by the server.
+   */
+  public static final String CLIENT_HEADER = "OTPClientName";
+
+  private static final long DEFAULT_MAX_QUERY_COST = 1_000_000;
+
+  /** About ten routing searches, or a departure board with a thousand departures. */
+  private static final long DEFAULT_EXPENSIVE_QUERY_COST = 10_000;
+
+  private static final Duration DEFAULT_MAX_QUEUE_TIME = Duration.ofSeconds(5);
+
+  private final long maxQueryCost;
+  private final long expensiveQueryCost;
+  private final Semaphore expensiveQueries;
+  private final int maxExpensiveQueriesPerClient;
+  private final Duration maxQueueTime;
+  private final Map<String, Integer> expensiveQueriesByClient = new ConcurrentHashMap<>();
+
+  public QueryAdmissionControl(
+    long maxQueryCost,
+    long expensiveQueryCost,
+    int maxExpensiveQueries,
+    int maxExpensiveQueriesPerClient,
+    Duration maxQueueTime
+  ) {
+    this.maxQueryCost = maxQueryCost;
+    this.expensiveQueryCost = expensiveQueryCost;
+    this.expensiveQueries = new Semaphore(maxExpensiveQueries, true);
+    this.maxExpensiveQueriesPerClient = maxExpensiveQueriesPerClient;
+    this.maxQueueTime = maxQueueTime;
+  }
+
+  /**
+   * Allow one expensive query for each processor, and half of them for one client.
+   */
+  public static QueryAdmissionControl ofDefaults() {
+    int nProcessors = Runtime.getRuntime().availableProcessors();
+    return new QueryAdmissionControl(
+      DEFAULT_MAX_QUERY_COST,
+      DEFAULT_EXPENSIVE_QUERY_COST,
+      nProcessors,
+      Math.max(1, nProcessors / 2),
+      DEFAULT_MAX_QUEUE_TIME
+    );
+  }
+
+  public Admission newAdmission(@Nullable String clientName) {
+    return new Admission(clientName);
+  }
+
+  /**
+   * The admission of one request. Close it when the request is done, to let the next expensive
+   * query in.
+   */
+  public class Admission implements AutoCloseable {
+
+    private final String clientName;
+    private boolean countedForClient = false;
+    private boolean acquired = false;
+
+    private Admission(@Nullable String clientName) {
+      this.clientName = clientName;
+    }
+
+    /**
+     * Admit a query with the given cost, wait if needed.
+     *
+     * @throws AbortExecutionException if the query is rejected
+     */
+    public void admit(long cost) {
+      if (cost > maxQueryCost) {
+        throw new AbortExecutionException(
+          String.format(
+            "The query is too expensive, the estimated cost %d exceeds the limit %d.",
+            cost,
+            maxQueryCost
+          )
+        );
+      }
+      if (cost < expensiveQueryCost || acquired) {
+        return;
+      }
+      if (clientName != null) {
+        int n = expensiveQueriesByClient.merge(clientName, 1, Integer::sum);
+        countedForClient = true;
+        if (n > maxExpensiveQueriesPerClient) {
+          close();
+          throw new AbortExecutionException(
+            String.format("Too many expensive queries from the client '%s'.", clientName)
+          );
+        }
+      }
+      try {
+        acquired = expensiveQueries.tryAcquire(maxQueueTime.toMillis(), TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      if (!acquired) {
+        close();
+        throw new AbortExecutionException("The server is busy, try again later.");
+      }
+    }
+
+    @Override
+    public void close() {
+      if (acquired) {
+        expensiveQueries.release();
+        acquired = false;
+      }
+      if (countedForClient) {
+        expensiveQueriesByClient.computeIfPresent(clientName, (k, n) -> n > 1 ? n - 1 : null);
+        countedForClient = false;
+      }
+    }
+  }
+}
@@ -0,0 +1,141 @@
+package org.opentripplanner.framework.graphql;
+
+import graphql.analysis.QueryTraverser;
+import graphql.analysis.QueryVisitorFieldEnvironment;
+import graphql.analysis.QueryVisitorStub;
+import graphql.execution.CoercedVariables;
+import graphql.language.Document;
+import graphql.schema.GraphQLSchema;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Estimate the cost of a GraphQL query from the parsed document, before it is executed. Each
+ * field costs one, like the resolve count of the max query complexity. In addition:
+ * <ul>
+ *   <li>
+ *     The cost of a field with a list size argument, like {@code numberOfDepartures} or
+ *     {@code first}, is the cost of one element times the list size.
+ *   </li>
+ *   <li>
+ *     A routing field on the query type, like {@code trip} or {@code plan}, costs
+ *     {@link #ROUTING_COST} for each started hour of the search-window.
+ *   </li>
+ * </ul>
+ * The cost is an estimate and only useful to compare queries, it is not a time or a count of
+ * resolved fields.
+ */
+public class QueryCostCalculator {
+
+  /** The cost of one routing search, with a search-window of one hour or less. */
+  public static final int ROUTING_COST = 1000;
+
+  /**
+   * The arguments which limit the size of the list returned by a field in the GTFS and the
+   * Transmodel API.
+   */
+  private static final Set<String> LIST_SIZE_ARGUMENTS = Set.of(
+    "first",
+    "last",
+    "maxResults",
+    "numberOfDepartures",
+    "numberOfDeparturesPerLineAndDestinationDisplay",
+    "numItineraries",
+    "numTripPatterns"
+  );
+
+  private static final String SEARCH_WINDOW_ARGUMENT = "searchWindow";
+
+  private final Set<String> routingFields;
+  private final ChronoUnit searchWindowUnit;
+
+  /**
+   * @param routingFields the fields of the query type which perform a routing search
+   * @param searchWindowUnit the unit of the {@code searchWindow} argument of the routing fields
+   */
+  public QueryCostCalculator(Set<String> routingFields, ChronoUnit searchWindowUnit) {
+    this.routingFields = routingFields;
+    this.searchWindowUnit = searchWindowUnit;
+  }
+
+  public long calculate(
+    GraphQLSchema schema,
+    Document document,
+    String operationName,
+    CoercedVariables variables
+  ) {
+    // The cost of the child fields, by the parent field. The top level fields have no parent.
+    Map<QueryVisitorFieldEnvironment, Long> costByParent = new HashMap<>();
+
+    QueryTraverser
+      .newQueryTraverser()
+      .schema(schema)
+      .document(document)
+      .operationName(operationName)
+      .coercedVariables(variables)
+      .build()
+      .visitPostOrder(
+        new QueryVisitorStub() {
+          @Override
+          public void visitField(QueryVisitorFieldEnvironment env) {
+            if (env.isTypeNameIntrospectionField()) {
+              return;
+            }
+            long childCost = costByParent.getOrDefault(env, 0L);
+            long cost = fieldCost(schema, env, childCost);
+            costByParent.merge(env.getParentEnvironment(), cost, QueryCostCalculator::sum);
+          }
+        }
+      );
+    // HashMap allows the null key
+    return costByParent.getOrDefault(null, 0L);
+  }
+
+  private long fieldCost(GraphQLSchema schema, QueryVisitorFieldEnvironment env, long childCost) {
+    Map<String, Object> arguments = env.getArguments();
+    long cost = sum(1, multiply(childCost, listSize(arguments)));
+
+    boolean routingField =
+      env.getParentType() == schema.getQueryType() &&
+      routingFields.contains(env.getFieldDefinition().getName());
+
+    if (routingField) {
+      cost = sum(cost, multiply(ROUTING_COST, searchWindowHours(arguments)));
+    }
+    return cost;
+  }
+
+  private static long listSize(Map<String, Object> arguments) {
+    long size = 1;
+    for (String name : LIST_SIZE_ARGUMENTS) {
+      if (arguments.get(name) instanceof Number value) {
+        size = Math.max(size, value.longValue());
+      }
+    }
+    return size;
+  }
+
+  private long searchWindowHours(Map<String, Object> arguments) {
+    if (arguments.get(SEARCH_WINDOW_ARGUMENT) instanceof Number value) {
+      var searchWindow = Duration.of(value.longValue(), searchWindowUnit);
+      // Round up to whole hours, and count at least one hour
+      return Math.max(1, searchWindow.plusHours(1).minusSeconds(1).toHours());
+    }
+    return 1;
+  }
+
+  /** Saturate at Long.MAX_VALUE, a very large query should not overflow to a cheap one. */
+  private static long sum(long a, long b) {
+    long r = a + b;
+    return r < 0 ? Long.MAX_VALUE : r;
+  }
+
+  private static long multiply(long a, long b) {
+    long hi = Math.multiplyHigh(a, b);
+    long r = a * b;
+    return hi != 0 || r < 0 ? Long.MAX_VALUE : r;
+  }
+}
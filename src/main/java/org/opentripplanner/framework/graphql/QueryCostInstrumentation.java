@@ -0,0 +1,73 @@
+package org.opentripplanner.framework.graphql;
+
+import graphql.ExecutionResult;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import javax.annotation.Nullable;
+
+/**
+ * Calculate the cost of a query before it is executed, record it as a metric and pass it to the
+ * admission control. A rejected query is aborted before any field is resolved.
+ */
+public class QueryCostInstrumentation extends SimplePerformantInstrumentation {
+
+  private static final String QUERY_COST_METRIC_NAME = "graphql.query.cost";
+
+  private final QueryCostCalculator calculator;
+
+  @Nullable
+  private final QueryAdmissionControl.Admission admission;
+
+  @Nullable
+  private final DistributionSummary queryCost;
+
+  /**
+   * @param admission the admission of the request, if null all queries are admitted
+   * @param meterRegistry the cost of each query is recorded in this registry, if it is not null
+   */
+  public QueryCostInstrumentation(
+    QueryCostCalculator calculator,
+    @Nullable QueryAdmissionControl.Admission admission,
+    @Nullable MeterRegistry meterRegistry,
+    Iterable<Tag> tags
+  ) {
+    this.calculator = calculator;
+    this.admission = admission;
+    this.queryCost =
+      meterRegistry == null
+        ? null
+        : DistributionSummary
+          .builder(QUERY_COST_METRIC_NAME)
+          .description("The estimated cost of the GraphQL queries")
+          .tags(tags)
+          .register(meterRegistry);
+  }
+
+  @Override
+  public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+    InstrumentationExecuteOperationParameters parameters,
+    InstrumentationState state
+  ) {
+    ExecutionContext executionContext = parameters.getExecutionContext();
+    long cost = calculator.calculate(
+      executionContext.getGraphQLSchema(),
+      executionContext.getDocument(),
+      executionContext.getOperationDefinition().getName(),
+      executionContext.getCoercedVariables()
+    );
+
+    if (queryCost != null) {
+      queryCost.record(cost);
+    }
+    if (admission != null) {
+      admission.admit(cost);
+    }
+    return super.beginExecuteOperation(parameters, state);
+  }
+}
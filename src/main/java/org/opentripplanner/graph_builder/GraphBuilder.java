@@ -160,10 +160,22 @@ public class GraphBuilder implements Runnable {
       graphBuilder.addModule(factory.graphCoherencyCheckerModule());
     }
 
+    if ((loadStreetGraph || hasOsm) && OTPFeature.ContractionHierarchies.isOn()) {
+      graphBuilder.addModule(factory.contractionHierarchyModule());
+    }
+
+    if ((loadStreetGraph || hasOsm) && OTPFeature.LandmarkHeuristic.isOn()) {
+      graphBuilder.addModule(factory.landmarkModule());
+    }
+
     if (OTPFeature.Co2Emissions.isOn()) {
       graphBuilder.addModule(factory.emissionsModule());
     }
 
+    if (hasTransitData && factory.vectorTilePyramidModule() != null) {
+      graphBuilder.addModule(factory.vectorTilePyramidModule());
+    }
+
     if (config.dataImportReport) {
       graphBuilder.addModule(factory.dataImportIssueReporter());
     }
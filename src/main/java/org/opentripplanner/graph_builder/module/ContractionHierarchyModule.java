@@ -0,0 +1,39 @@
+package org.opentripplanner.graph_builder.module;
+
+import jakarta.inject.Inject;
+import java.util.List;
+import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.graph.index.CompactStreetGraph;
+import org.opentripplanner.street.search.TraverseMode;
+import org.opentripplanner.street.search.ch.ContractionHierarchy;
+
+/**
+ * Build a contraction hierarchy for each of the main street modes and store them in the graph.
+ * They are used to speed up direct street routing, see
+ * {@link org.opentripplanner.framework.application.OTPFeature#ContractionHierarchies}. This must
+ * run after all streets are added and linked.
+ */
+public class ContractionHierarchyModule implements GraphBuilderModule {
+
+  private static final List<TraverseMode> MODES = List.of(
+    TraverseMode.CAR,
+    TraverseMode.BICYCLE,
+    TraverseMode.WALK
+  );
+
+  private final Graph graph;
+
+  @Inject
+  public ContractionHierarchyModule(Graph graph) {
+    this.graph = graph;
+  }
+
+  @Override
+  public void buildGraph() {
+    var streetGraph = CompactStreetGraph.of(graph.getVertices());
+    for (TraverseMode mode : MODES) {
+      graph.addContractionHierarchy(ContractionHierarchy.build(streetGraph, mode));
+    }
+  }
+}
@@ -3,10 +3,15 @@ package org.opentripplanner.graph_builder.module;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimaps;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.logging.ProgressTracker;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
@@ -14,12 +19,15 @@ import org.opentripplanner.graph_builder.issues.StopNotLinkedForTransfers;
 import org.opentripplanner.graph_builder.model.GraphBuilderModule;
 import org.opentripplanner.model.PathTransfer;
 import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
 import org.opentripplanner.routing.api.request.request.StreetRequest;
 import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.graph.index.CompactStreetGraph;
 import org.opentripplanner.routing.graphfinder.NearbyStop;
 import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.model.vertex.TransitStopVertex;
 import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.matrix.StreetDistanceMatrix;
 import org.opentripplanner.transit.model.site.RegularStop;
 import org.opentripplanner.transit.model.site.StopLocation;
 import org.opentripplanner.transit.service.DefaultTransitService;
@@ -85,6 +93,12 @@ public class DirectTransferGenerator implements GraphBuilderModule {
 
     List<TransitStopVertex> stops = graph.getVerticesOfType(TransitStopVertex.class);
 
+    StreetDistanceMatrix distanceMatrix = createDistanceMatrix(nearbyStopFinder);
+    // The search keeps its working arrays between stops. Each stop takes a search from this queue
+    // and puts it back when done, so no more searches are created than there are threads. The
+    // searches are released with the queue when this method returns.
+    Queue<StreetDistanceMatrix.Search> matrixSearches = new ConcurrentLinkedQueue<>();
+
     ProgressTracker progress = ProgressTracker.track(
       "Create transfer edges for stops",
       1000,
@@ -114,14 +128,27 @@ public class DirectTransferGenerator implements GraphBuilderModule {
 
         LOG.debug("Linking stop '{}' {}", stop, ts0);
 
+        StreetDistanceMatrix.Search matrixSearch = distanceMatrix == null
+          ? null
+          : Objects.requireNonNullElseGet(matrixSearches.poll(), distanceMatrix::newSearch);
+
         for (RouteRequest transferProfile : transferRequests) {
-          for (NearbyStop sd : findNearbyStops(
-            nearbyStopFinder,
-            ts0,
-            transferProfile,
-            transferProfile.journey().transfer(),
-            false
-          )) {
+          Iterable<NearbyStop> nearbyStops = canUseDistanceMatrix(distanceMatrix, transferProfile)
+            ? findNearbyStopsUsingMatrix(
+              nearbyStopFinder,
+              distanceMatrix.graph(),
+              matrixSearch,
+              ts0,
+              maxWalkDistanceMm(transferProfile)
+            )
+            : findNearbyStops(
+              nearbyStopFinder,
+              ts0,
+              transferProfile,
+              transferProfile.journey().transfer(),
+              false
+            );
+          for (NearbyStop sd : nearbyStops) {
             // Skip the origin stop, loop transfers are not needed.
             if (sd.stop == stop) {
               continue;
@@ -159,6 +186,10 @@ public class DirectTransferGenerator implements GraphBuilderModule {
           }
         }
 
+        if (matrixSearch != null) {
+          matrixSearches.add(matrixSearch);
+        }
+
         LOG.debug(
           "Linked stop {} with {} transfers to stops with different patterns.",
           stop,
@@ -206,5 +237,71 @@ public class DirectTransferGenerator implements GraphBuilderModule {
       : nearbyStopFinder.findNearbyStops(vertex, request, streetRequest, reverseDirection);
   }
 
+  /**
+   * Return the distance matrix used to find walk transfers, or {@code null} if the feature is
+   * turned off or the graph does not have streets.
+   */
+  @Nullable
+  private StreetDistanceMatrix createDistanceMatrix(NearbyStopFinder nearbyStopFinder) {
+    if (!nearbyStopFinder.useStreets || OTPFeature.DistanceMatrixTransfers.isOff()) {
+      return null;
+    }
+    LOG.info("Walk transfers are created using the street distance matrix.");
+    return new StreetDistanceMatrix(CompactStreetGraph.of(graph.getVertices()), false);
+  }
+
+  /**
+   * The distance matrix only computes the shortest walking distance. It can not be used for
+   * other modes, wheelchair accessible transfers or flex stops.
+   */
+  private static boolean canUseDistanceMatrix(
+    @Nullable StreetDistanceMatrix distanceMatrix,
+    RouteRequest request
+  ) {
+    return (
+      distanceMatrix != null &&
+      request.journey().transfer().mode() == StreetMode.WALK &&
+      !request.wheelchair() &&
+      OTPFeature.FlexRouting.isOff()
+    );
+  }
+
+  private int maxWalkDistanceMm(RouteRequest request) {
+    double meters = radiusByDuration.toSeconds() * request.preferences().walk().speed();
+    return (int) Math.min(meters * 1000.0, Integer.MAX_VALUE / 2);
+  }
+
+  /**
+   * Find the nearby stops using the shortest walking distance. The origin stop is included, like
+   * in the {@link NearbyStopFinder}, and the nearby stops do not have a state.
+   */
+  private static Iterable<NearbyStop> findNearbyStopsUsingMatrix(
+    NearbyStopFinder nearbyStopFinder,
+    CompactStreetGraph graph,
+    StreetDistanceMatrix.Search search,
+    TransitStopVertex origin,
+    int maxDistanceMm
+  ) {
+    List<NearbyStop> stopsFound = new ArrayList<>();
+    stopsFound.add(new NearbyStop(origin.getStop(), 0, List.of(), null));
+
+    search.run(graph.vertexIndex(origin), maxDistanceMm);
+
+    for (int i = 0; i < search.numberOfReachedVertices(); ++i) {
+      int v = search.reachedVertex(i);
+      if (graph.vertex(v) instanceof TransitStopVertex tsv && tsv != origin) {
+        List<Edge> edges = search.path(v);
+        double distance = 0.0;
+        for (Edge edge : edges) {
+          distance += edge.getEffectiveWalkDistance();
+        }
+        stopsFound.add(new NearbyStop(tsv.getStop(), distance, edges, null));
+      }
+    }
+    return OTPFeature.ConsiderPatternsForDirectTransfers.isOn()
+      ? nearbyStopFinder.findClosestStopsOnPatterns(stopsFound, false)
+      : stopsFound;
+  }
+
   private record TransferKey(StopLocation source, StopLocation target, List<Edge> edges) {}
 }
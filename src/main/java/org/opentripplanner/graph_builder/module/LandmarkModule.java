@@ -0,0 +1,35 @@
+package org.opentripplanner.graph_builder.module;
+
+import jakarta.inject.Inject;
+import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.graph.index.CompactStreetGraph;
+import org.opentripplanner.street.search.landmark.Landmarks;
+
+/**
+ * Select the landmarks and compute the landmark distances for all street vertices, and store them
+ * in the graph. They are used by the street search heuristic, see
+ * {@link org.opentripplanner.framework.application.OTPFeature#LandmarkHeuristic}. This must run
+ * after all streets are added and linked.
+ */
+public class LandmarkModule implements GraphBuilderModule {
+
+  /**
+   * More landmarks give better bounds, but each landmark uses 8 bytes per vertex, and makes
+   * each bound computation slower.
+   */
+  private static final int NUMBER_OF_LANDMARKS = 8;
+
+  private final Graph graph;
+
+  @Inject
+  public LandmarkModule(Graph graph) {
+    this.graph = graph;
+  }
+
+  @Override
+  public void buildGraph() {
+    var streetGraph = CompactStreetGraph.of(graph.getVertices());
+    graph.setLandmarks(Landmarks.build(streetGraph, NUMBER_OF_LANDMARKS));
+  }
+}
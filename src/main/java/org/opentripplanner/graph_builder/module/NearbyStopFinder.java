@@ -11,6 +11,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import org.locationtech.jts.geom.Coordinate;
+import org.opentripplanner.astar.model.BucketQueue;
 import org.opentripplanner.astar.model.ShortestPathTree;
 import org.opentripplanner.astar.spi.SkipEdgeStrategy;
 import org.opentripplanner.astar.strategy.ComposingSkipEdgeStrategy;
@@ -102,6 +103,22 @@ public class NearbyStopFinder {
     RouteRequest routingRequest,
     StreetRequest streetRequest,
     boolean reverseDirection
+  ) {
+    /* Iterate over nearby stops via the street network or using straight-line distance, depending on the graph. */
+    return findClosestStopsOnPatterns(
+      findNearbyStops(vertex, routingRequest, streetRequest, reverseDirection),
+      reverseDirection
+    );
+  }
+
+  /**
+   * Keep only the stops that are the closest stop on some trip pattern or flex trip, see
+   * {@link #findNearbyStopsConsideringPatterns(Vertex, RouteRequest, StreetRequest, boolean)}.
+   * Use this if the nearby stops are found in another way than by this class.
+   */
+  public Set<NearbyStop> findClosestStopsOnPatterns(
+    Iterable<NearbyStop> nearbyStops,
+    boolean reverseDirection
   ) {
     /* Track the closest stop on each pattern passing nearby. */
     MinMap<TripPattern, NearbyStop> closestStopForPattern = new MinMap<>();
@@ -109,13 +126,7 @@ public class NearbyStopFinder {
     /* Track the closest stop on each flex trip nearby. */
     MinMap<FlexTrip<?, ?>, NearbyStop> closestStopForFlexTrip = new MinMap<>();
 
-    /* Iterate over nearby stops via the street network or using straight-line distance, depending on the graph. */
-    for (NearbyStop nearbyStop : findNearbyStops(
-      vertex,
-      routingRequest,
-      streetRequest,
-      reverseDirection
-    )) {
+    for (NearbyStop nearbyStop : nearbyStops) {
       StopLocation ts1 = nearbyStop.stop;
 
       if (ts1 instanceof RegularStop) {
@@ -203,10 +214,14 @@ public class NearbyStopFinder {
       return stopsFound;
     }
 
+    // This is a one-to-many search without a destination, so the keys of the queue are the state
+    // weights, and they grow monotonically. The weights are close to seconds, a bucket of one
+    // second keeps the ordered part of the queue small.
     ShortestPathTree<State, Edge, Vertex> spt = StreetSearchBuilder
       .of()
       .setSkipEdgeStrategy(getSkipEdgeStrategy(reverseDirection, request))
       .setDominanceFunction(new DominanceFunctions.MinimumWeight())
+      .setPriorityQueue(() -> new BucketQueue<>(1.0))
       .setRequest(request)
       .setArriveBy(reverseDirection)
       .setStreetRequest(streetRequest)
@@ -13,11 +13,14 @@ import org.opentripplanner.ext.flex.AreaStopsToVerticesMapper;
 import org.opentripplanner.ext.stopconsolidation.StopConsolidationModule;
 import org.opentripplanner.ext.stopconsolidation.StopConsolidationRepository;
 import org.opentripplanner.ext.transferanalyzer.DirectTransferAnalyzer;
+import org.opentripplanner.ext.vectortiles.VectorTilePyramidModule;
 import org.opentripplanner.graph_builder.GraphBuilder;
 import org.opentripplanner.graph_builder.GraphBuilderDataSources;
 import org.opentripplanner.graph_builder.issue.report.DataImportIssueReporter;
+import org.opentripplanner.graph_builder.module.ContractionHierarchyModule;
 import org.opentripplanner.graph_builder.module.DirectTransferGenerator;
 import org.opentripplanner.graph_builder.module.GraphCoherencyCheckerModule;
+import org.opentripplanner.graph_builder.module.LandmarkModule;
 import org.opentripplanner.graph_builder.module.OsmBoardingLocationsModule;
 import org.opentripplanner.graph_builder.module.StreetLinkerModule;
 import org.opentripplanner.graph_builder.module.TimeZoneAdjusterModule;
@@ -52,6 +55,8 @@ public interface GraphBuilderFactory {
   DirectTransferGenerator directTransferGenerator();
   DirectTransferAnalyzer directTransferAnalyzer();
   GraphCoherencyCheckerModule graphCoherencyCheckerModule();
+  ContractionHierarchyModule contractionHierarchyModule();
+  LandmarkModule landmarkModule();
   EdgeUpdaterModule dataOverlayFactory();
   DataImportIssueReporter dataImportIssueReporter();
   CalculateWorldEnvelopeModule calculateWorldEnvelopeModule();
@@ -62,6 +67,9 @@ public interface GraphBuilderFactory {
   @Nullable
   StopConsolidationRepository stopConsolidationRepository();
 
+  @Nullable
+  VectorTilePyramidModule vectorTilePyramidModule();
+
   @Component.Builder
   interface Builder {
     @BindsInstance
@@ -17,6 +17,8 @@ import org.opentripplanner.ext.emissions.EmissionsModule;
 import org.opentripplanner.ext.stopconsolidation.StopConsolidationModule;
 import org.opentripplanner.ext.stopconsolidation.StopConsolidationRepository;
 import org.opentripplanner.ext.transferanalyzer.DirectTransferAnalyzer;
+import org.opentripplanner.ext.vectortiles.VectorTilePyramidModule;
+import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.graph_builder.ConfiguredDataSource;
 import org.opentripplanner.graph_builder.GraphBuilderDataSources;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
@@ -298,6 +300,22 @@ public class GraphBuilderModules {
       .orElse(null);
   }
 
+  @Provides
+  @Singleton
+  @Nullable
+  static VectorTilePyramidModule providesVectorTilePyramidModule(
+    BuildConfig config,
+    Graph graph,
+    TransitModel transitModel
+  ) {
+    if (
+      OTPFeature.SandboxAPIMapboxVectorTilesApi.isOff() || !config.vectorTilePyramid.isConfigured()
+    ) {
+      return null;
+    }
+    return new VectorTilePyramidModule(graph, transitModel, config.vectorTilePyramid);
+  }
+
   /* private methods */
 
   private static ElevationGridCoverageFactory createNedElevationFactory(
@@ -38,8 +38,7 @@ public abstract class LayerBuilder<T> {
   protected abstract List<Geometry> getGeometries(Envelope query);
 
   final VectorTile.Tile.Layer build(Envelope envelope) {
-    Envelope query = new Envelope(envelope);
-    query.expandBy(envelope.getWidth() * expansionFactor, envelope.getHeight() * expansionFactor);
+    Envelope query = queryEnvelope(envelope, expansionFactor);
 
     TileGeomResult tileGeom = JtsAdapter.createTileGeom(
       getGeometries(query),
@@ -60,4 +59,14 @@ public abstract class LayerBuilder<T> {
     MvtLayerBuild.writeProps(layerBuilder, layerProps);
     return layerBuilder.build();
   }
+
+  /**
+   * The envelope used to find the objects of a tile, the tile envelope expanded by the given
+   * factor on each side.
+   */
+  static Envelope queryEnvelope(Envelope envelope, double expansionFactor) {
+    Envelope query = new Envelope(envelope);
+    query.expandBy(envelope.getWidth() * expansionFactor, envelope.getHeight() * expansionFactor);
+    return query;
+  }
 }
@@ -0,0 +1,125 @@
+package org.opentripplanner.inspector.vector;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import javax.annotation.Nullable;
+
+/**
+ * The pre-rendered tiles of the static vector tile layers, built with the graph by the
+ * {@link TilePyramidBuilder}. The layers are stored for all zoom levels from the min zoom of the
+ * layer up to the pre-render max zoom, so a tile which is not stored is empty.
+ * <p>
+ * The encoded layers of all tiles are stored in one byte array, and each layer has a sorted index
+ * of its tiles into it. A tile is served as a read-only view of the array, nothing is decoded or
+ * copied.
+ * <p>
+ * A layer is only served from the pyramid if it is configured in the same way at runtime as when
+ * the graph was built, and if the language of the request is the one it was rendered for.
+ */
+public class TilePyramid implements Serializable {
+
+  private static final ByteBuffer EMPTY = ByteBuffer.allocate(0).asReadOnlyBuffer();
+
+  private final List<Layer> layers;
+  private final byte[] data;
+
+  TilePyramid(List<Layer> layers, byte[] data) {
+    this.layers = List.copyOf(layers);
+    this.data = data;
+  }
+
+  /**
+   * Return the pre-rendered layer of the given tile, encoded as a tile with one layer. The buffer
+   * is empty if the tile has no objects in the layer.
+   *
+   * @return {@code null} if the layer is not pre-rendered for this tile and locale
+   */
+  @Nullable
+  ByteBuffer find(LayerParameters<?> parameters, Locale locale, int x, int y, int z) {
+    for (Layer layer : layers) {
+      if (layer.matches(parameters, locale, z)) {
+        int i = Arrays.binarySearch(layer.tileIds, tileId(x, y, z));
+        if (i < 0) {
+          return EMPTY;
+        }
+        int offset = layer.offsets[i];
+        return ByteBuffer
+          .wrap(data, offset, layer.offsets[i + 1] - offset)
+          .slice()
+          .asReadOnlyBuffer();
+      }
+    }
+    return null;
+  }
+
+  public int numberOfTiles() {
+    return layers.stream().mapToInt(it -> it.tileIds.length).sum();
+  }
+
+  public int sizeInBytes() {
+    return data.length;
+  }
+
+  /**
+   * The tiles are sorted by zoom level, then by x and y. The zoom level must be less than 30.
+   */
+  static long tileId(int x, int y, int z) {
+    return ((long) z << 58) | ((long) x << 29) | y;
+  }
+
+  /**
+   * The pre-rendered tiles of one layer, and the parameters it was rendered with.
+   */
+  static final class Layer implements Serializable {
+
+    private final String name;
+    private final String type;
+    private final String mapper;
+    private final double expansionFactor;
+    private final int minZoom;
+    private final int maxZoom;
+    private final String language;
+
+    /** The sorted ids of the non-empty tiles, see {@link #tileId(int, int, int)}. */
+    private final long[] tileIds;
+
+    /**
+     * The tile with index {@code i} is stored from {@code offsets[i]} to {@code offsets[i + 1]}.
+     */
+    private final int[] offsets;
+
+    Layer(
+      LayerParameters<?> parameters,
+      int maxZoom,
+      Locale locale,
+      long[] tileIds,
+      int[] offsets
+    ) {
+      this.name = parameters.name();
+      this.type = parameters.type().name();
+      this.mapper = parameters.mapper();
+      this.expansionFactor = parameters.expansionFactor();
+      this.minZoom = parameters.minZoom();
+      this.maxZoom = maxZoom;
+      this.language = locale.getLanguage();
+      this.tileIds = tileIds;
+      this.offsets = offsets;
+    }
+
+    private boolean matches(LayerParameters<?> parameters, Locale locale, int z) {
+      return (
+        name.equals(parameters.name()) &&
+        type.equals(parameters.type().name()) &&
+        mapper.equals(parameters.mapper()) &&
+        expansionFactor == parameters.expansionFactor() &&
+        minZoom <= z &&
+        z <= maxZoom &&
+        locale != null &&
+        language.equals(locale.getLanguage())
+      );
+    }
+  }
+}
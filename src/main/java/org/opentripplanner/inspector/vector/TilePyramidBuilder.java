@@ -0,0 +1,157 @@
+package org.opentripplanner.inspector.vector;
+
+import edu.colorado.cires.cmg.mvt.VectorTile;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.opentripplanner.api.resource.WebMercatorTile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Render all tiles of the static vector tile layers, to create a {@link TilePyramid}. Only the
+ * tiles which may contain an object of the layer are rendered, and only the non-empty tiles are
+ * stored.
+ */
+public class TilePyramidBuilder {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TilePyramidBuilder.class);
+
+  private static final Envelope WORLD = new Envelope(-180, 180, -90, 90);
+
+  /** The web mercator projection is cut off at this latitude. */
+  private static final double MAX_LATITUDE = 85.0511;
+
+  private static final int TILE_COORDINATE_MASK = (1 << 29) - 1;
+
+  private final Locale locale;
+  private final List<TilePyramid.Layer> layers = new ArrayList<>();
+  private final ByteArrayOutputStream data = new ByteArrayOutputStream();
+
+  /**
+   * @param locale the locale of the text in the tiles, the tiles are only served to requests with
+   *               the same language
+   */
+  public TilePyramidBuilder(Locale locale) {
+    this.locale = locale;
+  }
+
+  /**
+   * Render the tiles of the layer from its min zoom up to the given max zoom.
+   *
+   * @param layerBuilderFactory creates a new builder of the layer, a builder is used for one tile
+   *                            only
+   */
+  public TilePyramidBuilder addLayer(
+    LayerParameters<?> parameters,
+    int maxZoom,
+    Supplier<LayerBuilder<?>> layerBuilderFactory
+  ) {
+    List<Envelope> objects = layerBuilderFactory
+      .get()
+      .getGeometries(WORLD)
+      .stream()
+      .map(Geometry::getEnvelopeInternal)
+      .toList();
+
+    List<Long> tileIds = new ArrayList<>();
+    List<Integer> offsets = new ArrayList<>();
+
+    for (int z = parameters.minZoom(); z <= maxZoom; z++) {
+      int nTiles = 0;
+      for (long tileId : candidateTiles(objects, z, parameters.expansionFactor())) {
+        int x = (int) (tileId >>> 29) & TILE_COORDINATE_MASK;
+        int y = (int) tileId & TILE_COORDINATE_MASK;
+        VectorTile.Tile.Layer layer = layerBuilderFactory
+          .get()
+          .build(WebMercatorTile.tile2Envelope(x, y, z));
+        if (layer.getFeaturesCount() == 0) {
+          continue;
+        }
+        byte[] bytes = VectorTileResponseFactory.encode(layer);
+        if ((long) data.size() + bytes.length > Integer.MAX_VALUE - 8) {
+          throw new IllegalStateException(
+            "The pre-rendered vector tiles do not fit in 2 GB. Lower the maxZoom of the " +
+            "pre-rendered layer '" +
+            parameters.name() +
+            "'."
+          );
+        }
+        tileIds.add(tileId);
+        offsets.add(data.size());
+        data.writeBytes(bytes);
+        nTiles++;
+      }
+      LOG.info("Pre-rendered {} tiles of layer '{}' on zoom {}.", nTiles, parameters.name(), z);
+    }
+    offsets.add(data.size());
+
+    layers.add(
+      new TilePyramid.Layer(
+        parameters,
+        maxZoom,
+        locale,
+        tileIds.stream().mapToLong(Long::longValue).toArray(),
+        offsets.stream().mapToInt(Integer::intValue).toArray()
+      )
+    );
+    return this;
+  }
+
+  public TilePyramid build() {
+    return new TilePyramid(layers, data.toByteArray());
+  }
+
+  /**
+   * Find the tiles which have one of the objects inside their query envelope, in the order of
+   * their ids.
+   */
+  private static TreeSet<Long> candidateTiles(
+    List<Envelope> objects,
+    int z,
+    double expansionFactor
+  ) {
+    var result = new TreeSet<Long>();
+    int maxTile = (1 << z) - 1;
+    // Include one extra tile on each side, the tiles are not evenly sized in latitude
+    double margin = expansionFactor + 1;
+
+    for (Envelope object : objects) {
+      int minX = clamp(lon2tile(object.getMinX(), z) - margin, maxTile);
+      int maxX = clamp(lon2tile(object.getMaxX(), z) + margin, maxTile);
+      int minY = clamp(lat2tile(object.getMaxY(), z) - margin, maxTile);
+      int maxY = clamp(lat2tile(object.getMinY(), z) + margin, maxTile);
+
+      for (int x = minX; x <= maxX; x++) {
+        for (int y = minY; y <= maxY; y++) {
+          var query = LayerBuilder.queryEnvelope(
+            WebMercatorTile.tile2Envelope(x, y, z),
+            expansionFactor
+          );
+          if (query.intersects(object)) {
+            result.add(TilePyramid.tileId(x, y, z));
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  private static double lon2tile(double lon, int z) {
+    return (lon + 180) / 360 * (1 << z);
+  }
+
+  private static double lat2tile(double lat, int z) {
+    double latRad = Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, lat)));
+    return (1 - Math.log(Math.tan(latRad) + 1 / Math.cos(latRad)) / Math.PI) / 2 * (1 << z);
+  }
+
+  private static int clamp(double tile, int maxTile) {
+    return (int) Math.max(0, Math.min(maxTile, Math.floor(tile)));
+  }
+}
@@ -0,0 +1,129 @@
+package org.opentripplanner.inspector.vector;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.locationtech.jts.geom.Envelope;
+
+/**
+ * Cache the encoded layers of the vector tiles, so the same tile is not built again for every
+ * request. Map clients request the same tiles over and over, and building a layer runs a spatial
+ * query and clips the geometries to the tile.
+ * <p>
+ * Each layer of a tile is cached by the layer name, the tile coordinates and the locale. A tile
+ * with many layers is the concatenation of the cached layers, so the layers are shared between
+ * requests with different layer sets.
+ * <p>
+ * The cache has application scope, one instance is created with the server context and shared by
+ * all requests. The static layers, like the stops and stations, are valid for the lifetime of the
+ * graph. The realtime layers, like the vehicle rental and parking places, are invalidated by the
+ * realtime updaters. An update only invalidates the cached layers around the places it changed,
+ * see {@link #invalidateRealtimeLayers(Envelope)}.
+ * <p>
+ * The static layers pre-rendered when the graph was built are served from the {@link TilePyramid},
+ * and are not cached again.
+ * <p>
+ * The size of the cache is limited by the total number of bytes cached.
+ */
+public class VectorTileCache {
+
+  private static final long MAX_CACHED_BYTES = 64 * 1024 * 1024;
+
+  private final Cache<CacheKey, CachedLayer> cache;
+
+  @Nullable
+  private final TilePyramid pyramid;
+
+  private final LongSupplier realtimeVersion;
+
+  /**
+   * @param pyramid the pre-rendered static layers, if any
+   * @param realtimeVersion the version of the realtime state, incremented before the realtime
+   *                        layers are invalidated
+   */
+  public VectorTileCache(@Nullable TilePyramid pyramid, LongSupplier realtimeVersion) {
+    this(MAX_CACHED_BYTES, pyramid, realtimeVersion);
+  }
+
+  VectorTileCache(
+    long maxCachedBytes,
+    @Nullable TilePyramid pyramid,
+    LongSupplier realtimeVersion
+  ) {
+    this.pyramid = pyramid;
+    this.realtimeVersion = realtimeVersion;
+    this.cache =
+      CacheBuilder
+        .newBuilder()
+        .maximumWeight(maxCachedBytes)
+        .<CacheKey, CachedLayer>weigher((key, layer) -> Math.max(1, layer.bytes().length))
+        .build();
+  }
+
+  /**
+   * Return the pre-rendered or cached layer, or build and cache it. The layer may be built more
+   * than once if two requests for the same tile arrive at the same time.
+   *
+   * @param queryEnvelope the envelope used to find the objects of the layer, including the buffer
+   *                      around the tile
+   * @param realtime whether the layer is invalidated by the realtime updates
+   */
+  ByteBuffer get(
+    LayerParameters<?> layer,
+    int x,
+    int y,
+    int z,
+    Locale locale,
+    Envelope queryEnvelope,
+    boolean realtime,
+    Supplier<byte[]> buildLayer
+  ) {
+    if (pyramid != null && !realtime) {
+      var preRendered = pyramid.find(layer, locale, x, y, z);
+      if (preRendered != null) {
+        return preRendered;
+      }
+    }
+
+    var key = new CacheKey(layer.name(), x, y, z, locale);
+    var cached = cache.getIfPresent(key);
+    if (cached != null) {
+      return ByteBuffer.wrap(cached.bytes());
+    }
+
+    long version = realtimeVersion.getAsLong();
+    byte[] bytes = buildLayer.get();
+    cache.put(key, new CachedLayer(bytes, queryEnvelope, realtime));
+
+    // A realtime update may have changed the data while the layer was built, and run its
+    // invalidation before the layer was put in the cache. The version is incremented before the
+    // invalidation runs, so the stale layer is caught here.
+    if (realtime && realtimeVersion.getAsLong() != version) {
+      cache.invalidate(key);
+    }
+    return ByteBuffer.wrap(bytes);
+  }
+
+  /**
+   * Invalidate the realtime layers of all tiles which may contain an object inside the changed
+   * area. The static layers are not touched.
+   */
+  public void invalidateRealtimeLayers(Envelope changedArea) {
+    cache
+      .asMap()
+      .values()
+      .removeIf(layer -> layer.realtime() && layer.queryEnvelope().intersects(changedArea));
+  }
+
+  long size() {
+    return cache.size();
+  }
+
+  private record CacheKey(String layerName, int x, int y, int z, Locale locale) {}
+
+  private record CachedLayer(byte[] bytes, Envelope queryEnvelope, boolean realtime) {}
+}
@@ -4,9 +4,17 @@ import edu.colorado.cires.cmg.mvt.VectorTile;
 import jakarta.ws.rs.core.CacheControl;
 import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Response;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.util.List;
 import java.util.Locale;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.apache.hc.core5.http.ContentType;
 import org.locationtech.jts.geom.Envelope;
 import org.opentripplanner.api.resource.WebMercatorTile;
@@ -28,7 +36,38 @@ public class VectorTileResponseFactory {
     LayerBuilderFactory<LayerType> layerBuilderFactory,
     OtpServerRequestContext context
   ) {
-    VectorTile.Tile.Builder mvtBuilder = VectorTile.Tile.newBuilder();
+    return create(
+      x,
+      y,
+      z,
+      locale,
+      requestedLayers,
+      availableLayers,
+      layerBuilderFactory,
+      context,
+      null,
+      type -> false
+    );
+  }
+
+  /**
+   * Create a response, reusing the layers in the given cache.
+   *
+   * @param cache the cache of the layers, if null every layer is built
+   * @param realtimeLayer whether the layers of a type are invalidated by the realtime updates
+   */
+  public static <LayerType extends Enum<LayerType>> Response create(
+    int x,
+    int y,
+    int z,
+    Locale locale,
+    List<String> requestedLayers,
+    List<LayerParameters<LayerType>> availableLayers,
+    LayerBuilderFactory<LayerType> layerBuilderFactory,
+    OtpServerRequestContext context,
+    @Nullable VectorTileCache cache,
+    Predicate<LayerType> realtimeLayer
+  ) {
     Envelope envelope = WebMercatorTile.tile2Envelope(x, y, z);
 
     int cacheMaxSeconds = Integer.MAX_VALUE;
@@ -50,6 +89,10 @@ public class VectorTileResponseFactory {
         .build();
     }
 
+    // A tile with many layers is encoded as the concatenation of tiles with one layer each
+    var tile = new ByteArrayOutputStream();
+    var tileChannel = Channels.newChannel(tile);
+
     for (LayerParameters<LayerType> layerParameters : availableLayers) {
       if (
         requestedLayers.contains(layerParameters.name()) &&
@@ -57,10 +100,30 @@ public class VectorTileResponseFactory {
         z <= layerParameters.maxZoom()
       ) {
         cacheMaxSeconds = Math.min(cacheMaxSeconds, layerParameters.cacheMaxSeconds());
-        VectorTile.Tile.Layer layer = layerBuilderFactory
-          .createLayerBuilder(layerParameters, locale, context)
-          .build(envelope);
-        mvtBuilder.addLayers(layer);
+        Supplier<byte[]> buildLayer = () -> {
+          VectorTile.Tile.Layer layer = layerBuilderFactory
+            .createLayerBuilder(layerParameters, locale, context)
+            .build(envelope);
+          return encode(layer);
+        };
+        ByteBuffer layer = cache == null
+          ? ByteBuffer.wrap(buildLayer.get())
+          : cache.get(
+            layerParameters,
+            x,
+            y,
+            z,
+            locale,
+            LayerBuilder.queryEnvelope(envelope, layerParameters.expansionFactor()),
+            realtimeLayer.test(layerParameters.type()),
+            buildLayer
+          );
+        try {
+          tileChannel.write(layer);
+        } catch (IOException e) {
+          // Writing to a ByteArrayOutputStream does not fail
+          throw new UncheckedIOException(e);
+        }
       }
     }
 
@@ -71,10 +134,17 @@ public class VectorTileResponseFactory {
     return Response
       .status(Response.Status.OK)
       .cacheControl(cacheControl)
-      .entity(mvtBuilder.build().toByteArray())
+      .entity(tile.toByteArray())
       .build();
   }
 
+  /**
+   * Encode the layer as a tile with one layer.
+   */
+  static byte[] encode(VectorTile.Tile.Layer layer) {
+    return VectorTile.Tile.newBuilder().addLayers(layer).build().toByteArray();
+  }
+
   @FunctionalInterface
   public interface LayerBuilderFactory<LayerType extends Enum<LayerType>> {
     LayerBuilder<?> createLayerBuilder(
@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -63,6 +64,9 @@ public class Timetable implements Serializable {
 
   private final LocalDate serviceDate;
 
+  /** Created on first use, and dropped when the trips are changed. */
+  private transient volatile TimetableDepartureIndex departureIndex;
+
   /** Construct an empty Timetable. */
   public Timetable(TripPattern pattern) {
     this.pattern = pattern;
@@ -140,6 +144,7 @@ public class Timetable implements Serializable {
    * @return old trip times of trip
    */
   public TripTimes setTripTimes(int tripIndex, TripTimes tt) {
+    departureIndex = null;
     return tripTimes.set(tripIndex, tt);
   }
 
@@ -392,9 +397,20 @@ public class Timetable implements Serializable {
    * scheduled trip or a realtime-added trip.
    */
   public void addTripTimes(TripTimes tt) {
+    departureIndex = null;
     tripTimes.add(tt);
   }
 
+  /**
+   * Remove the trips matching the given predicate.
+   *
+   * @return true if any trips were removed
+   */
+  public boolean removeTripTimes(Predicate<TripTimes> removeTripTimes) {
+    departureIndex = null;
+    return tripTimes.removeIf(removeTripTimes);
+  }
+
   /**
    * Apply the same update to all trip-times inculuding scheduled and frequency based
    * trip times.
@@ -402,6 +418,7 @@ public class Timetable implements Serializable {
    * THIS IS NOT THREAD-SAFE - ONLY USE THIS METHOD DURING GRAPH-BUILD!
    */
   public void updateAllTripTimes(UnaryOperator<TripTimes> update) {
+    departureIndex = null;
     tripTimes.replaceAll(update);
     frequencyEntries.replaceAll(it ->
       new FrequencyEntry(
@@ -454,6 +471,19 @@ public class Timetable implements Serializable {
     return tripTimes;
   }
 
+  /**
+   * The trips sorted by departure time at each stop, used to find the next departures from a
+   * stop. It is created the first time it is used.
+   */
+  public TimetableDepartureIndex getDepartureIndex() {
+    var index = departureIndex;
+    if (index == null) {
+      index = new TimetableDepartureIndex(tripTimes, pattern.numberOfStops());
+      departureIndex = index;
+    }
+    return index;
+  }
+
   /**
    * Contains one FrequencyEntry object for each block of frequency-based trips.
    */
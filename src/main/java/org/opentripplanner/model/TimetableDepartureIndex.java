@@ -0,0 +1,132 @@
+package org.opentripplanner.model;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+
+/**
+ * The trips of a {@link Timetable} sorted by their departure time at each stop in the pattern.
+ * This is used to find the next departures from a stop with a binary search, instead of scanning
+ * all trips in the timetable. The trips are sorted for a stop the first time it is used.
+ * <p>
+ * The realtime departure time is used, so the order may differ from the order of the trips in
+ * the timetable. The index is created from the trips in the timetable when it is created; the
+ * timetable drops its index when the trips are changed. A timetable is not changed after it is
+ * committed in the {@link TimetableSnapshot} - so the index of a pattern without realtime
+ * updates is kept across commits.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE.
+ */
+public class TimetableDepartureIndex {
+
+  private final TripTimes[] tripTimes;
+  private final AtomicReferenceArray<StopDepartures> stops;
+
+  TimetableDepartureIndex(Collection<TripTimes> tripTimes, int numberOfStops) {
+    this.tripTimes = tripTimes.toArray(new TripTimes[0]);
+    this.stops = new AtomicReferenceArray<>(numberOfStops);
+  }
+
+  /** The departures at the given stop position in the pattern, sorted by departure time. */
+  public StopDepartures departuresAt(int stopPosition) {
+    var result = stops.get(stopPosition);
+    if (result == null) {
+      // Two threads may sort the same stop at the same time, the result is the same
+      result = new StopDepartures(tripTimes, stopPosition);
+      stops.set(stopPosition, result);
+    }
+    return result;
+  }
+
+  /**
+   * The trips sorted by departure time at one stop position. The dwell times, departure minus
+   * arrival time, are kept so a search by arrival time can find the range of departure times to
+   * look at.
+   */
+  public static final class StopDepartures {
+
+    private final TripTimes[] tripTimes;
+    private final int[] departureTimes;
+    private final int minDwellTime;
+    private final int maxDwellTime;
+
+    private StopDepartures(TripTimes[] tripTimes, int stopPosition) {
+      int n = tripTimes.length;
+      Integer[] order = new Integer[n];
+      for (int i = 0; i < n; ++i) {
+        order[i] = i;
+      }
+      Arrays.sort(
+        order,
+        (a, b) ->
+          Integer.compare(
+            tripTimes[a].getDepartureTime(stopPosition),
+            tripTimes[b].getDepartureTime(stopPosition)
+          )
+      );
+
+      this.tripTimes = new TripTimes[n];
+      this.departureTimes = new int[n];
+      int minDwell = 0;
+      int maxDwell = 0;
+
+      for (int i = 0; i < n; ++i) {
+        TripTimes it = tripTimes[order[i]];
+        this.tripTimes[i] = it;
+        this.departureTimes[i] = it.getDepartureTime(stopPosition);
+        int dwellTime = departureTimes[i] - it.getArrivalTime(stopPosition);
+        minDwell = Math.min(minDwell, dwellTime);
+        maxDwell = Math.max(maxDwell, dwellTime);
+      }
+      this.minDwellTime = minDwell;
+      this.maxDwellTime = maxDwell;
+    }
+
+    public int size() {
+      return tripTimes.length;
+    }
+
+    public TripTimes tripTimes(int index) {
+      return tripTimes[index];
+    }
+
+    public int departureTime(int index) {
+      return departureTimes[index];
+    }
+
+    /**
+     * The smallest dwell time at the stop, zero or negative. A trip arriving at time {@code t}
+     * departs at {@code t + minDwellTime} or later.
+     */
+    public int minDwellTime() {
+      return minDwellTime;
+    }
+
+    /**
+     * The largest dwell time at the stop, zero or positive. A trip arriving at time {@code t}
+     * departs at {@code t + maxDwellTime} or earlier.
+     */
+    public int maxDwellTime() {
+      return maxDwellTime;
+    }
+
+    /**
+     * Return the index of the first trip departing at or after the given time, or {@link #size()}
+     * if there are none.
+     */
+    public int findFirstDepartureAtOrAfter(int time) {
+      int low = 0;
+      int high = departureTimes.length;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (departureTimes[mid] < time) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+  }
+}
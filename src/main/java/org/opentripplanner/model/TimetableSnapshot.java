@@ -134,7 +134,7 @@ public class TimetableSnapshot {
 
       if (tripTimesToRemove != null) {
         for (Timetable sortedTimetable : sortedTimetables) {
-          boolean isDirty = sortedTimetable.getTripTimes().remove(tripTimesToRemove);
+          boolean isDirty = sortedTimetable.removeTripTimes(tripTimesToRemove::equals);
           if (isDirty) {
             dirtyTimetables.add(sortedTimetable);
           }
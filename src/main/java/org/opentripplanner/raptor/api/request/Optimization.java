@@ -15,6 +15,24 @@ public enum Optimization {
    */
   PARALLEL,
 
+  /**
+   * Split the search-window into one slice per thread and run the Range Raptor iterations for
+   * each slice in parallel. The paths found in each slice are merged into one pareto set, using
+   * the same pareto comparator as the destination arrivals. Each slice can not use the state of
+   * the iterations departing later, so it prunes less and more work is done in total. Use this
+   * when there are idle cores and the latency of long search-windows is a problem.
+   * <p>
+   * The result is usually the same as for the sequential search, but this is not guaranteed. A
+   * path dropped by the sequential search at an intermediate stop, because a later iteration
+   * arrived there better, may be found by a slice and kept if it is pareto optimal at the
+   * destination. The module tests compare the two searches for a small network, with an even and
+   * an uneven split of the search-window.
+   * <p>
+   * This only apply to: forward multi-criteria search, and require the Raptor thread pool to be
+   * enabled.
+   */
+  PARALLEL_SEARCH_WINDOW,
+
   /**
    * This optimization use heuristics at each stop calculate an optimistic estimate for all criteria
    * at the destination. Then this "vector" is checked if it qualify in the existing set of pareto
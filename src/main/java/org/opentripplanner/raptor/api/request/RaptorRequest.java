@@ -2,12 +2,16 @@ package org.opentripplanner.raptor.api.request;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Objects;
 import java.util.Set;
+import javax.annotation.Nullable;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
 import org.opentripplanner.raptor.api.debug.RaptorTimers;
+import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
 import org.opentripplanner.raptor.api.model.SearchDirection;
+import org.opentripplanner.raptor.api.response.StopArrivalsListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,6 +32,7 @@ public class RaptorRequest<T extends RaptorTripSchedule> {
   private final MultiCriteriaRequest<T> multiCriteria;
   private final DebugRequest debug;
   private final RaptorTimers performanceTimers;
+  private final StopArrivalsListener stopArrivalsListener;
 
   private RaptorRequest() {
     searchParams = SearchParams.defaults();
@@ -36,6 +41,7 @@ public class RaptorRequest<T extends RaptorTripSchedule> {
     optimizations = Collections.emptySet();
     multiCriteria = MultiCriteriaRequest.<T>of().build();
     performanceTimers = RaptorTimers.NOOP;
+    stopArrivalsListener = null;
     debug = DebugRequest.defaults();
     alias = RaptorRequestBuilder.generateRequestAlias(profile, searchDirection, optimizations);
   }
@@ -48,6 +54,7 @@ public class RaptorRequest<T extends RaptorTripSchedule> {
     this.optimizations = Set.copyOf(builder.optimizations());
     this.multiCriteria = builder.multiCriteria();
     this.performanceTimers = builder.performanceTimers();
+    this.stopArrivalsListener = builder.stopArrivalsListener();
     this.debug = builder.debug().build();
     verify();
   }
@@ -137,6 +144,10 @@ public class RaptorRequest<T extends RaptorTripSchedule> {
     return optimizationEnabled(Optimization.PARALLEL);
   }
 
+  public boolean runSearchWindowInParallel() {
+    return optimizationEnabled(Optimization.PARALLEL_SEARCH_WINDOW);
+  }
+
   public MultiCriteriaRequest<T> multiCriteria() {
     return multiCriteria;
   }
@@ -145,6 +156,15 @@ public class RaptorRequest<T extends RaptorTripSchedule> {
     return performanceTimers;
   }
 
+  /**
+   * Notify the listener of the stop arrivals at the end of each iteration. This is optional and
+   * only supported by the standard Range Raptor profiles, see {@link StopArrivalsListener}.
+   */
+  @Nullable
+  public StopArrivalsListener stopArrivalsListener() {
+    return stopArrivalsListener;
+  }
+
   /**
    * Specify what to debug in the debug request.
    * <p/>
@@ -188,6 +208,7 @@ public class RaptorRequest<T extends RaptorTripSchedule> {
       .addObj("multiCriteria", multiCriteria, defaults.multiCriteria())
       .addObj("debug", debug, defaults.debug())
       .addBoolIfTrue("withPerformanceTimers", performanceTimers != RaptorTimers.NOOP)
+      .addBoolIfTrue("withStopArrivalsListener", stopArrivalsListener != null)
       .toString();
   }
 
@@ -205,10 +226,34 @@ public class RaptorRequest<T extends RaptorTripSchedule> {
 
   private void verify() {
     searchParams.verify();
+    assertProperty(
+      searchParams.egressPathsByDestination().isEmpty() ||
+      !profile.is(RaptorProfile.MULTI_CRITERIA) ||
+      searchDirection.isForward(),
+      "Egress paths by destination are only supported in a forward multi-criteria search."
+    );
+    // The destination of a path is found by the identity of its egress path
+    assertProperty(
+      isEachEgressPathUsedByOneDestination(),
+      "An egress path is used by more than one destination. Each destination must have its " +
+      "own egress path instances."
+    );
     if (!profile.is(RaptorProfile.MULTI_CRITERIA)) {
       if (useDestinationPruning()) {
         LOG.warn("Destination pruning is only supported using McRangeRaptor");
       }
     }
   }
+
+  private boolean isEachEgressPathUsedByOneDestination() {
+    Set<RaptorAccessEgress> egressPaths = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (Collection<RaptorAccessEgress> it : searchParams.egressPathsByDestination()) {
+      for (RaptorAccessEgress egress : it) {
+        if (!egressPaths.add(egress)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
 }
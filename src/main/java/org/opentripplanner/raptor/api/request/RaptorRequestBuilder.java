@@ -7,6 +7,7 @@ import java.util.function.Consumer;
 import org.opentripplanner.raptor.api.debug.RaptorTimers;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
 import org.opentripplanner.raptor.api.model.SearchDirection;
+import org.opentripplanner.raptor.api.response.StopArrivalsListener;
 
 /**
  * This is a Request builder to help construct valid requests. Se the request classes for
@@ -34,6 +35,9 @@ public class RaptorRequestBuilder<T extends RaptorTripSchedule> {
   // Performance monitoring
   private RaptorTimers performanceTimers;
 
+  // Iteration results
+  private StopArrivalsListener stopArrivalsListener;
+
   // Algorithm
   private RaptorProfile profile;
 
@@ -58,6 +62,9 @@ public class RaptorRequestBuilder<T extends RaptorTripSchedule> {
     // Timer
     this.performanceTimers = defaults.performanceTimers();
 
+    // Iteration results
+    this.stopArrivalsListener = defaults.stopArrivalsListener();
+
     // Debug
     this.debug = new DebugRequestBuilder(defaults.debug());
   }
@@ -126,6 +133,15 @@ public class RaptorRequestBuilder<T extends RaptorTripSchedule> {
     return this;
   }
 
+  public StopArrivalsListener stopArrivalsListener() {
+    return stopArrivalsListener;
+  }
+
+  public RaptorRequestBuilder<T> stopArrivalsListener(StopArrivalsListener stopArrivalsListener) {
+    this.stopArrivalsListener = stopArrivalsListener;
+    return this;
+  }
+
   public DebugRequestBuilder debug() {
     return this.debug;
   }
@@ -160,6 +176,10 @@ public class RaptorRequestBuilder<T extends RaptorTripSchedule> {
       // Run search in parallel
       name += "-LL";
     }
+    if (Optimization.PARALLEL_SEARCH_WINDOW.isOneOf(optimizations)) {
+      // Run search-window slices in parallel
+      name += "-SW";
+    }
     if (Optimization.PARETO_CHECK_AGAINST_DESTINATION.isOneOf(optimizations)) {
       // Heuristic to prune on pareto optimal Destination arrivals
       name += "-DP";
@@ -27,6 +27,7 @@ public class SearchParams {
   private final boolean constrainedTransfers;
   private final Collection<RaptorAccessEgress> accessPaths;
   private final Collection<RaptorAccessEgress> egressPaths;
+  private final List<Collection<RaptorAccessEgress>> egressPathsByDestination;
   private final boolean allowEmptyAccessEgressPaths;
 
   /**
@@ -44,6 +45,7 @@ public class SearchParams {
     constrainedTransfers = false;
     accessPaths = List.of();
     egressPaths = List.of();
+    egressPathsByDestination = List.of();
     allowEmptyAccessEgressPaths = false;
   }
 
@@ -59,6 +61,12 @@ public class SearchParams {
     this.constrainedTransfers = builder.constrainedTransfers();
     this.accessPaths = List.copyOf(builder.accessPaths());
     this.egressPaths = List.copyOf(builder.egressPaths());
+    this.egressPathsByDestination =
+      builder
+        .egressPathsByDestination()
+        .stream()
+        .<Collection<RaptorAccessEgress>>map(List::copyOf)
+        .toList();
     this.allowEmptyAccessEgressPaths = builder.allowEmptyAccessEgressPaths();
   }
 
@@ -228,6 +236,19 @@ public class SearchParams {
     return egressPaths;
   }
 
+  /**
+   * The {@link #egressPaths()} grouped by destination, if the search is from one origin to many
+   * destinations. Each destination has its own set of optimal paths, a path to one destination
+   * does not exclude a path to another destination.
+   * <p>
+   * Only the forward multi-criteria search keep the destinations apart, the other profiles route
+   * to all the egress paths as if they lead to one destination. The list is empty if the search
+   * has one destination.
+   */
+  public List<Collection<RaptorAccessEgress>> egressPathsByDestination() {
+    return egressPathsByDestination;
+  }
+
   /**
    * If enabled, the check for access and egress paths is skipped. This is required when wanting to
    * eg. run a separate heuristic search, with no pre-defined destinations.
@@ -255,7 +276,8 @@ public class SearchParams {
       preferLateArrival,
       numberOfAdditionalTransfers,
       accessPaths,
-      egressPaths
+      egressPaths,
+      egressPathsByDestination
     );
   }
 
@@ -275,7 +297,8 @@ public class SearchParams {
       preferLateArrival == that.preferLateArrival &&
       numberOfAdditionalTransfers == that.numberOfAdditionalTransfers &&
       accessPaths.equals(that.accessPaths) &&
-      egressPaths.equals(that.egressPaths)
+      egressPaths.equals(that.egressPaths) &&
+      egressPathsByDestination.equals(that.egressPathsByDestination)
     );
   }
 
@@ -295,6 +318,7 @@ public class SearchParams {
       )
       .addCollection("accessPaths", accessPaths, 5, RaptorAccessEgress::defaultToString)
       .addCollection("egressPaths", egressPaths, 5, RaptorAccessEgress::defaultToString)
+      .addNum("destinations", egressPathsByDestination.size(), 0)
       .toString();
   }
 
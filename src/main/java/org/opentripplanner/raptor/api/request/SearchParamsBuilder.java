@@ -4,6 +4,7 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
 import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
 import org.opentripplanner.raptor.api.model.RaptorConstants;
@@ -20,6 +21,7 @@ public class SearchParamsBuilder<T extends RaptorTripSchedule> {
   private final RaptorRequestBuilder<T> parent;
   private final Collection<RaptorAccessEgress> accessPaths = new ArrayList<>();
   private final Collection<RaptorAccessEgress> egressPaths = new ArrayList<>();
+  private final List<Collection<RaptorAccessEgress>> egressPathsByDestination = new ArrayList<>();
   // Search
   private int earliestDepartureTime;
   private int latestArrivalTime;
@@ -45,6 +47,7 @@ public class SearchParamsBuilder<T extends RaptorTripSchedule> {
     this.constrainedTransfers = defaults.constrainedTransfers();
     this.accessPaths.addAll(defaults.accessPaths());
     this.egressPaths.addAll(defaults.egressPaths());
+    this.egressPathsByDestination.addAll(defaults.egressPathsByDestination());
     this.allowEmptyAccessEgressPaths = defaults.allowEmptyAccessEgressPaths();
   }
 
@@ -164,6 +167,22 @@ public class SearchParamsBuilder<T extends RaptorTripSchedule> {
     return addEgressPaths(Arrays.asList(egressPaths));
   }
 
+  public List<Collection<RaptorAccessEgress>> egressPathsByDestination() {
+    return egressPathsByDestination;
+  }
+
+  /**
+   * Add the egress paths of one destination, in a search from one origin to many destinations.
+   * The paths are also added to the {@link #egressPaths()}.
+   */
+  public SearchParamsBuilder<T> addEgressPathsForDestination(
+    Collection<? extends RaptorAccessEgress> egressPaths
+  ) {
+    this.egressPaths.addAll(egressPaths);
+    this.egressPathsByDestination.add(List.copyOf(egressPaths));
+    return this;
+  }
+
   public SearchParamsBuilder<T> allowEmptyAccessEgressPaths(boolean allowEmptyEgressPaths) {
     this.allowEmptyAccessEgressPaths = allowEmptyEgressPaths;
     return this;
@@ -202,6 +221,7 @@ public class SearchParamsBuilder<T extends RaptorTripSchedule> {
       .addNum("numberOfAdditionalTransfers", numberOfAdditionalTransfers)
       .addCollection("accessPaths", accessPaths, 5)
       .addCollection("egressPaths", egressPaths, 5)
+      .addNum("destinations", egressPathsByDestination.size(), 0)
       .toString();
   }
 }
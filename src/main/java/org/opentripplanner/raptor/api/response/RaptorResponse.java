@@ -1,6 +1,7 @@
 package org.opentripplanner.raptor.api.response;
 
 import java.util.Collection;
+import java.util.List;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
 import org.opentripplanner.raptor.RaptorService;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
@@ -17,6 +18,7 @@ import org.opentripplanner.raptor.api.request.RaptorRequest;
 public class RaptorResponse<T extends RaptorTripSchedule> {
 
   private final Collection<RaptorPath<T>> paths;
+  private final List<Collection<RaptorPath<T>>> pathsByDestination;
   private final RaptorRequest<T> requestUsed;
   private final StopArrivals arrivals;
   private final boolean heuristicPathExist;
@@ -26,8 +28,19 @@ public class RaptorResponse<T extends RaptorTripSchedule> {
     StopArrivals arrivals,
     RaptorRequest<T> requestUsed,
     boolean heuristicPathExist
+  ) {
+    this(paths, List.of(paths), arrivals, requestUsed, heuristicPathExist);
+  }
+
+  public RaptorResponse(
+    Collection<RaptorPath<T>> paths,
+    List<Collection<RaptorPath<T>>> pathsByDestination,
+    StopArrivals arrivals,
+    RaptorRequest<T> requestUsed,
+    boolean heuristicPathExist
   ) {
     this.paths = paths;
+    this.pathsByDestination = pathsByDestination;
     this.arrivals = arrivals;
     this.requestUsed = requestUsed;
     this.heuristicPathExist = heuristicPathExist;
@@ -40,6 +53,15 @@ public class RaptorResponse<T extends RaptorTripSchedule> {
     return paths;
   }
 
+  /**
+   * The result paths of each destination, in the order of
+   * {@link org.opentripplanner.raptor.api.request.SearchParams#egressPathsByDestination()}. If
+   * the search has one destination, the list has one element with all paths.
+   */
+  public List<Collection<RaptorPath<T>>> pathsByDestination() {
+    return pathsByDestination;
+  }
+
   public boolean containsUnknownPaths() {
     return paths.stream().anyMatch(RaptorPath::isUnknownPath);
   }
@@ -0,0 +1,22 @@
+package org.opentripplanner.raptor.api.response;
+
+/**
+ * Listen to the stop arrivals at the end of each Range Raptor iteration. Range Raptor iterates
+ * over the departure times in the search-window, starting with the latest departure time. At the
+ * end of an iteration the best arrival time at a stop is the earliest arrival for a trip
+ * departing at the iteration departure time or later. This can be used to collect the arrival
+ * times for every departure time in the search-window, in one search.
+ * <p>
+ * Only the standard Range Raptor profiles notify the listener. It is ignored by the
+ * multi-criteria search and by the heuristic searches.
+ */
+@FunctionalInterface
+public interface StopArrivalsListener {
+  /**
+   * @param iterationDepartureTime The departure time of the iteration, in a reverse search this
+   *                               is the arrival time.
+   * @param arrivals The stop arrivals. The arrivals are only valid until this method returns, the
+   *                 next iteration continues to update them.
+   */
+  void iterationComplete(int iterationDepartureTime, StopArrivals arrivals);
+}
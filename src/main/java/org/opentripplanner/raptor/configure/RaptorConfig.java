@@ -2,12 +2,15 @@ package org.opentripplanner.raptor.configure;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.IntPredicate;
 import javax.annotation.Nullable;
 import org.opentripplanner.framework.concurrent.OtpRequestThreadFactory;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.path.RaptorPath;
 import org.opentripplanner.raptor.api.request.RaptorRequest;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
+import org.opentripplanner.raptor.api.response.StopArrivalsListener;
 import org.opentripplanner.raptor.rangeraptor.DefaultRangeRaptorWorker;
 import org.opentripplanner.raptor.rangeraptor.context.SearchContext;
 import org.opentripplanner.raptor.rangeraptor.internalapi.Heuristics;
@@ -19,7 +22,9 @@ import org.opentripplanner.raptor.rangeraptor.internalapi.RoutingStrategy;
 import org.opentripplanner.raptor.rangeraptor.multicriteria.configure.McRangeRaptorConfig;
 import org.opentripplanner.raptor.rangeraptor.standard.configure.StdRangeRaptorConfig;
 import org.opentripplanner.raptor.rangeraptor.transit.RaptorSearchWindowCalculator;
+import org.opentripplanner.raptor.service.DefaultStopArrivals;
 import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
+import org.opentripplanner.raptor.util.paretoset.ParetoComparator;
 
 /**
  * This class is responsible for creating a new search and holding application scoped Raptor state.
@@ -58,7 +63,11 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
   ) {
     var context = context(transitData, request);
     var stdConfig = new StdRangeRaptorConfig<>(context);
-    return createWorker(context, stdConfig.state(), stdConfig.strategy());
+    var state = stdConfig.state();
+    if (request.stopArrivalsListener() != null) {
+      subscribeStopArrivalsListener(context, request.stopArrivalsListener(), state.results());
+    }
+    return createWorker(context, state, stdConfig.strategy());
   }
 
   public RaptorWorker<T> createMcWorker(
@@ -74,6 +83,19 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
       );
   }
 
+  /**
+   * Create the pareto comparator used to collect paths at the destination in a multi-criteria
+   * search. Use this to merge the result of several multi-criteria workers.
+   */
+  public ParetoComparator<RaptorPath<T>> createMcPathParetoComparator(
+    RaptorTransitDataProvider<T> transitData,
+    RaptorRequest<T> request
+  ) {
+    var context = context(transitData, request);
+    return new McRangeRaptorConfig<>(context, passThroughPointsService)
+      .createPathParetoComparator();
+  }
+
   public RaptorWorker<T> createHeuristicSearch(
     RaptorTransitDataProvider<T> transitData,
     RaptorRequest<T> request
@@ -100,6 +122,10 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
     return threadPool;
   }
 
+  public RaptorTuningParameters tuningParameters() {
+    return tuningParameters;
+  }
+
   public void shutdown() {
     if (threadPool != null) {
       threadPool.shutdown();
@@ -116,6 +142,24 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
     return McRangeRaptorConfig.passThroughPointsService(request.multiCriteria());
   }
 
+  /**
+   * Notify the listener at the end of each iteration. The stop arrivals are views of the worker
+   * state, so they are created once and used for all iterations.
+   */
+  private static void subscribeStopArrivalsListener(
+    SearchContext<?> ctx,
+    StopArrivalsListener listener,
+    RaptorWorkerResult<?> results
+  ) {
+    var arrivals = new DefaultStopArrivals(results);
+    var iterationDepartureTime = new AtomicInteger();
+    var lifeCycle = ctx.lifeCycle();
+    lifeCycle.onSetupIteration(iterationDepartureTime::set);
+    lifeCycle.onIterationComplete(() ->
+      listener.iterationComplete(iterationDepartureTime.get(), arrivals)
+    );
+  }
+
   private RaptorWorker<T> createWorker(
     SearchContext<T> ctx,
     RaptorWorkerState<T> workerState,
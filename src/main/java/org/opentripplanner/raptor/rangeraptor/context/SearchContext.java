@@ -104,6 +104,18 @@ public class SearchContext<T extends RaptorTripSchedule> {
     return egressPaths;
   }
 
+  /**
+   * The egress paths grouped by destination, if the search keep the destinations apart. The list is
+   * empty if the search has one destination.
+   *
+   * @see SearchParams#egressPathsByDestination()
+   */
+  public List<Collection<RaptorAccessEgress>> egressPathsByDestination() {
+    return isRoutingToManyDestinations(request)
+      ? request.searchParams().egressPathsByDestination()
+      : List.of();
+  }
+
   public int[] egressStops() {
     return egressPaths().stops();
   }
@@ -314,12 +326,23 @@ public class SearchContext<T extends RaptorTripSchedule> {
   }
 
   private static EgressPaths egressPaths(RaptorRequest<?> request) {
+    if (isRoutingToManyDestinations(request)) {
+      return EgressPaths.createForDestinations(request.searchParams().egressPathsByDestination());
+    }
     boolean forward = request.searchDirection().isForward();
     var params = request.searchParams();
     var paths = forward ? params.egressPaths() : params.accessPaths();
     return EgressPaths.create(paths, request.profile());
   }
 
+  private static boolean isRoutingToManyDestinations(RaptorRequest<?> request) {
+    return (
+      !request.searchParams().egressPathsByDestination().isEmpty() &&
+      request.profile().is(RaptorProfile.MULTI_CRITERIA) &&
+      request.searchDirection().isForward()
+    );
+  }
+
   static ParetoSetTime paretoSetTimeConfig(
     SearchParams searchParams,
     SearchDirection searchDirection
@@ -1,6 +1,7 @@
 package org.opentripplanner.raptor.rangeraptor.internalapi;
 
 import java.util.Collection;
+import java.util.List;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
 import org.opentripplanner.raptor.api.path.RaptorPath;
 
@@ -13,6 +14,14 @@ public interface RaptorWorkerResult<T extends RaptorTripSchedule> {
    */
   Collection<RaptorPath<T>> extractPaths();
 
+  /**
+   * Return the paths of each destination, in the order of the destinations in a search to many
+   * destinations. If there is only one destination, the list has one element with all paths.
+   */
+  default List<Collection<RaptorPath<T>>> extractPathsByDestination() {
+    return List.of(extractPaths());
+  }
+
   /**
    * Get "best-overall" arrival statistics for each stop reached in the search.
    */
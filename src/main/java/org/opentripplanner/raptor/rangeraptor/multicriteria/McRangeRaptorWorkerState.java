@@ -171,13 +171,19 @@ public final class McRangeRaptorWorkerState<T extends RaptorTripSchedule>
     RaptorTransfer transfer
   ) {
     final int transferTimeInSeconds = transfer.durationInSeconds();
+    final int toStop = transfer.stop();
 
     for (McStopArrival<T> it : fromArrivals) {
       int arrivalTime = it.arrivalTime() + transferTimeInSeconds;
 
-      if (!exceedsTimeLimit(arrivalTime)) {
-        arrivalsCache.add(stopArrivalFactory.createTransferStopArrival(it, transfer, arrivalTime));
+      if (exceedsTimeLimit(arrivalTime)) {
+        continue;
       }
+      // Avoid creating arrivals which would be rejected when added to the stop arrivals
+      if (arrivals.isTransferDominated(it, toStop, arrivalTime, it.c1() + transfer.c1())) {
+        continue;
+      }
+      arrivalsCache.add(stopArrivalFactory.createTransferStopArrival(it, transfer, arrivalTime));
     }
   }
 
@@ -1,6 +1,7 @@
 package org.opentripplanner.raptor.rangeraptor.multicriteria;
 
 import java.util.Collection;
+import java.util.List;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
 import org.opentripplanner.raptor.api.path.RaptorPath;
 import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorkerResult;
@@ -22,6 +23,11 @@ public class McRaptorWorkerResult<T extends RaptorTripSchedule> implements Rapto
     return paths.listPaths();
   }
 
+  @Override
+  public List<Collection<RaptorPath<T>>> extractPathsByDestination() {
+    return paths.listPathsByDestination();
+  }
+
   @Override
   public SingleCriteriaStopArrivals extractBestOverallArrivals() {
     return new SingleCriteriaStopArrivals() {
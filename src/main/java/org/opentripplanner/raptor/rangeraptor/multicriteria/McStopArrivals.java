@@ -32,12 +32,17 @@ public final class McStopArrivals<T extends RaptorTripSchedule> {
   private final BitSet touchedStops;
 
   private final ArrivalParetoSetComparatorFactory<McStopArrival<T>> comparatorFactory;
+  private final boolean rejectDominatedTransfersEarly;
   private final DebugHandlerFactory<T> debugHandlerFactory;
   private final DebugStopArrivalsStatistics debugStats;
 
   /**
    * Set the time at a transit index iff it is optimal. This sets both the best time and the
    * transfer time
+   *
+   * @param rejectDominatedTransfersEarly Enable {@link #isTransferDominated}, this is only safe
+   *                                      if the comparators do not relax any criteria and no
+   *                                      stop arrival debugger is attached.
    */
   public McStopArrivals(
     int nStops,
@@ -45,9 +50,11 @@ public final class McStopArrivals<T extends RaptorTripSchedule> {
     AccessPaths accessPaths,
     DestinationArrivalPaths<T> paths,
     ArrivalParetoSetComparatorFactory<McStopArrival<T>> comparatorFactory,
+    boolean rejectDominatedTransfersEarly,
     DebugHandlerFactory<T> debugHandlerFactory
   ) {
     this.comparatorFactory = comparatorFactory;
+    this.rejectDominatedTransfersEarly = rejectDominatedTransfersEarly;
     //noinspection unchecked
     this.arrivals = (StopArrivalParetoSet<T>[]) new StopArrivalParetoSet[nStops];
     this.touchedStops = new BitSet(nStops);
@@ -99,6 +106,27 @@ public final class McStopArrivals<T extends RaptorTripSchedule> {
     }
   }
 
+  /**
+   * Return {@code true} if a transfer from the given {@code previous} arrival to the given stop is
+   * dominated by the existing arrivals at the stop. A dominated transfer arrival would be rejected
+   * when added to the stop, so we can skip creating it. The pareto set only improves during the
+   * search, an arrival dominated now is also dominated when the arrivals are committed at the end
+   * of the round.
+   * <p>
+   * Transfers fan out from every new arrival to all nearby stops, and most of them are rejected.
+   * Rejecting them here, before the arrival is created, reduces the number of short-lived objects
+   * created by the search considerably.
+   * <p>
+   * Always return {@code false} if the check is disabled.
+   */
+  boolean isTransferDominated(McStopArrival<T> previous, int stop, int arrivalTime, int c1) {
+    if (!rejectDominatedTransfersEarly) {
+      return false;
+    }
+    StopArrivalParetoSet<T> it = arrivals[stop];
+    return it != null && it.isTransferDominated(previous, arrivalTime, c1);
+  }
+
   void debugStateInfo() {
     debugStats.debugStatInfo(arrivals);
   }
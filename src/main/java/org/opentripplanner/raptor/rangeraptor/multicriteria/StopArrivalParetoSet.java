@@ -30,6 +30,20 @@ class StopArrivalParetoSet<T extends RaptorTripSchedule>
     super(comparator, listener);
   }
 
+  /**
+   * Return {@code true} if a transfer arrival from the given {@code previous} arrival is
+   * dominated by an arrival in this set. See {@link McStopArrival#dominatesTransfer}.
+   */
+  boolean isTransferDominated(McStopArrival<T> previous, int arrivalTime, int c1) {
+    // Use index based iteration, this is called in a tight loop
+    for (int i = 0; i < size(); ++i) {
+      if (get(i).dominatesTransfer(previous, arrivalTime, c1)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Create a stop arrivals pareto set and attach an optional {@code paretoSetEventListener}
    * (debug handler).
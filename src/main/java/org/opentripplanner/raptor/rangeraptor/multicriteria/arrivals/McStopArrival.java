@@ -103,6 +103,27 @@ public abstract class McStopArrival<T extends RaptorTripSchedule> implements Arr
     return travelDuration;
   }
 
+  /**
+   * Return {@code true} if this arrival dominates a transfer arrival from the given
+   * {@code previous} arrival, with the given arrival-time and c1. The transfer arrival is not
+   * created, only its arrival-time, pareto-round and c1 are compared. This arrival dominates the
+   * transfer if it is better or equal for all criteria and better for at least one. Transfers do
+   * not arrive on-board, so this is also valid for comparators including arrivedOnBoard.
+   * <p>
+   * This must only be used with comparators comparing arrival-time, pareto-round and c1 without
+   * any relaxation.
+   */
+  public final boolean dominatesTransfer(McStopArrival<?> previous, int arrivalTime, int c1) {
+    // A transfer increment the paretoRound by one
+    int paretoRound = previous.paretoRound + 1;
+    return (
+      this.arrivalTime <= arrivalTime &&
+      this.paretoRound <= paretoRound &&
+      this.c1 <= c1 &&
+      (this.arrivalTime < arrivalTime || this.paretoRound < paretoRound || this.c1 < c1)
+    );
+  }
+
   public McStopArrival<T> timeShiftNewArrivalTime(int newArrivalTime) {
     throw new UnsupportedOperationException("No accessEgress for transfer stop arrival");
   }
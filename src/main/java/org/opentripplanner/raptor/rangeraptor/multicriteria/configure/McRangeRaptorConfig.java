@@ -5,6 +5,7 @@ import java.util.function.BiFunction;
 import javax.annotation.Nullable;
 import org.opentripplanner.raptor.api.model.DominanceFunction;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.path.RaptorPath;
 import org.opentripplanner.raptor.api.request.MultiCriteriaRequest;
 import org.opentripplanner.raptor.api.request.RaptorTransitGroupCalculator;
 import org.opentripplanner.raptor.rangeraptor.context.SearchContext;
@@ -78,6 +79,14 @@ public class McRangeRaptorConfig<T extends RaptorTripSchedule> {
     return createWorker.apply(state, createTransitWorkerStrategy(state));
   }
 
+  /**
+   * Create the pareto comparator used by the destination arrival paths. This can be used to
+   * merge the paths found by several workers.
+   */
+  public ParetoComparator<RaptorPath<T>> createPathParetoComparator() {
+    return pathConfig.createPathParetoComparator(resolveCostConfig(), c2DominanceFunction());
+  }
+
   /* private factory methods */
 
   private RoutingStrategy<T> createTransitWorkerStrategy(McRangeRaptorWorkerState<T> state) {
@@ -133,10 +142,24 @@ public class McRangeRaptorConfig<T extends RaptorTripSchedule> {
       context.accessPaths(),
       createDestinationArrivalPaths(),
       createFactoryParetoComparator(),
+      rejectDominatedTransfersEarly(),
       context.debugFactory()
     );
   }
 
+  /**
+   * Dominated transfers can only be rejected before they are created if the stop arrival
+   * comparator does not relax any criteria. Rejected arrivals are also reported to the stop
+   * arrival debugger, so the optimization is turned off when debugging.
+   */
+  private boolean rejectDominatedTransfersEarly() {
+    return (
+      mcRequest().relaxC1().isNormal() &&
+      dominanceFunctionC2() == null &&
+      !context.debugFactory().isDebugStopArrival()
+    );
+  }
+
   private HeuristicsProvider<T> createHeuristicsProvider(Heuristics heuristics) {
     if (heuristics == null) {
       return new HeuristicsProvider<>();
@@ -158,12 +181,16 @@ public class McRangeRaptorConfig<T extends RaptorTripSchedule> {
 
   private DestinationArrivalPaths<T> createDestinationArrivalPaths() {
     if (paths == null) {
-      var c2Comp = includeC2() ? dominanceFunctionC2() : null;
-      paths = pathConfig.createDestArrivalPaths(resolveCostConfig(), c2Comp);
+      paths = pathConfig.createDestArrivalPaths(resolveCostConfig(), c2DominanceFunction());
     }
     return paths;
   }
 
+  @Nullable
+  private DominanceFunction c2DominanceFunction() {
+    return includeC2() ? dominanceFunctionC2() : null;
+  }
+
   private ArrivalParetoSetComparatorFactory<McStopArrival<T>> createFactoryParetoComparator() {
     return ArrivalParetoSetComparatorFactory.factory(mcRequest().relaxC1(), dominanceFunctionC2());
   }
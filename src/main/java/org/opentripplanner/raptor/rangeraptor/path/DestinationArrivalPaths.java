@@ -1,7 +1,13 @@
 package org.opentripplanner.raptor.rangeraptor.path;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.opentripplanner.framework.lang.OtpNumberFormat;
 import org.opentripplanner.framework.logging.Throttle;
@@ -34,6 +40,12 @@ import org.slf4j.LoggerFactory;
  * <p/>
  * This class is a thin wrapper around a ParetoSet of {@link RaptorPath}s. Before paths are added
  * the arrival time is checked against the arrival time limit.
+ * <p/>
+ * In a search to many destinations there is one pareto set for each destination, the destination
+ * of a path is given by its egress path. The paths are returned by destination index, see
+ * {@link #listPathsByDestination()}. The round limit must allow each destination to be reached
+ * with its own fewest number of transfers, so the destination is reported as reached in the
+ * round where the destination needing the most rounds is first reached.
  *
  * @param <T> The TripSchedule type defined by the user of the raptor API.
  */
@@ -42,7 +54,17 @@ public class DestinationArrivalPaths<T extends RaptorTripSchedule> {
   private static final Logger LOG = LoggerFactory.getLogger(DestinationArrivalPaths.class);
   private static final Throttle THROTTLE_MISS_MATCH = Throttle.ofOneSecond();
 
-  private final ParetoSet<RaptorPath<T>> paths;
+  private final List<ParetoSet<RaptorPath<T>>> paths;
+
+  /** The destination index by egress path, empty if there is only one destination. */
+  private final Map<RaptorAccessEgress, Integer> destinationByEgress = new IdentityHashMap<>();
+
+  /**
+   * The first round each destination is reached in, over all iterations. Only used in a search to
+   * many destinations.
+   */
+  private final int[] firstRoundReachedByDestination;
+
   private final RaptorTransitCalculator<T> transitCalculator;
 
   @Nullable
@@ -53,6 +75,7 @@ public class DestinationArrivalPaths<T extends RaptorTripSchedule> {
   private final DebugHandler<RaptorPath<?>> debugPathHandler;
   private final RaptorStopNameResolver stopNameResolver;
   private boolean reachedCurrentRound = false;
+  private int round = 0;
   private int iterationDepartureTime = -1;
 
   public DestinationArrivalPaths(
@@ -65,15 +88,55 @@ public class DestinationArrivalPaths<T extends RaptorTripSchedule> {
     RaptorStopNameResolver stopNameResolver,
     WorkerLifeCycle lifeCycle
   ) {
-    this.paths =
-      new ParetoSet<>(paretoComparator, debugHandlerFactory.paretoSetDebugPathListener());
+    this(
+      paretoComparator,
+      transitCalculator,
+      costCalculator,
+      slackProvider,
+      pathMapper,
+      debugHandlerFactory,
+      stopNameResolver,
+      lifeCycle,
+      List.of()
+    );
+  }
+
+  /**
+   * @param egressPathsByDestination The egress paths of each destination in a search to many
+   *                                 destinations, or an empty list if there is one destination.
+   */
+  public DestinationArrivalPaths(
+    ParetoComparator<RaptorPath<T>> paretoComparator,
+    RaptorTransitCalculator<T> transitCalculator,
+    @Nullable RaptorCostCalculator<T> costCalculator,
+    SlackProvider slackProvider,
+    PathMapper<T> pathMapper,
+    DebugHandlerFactory<T> debugHandlerFactory,
+    RaptorStopNameResolver stopNameResolver,
+    WorkerLifeCycle lifeCycle,
+    List<Collection<RaptorAccessEgress>> egressPathsByDestination
+  ) {
+    int nDestinations = Math.max(1, egressPathsByDestination.size());
+    this.paths = new ArrayList<>(nDestinations);
+    for (int i = 0; i < nDestinations; ++i) {
+      paths.add(
+        new ParetoSet<>(paretoComparator, debugHandlerFactory.paretoSetDebugPathListener())
+      );
+    }
+    for (int i = 0; i < egressPathsByDestination.size(); ++i) {
+      for (RaptorAccessEgress egress : egressPathsByDestination.get(i)) {
+        destinationByEgress.put(egress, i);
+      }
+    }
+    this.firstRoundReachedByDestination = new int[egressPathsByDestination.size()];
+    Arrays.fill(firstRoundReachedByDestination, Integer.MAX_VALUE);
     this.transitCalculator = transitCalculator;
     this.costCalculator = costCalculator;
     this.slackProvider = slackProvider;
     this.pathMapper = pathMapper;
     this.debugPathHandler = debugHandlerFactory.debugPathArrival();
     this.stopNameResolver = stopNameResolver;
-    lifeCycle.onPrepareForNextRound(round -> clearReachedCurrentRoundFlag());
+    lifeCycle.onPrepareForNextRound(this::prepareForNextRound);
     lifeCycle.onSetupIteration(this::setRangeRaptorIterationDepartureTime);
   }
 
@@ -92,36 +155,76 @@ public class DestinationArrivalPaths<T extends RaptorTripSchedule> {
 
       assertGeneralizedCostIsCalculatedCorrectByMapper(destArrival, path);
 
-      boolean added = paths.add(path);
+      int destination = destinationByEgress.getOrDefault(egressPath, 0);
+      boolean added = paths.get(destination).add(path);
       if (added) {
         reachedCurrentRound = true;
+        if (destination < firstRoundReachedByDestination.length) {
+          firstRoundReachedByDestination[destination] =
+            Math.min(firstRoundReachedByDestination[destination], round);
+        }
       }
     }
   }
 
   /**
-   * Check if destination was reached in the current round.
+   * Check if destination was reached in the current round. In a search to many destinations this
+   * is only true if all destinations are reached, and the current round is the first round the
+   * last of them was reached in. The round limit is set the first time this is true, so the limit
+   * is given by the destination with the highest fewest number of transfers. A destination is not
+   * cut off by the round limit of a destination nearer the origin.
    */
   public boolean isReachedCurrentRound() {
-    return reachedCurrentRound;
+    if (firstRoundReachedByDestination.length == 0) {
+      return reachedCurrentRound;
+    }
+    if (!reachedCurrentRound) {
+      return false;
+    }
+    int lastDestinationFirstRound = 0;
+    for (int it : firstRoundReachedByDestination) {
+      lastDestinationFirstRound = Math.max(lastDestinationFirstRound, it);
+    }
+    return lastDestinationFirstRound == round;
   }
 
   public void setRangeRaptorIterationDepartureTime(int iterationDepartureTime) {
     this.iterationDepartureTime = iterationDepartureTime;
+    this.round = 0;
   }
 
   public boolean isEmpty() {
-    return paths.isEmpty();
+    return paths.stream().allMatch(ParetoSet::isEmpty);
   }
 
+  /**
+   * Check if a path with the given values would be accepted. In a search to many destinations,
+   * it is enough that one of the destinations would accept it.
+   */
   public boolean qualify(int departureTime, int arrivalTime, int numberOfTransfers, int cost) {
-    return paths.qualify(
-      Path.dummyPath(iterationDepartureTime, departureTime, arrivalTime, numberOfTransfers, cost)
+    var path = Path.<T>dummyPath(
+      iterationDepartureTime,
+      departureTime,
+      arrivalTime,
+      numberOfTransfers,
+      cost
     );
+    return paths.stream().anyMatch(it -> it.qualify(path));
   }
 
   public Collection<RaptorPath<T>> listPaths() {
-    return paths;
+    if (paths.size() == 1) {
+      return paths.get(0);
+    }
+    return paths.stream().flatMap(Collection::stream).toList();
+  }
+
+  /**
+   * List the paths of each destination, in the order of the destinations in the request. If
+   * there is only one destination, the list has one element with all paths.
+   */
+  public List<Collection<RaptorPath<T>>> listPathsByDestination() {
+    return Collections.unmodifiableList(paths);
   }
 
   public void debugReject(ArrivalView<T> stopArrival, RaptorAccessEgress egress, String reason) {
@@ -142,7 +245,13 @@ public class DestinationArrivalPaths<T extends RaptorTripSchedule> {
 
   @Override
   public String toString() {
-    return paths.toString(p -> p.toString(stopNameResolver));
+    if (paths.size() == 1) {
+      return paths.get(0).toString(p -> p.toString(stopNameResolver));
+    }
+    return paths
+      .stream()
+      .map(it -> it.toString(p -> p.toString(stopNameResolver)))
+      .collect(Collectors.joining("\n"));
   }
 
   public final boolean isDebugOn() {
@@ -151,8 +260,9 @@ public class DestinationArrivalPaths<T extends RaptorTripSchedule> {
 
   /* private methods */
 
-  private void clearReachedCurrentRoundFlag() {
-    reachedCurrentRound = false;
+  private void prepareForNextRound(int round) {
+    this.round = round;
+    this.reachedCurrentRound = false;
   }
 
   private void debugRejectByTimeLimitOptimization(DestinationArrival<T> destArrival) {
@@ -61,13 +61,16 @@ public class PathConfig<T extends RaptorTripSchedule> {
       createPathMapper(costConfig.includeC1()),
       ctx.debugFactory(),
       ctx.stopNameResolver(),
-      ctx.lifeCycle()
+      ctx.lifeCycle(),
+      ctx.egressPathsByDestination()
     );
   }
 
-  /* private members */
-
-  private ParetoComparator<RaptorPath<T>> createPathParetoComparator(
+  /**
+   * Create the pareto comparator used to compare paths at the destination. The same comparator
+   * can be used to merge paths from several searches.
+   */
+  public ParetoComparator<RaptorPath<T>> createPathParetoComparator(
     ParetoSetCost costConfig,
     DominanceFunction c2Comp
   ) {
@@ -84,6 +87,8 @@ public class PathConfig<T extends RaptorTripSchedule> {
     return paretoComparator(paretoSetTimeConfig(), costConfig, relaxC1, c2Comp);
   }
 
+  /* private members */
+
   private ParetoSetTime paretoSetTimeConfig() {
     boolean preferLatestDeparture =
       ctx.searchParams().preferLateArrival() != ctx.searchDirection().isInReverse();
@@ -40,6 +40,21 @@ public class EgressPaths {
     return new EgressPaths(groupByStop(paths));
   }
 
+  /**
+   * Create the egress paths for a multi-criteria search to many destinations. The non-optimal
+   * paths are removed for each destination, a path to one destination can not exclude a path to
+   * another destination.
+   */
+  public static EgressPaths createForDestinations(
+    List<Collection<RaptorAccessEgress>> pathsByDestination
+  ) {
+    var paths = pathsByDestination
+      .stream()
+      .flatMap(it -> removeNonOptimalPathsForMcRaptor(it).stream())
+      .toList();
+    return new EgressPaths(groupByStop(paths));
+  }
+
   public TIntObjectMap<List<RaptorAccessEgress>> byStop() {
     return pathsByStop;
   }
@@ -0,0 +1,94 @@
+package org.opentripplanner.raptor.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.path.RaptorPath;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorkerResult;
+import org.opentripplanner.raptor.rangeraptor.internalapi.SingleCriteriaStopArrivals;
+import org.opentripplanner.raptor.util.paretoset.ParetoComparator;
+import org.opentripplanner.raptor.util.paretoset.ParetoSet;
+
+/**
+ * Merge the results of the search-window slices routed by the {@link ParallelSearchWindowSearch}.
+ * The paths are added to a new pareto set using the same comparator as the destination arrivals
+ * in each slice. The paths are added in the same order as the sequential search would find them,
+ * starting with the latest slice. The stop arrival values are the best(lowest) value found in any
+ * slice, this is correct because only forward searches are split.
+ *
+ * @param <T> The TripSchedule type defined by the user of the raptor API.
+ */
+class ParallelSearchWindowResult<T extends RaptorTripSchedule> implements RaptorWorkerResult<T> {
+
+  private final ParetoComparator<RaptorPath<T>> pathComparator;
+
+  /** The slice results ordered from the earliest to the latest slice. */
+  private final List<RaptorWorkerResult<T>> results;
+
+  ParallelSearchWindowResult(
+    ParetoComparator<RaptorPath<T>> pathComparator,
+    List<RaptorWorkerResult<T>> results
+  ) {
+    this.pathComparator = pathComparator;
+    this.results = results;
+  }
+
+  @Override
+  public Collection<RaptorPath<T>> extractPaths() {
+    var paths = new ParetoSet<>(pathComparator);
+    for (int i = results.size() - 1; i >= 0; --i) {
+      paths.addAll(results.get(i).extractPaths());
+    }
+    return paths;
+  }
+
+  @Override
+  public SingleCriteriaStopArrivals extractBestOverallArrivals() {
+    return merge(RaptorWorkerResult::extractBestOverallArrivals);
+  }
+
+  @Override
+  public SingleCriteriaStopArrivals extractBestTransitArrivals() {
+    return merge(RaptorWorkerResult::extractBestTransitArrivals);
+  }
+
+  @Override
+  public SingleCriteriaStopArrivals extractBestNumberOfTransfers() {
+    return merge(RaptorWorkerResult::extractBestNumberOfTransfers);
+  }
+
+  @Override
+  public boolean isDestinationReached() {
+    return results.stream().anyMatch(RaptorWorkerResult::isDestinationReached);
+  }
+
+  private SingleCriteriaStopArrivals merge(
+    Function<RaptorWorkerResult<T>, SingleCriteriaStopArrivals> mapper
+  ) {
+    var arrivals = results.stream().map(mapper).toList();
+
+    return new SingleCriteriaStopArrivals() {
+      @Override
+      public boolean isReached(int stop) {
+        for (var it : arrivals) {
+          if (it.isReached(stop)) {
+            return true;
+          }
+        }
+        return false;
+      }
+
+      @Override
+      public int value(int stop) {
+        int best = Integer.MAX_VALUE;
+        for (var it : arrivals) {
+          if (it.isReached(stop)) {
+            best = Math.min(best, it.value(stop));
+          }
+        }
+        return best;
+      }
+    };
+  }
+}
@@ -0,0 +1,175 @@
+package org.opentripplanner.raptor.service;
+
+import static org.opentripplanner.raptor.api.request.RaptorProfile.MULTI_CRITERIA;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import javax.annotation.Nullable;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.SearchParams;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.raptor.rangeraptor.internalapi.Heuristics;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorker;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorkerResult;
+import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Run a forward multi-criteria Range Raptor search with the search-window split into slices of
+ * consecutive iterations(departure minutes). Each slice is routed by its own worker, with its own
+ * state, on the Raptor thread pool. The caller thread route the earliest slice. When all slices
+ * are done the results are merged, see {@link ParallelSearchWindowResult}.
+ * <p>
+ * The search may itself run in the Raptor thread pool, for example in the travel-time matrix. So
+ * the caller thread must not wait for a slice which is not started yet - all threads in the pool
+ * may be waiting in the same way. Instead, the caller thread route the slices which are still in
+ * the queue of the pool when it is done with the earliest slice, and only wait for the slices
+ * already running in another thread.
+ * <p>
+ * The slices are created so that the iteration departure times of all slices together are
+ * exactly the same as the iteration departure times of the sequential search.
+ * <p>
+ * This class have REQUEST scope.
+ */
+class ParallelSearchWindowSearch<T extends RaptorTripSchedule> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ParallelSearchWindowSearch.class);
+
+  private final RaptorConfig<T> config;
+  private final RaptorTransitDataProvider<T> transitData;
+  private final RaptorRequest<T> request;
+
+  @Nullable
+  private final Heuristics heuristics;
+
+  ParallelSearchWindowSearch(
+    RaptorConfig<T> config,
+    RaptorTransitDataProvider<T> transitData,
+    RaptorRequest<T> request,
+    @Nullable Heuristics heuristics
+  ) {
+    this.config = config;
+    this.transitData = transitData;
+    this.request = request;
+    this.heuristics = heuristics;
+  }
+
+  /**
+   * Return {@code true} if the search-window should be split and routed in parallel. The
+   * optimization must be enabled, and the search must have more than one iteration. A search to
+   * many destinations is not split, the slice results are merged into one set of paths.
+   */
+  static boolean isEnabled(RaptorConfig<?> config, RaptorRequest<?> request) {
+    return (
+      config.isMultiThreaded() &&
+      request.runSearchWindowInParallel() &&
+      request.profile().is(MULTI_CRITERIA) &&
+      request.searchDirection().isForward() &&
+      request.searchParams().egressPathsByDestination().isEmpty() &&
+      numberOfIterations(config, request) > 1
+    );
+  }
+
+  RaptorWorkerResult<T> route() {
+    var sliceRequests = createSliceRequests();
+
+    // The config is not thread-safe, so all workers are created in the caller thread
+    List<RaptorWorker<T>> workers = new ArrayList<>(sliceRequests.size());
+    for (RaptorRequest<T> it : sliceRequests) {
+      workers.add(config.createMcWorker(transitData, it, heuristics));
+    }
+    var pathComparator = config.createMcPathParetoComparator(transitData, request);
+
+    LOG.debug("Route search-window in {} slices. Request: {}", workers.size(), request);
+
+    List<FutureTask<RaptorWorkerResult<T>>> asyncResults = new ArrayList<>();
+    try {
+      for (int i = 1; i < workers.size(); ++i) {
+        var task = new FutureTask<>(workers.get(i)::route);
+        asyncResults.add(task);
+        config.threadPool().execute(task);
+      }
+      List<RaptorWorkerResult<T>> results = new ArrayList<>(workers.size());
+      results.add(workers.get(0).route());
+      for (FutureTask<RaptorWorkerResult<T>> it : asyncResults) {
+        // Route the slice in the caller thread if it is not started, this does nothing if the
+        // slice is already started or done in the thread pool
+        it.run();
+        results.add(it.get());
+      }
+      return new ParallelSearchWindowResult<>(pathComparator, results);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new OTPRequestTimeoutException();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      LOG.error(e.getMessage() + ". Request: " + request, e);
+      throw new IllegalStateException(
+        "Failed to run search-window slices in parallel. Details: " + e.getMessage()
+      );
+    } finally {
+      // propagate interruption or failure to the tasks still running, this has no effect on
+      // completed tasks.
+      asyncResults.forEach(it -> it.cancel(true));
+    }
+  }
+
+  /**
+   * Split the search-window into one slice per thread(including the caller thread). The first
+   * slice in the returned list is the earliest. The search-window-access-slack is part of the
+   * first slice, so it is set to zero and the earliest-departure-time/search-window is adjusted
+   * instead.
+   */
+  List<RaptorRequest<T>> createSliceRequests() {
+    var params = request.searchParams();
+    int step = config.tuningParameters().iterationDepartureStepInSeconds();
+    int nIterations = numberOfIterations(config, request);
+    int nSlices = Math.min(config.tuningParameters().searchThreadPoolSize() + 1, nIterations);
+
+    int routerEdt = params.routerEarliestDepartureTime();
+    // The iterations are numbered from the latest to the earliest departure time
+    int latestIterationTime = routerEdt + params.routerSearchWindowInSeconds() - step;
+
+    List<RaptorRequest<T>> slices = new ArrayList<>(nSlices);
+
+    // Create the slices from the latest to the earliest, and insert them first in the list
+    for (int i = 0; i < nSlices; ++i) {
+      int start = (int) ((long) nIterations * i / nSlices);
+      int end = (int) ((long) nIterations * (i + 1) / nSlices);
+      boolean earliestSlice = i == nSlices - 1;
+
+      int sliceLatestTime = latestIterationTime - start * step;
+      int sliceEarliestTime = earliestSlice ? routerEdt : latestIterationTime - (end - 1) * step;
+
+      var builder = request.mutate().searchParams();
+      builder.searchWindowAccessSlack(Duration.ZERO);
+      slices.add(
+        0,
+        builder
+          .earliestDepartureTime(sliceEarliestTime)
+          .searchWindowInSeconds(sliceLatestTime + step - sliceEarliestTime)
+          .build()
+      );
+    }
+    return slices;
+  }
+
+  /**
+   * The number of iterations in the sequential search, this must match the
+   * {@code rangeRaptorMinutes()} in the forward transit calculator.
+   */
+  private static int numberOfIterations(RaptorConfig<?> config, RaptorRequest<?> request) {
+    SearchParams params = request.searchParams();
+    int step = config.tuningParameters().iterationDepartureStepInSeconds();
+    int searchWindow = params.routerSearchWindowInSeconds();
+    return searchWindow <= step ? 1 : searchWindow / step;
+  }
+}
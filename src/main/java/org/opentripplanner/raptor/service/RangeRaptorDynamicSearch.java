@@ -21,6 +21,7 @@ import org.opentripplanner.raptor.api.response.RaptorResponse;
 import org.opentripplanner.raptor.configure.RaptorConfig;
 import org.opentripplanner.raptor.rangeraptor.internalapi.Heuristics;
 import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorker;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorkerResult;
 import org.opentripplanner.raptor.rangeraptor.transit.RaptorSearchWindowCalculator;
 import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
 import org.slf4j.Logger;
@@ -130,21 +131,30 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
 
   private RaptorResponse<T> createAndRunDynamicRRWorker(RaptorRequest<T> request) {
     LOG.debug("Main request: {}", request);
-    RaptorWorker<T> raptorWorker;
+    RaptorWorkerResult<T> result;
 
-    // Create worker
-    if (request.profile().is(MULTI_CRITERIA)) {
-      raptorWorker = config.createMcWorker(transitData, request, getDestinationHeuristics());
+    if (ParallelSearchWindowSearch.isEnabled(config, request)) {
+      result =
+        new ParallelSearchWindowSearch<>(config, transitData, request, getDestinationHeuristics())
+          .route();
     } else {
-      raptorWorker = config.createStdWorker(transitData, request);
-    }
+      RaptorWorker<T> raptorWorker;
+
+      // Create worker
+      if (request.profile().is(MULTI_CRITERIA)) {
+        raptorWorker = config.createMcWorker(transitData, request, getDestinationHeuristics());
+      } else {
+        raptorWorker = config.createStdWorker(transitData, request);
+      }
 
-    // Route
-    var result = raptorWorker.route();
+      // Route
+      result = raptorWorker.route();
+    }
 
     // create and return response
     return new RaptorResponse<>(
       result.extractPaths(),
+      result.extractPathsByDestination(),
       new DefaultStopArrivals(result),
       request,
       // This method is not run unless the heuristic reached the destination
@@ -0,0 +1,119 @@
+package org.opentripplanner.routing.algorithm;
+
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+import org.opentripplanner.framework.time.ServiceDateUtils;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.TransitRouter;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.TransitRouterResult;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.response.RoutingResponse;
+import org.opentripplanner.routing.error.RoutingValidationException;
+import org.opentripplanner.routing.framework.DebugTimingAggregator;
+import org.opentripplanner.standalone.api.OtpServerRequestContext;
+
+/**
+ * Plan trips from the origin of a request to many destinations. The access and the transit search
+ * are shared by all destinations, if the request allows it. Raptor keeps a separate set of optimal
+ * paths for each destination, so the result for each destination is the same as if it was
+ * routed alone, except that the search-window is the same for all destinations. The direct
+ * street routing and the itinerary filtering is done for each destination.
+ * <p>
+ * If the transit search can not be shared, see
+ * {@link TransitRouter#isRoutingToManyDestinationsSupported(RouteRequest)}, each destination is
+ * routed by itself.
+ * <p>
+ * This class has a request scope, hence the "Worker" name.
+ */
+public class OneToManyRoutingWorker {
+
+  private final OtpServerRequestContext serverContext;
+  private final RouteRequest request;
+  private final List<RouteRequest> destinationRequests;
+  private final ZoneId zoneId;
+
+  public OneToManyRoutingWorker(
+    OtpServerRequestContext serverContext,
+    RouteRequest request,
+    List<GenericLocation> destinations,
+    ZoneId zoneId
+  ) {
+    this.serverContext = serverContext;
+    this.request = request;
+    this.destinationRequests =
+      destinations
+        .stream()
+        .map(destination -> {
+          var destinationRequest = request.clone();
+          destinationRequest.setTo(destination);
+          return destinationRequest;
+        })
+        .toList();
+    this.zoneId = zoneId;
+  }
+
+  /**
+   * Route to each destination, the response for each destination is passed to the given consumer
+   * in the order of the destinations.
+   */
+  public void route(Consumer<RoutingResponse> onResponse) {
+    if (
+      destinationRequests.size() < 2 ||
+      !TransitRouter.isRoutingToManyDestinationsSupported(request)
+    ) {
+      for (RouteRequest destinationRequest : destinationRequests) {
+        onResponse.accept(new RoutingWorker(serverContext, destinationRequest, zoneId).route());
+      }
+      return;
+    }
+
+    var transitResults = routeTransit();
+
+    for (int i = 0; i < destinationRequests.size(); ++i) {
+      OTPRequestTimeoutException.checkForTimeout();
+      var worker = new RoutingWorker(
+        serverContext,
+        destinationRequests.get(i),
+        zoneId,
+        transitResults.get(i)
+      );
+      onResponse.accept(worker.route());
+    }
+  }
+
+  private List<Supplier<TransitRouterResult>> routeTransit() {
+    var transitSearchTimeZero = ServiceDateUtils.asStartOfService(request.dateTime(), zoneId);
+    var additionalSearchDays = RoutingWorker.createAdditionalSearchDays(
+      serverContext.raptorTuningParameters(),
+      zoneId,
+      request
+    );
+    var debugTimingAggregator = new DebugTimingAggregator(
+      serverContext.meterRegistry(),
+      request.preferences().system().tags()
+    );
+
+    try {
+      return TransitRouter.routeToManyDestinations(
+        request,
+        destinationRequests,
+        serverContext,
+        transitSearchTimeZero,
+        additionalSearchDays,
+        debugTimingAggregator
+      );
+    } catch (RoutingValidationException e) {
+      // The error applies to all destinations
+      return Collections.nCopies(
+        destinationRequests.size(),
+        () -> {
+          throw e;
+        }
+      );
+    }
+  }
+}
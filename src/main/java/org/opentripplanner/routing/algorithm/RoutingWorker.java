@@ -11,6 +11,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 import javax.annotation.Nullable;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.application.OTPRequestTimeoutException;
@@ -26,6 +27,7 @@ import org.opentripplanner.routing.algorithm.mapping.RoutingResponseMapper;
 import org.opentripplanner.routing.algorithm.raptoradapter.router.AdditionalSearchDays;
 import org.opentripplanner.routing.algorithm.raptoradapter.router.FilterTransitWhenDirectModeIsEmpty;
 import org.opentripplanner.routing.algorithm.raptoradapter.router.TransitRouter;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.TransitRouterResult;
 import org.opentripplanner.routing.algorithm.raptoradapter.router.street.DirectFlexRouter;
 import org.opentripplanner.routing.algorithm.raptoradapter.router.street.DirectStreetRouter;
 import org.opentripplanner.routing.api.request.RouteRequest;
@@ -64,10 +66,30 @@ public class RoutingWorker {
    */
   private final ZonedDateTime transitSearchTimeZero;
   private final AdditionalSearchDays additionalSearchDays;
+  /**
+   * The result of a transit search shared with other requests, or {@code null} if the transit
+   * search is done by this worker.
+   */
+  @Nullable
+  private final Supplier<TransitRouterResult> sharedTransitResult;
+
   private SearchParams raptorSearchParamsUsed = null;
   private PageCursorInput pageCursorInput = null;
 
   public RoutingWorker(OtpServerRequestContext serverContext, RouteRequest request, ZoneId zoneId) {
+    this(serverContext, request, zoneId, null);
+  }
+
+  /**
+   * Create a worker using the result of a transit search shared with other requests, see
+   * {@link OneToManyRoutingWorker}.
+   */
+  RoutingWorker(
+    OtpServerRequestContext serverContext,
+    RouteRequest request,
+    ZoneId zoneId,
+    @Nullable Supplier<TransitRouterResult> sharedTransitResult
+  ) {
     request.applyPageCursor();
     this.request = request;
     this.serverContext = serverContext;
@@ -79,6 +101,7 @@ public class RoutingWorker {
     this.transitSearchTimeZero = ServiceDateUtils.asStartOfService(request.dateTime(), zoneId);
     this.additionalSearchDays =
       createAdditionalSearchDays(serverContext.raptorTuningParameters(), zoneId, request);
+    this.sharedTransitResult = sharedTransitResult;
   }
 
   public RoutingResponse route() {
@@ -173,7 +196,7 @@ public class RoutingWorker {
     );
   }
 
-  private static AdditionalSearchDays createAdditionalSearchDays(
+  static AdditionalSearchDays createAdditionalSearchDays(
     RaptorTuningParameters raptorTuningParameters,
     ZoneId zoneId,
     RouteRequest request
@@ -243,7 +266,9 @@ public class RoutingWorker {
 
     debugTimingAggregator.startedDirectFlexRouter();
     try {
-      itineraries.addAll(DirectFlexRouter.route(serverContext, request, additionalSearchDays));
+      itineraries.addAll(
+        DirectFlexRouter.route(serverContext, request, additionalSearchDays, debugTimingAggregator)
+      );
     } catch (RoutingValidationException e) {
       routingErrors.addAll(e.getRoutingErrors());
     } finally {
@@ -255,13 +280,15 @@ public class RoutingWorker {
   private Void routeTransit(List<Itinerary> itineraries, Collection<RoutingError> routingErrors) {
     debugTimingAggregator.startedTransitRouting();
     try {
-      var transitResults = TransitRouter.route(
-        request,
-        serverContext,
-        transitSearchTimeZero,
-        additionalSearchDays,
-        debugTimingAggregator
-      );
+      var transitResults = sharedTransitResult != null
+        ? sharedTransitResult.get()
+        : TransitRouter.route(
+          request,
+          serverContext,
+          transitSearchTimeZero,
+          additionalSearchDays,
+          debugTimingAggregator
+        );
       raptorSearchParamsUsed = transitResults.getSearchParams();
       itineraries.addAll(transitResults.getItineraries());
     } catch (RoutingValidationException e) {
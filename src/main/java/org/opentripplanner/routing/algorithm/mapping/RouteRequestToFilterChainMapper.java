@@ -96,7 +96,7 @@ public class RouteRequestToFilterChainMapper {
 
     var fareService = context.graph().getFareService();
     if (fareService != null) {
-      builder.withFareDecorator(new DecorateWithFare(fareService));
+      builder.withFareDecorator(new DecorateWithFare(fareService.requestScoped()));
     }
 
     if (!context.rideHailingServices().isEmpty()) {
@@ -9,13 +9,17 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 import org.opentripplanner.ext.ridehailing.RideHailingAccessShifter;
 import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.model.GenericLocation;
 import org.opentripplanner.model.plan.Itinerary;
 import org.opentripplanner.raptor.RaptorService;
 import org.opentripplanner.raptor.api.path.RaptorPath;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
 import org.opentripplanner.raptor.api.response.RaptorResponse;
 import org.opentripplanner.routing.algorithm.mapping.RaptorPathToItineraryMapper;
 import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressPenaltyDecorator;
@@ -30,6 +34,7 @@ import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.Acces
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.RaptorRequestMapper;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRoutingRequestTransitData;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RouteRequestTransitDataProviderFilter;
+import org.opentripplanner.routing.algorithm.transferoptimization.OptimizeTransferService;
 import org.opentripplanner.routing.algorithm.transferoptimization.configure.TransferOptimizationServiceConfigurator;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.StreetMode;
@@ -38,6 +43,7 @@ import org.opentripplanner.routing.api.response.InputField;
 import org.opentripplanner.routing.api.response.RoutingError;
 import org.opentripplanner.routing.api.response.RoutingErrorCode;
 import org.opentripplanner.routing.error.RoutingValidationException;
+import org.opentripplanner.routing.graphfinder.NearbyStop;
 import org.opentripplanner.routing.framework.DebugTimingAggregator;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
 import org.opentripplanner.street.search.TemporaryVerticesContainer;
@@ -59,13 +65,31 @@ public class TransitRouter {
     ZonedDateTime transitSearchTimeZero,
     AdditionalSearchDays additionalSearchDays,
     DebugTimingAggregator debugTimingAggregator
+  ) {
+    this(
+      request,
+      serverContext,
+      transitSearchTimeZero,
+      additionalSearchDays,
+      debugTimingAggregator,
+      createTemporaryVerticesContainer(request, serverContext)
+    );
+  }
+
+  private TransitRouter(
+    RouteRequest request,
+    OtpServerRequestContext serverContext,
+    ZonedDateTime transitSearchTimeZero,
+    AdditionalSearchDays additionalSearchDays,
+    DebugTimingAggregator debugTimingAggregator,
+    TemporaryVerticesContainer temporaryVerticesContainer
   ) {
     this.request = request;
     this.serverContext = serverContext;
     this.transitSearchTimeZero = transitSearchTimeZero;
     this.additionalSearchDays = additionalSearchDays;
     this.debugTimingAggregator = debugTimingAggregator;
-    this.temporaryVerticesContainer = createTemporaryVerticesContainer(request, serverContext);
+    this.temporaryVerticesContainer = temporaryVerticesContainer;
   }
 
   public static TransitRouterResult route(
@@ -86,6 +110,82 @@ public class TransitRouter {
     return transitRouter.routeAndCleanupAfter();
   }
 
+  /**
+   * Route from the origin of the request to the destination of each of the destination requests
+   * in one Raptor search. The destination requests must only differ from the request by their
+   * destination. The access is found once, the egress is found for each destination and Raptor
+   * keeps a separate set of optimal paths for each destination. This requires a forward
+   * multi-criteria search, see {@link #isRoutingToManyDestinationsSupported(RouteRequest)}.
+   * <p>
+   * The result for each destination request is returned in the same order. A routing error for
+   * one destination, like no stops in range of the destination, is thrown when the result for
+   * that destination is fetched.
+   */
+  public static List<Supplier<TransitRouterResult>> routeToManyDestinations(
+    RouteRequest request,
+    List<RouteRequest> destinationRequests,
+    OtpServerRequestContext serverContext,
+    ZonedDateTime transitSearchTimeZero,
+    AdditionalSearchDays additionalSearchDays,
+    DebugTimingAggregator debugTimingAggregator
+  ) {
+    RouteRequest originRequest = request.clone();
+    originRequest.setTo(new GenericLocation(null, null));
+
+    TransitRouter origin = new TransitRouter(
+      originRequest,
+      serverContext,
+      transitSearchTimeZero,
+      additionalSearchDays,
+      debugTimingAggregator
+    );
+    var destinations = new ArrayList<TransitRouter>();
+    var results = new ArrayList<Supplier<TransitRouterResult>>();
+
+    try (origin.temporaryVerticesContainer) {
+      for (RouteRequest destinationRequest : destinationRequests) {
+        RouteRequest egressRequest = destinationRequest.clone();
+        egressRequest.setFrom(new GenericLocation(null, null));
+        try {
+          destinations.add(
+            new TransitRouter(
+              egressRequest,
+              serverContext,
+              transitSearchTimeZero,
+              additionalSearchDays,
+              debugTimingAggregator
+            )
+          );
+          results.add(null);
+        } catch (RoutingValidationException e) {
+          destinations.add(null);
+          results.add(failed(e));
+        }
+      }
+      origin.routeToManyDestinations(destinations, destinationRequests, results);
+      return results;
+    } finally {
+      destinations
+        .stream()
+        .filter(Objects::nonNull)
+        .forEach(it -> it.temporaryVerticesContainer.close());
+    }
+  }
+
+  /**
+   * Return {@code true} if the transit search of the given request can be shared by many
+   * destinations, see {@link #routeToManyDestinations}.
+   */
+  public static boolean isRoutingToManyDestinationsSupported(RouteRequest request) {
+    var raptor = request.preferences().transit().raptor();
+    return (
+      request.journey().transit().enabled() &&
+      request.pageCursor() == null &&
+      raptor.profile().is(RaptorProfile.MULTI_CRITERIA) &&
+      raptor.searchDirection().isForward()
+    );
+  }
+
   private TransitRouterResult routeAndCleanupAfter() {
     // try(auto-close):
     //   Make sure we clean up graph by removing temp-edges from the graph before we exit.
@@ -171,6 +271,167 @@ public class TransitRouter {
     return new TransitRouterResult(itineraries, transitResponse.requestUsed().searchParams());
   }
 
+  /**
+   * Route to the given destinations, and set the result of each destination without a result.
+   */
+  private void routeToManyDestinations(
+    List<TransitRouter> destinations,
+    List<RouteRequest> destinationRequests,
+    List<Supplier<TransitRouterResult>> results
+  ) {
+    if (!serverContext.transitService().transitFeedCovers(request.dateTime())) {
+      throw new RoutingValidationException(
+        List.of(new RoutingError(RoutingErrorCode.OUTSIDE_SERVICE_PERIOD, InputField.DATE_TIME))
+      );
+    }
+
+    var transitLayer = request.preferences().transit().ignoreRealtimeUpdates()
+      ? serverContext.transitService().getTransitLayer()
+      : serverContext.transitService().getRealtimeTransitLayer();
+
+    var requestTransitDataProvider = createRequestTransitDataProvider(transitLayer);
+
+    debugTimingAggregator.finishedPatternFiltering();
+
+    // The access is shared by all destinations
+    var accessList = fetchAccess();
+
+    if (accessList.isEmpty()) {
+      throw new RoutingValidationException(
+        List.of(new RoutingError(RoutingErrorCode.NO_STOPS_IN_RANGE, InputField.FROM_PLACE))
+      );
+    }
+
+    var penaltyDecorator = new AccessEgressPenaltyDecorator(
+      request.journey().access().mode(),
+      request.journey().egress().mode(),
+      request.preferences().street().accessEgress().penalty()
+    );
+    var accesses = penaltyDecorator.decorateAccess(accessList);
+
+    // Find the egress of each destination, a destination without egress is not searched for
+    var searchedDestinations = new ArrayList<Integer>();
+    var egressesByDestination = new ArrayList<Collection<DefaultAccessEgress>>();
+    int nEgresses = 0;
+
+    for (int i = 0; i < destinations.size(); ++i) {
+      if (results.get(i) != null) {
+        continue;
+      }
+      Collection<DefaultAccessEgress> egressList;
+      try {
+        egressList = destinations.get(i).fetchEgress();
+      } catch (RoutingValidationException e) {
+        results.set(i, failed(e));
+        continue;
+      }
+      if (egressList.isEmpty()) {
+        results.set(
+          i,
+          failed(
+            new RoutingValidationException(
+              List.of(new RoutingError(RoutingErrorCode.NO_STOPS_IN_RANGE, InputField.TO_PLACE))
+            )
+          )
+        );
+        continue;
+      }
+      var egresses = penaltyDecorator.decorateEgress(egressList);
+      nEgresses += egresses.size();
+      searchedDestinations.add(i);
+      egressesByDestination.add(egresses);
+    }
+
+    debugTimingAggregator.finishedAccessEgress(accesses.size(), nEgresses);
+
+    if (egressesByDestination.isEmpty()) {
+      return;
+    }
+
+    // Route transit to all destinations in one search
+    var raptorRequest = RaptorRequestMapper.mapRequestToManyDestinations(
+      request,
+      transitSearchTimeZero,
+      serverContext.raptorConfig().isMultiThreaded(),
+      accesses,
+      egressesByDestination,
+      new AccessEgresses(accesses, List.of()).calculateMaxAccessTimePenalty(),
+      serverContext.meterRegistry()
+    );
+
+    var raptorService = new RaptorService<>(serverContext.raptorConfig());
+    var transitResponse = raptorService.route(raptorRequest, requestTransitDataProvider);
+
+    debugTimingAggregator.finishedRaptorSearch();
+
+    // The paths are returned by destination index, in the same order as the egress paths
+    var pathsByDestination = transitResponse.pathsByDestination();
+    boolean noPathsFound = transitResponse.paths().isEmpty();
+    if (!noPathsFound && pathsByDestination.size() != egressesByDestination.size()) {
+      throw new IllegalStateException(
+        "Raptor returned paths for " +
+        pathsByDestination.size() +
+        " destinations, expected " +
+        egressesByDestination.size() +
+        "."
+      );
+    }
+
+    OptimizeTransferService<TripSchedule> optimizeTransferService = null;
+    if (OTPFeature.OptimizeTransfers.isOn() && !transitResponse.containsUnknownPaths()) {
+      optimizeTransferService =
+        TransferOptimizationServiceConfigurator.createOptimizeTransferService(
+          transitLayer::getStopByIndex,
+          requestTransitDataProvider.stopNameResolver(),
+          serverContext.transitService().getTransferService(),
+          requestTransitDataProvider,
+          transitLayer.getStopBoardAlightCosts(),
+          request.preferences().transfer().optimization(),
+          raptorRequest.multiCriteria()
+        );
+    }
+
+    // Create itineraries for each destination
+    var searchParamsUsed = transitResponse.requestUsed().searchParams();
+
+    for (int i = 0; i < searchedDestinations.size(); ++i) {
+      int requestIndex = searchedDestinations.get(i);
+      Collection<RaptorPath<TripSchedule>> paths = noPathsFound
+        ? List.of()
+        : pathsByDestination.get(i);
+
+      if (paths.isEmpty()) {
+        results.set(
+          requestIndex,
+          failed(
+            new RoutingValidationException(
+              List.of(new RoutingError(RoutingErrorCode.NO_TRANSIT_CONNECTION, null))
+            )
+          )
+        );
+        continue;
+      }
+      if (optimizeTransferService != null) {
+        paths = optimizeTransferService.optimize(paths);
+      }
+
+      RaptorPathToItineraryMapper<TripSchedule> itineraryMapper = new RaptorPathToItineraryMapper<>(
+        serverContext.graph(),
+        serverContext.transitService(),
+        transitLayer,
+        transitSearchTimeZero,
+        destinationRequests.get(requestIndex)
+      );
+      var result = new TransitRouterResult(
+        paths.stream().map(itineraryMapper::createItinerary).toList(),
+        searchParamsUsed
+      );
+      results.set(requestIndex, () -> result);
+    }
+
+    debugTimingAggregator.finishedItineraryCreation();
+  }
+
   private AccessEgresses fetchAccessEgresses() {
     final var asyncAccessList = new ArrayList<DefaultAccessEgress>();
     final var asyncEgressList = new ArrayList<DefaultAccessEgress>();
@@ -243,13 +504,10 @@ public class TransitRouter {
       .valueOf(streetRequest.mode());
     int stopCountLimit = accessRequest.preferences().street().accessEgress().maxStopCount();
 
-    var nearbyStops = AccessEgressRouter.streetSearch(
+    var nearbyStops = findNearbyStops(
       accessRequest,
-      temporaryVerticesContainer,
-      serverContext.transitService(),
       streetRequest,
-      serverContext.dataOverlayContext(accessRequest),
-      type.isEgress(),
+      type,
       durationLimit,
       stopCountLimit
     );
@@ -268,7 +526,8 @@ public class TransitRouter {
         additionalSearchDays,
         serverContext.flexConfig(),
         serverContext.dataOverlayContext(accessRequest),
-        type.isEgress()
+        type.isEgress(),
+        debugTimingAggregator
       );
 
       results.addAll(AccessEgressMapper.mapFlexAccessEgresses(flexAccessList, type.isEgress()));
@@ -277,6 +536,49 @@ public class TransitRouter {
     return results;
   }
 
+  /**
+   * Find the access or egress stops with a street search, or take them from the
+   * {@link org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache}
+   * if it is enabled.
+   */
+  private Collection<NearbyStop> findNearbyStops(
+    RouteRequest accessRequest,
+    StreetRequest streetRequest,
+    AccessEgressType type,
+    Duration durationLimit,
+    int stopCountLimit
+  ) {
+    Supplier<Collection<NearbyStop>> search = () ->
+      AccessEgressRouter.streetSearch(
+        accessRequest,
+        temporaryVerticesContainer,
+        serverContext.transitService(),
+        streetRequest,
+        serverContext.dataOverlayContext(accessRequest),
+        type.isEgress(),
+        durationLimit,
+        stopCountLimit
+      );
+
+    if (OTPFeature.AccessEgressCache.isOff()) {
+      return search.get();
+    }
+    return serverContext
+      .accessEgressCache()
+      .get(
+        accessRequest,
+        streetRequest,
+        type.isEgress(),
+        type.isEgress()
+          ? temporaryVerticesContainer.getToVertices()
+          : temporaryVerticesContainer.getFromVertices(),
+        durationLimit,
+        stopCountLimit,
+        serverContext.graph().getRealtimeStreetVersion(),
+        search
+      );
+  }
+
   /**
    * Given a list of {@code results} shift the access ones which contain driving
    * so that they only start at the time when the ride hailing vehicle can actually be there
@@ -350,7 +652,13 @@ public class TransitRouter {
     }
   }
 
-  private TemporaryVerticesContainer createTemporaryVerticesContainer(
+  private static Supplier<TransitRouterResult> failed(RoutingValidationException error) {
+    return () -> {
+      throw error;
+    };
+  }
+
+  private static TemporaryVerticesContainer createTemporaryVerticesContainer(
     RouteRequest request,
     OtpServerRequestContext serverContext
   ) {
@@ -0,0 +1,448 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.router.street;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.locationtech.jts.geom.Coordinate;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.preference.BikePreferences;
+import org.opentripplanner.routing.api.request.preference.CarPreferences;
+import org.opentripplanner.routing.api.request.preference.StreetPreferences;
+import org.opentripplanner.routing.api.request.preference.WalkPreferences;
+import org.opentripplanner.routing.api.request.preference.WheelchairPreferences;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.routing.graphfinder.NearbyStop;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.TemporaryEdge;
+import org.opentripplanner.street.model.vertex.TemporaryVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.intersection_model.IntersectionTraversalCalculator;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.request.StreetSearchRequestMapper;
+import org.opentripplanner.street.search.state.State;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+import org.opentripplanner.transit.model.site.StopLocation;
+
+/**
+ * Cache the stops found by the access and egress street searches, so requests from the same
+ * address, station or point of interest do not repeat the same search. The result is cached by
+ * the location of the request, the street mode and the preferences which may influence the street
+ * search.
+ * <p>
+ * The states of the search are not cached, they reference the temporary vertices and edges of the
+ * request which ran the search. Only the stop and the path to it are kept. The temporary edges in
+ * the path are kept as a key, which matches the same temporary edge of a later request from the
+ * same location. A later request rebuilds the states by traversing the path again, from its own
+ * temporary vertices and with its own start time. If a path can not be traversed, the search is
+ * run again and the cached stops are replaced.
+ * <p>
+ * The result of a search using vehicle rental or parking depends on the realtime state of the
+ * street graph and on the time of the request. For these modes the cache key also includes the
+ * {@link org.opentripplanner.routing.graph.Graph#getRealtimeStreetVersion() realtime street
+ * version} and the time slot of the request. A realtime update of the street graph makes the
+ * cached results for these modes unreachable, and they are evicted as the cache fills up.
+ * <p>
+ * The cache has application scope, it is shared by all requests to the server. The size of the
+ * cache is limited by the total number of edges in the cached paths, each stop counts as one
+ * edge. The memory used by a cached path is mostly the list of edges, so this is a better measure
+ * than the number of stops: a car search may cache thousands of paths of hundreds of edges each,
+ * while a walk search from a stop caches a few short paths. With 8 bytes for each edge reference
+ * and some overhead for the temporary edge keys, the limit of 5 million edges is about 50 MB.
+ */
+@Singleton
+public class AccessEgressCache {
+
+  private static final long MAX_CACHED_EDGES = 5_000_000;
+  private static final long TIME_SLOT_SECONDS = Duration.ofMinutes(15).toSeconds();
+
+  private final Cache<CacheKey, List<CachedStop>> cache;
+
+  @Inject
+  public AccessEgressCache() {
+    this(MAX_CACHED_EDGES);
+  }
+
+  AccessEgressCache(long maxCachedEdges) {
+    this.cache =
+      CacheBuilder
+        .newBuilder()
+        .maximumWeight(maxCachedEdges)
+        .<CacheKey, List<CachedStop>>weigher((key, stops) -> weight(stops))
+        .build();
+  }
+
+  /**
+   * Return the stops for the given request, with the states rebuilt from the cached paths, or run
+   * the search and cache the result. The search may run more than once if two requests for the
+   * same key arrive at the same time.
+   *
+   * @param fromTarget whether the search is for the egress, from the to-location of the request
+   * @param originVertices the vertices the search starts from, the to-vertices of the request if
+   *                       the search is for the egress
+   * @param realtimeStreetVersion the current realtime street version of the graph
+   */
+  public Collection<NearbyStop> get(
+    RouteRequest request,
+    StreetRequest streetRequest,
+    boolean fromTarget,
+    Set<Vertex> originVertices,
+    Duration durationLimit,
+    int maxStopCount,
+    long realtimeStreetVersion,
+    Supplier<Collection<NearbyStop>> search
+  ) {
+    if (!isCacheable(request)) {
+      return search.get();
+    }
+    var key = CacheKey.of(
+      request,
+      streetRequest.mode(),
+      fromTarget,
+      durationLimit,
+      maxStopCount,
+      realtimeStreetVersion
+    );
+    var cached = cache.getIfPresent(key);
+    if (cached != null) {
+      var result = new PathRebuilder(request, streetRequest, fromTarget, originVertices)
+        .rebuild(cached);
+      if (result != null) {
+        return result;
+      }
+    }
+    var result = search.get();
+    var stops = cachedStops(result);
+    if (stops != null) {
+      cache.put(key, stops);
+    }
+    return result;
+  }
+
+  long size() {
+    return cache.size();
+  }
+
+  /**
+   * The number of edges in the paths, plus one for each stop. An empty result weighs one.
+   */
+  private static int weight(List<CachedStop> stops) {
+    int weight = 0;
+    for (CachedStop it : stops) {
+      weight += 1 + it.path().size();
+    }
+    return Math.max(1, weight);
+  }
+
+  /**
+   * Return the stops and paths to cache, or {@code null} if a stop has no state, the result can
+   * then not be cached.
+   */
+  @Nullable
+  private static List<CachedStop> cachedStops(Collection<NearbyStop> stops) {
+    var result = new ArrayList<CachedStop>(stops.size());
+    for (NearbyStop it : stops) {
+      if (it.state == null) {
+        return null;
+      }
+      result.add(CachedStop.of(it));
+    }
+    return List.copyOf(result);
+  }
+
+  /**
+   * The data overlay parameters can not be compared, so requests using them are not cached.
+   */
+  private static boolean isCacheable(RouteRequest request) {
+    return request.preferences().system().dataOverlay() == null;
+  }
+
+  private record CacheKey(
+    String label,
+    FeedScopedId stopId,
+    Double lat,
+    Double lng,
+    StreetMode mode,
+    boolean fromTarget,
+    Duration durationLimit,
+    int maxStopCount,
+    boolean wheelchair,
+    WalkPreferences walk,
+    BikePreferences bike,
+    CarPreferences car,
+    StreetPreferences street,
+    WheelchairPreferences wheelchairPreferences,
+    long timeSlot,
+    long realtimeStreetVersion
+  ) {
+    static CacheKey of(
+      RouteRequest request,
+      StreetMode mode,
+      boolean fromTarget,
+      Duration durationLimit,
+      int maxStopCount,
+      long realtimeStreetVersion
+    ) {
+      GenericLocation location = fromTarget ? request.to() : request.from();
+      var preferences = request.preferences();
+      boolean realtimeDependent = mode.includesRenting() || mode.includesParking();
+
+      return new CacheKey(
+        location.label,
+        location.stopId,
+        location.lat,
+        location.lng,
+        mode,
+        fromTarget,
+        durationLimit,
+        maxStopCount,
+        request.wheelchair(),
+        preferences.walk(),
+        mode.includesBiking() ? preferences.bike() : BikePreferences.DEFAULT,
+        mode.includesDriving() ? preferences.car() : CarPreferences.DEFAULT,
+        preferences.street(),
+        request.wheelchair() ? preferences.wheelchair() : WheelchairPreferences.DEFAULT,
+        realtimeDependent ? request.dateTime().getEpochSecond() / TIME_SLOT_SECONDS : 0,
+        realtimeDependent ? realtimeStreetVersion : 0
+      );
+    }
+  }
+
+  /**
+   * A stop found by the search and the path to it. The edges of the path are stored as keys, see
+   * {@link #edgeKey(Edge)}, in the order they were traversed by the search. The path is empty if
+   * the origin vertex is the stop, the start vertex is then the stop vertex.
+   */
+  private record CachedStop(
+    StopLocation stop,
+    Object startVertex,
+    List<Object> path,
+    boolean isFinal
+  ) {
+    static CachedStop of(NearbyStop nearbyStop) {
+      var edges = new ArrayList<Object>();
+      State state = nearbyStop.state;
+      State last = state;
+      while (state.getBackState() != null) {
+        edges.add(edgeKey(state.getBackEdge()));
+        state = state.getBackState();
+      }
+      Collections.reverse(edges);
+      return new CachedStop(
+        nearbyStop.stop,
+        vertexKey(state.getVertex()),
+        List.copyOf(edges),
+        last.isFinal()
+      );
+    }
+  }
+
+  /**
+   * A vertex in the graph is its own key. A temporary vertex is identified by its type and
+   * coordinate, this is the same for the temporary vertices of all requests from the same location.
+   */
+  private static Object vertexKey(Vertex vertex) {
+    return vertex instanceof TemporaryVertex
+      ? new TemporaryVertexKey(vertex.getClass(), vertex.getCoordinate())
+      : vertex;
+  }
+
+  /**
+   * An edge in the graph is its own key. A temporary edge is identified by its type and the keys of
+   * its vertices.
+   */
+  private static Object edgeKey(Edge edge) {
+    Vertex from = edge.getFromVertex();
+    Vertex to = edge.getToVertex();
+    boolean temporary =
+      edge instanceof TemporaryEdge ||
+      from instanceof TemporaryVertex ||
+      to instanceof TemporaryVertex;
+    return temporary
+      ? new TemporaryEdgeKey(edge.getClass(), vertexKey(from), vertexKey(to))
+      : edge;
+  }
+
+  private record TemporaryVertexKey(Class<?> type, Coordinate coordinate) {}
+
+  private record TemporaryEdgeKey(Class<?> type, Object from, Object to) {}
+
+  /**
+   * Rebuild the states of the cached stops for a request, by traversing the cached paths from
+   * the origin vertices of the request.
+   */
+  private static class PathRebuilder {
+
+    private final boolean arriveBy;
+    private final Set<Vertex> originVertices;
+    private final StreetSearchRequest searchRequest;
+    private final StreetSearchRequest directStopRequest;
+
+    /** The temporary edges of the request, by key. */
+    private final Map<Object, List<Edge>> temporaryEdges = new HashMap<>();
+
+    PathRebuilder(
+      RouteRequest request,
+      StreetRequest streetRequest,
+      boolean arriveBy,
+      Set<Vertex> originVertices
+    ) {
+      this.arriveBy = arriveBy;
+      this.originVertices = originVertices;
+
+      // The same requests as the search, see the NearbyStopFinder
+      StreetPreferences preferences = request.preferences().street();
+      this.searchRequest =
+        StreetSearchRequestMapper
+          .map(request)
+          .withMode(streetRequest.mode())
+          .withArriveBy(arriveBy)
+          .build();
+      searchRequest.setIntersectionTraversalCalculator(
+        IntersectionTraversalCalculator.create(
+          preferences.intersectionTraversalModel(),
+          preferences.drivingDirection()
+        )
+      );
+      this.directStopRequest =
+        StreetSearchRequestMapper
+          .mapToTransferRequest(request)
+          .withArriveBy(arriveBy)
+          .withMode(streetRequest.mode())
+          .build();
+
+      indexTemporaryEdges();
+    }
+
+    /**
+     * Return the stops with the rebuilt states, or {@code null} if a path can not be traversed.
+     */
+    @Nullable
+    List<NearbyStop> rebuild(List<CachedStop> stops) {
+      var result = new ArrayList<NearbyStop>(stops.size());
+      for (CachedStop it : stops) {
+        var nearbyStop = rebuild(it);
+        if (nearbyStop == null) {
+          return null;
+        }
+        result.add(nearbyStop);
+      }
+      return result;
+    }
+
+    @Nullable
+    private NearbyStop rebuild(CachedStop stop) {
+      if (stop.path().isEmpty()) {
+        // The origin vertex is the stop
+        if (stop.startVertex() instanceof Vertex vertex && originVertices.contains(vertex)) {
+          return new NearbyStop(stop.stop(), 0, List.of(), new State(vertex, directStopRequest));
+        }
+        return null;
+      }
+
+      Edge first = findEdge(stop.path().get(0), originVertices::contains);
+      if (first == null) {
+        return null;
+      }
+      Vertex start = arriveBy ? first.getToVertex() : first.getFromVertex();
+      // Vehicle rental and parking may have more than one initial state, and an edge may fork
+      // the state. Keep all states, the path decides which of them reach the stop.
+      Collection<State> states = State.getInitialStates(Set.of(start), searchRequest);
+
+      for (Object edgeKey : stop.path()) {
+        if (states.isEmpty()) {
+          return null;
+        }
+        Vertex current = states.iterator().next().getVertex();
+        Edge edge = findEdge(edgeKey, v -> v == current);
+        if (edge == null) {
+          return null;
+        }
+        var next = new ArrayList<State>();
+        for (State state : states) {
+          for (State it : edge.traverse(state)) {
+            if (it != null) {
+              next.add(it);
+            }
+          }
+        }
+        states = next;
+      }
+
+      State best = null;
+      for (State it : states) {
+        if (it.isFinal() == stop.isFinal() && (best == null || it.getWeight() < best.getWeight())) {
+          best = it;
+        }
+      }
+      return best == null ? null : NearbyStop.nearbyStopForState(best, stop.stop());
+    }
+
+    /**
+     * Find the edge with the given key, which is traversed from a vertex accepted by the given
+     * predicate.
+     */
+    @Nullable
+    private Edge findEdge(Object edgeKey, Predicate<Vertex> isFromVertex) {
+      var candidates = edgeKey instanceof Edge edge
+        ? List.of(edge)
+        : temporaryEdges.getOrDefault(edgeKey, List.of());
+      for (Edge edge : candidates) {
+        if (isFromVertex.test(arriveBy ? edge.getToVertex() : edge.getFromVertex())) {
+          return edge;
+        }
+      }
+      return null;
+    }
+
+    /**
+     * Index the temporary edges connected to the origin vertices. All temporary edges of a request
+     * have a temporary vertex, so they are found by walking the temporary vertices.
+     */
+    private void indexTemporaryEdges() {
+      Set<Vertex> visited = new HashSet<>();
+      var queue = new ArrayDeque<Vertex>();
+      for (Vertex it : originVertices) {
+        if (it instanceof TemporaryVertex && visited.add(it)) {
+          queue.add(it);
+        }
+      }
+      while (!queue.isEmpty()) {
+        Vertex vertex = queue.poll();
+        for (Edge edge : vertex.getIncoming()) {
+          index(edge, edge.getFromVertex(), visited, queue);
+        }
+        for (Edge edge : vertex.getOutgoing()) {
+          index(edge, edge.getToVertex(), visited, queue);
+        }
+      }
+    }
+
+    private void index(Edge edge, Vertex other, Set<Vertex> visited, Queue<Vertex> queue) {
+      var key = edgeKey(edge);
+      var edges = temporaryEdges.computeIfAbsent(key, k -> new ArrayList<>());
+      if (!edges.contains(edge)) {
+        edges.add(edge);
+      }
+      if (other instanceof TemporaryVertex && visited.add(other)) {
+        queue.add(other);
+      }
+    }
+  }
+}
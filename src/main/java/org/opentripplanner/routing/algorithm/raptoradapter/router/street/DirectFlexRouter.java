@@ -10,6 +10,7 @@ import org.opentripplanner.model.plan.Itinerary;
 import org.opentripplanner.routing.algorithm.raptoradapter.router.AdditionalSearchDays;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.framework.DebugTimingAggregator;
 import org.opentripplanner.routing.graphfinder.NearbyStop;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
 import org.opentripplanner.street.search.TemporaryVerticesContainer;
@@ -19,7 +20,8 @@ public class DirectFlexRouter {
   public static List<Itinerary> route(
     OtpServerRequestContext serverContext,
     RouteRequest request,
-    AdditionalSearchDays additionalSearchDays
+    AdditionalSearchDays additionalSearchDays,
+    DebugTimingAggregator debugTimingAggregator
   ) {
     if (!StreetMode.FLEXIBLE.equals(request.journey().direct().mode())) {
       return Collections.emptyList();
@@ -64,7 +66,9 @@ public class DirectFlexRouter {
         additionalSearchDays.additionalSearchDaysInPast(),
         additionalSearchDays.additionalSearchDaysInFuture(),
         accessStops,
-        egressStops
+        egressStops,
+        temporaryVertices.getFromAndToVertices(),
+        debugTimingAggregator
       );
 
       return new ArrayList<>(flexRouter.createFlexOnlyItineraries());
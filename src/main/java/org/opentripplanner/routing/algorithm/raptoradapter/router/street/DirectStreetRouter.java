@@ -3,6 +3,7 @@ package org.opentripplanner.routing.algorithm.raptoradapter.router.street;
 import java.util.Collections;
 import java.util.List;
 import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.application.OTPRequestTimeoutException;
 import org.opentripplanner.framework.geometry.SphericalDistanceLibrary;
 import org.opentripplanner.model.plan.Itinerary;
@@ -11,6 +12,7 @@ import org.opentripplanner.routing.algorithm.mapping.ItinerariesHelper;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.StreetMode;
 import org.opentripplanner.routing.error.PathNotFoundException;
+import org.opentripplanner.routing.impl.ContractionHierarchyPathFinder;
 import org.opentripplanner.routing.impl.GraphPathFinder;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
 import org.opentripplanner.street.model.edge.Edge;
@@ -39,16 +41,22 @@ public class DirectStreetRouter {
         return Collections.emptyList();
       }
 
-      // we could also get a persistent router-scoped GraphPathFinder but there's no setup cost here
-      GraphPathFinder gpFinder = new GraphPathFinder(
-        serverContext.traverseVisitor(),
-        serverContext.dataOverlayContext(request)
-      );
-      List<GraphPath<State, Edge, Vertex>> paths = gpFinder.graphPathFinderEntryPoint(
+      List<GraphPath<State, Edge, Vertex>> paths = findPathsUsingContractionHierarchy(
+        serverContext,
         directRequest,
         temporaryVertices
       );
 
+      if (paths.isEmpty()) {
+        // A persistent router-scoped GraphPathFinder is possible, but there is no setup cost here
+        GraphPathFinder gpFinder = new GraphPathFinder(
+          serverContext.traverseVisitor(),
+          serverContext.dataOverlayContext(request),
+          OTPFeature.LandmarkHeuristic.isOn() ? serverContext.graph().getLandmarks() : null
+        );
+        paths = gpFinder.graphPathFinderEntryPoint(directRequest, temporaryVertices);
+      }
+
       // Convert the internal GraphPaths to itineraries
       final GraphPathToItineraryMapper graphPathToItineraryMapper = new GraphPathToItineraryMapper(
         serverContext.transitService().getTimeZone(),
@@ -67,6 +75,24 @@ public class DirectStreetRouter {
     }
   }
 
+  /**
+   * Return an empty list if the contraction hierarchy can not be used, the debug visitor and the
+   * data overlay are only supported by the A* search.
+   */
+  private static List<GraphPath<State, Edge, Vertex>> findPathsUsingContractionHierarchy(
+    OtpServerRequestContext serverContext,
+    RouteRequest request,
+    TemporaryVerticesContainer temporaryVertices
+  ) {
+    if (
+      serverContext.traverseVisitor() != null || serverContext.dataOverlayContext(request) != null
+    ) {
+      return Collections.emptyList();
+    }
+    return new ContractionHierarchyPathFinder(serverContext.graph())
+      .findPaths(request, temporaryVertices.getFromVertices(), temporaryVertices.getToVertices());
+  }
+
   private static boolean straightLineDistanceIsWithinLimit(
     RouteRequest request,
     TemporaryVerticesContainer vertexContainer
@@ -10,6 +10,7 @@ import org.opentripplanner.routing.algorithm.raptoradapter.router.AdditionalSear
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.StreetMode;
 import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.routing.framework.DebugTimingAggregator;
 import org.opentripplanner.routing.graphfinder.NearbyStop;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
 import org.opentripplanner.standalone.config.sandbox.FlexConfig;
@@ -27,7 +28,8 @@ public class FlexAccessEgressRouter {
     AdditionalSearchDays searchDays,
     FlexConfig config,
     DataOverlayContext dataOverlayContext,
-    boolean isEgress
+    boolean isEgress,
+    DebugTimingAggregator debugTimingAggregator
   ) {
     OTPRequestTimeoutException.checkForTimeout();
 
@@ -68,7 +70,9 @@ public class FlexAccessEgressRouter {
       searchDays.additionalSearchDaysInPast(),
       searchDays.additionalSearchDaysInFuture(),
       accessStops,
-      egressStops
+      egressStops,
+      verticesContainer.getFromAndToVertices(),
+      debugTimingAggregator
     );
 
     return isEgress ? flexRouter.createFlexEgresses() : flexRouter.createFlexAccesses();
@@ -13,6 +13,7 @@ import org.opentripplanner.model.transfer.TransferService;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.ConstrainedTransfersForPatterns;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.TransferIndexGenerator;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTransferCache;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTransitDataCache;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.transit.model.site.StopLocation;
 import org.opentripplanner.transit.service.StopModel;
@@ -22,8 +23,9 @@ public class TransitLayer {
   /**
    * Transit data required for routing, indexed by each local date(Graph TimeZone) it runs through.
    * A Trip "runs through" a date if any of its arrivals or departures is happening on that date.
+   * The values are immutable, and share structure with the previous versions of the layer.
    */
-  private final HashMap<LocalDate, List<TripPatternForDate>> tripPatternsRunningOnDate;
+  private final HashMap<LocalDate, TripPatternsRunningOnDate> tripPatternsRunningOnDate;
 
   /**
    * Index of outer list is from stop index, inner list index has no specific meaning. To stop index
@@ -42,6 +44,12 @@ public class TransitLayer {
 
   private final RaptorRequestTransferCache transferCache;
 
+  /**
+   * Request transit data shared between requests. A copy is made for each new version of the
+   * transit layer, and entries for updated dates are removed.
+   */
+  private final RaptorRequestTransitDataCache transitDataCache;
+
   private ConstrainedTransfersForPatterns constrainedTransfers;
 
   private final TransferIndexGenerator transferIndexGenerator;
@@ -50,8 +58,9 @@ public class TransitLayer {
 
   /**
    * Makes a shallow copy of the TransitLayer, except for the tripPatternsForDate, where a shallow
-   * copy of the HashMap is made. This is sufficient, as the TransitLayerUpdater will replace entire
-   * keys and their values in the map.
+   * copy of the HashMap is made. This is sufficient, as the TransitLayerUpdater replaces the
+   * values in the map with new immutable versions. The transit data cache is also copied, entries
+   * are removed from the copy when the dates they cover are updated.
    */
   public TransitLayer(TransitLayer transitLayer) {
     this(
@@ -61,6 +70,7 @@ public class TransitLayer {
       transitLayer.stopModel,
       transitLayer.transitDataZoneId,
       transitLayer.transferCache,
+      transitLayer.transitDataCache.copy(),
       transitLayer.constrainedTransfers,
       transitLayer.transferIndexGenerator,
       transitLayer.stopBoardAlightCosts
@@ -77,6 +87,32 @@ public class TransitLayer {
     ConstrainedTransfersForPatterns constrainedTransfers,
     TransferIndexGenerator transferIndexGenerator,
     int[] stopBoardAlightCosts
+  ) {
+    this(
+      toTripPatternsRunningOnDate(tripPatternsRunningOnDate),
+      transfersByStopIndex,
+      transferService,
+      stopModel,
+      transitDataZoneId,
+      transferCache,
+      new RaptorRequestTransitDataCache(),
+      constrainedTransfers,
+      transferIndexGenerator,
+      stopBoardAlightCosts
+    );
+  }
+
+  private TransitLayer(
+    Map<LocalDate, TripPatternsRunningOnDate> tripPatternsRunningOnDate,
+    List<List<Transfer>> transfersByStopIndex,
+    TransferService transferService,
+    StopModel stopModel,
+    ZoneId transitDataZoneId,
+    RaptorRequestTransferCache transferCache,
+    RaptorRequestTransitDataCache transitDataCache,
+    ConstrainedTransfersForPatterns constrainedTransfers,
+    TransferIndexGenerator transferIndexGenerator,
+    int[] stopBoardAlightCosts
   ) {
     this.tripPatternsRunningOnDate = new HashMap<>(tripPatternsRunningOnDate);
     this.transfersByStopIndex = transfersByStopIndex;
@@ -84,6 +120,7 @@ public class TransitLayer {
     this.stopModel = stopModel;
     this.transitDataZoneId = transitDataZoneId;
     this.transferCache = transferCache;
+    this.transitDataCache = transitDataCache;
     this.constrainedTransfers = constrainedTransfers;
     this.transferIndexGenerator = transferIndexGenerator;
     this.stopBoardAlightCosts = stopBoardAlightCosts;
@@ -95,7 +132,7 @@ public class TransitLayer {
   }
 
   public Collection<TripPatternForDate> getTripPatternsForDate(LocalDate date) {
-    return tripPatternsRunningOnDate.getOrDefault(date, List.of());
+    return tripPatternsRunningOnDate.getOrDefault(date, TripPatternsRunningOnDate.EMPTY);
   }
 
   /**
@@ -113,7 +150,9 @@ public class TransitLayer {
   }
 
   public List<TripPatternForDate> getTripPatternsRunningOnDateCopy(LocalDate runningPeriodDate) {
-    List<TripPatternForDate> tripPatternForDate = tripPatternsRunningOnDate.get(runningPeriodDate);
+    Collection<TripPatternForDate> tripPatternForDate = tripPatternsRunningOnDate.get(
+      runningPeriodDate
+    );
     return tripPatternForDate != null ? new ArrayList<>(tripPatternForDate) : new ArrayList<>();
   }
 
@@ -137,6 +176,10 @@ public class TransitLayer {
     return transferCache;
   }
 
+  public RaptorRequestTransitDataCache getTransitDataCache() {
+    return transitDataCache;
+  }
+
   @Nullable
   public ConstrainedTransfersForPatterns getConstrainedTransfers() {
     return constrainedTransfers;
@@ -151,17 +194,30 @@ public class TransitLayer {
   }
 
   /**
-   * Replaces all the TripPatternForDates for a single date. This is an atomic operation according
-   * to the HashMap implementation.
+   * Remove and add TripPatternForDates for a single date. Only the changed patterns are copied,
+   * see {@link TripPatternsRunningOnDate}. Dates which are not in the transit layer are not
+   * updated. Cached transit data including the date is removed.
    */
-  public void replaceTripPatternsForDate(
+  public void updateTripPatternsForDate(
     LocalDate date,
-    List<TripPatternForDate> tripPatternForDates
+    Collection<TripPatternForDate> removed,
+    Collection<TripPatternForDate> added
   ) {
-    this.tripPatternsRunningOnDate.replace(date, tripPatternForDates);
+    this.tripPatternsRunningOnDate.computeIfPresent(date, (d, it) -> it.update(removed, added));
+    this.transitDataCache.invalidateDate(date);
   }
 
   public void setConstrainedTransfers(ConstrainedTransfersForPatterns constrainedTransfers) {
     this.constrainedTransfers = constrainedTransfers;
   }
+
+  private static Map<LocalDate, TripPatternsRunningOnDate> toTripPatternsRunningOnDate(
+    Map<LocalDate, List<TripPatternForDate>> tripPatternsRunningOnDate
+  ) {
+    var result = new HashMap<LocalDate, TripPatternsRunningOnDate>();
+    tripPatternsRunningOnDate.forEach((date, list) ->
+      result.put(date, TripPatternsRunningOnDate.of(list))
+    );
+    return result;
+  }
 }
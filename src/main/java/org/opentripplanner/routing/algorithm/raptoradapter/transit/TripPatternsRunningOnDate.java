@@ -0,0 +1,143 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * The TripPatternForDates running on one date. The collection is immutable, an update returns a
+ * new version which shares most of its structure with the previous one. This makes the realtime
+ * updates cheap: the cost of an update is proportional to the number of patterns changed, not to
+ * the number of patterns running on the date. Request threads can keep reading the old version
+ * while a new one is created.
+ * <p>
+ * The TripPatternForDates are grouped in chunks by the index of their pattern. An update copies
+ * the (small) array of chunks and the chunks with changed patterns, all other chunks are shared.
+ * <p>
+ * THIS CLASS IS IMMUTABLE AND THREAD-SAFE.
+ */
+public final class TripPatternsRunningOnDate extends AbstractCollection<TripPatternForDate> {
+
+  /** Each chunk holds the TripPatternForDates of 64 consecutive pattern indexes. */
+  private static final int CHUNK_BITS = 6;
+
+  private static final TripPatternForDate[][] NO_CHUNKS = new TripPatternForDate[0][];
+
+  private static final TripPatternForDate[] EMPTY_CHUNK = new TripPatternForDate[0];
+
+  public static final TripPatternsRunningOnDate EMPTY = new TripPatternsRunningOnDate(
+    NO_CHUNKS,
+    0
+  );
+
+  private final TripPatternForDate[][] chunks;
+  private final int size;
+
+  private TripPatternsRunningOnDate(TripPatternForDate[][] chunks, int size) {
+    this.chunks = chunks;
+    this.size = size;
+  }
+
+  public static TripPatternsRunningOnDate of(Collection<TripPatternForDate> tripPatterns) {
+    return EMPTY.update(List.of(), tripPatterns);
+  }
+
+  /**
+   * Return a new version with the {@code removed} TripPatternForDates removed and then the
+   * {@code added} ones added. A TripPatternForDate which is already in the collection is not
+   * added again. This instance is not changed.
+   */
+  public TripPatternsRunningOnDate update(
+    Collection<TripPatternForDate> removed,
+    Collection<TripPatternForDate> added
+  ) {
+    if (removed.isEmpty() && added.isEmpty()) {
+      return this;
+    }
+    // Copy the chunks to be changed, the copies are only used inside this method
+    Map<Integer, List<TripPatternForDate>> changedChunks = new HashMap<>();
+
+    for (TripPatternForDate it : removed) {
+      int c = chunkIndex(it);
+      if (c < chunks.length) {
+        changedChunks.computeIfAbsent(c, this::copyChunk).remove(it);
+      }
+    }
+    for (TripPatternForDate it : added) {
+      var chunk = changedChunks.computeIfAbsent(chunkIndex(it), this::copyChunk);
+      if (!chunk.contains(it)) {
+        chunk.add(it);
+      }
+    }
+
+    int nChunks = chunks.length;
+    for (int c : changedChunks.keySet()) {
+      nChunks = Math.max(nChunks, c + 1);
+    }
+    var newChunks = Arrays.copyOf(chunks, nChunks);
+    int newSize = size;
+
+    for (var e : changedChunks.entrySet()) {
+      int c = e.getKey();
+      newSize -= chunks.length > c && chunks[c] != null ? chunks[c].length : 0;
+      newSize += e.getValue().size();
+      newChunks[c] = e.getValue().isEmpty() ? null : e.getValue().toArray(EMPTY_CHUNK);
+    }
+    return new TripPatternsRunningOnDate(newChunks, newSize);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Iterator<TripPatternForDate> iterator() {
+    return new Iterator<>() {
+      private int chunk = nextChunk(0);
+      private int index = 0;
+
+      @Override
+      public boolean hasNext() {
+        return chunk < chunks.length;
+      }
+
+      @Override
+      public TripPatternForDate next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        var result = chunks[chunk][index++];
+        if (index == chunks[chunk].length) {
+          chunk = nextChunk(chunk + 1);
+          index = 0;
+        }
+        return result;
+      }
+    };
+  }
+
+  private int nextChunk(int start) {
+    int c = start;
+    while (c < chunks.length && chunks[c] == null) {
+      ++c;
+    }
+    return c;
+  }
+
+  private List<TripPatternForDate> copyChunk(int c) {
+    return c < chunks.length && chunks[c] != null
+      ? new ArrayList<>(Arrays.asList(chunks[c]))
+      : new ArrayList<>();
+  }
+
+  private static int chunkIndex(TripPatternForDate tripPatternForDate) {
+    return tripPatternForDate.getTripPattern().patternIndex() >>> CHUNK_BITS;
+  }
+}
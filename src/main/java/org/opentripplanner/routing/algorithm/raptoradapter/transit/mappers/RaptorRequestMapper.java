@@ -1,6 +1,7 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers;
 
 import static org.opentripplanner.raptor.api.request.Optimization.PARALLEL;
+import static org.opentripplanner.raptor.api.request.Optimization.PARALLEL_SEARCH_WINDOW;
 
 import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Duration;
@@ -32,7 +33,7 @@ public class RaptorRequestMapper {
 
   private final RouteRequest request;
   private final Collection<? extends RaptorAccessEgress> accessPaths;
-  private final Collection<? extends RaptorAccessEgress> egressPaths;
+  private final List<? extends Collection<? extends RaptorAccessEgress>> egressPathsByDestination;
   private final Duration searchWindowAccessSlack;
   private final long transitSearchTimeZeroEpocSecond;
   private final boolean isMultiThreadedEnbled;
@@ -42,7 +43,7 @@ public class RaptorRequestMapper {
     RouteRequest request,
     boolean isMultiThreaded,
     Collection<? extends RaptorAccessEgress> accessPaths,
-    Collection<? extends RaptorAccessEgress> egressPaths,
+    List<? extends Collection<? extends RaptorAccessEgress>> egressPathsByDestination,
     Duration searchWindowAccessSlack,
     long transitSearchTimeZeroEpocSecond,
     MeterRegistry meterRegistry
@@ -50,7 +51,7 @@ public class RaptorRequestMapper {
     this.request = request;
     this.isMultiThreadedEnbled = isMultiThreaded;
     this.accessPaths = accessPaths;
-    this.egressPaths = egressPaths;
+    this.egressPathsByDestination = egressPathsByDestination;
     this.searchWindowAccessSlack = searchWindowAccessSlack;
     this.transitSearchTimeZeroEpocSecond = transitSearchTimeZeroEpocSecond;
     this.meterRegistry = meterRegistry;
@@ -64,12 +65,36 @@ public class RaptorRequestMapper {
     Collection<? extends RaptorAccessEgress> egressPaths,
     Duration searchWindowAccessSlack,
     MeterRegistry meterRegistry
+  ) {
+    return mapRequestToManyDestinations(
+      request,
+      transitSearchTimeZero,
+      isMultiThreaded,
+      accessPaths,
+      List.of(egressPaths),
+      searchWindowAccessSlack,
+      meterRegistry
+    );
+  }
+
+  /**
+   * Map a request from the origin of the given request to many destinations. The egress paths of
+   * each destination are kept apart, so Raptor finds the optimal paths to each destination.
+   */
+  public static RaptorRequest<TripSchedule> mapRequestToManyDestinations(
+    RouteRequest request,
+    ZonedDateTime transitSearchTimeZero,
+    boolean isMultiThreaded,
+    Collection<? extends RaptorAccessEgress> accessPaths,
+    List<? extends Collection<? extends RaptorAccessEgress>> egressPathsByDestination,
+    Duration searchWindowAccessSlack,
+    MeterRegistry meterRegistry
   ) {
     return new RaptorRequestMapper(
       request,
       isMultiThreaded,
       accessPaths,
-      egressPaths,
+      egressPathsByDestination,
       searchWindowAccessSlack,
       transitSearchTimeZero.toEpochSecond(),
       meterRegistry
@@ -129,7 +154,7 @@ public class RaptorRequestMapper {
     });
 
     for (Optimization optimization : preferences.transit().raptor().optimizations()) {
-      if (optimization.is(PARALLEL)) {
+      if (optimization.is(PARALLEL) || optimization.is(PARALLEL_SEARCH_WINDOW)) {
         if (isMultiThreadedEnbled) {
           builder.enableOptimization(optimization);
         }
@@ -145,8 +170,13 @@ public class RaptorRequestMapper {
       .searchParams()
       .timetable(request.timetableView())
       .constrainedTransfers(OTPFeature.TransferConstraints.isOn())
-      .addAccessPaths(accessPaths)
-      .addEgressPaths(egressPaths);
+      .addAccessPaths(accessPaths);
+
+    if (egressPathsByDestination.size() == 1) {
+      builder.searchParams().addEgressPaths(egressPathsByDestination.get(0));
+    } else {
+      egressPathsByDestination.forEach(builder.searchParams()::addEgressPathsForDestination);
+    }
 
     var raptorDebugging = request.journey().transit().raptorDebugging();
 
@@ -5,9 +5,9 @@ import com.google.common.collect.SetMultimap;
 import gnu.trove.set.TIntSet;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
@@ -27,9 +27,10 @@ import org.slf4j.LoggerFactory;
 /**
  * Update the TransitLayer from a set of TimeTables. A shallow copy is made of the TransitLayer
  * (this also includes a shallow copy of the TripPatternsForDate map). TripPatterns are matched on
- * id and replaced by their updated versions. The realtime TransitLayer is then switched out with
- * the updated copy in an atomic operation. This ensures that any TransitLayer that is referenced
- * from the Graph is never changed.
+ * id and replaced by their updated versions. The TripPatternForDates running on each date are
+ * stored in a persistent structure, so only the changed patterns are copied. The realtime
+ * TransitLayer is then switched out with the updated copy in an atomic operation. This ensures
+ * that any TransitLayer that is referenced from the Graph is never changed.
  */
 public class TransitLayerUpdater {
 
@@ -51,8 +52,6 @@ public class TransitLayerUpdater {
    */
   private final Map<TripIdAndServiceDate, TripPatternForDate> tripPatternsForTripIdAndServiceDateCache = new HashMap<>();
 
-  private final Map<LocalDate, Set<TripPatternForDate>> tripPatternsRunningOnDateMapCache = new HashMap<>();
-
   public TransitLayerUpdater(
     TransitModel transitModel,
     Map<LocalDate, TIntSet> serviceCodesRunningForDate
@@ -157,24 +156,14 @@ public class TransitLayerUpdater {
     // Now loop through all running period dates of old and new TripPatternsForDate and update
     // the tripPatternsByRunningPeriodDate accordingly
     for (LocalDate date : datesToBeUpdated) {
-      tripPatternsRunningOnDateMapCache.computeIfAbsent(
-        date,
-        p -> new HashSet<>(realtimeTransitLayer.getTripPatternsRunningOnDateCopy(date))
-      );
+      List<TripPatternForDate> removed = new ArrayList<>();
+      List<TripPatternForDate> added = new ArrayList<>();
 
       // Remove old cached tripPatterns where tripTimes are no longer running
-      Set<TripPatternForDate> patternsForDate = tripPatternsRunningOnDateMapCache.get(date);
-
-      for (Map.Entry<TripPattern, Collection<TripPatternForDate>> entry : oldTripPatternsForDate
-        .asMap()
-        .entrySet()) {
-        for (TripPatternForDate oldTripPatternForDate : entry.getValue()) {
-          // Remove old TripPatternForDate for this date if it was valid on this date
-          if (oldTripPatternForDate != null) {
-            if (oldTripPatternForDate.getRunningPeriodDates().contains(date)) {
-              patternsForDate.remove(oldTripPatternForDate);
-            }
-          }
+      for (TripPatternForDate oldTripPatternForDate : oldTripPatternsForDate.values()) {
+        // Remove old TripPatternForDate for this date if it was valid on this date
+        if (oldTripPatternForDate.getRunningPeriodDates().contains(date)) {
+          removed.add(oldTripPatternForDate);
         }
       }
 
@@ -194,7 +183,7 @@ public class TransitLayerUpdater {
               .orElse(false);
 
             if (toRemove) {
-              patternsForDate.remove(tripPatternForDate);
+              removed.add(tripPatternForDate);
             }
           } else {
             LOG.warn("Could not fetch timetable for {}", pattern);
@@ -202,20 +191,14 @@ public class TransitLayerUpdater {
         }
       }
 
-      for (Map.Entry<TripPattern, Collection<TripPatternForDate>> entry : newTripPatternsForDate
-        .asMap()
-        .entrySet()) {
-        for (TripPatternForDate newTripPatternForDate : entry.getValue()) {
-          // Add new TripPatternForDate for this date if it mapped correctly and is valid on this date
-          if (newTripPatternForDate != null) {
-            if (newTripPatternForDate.getRunningPeriodDates().contains(date)) {
-              patternsForDate.add(newTripPatternForDate);
-            }
-          }
+      for (TripPatternForDate newTripPatternForDate : newTripPatternsForDate.values()) {
+        // Add new TripPatternForDate for this date if it mapped correctly and is valid on this date
+        if (newTripPatternForDate.getRunningPeriodDates().contains(date)) {
+          added.add(newTripPatternForDate);
         }
       }
 
-      realtimeTransitLayer.replaceTripPatternsForDate(date, new ArrayList<>(patternsForDate));
+      realtimeTransitLayer.updateTripPatternsForDate(date, removed, added);
     }
 
     if (transferIndexGenerator != null) {
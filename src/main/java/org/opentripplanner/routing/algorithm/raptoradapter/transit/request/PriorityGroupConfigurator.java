@@ -121,6 +121,13 @@ public class PriorityGroupConfigurator {
     return baseGroupId;
   }
 
+  /**
+   * Return {@code false} if all patterns are assigned the base group-id.
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
   public int baseGroupId() {
     return baseGroupId;
   }
@@ -0,0 +1,139 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import org.opentripplanner.framework.time.ServiceDateUtils;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache the request independent part of the {@link RaptorRoutingRequestTransitData}: the merged
+ * {@link TripPatternForDates} indexed by pattern and the active patterns per stop. Creating these
+ * is expensive, and for most requests(using the default filter) the result is the same for all
+ * requests searching the same date window.
+ * <p>
+ * There is one cache instance per {@link org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer}.
+ * When the realtime updater creates a new version of the transit layer, the cache is copied and
+ * only the entries with a search window overlapping the updated dates are removed, see
+ * {@link #copy()} and {@link #invalidateDate(LocalDate)}. The cached values are never changed
+ * after they are created, so they can be shared between request threads.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE.
+ */
+public class RaptorRequestTransitDataCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(RaptorRequestTransitDataCache.class);
+
+  /**
+   * Each entry is keyed on a search date window, so we only need to keep a few of them. Normally
+   * almost all requests are for today or the next few days.
+   */
+  private static final int MAXIMUM_SIZE = 16;
+
+  private final Cache<CacheKey, TransitDataForDates> cache;
+
+  public RaptorRequestTransitDataCache() {
+    this.cache = CacheBuilder.newBuilder().maximumSize(MAXIMUM_SIZE).build();
+  }
+
+  /**
+   * Create a new cache containing all entries in the given cache. The new cache is independent of
+   * the original, removing an entry from the copy does not affect the original.
+   */
+  private RaptorRequestTransitDataCache(RaptorRequestTransitDataCache original) {
+    this();
+    this.cache.putAll(original.cache.asMap());
+  }
+
+  /**
+   * Create a copy to be used with a new version of the transit layer.
+   */
+  public RaptorRequestTransitDataCache copy() {
+    return new RaptorRequestTransitDataCache(this);
+  }
+
+  /**
+   * Remove all entries with a search window including the given date. This must be called
+   * before the owning transit layer is made available to request threads.
+   */
+  public void invalidateDate(LocalDate date) {
+    cache.asMap().keySet().removeIf(key -> key.includes(date));
+  }
+
+  public long size() {
+    return cache.size();
+  }
+
+  /**
+   * Return the cached transit data for the given search window and filter, if the filter is
+   * not cacheable ({@code filterKey == null}) the data is created using the given loader.
+   */
+  TransitDataForDates get(
+    ZonedDateTime transitSearchTimeZero,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays,
+    Object filterKey,
+    Supplier<TransitDataForDates> loader
+  ) {
+    if (filterKey == null) {
+      return loader.get();
+    }
+    var key = new CacheKey(
+      transitSearchTimeZero,
+      additionalPastSearchDays,
+      additionalFutureSearchDays,
+      filterKey
+    );
+    try {
+      return cache.get(
+        key,
+        () -> {
+          LOG.debug("Adding transit data to cache: {}", key);
+          return loader.get();
+        }
+      );
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Failed to get item from transit data cache", e);
+    }
+  }
+
+  /**
+   * The merged patterns and the patterns by stop for a search date window.
+   */
+  record TransitDataForDates(
+    List<TripPatternForDates> patternIndex,
+    List<int[]> activeTripPatternsPerStop
+  ) {}
+
+  private record CacheKey(
+    ZonedDateTime transitSearchTimeZero,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays,
+    Object filterKey
+  ) {
+    boolean includes(LocalDate date) {
+      var departureDate = ServiceDateUtils.asServiceDay(transitSearchTimeZero);
+      return (
+        !date.isBefore(departureDate.minusDays(additionalPastSearchDays)) &&
+        !date.isAfter(departureDate.plusDays(additionalFutureSearchDays))
+      );
+    }
+
+    @Override
+    public String toString() {
+      return ToStringBuilder
+        .of(CacheKey.class)
+        .addTime("transitSearchTimeZero", transitSearchTimeZero)
+        .addNum("additionalPastSearchDays", additionalPastSearchDays)
+        .addNum("additionalFutureSearchDays", additionalFutureSearchDays)
+        .addObj("filterKey", filterKey)
+        .toString();
+    }
+  }
+}
@@ -88,14 +88,34 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
       transitLayer,
       transitSearchTimeZero
     );
-    List<TripPatternForDates> tripPatterns = transitDataCreator.createTripPatterns(
-      additionalPastSearchDays,
-      additionalFutureSearchDays,
-      filter,
-      createTransitGroupPriorityConfigurator(request)
-    );
-    this.patternIndex = transitDataCreator.createPatternIndex(tripPatterns);
-    this.activeTripPatternsPerStop = transitDataCreator.createTripPatternsPerStop(tripPatterns);
+    var priorityGroupConfigurator = createTransitGroupPriorityConfigurator(request);
+
+    // The transit data is shared between requests if the result only depend on the search
+    // date window and the filter, the priority-group-ids are assigned per request.
+    var filterKey = priorityGroupConfigurator.isEnabled() ? null : filter.filterKey();
+
+    var transitData = transitLayer
+      .getTransitDataCache()
+      .get(
+        transitSearchTimeZero,
+        additionalPastSearchDays,
+        additionalFutureSearchDays,
+        filterKey,
+        () -> {
+          List<TripPatternForDates> tripPatterns = transitDataCreator.createTripPatterns(
+            additionalPastSearchDays,
+            additionalFutureSearchDays,
+            filter,
+            priorityGroupConfigurator
+          );
+          return new RaptorRequestTransitDataCache.TransitDataForDates(
+            transitDataCreator.createPatternIndex(tripPatterns),
+            transitDataCreator.createTripPatternsPerStop(tripPatterns)
+          );
+        }
+      );
+    this.patternIndex = transitData.patternIndex();
+    this.activeTripPatternsPerStop = transitData.activeTripPatternsPerStop();
     this.transferIndex = transitLayer.getRaptorTransfersForRequest(request);
     this.constrainedTransfers = transitLayer.getConstrainedTransfers();
 
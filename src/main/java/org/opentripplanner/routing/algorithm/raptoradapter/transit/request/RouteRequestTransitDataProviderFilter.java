@@ -8,6 +8,7 @@ import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternFo
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.StreetMode;
 import org.opentripplanner.routing.api.request.preference.WheelchairPreferences;
+import org.opentripplanner.routing.api.request.request.filter.AllowAllTransitFilter;
 import org.opentripplanner.routing.api.request.request.filter.TransitFilter;
 import org.opentripplanner.transit.model.basic.Accessibility;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
@@ -70,6 +71,29 @@ public class RouteRequestTransitDataProviderFilter implements TransitDataProvide
     this.hasSubModeFilters = filters.stream().anyMatch(TransitFilter::isSubModePredicate);
   }
 
+  /**
+   * Only filters without banned trips and where all transit is allowed are identified by a key,
+   * all other filters are request specific. Most requests use the default filter.
+   */
+  @Override
+  public Object filterKey() {
+    if (!bannedTrips.isEmpty() || filters.length == 0) {
+      return null;
+    }
+    for (TransitFilter filter : filters) {
+      if (filter != AllowAllTransitFilter.of()) {
+        return null;
+      }
+    }
+    return new FilterKey(
+      requireBikesAllowed,
+      wheelchairEnabled,
+      wheelchairEnabled ? wheelchairPreferences : WheelchairPreferences.DEFAULT,
+      includePlannedCancellations,
+      includeRealtimeCancellations
+    );
+  }
+
   @Override
   public boolean hasSubModeFilters() {
     return hasSubModeFilters;
@@ -179,4 +203,12 @@ public class RouteRequestTransitDataProviderFilter implements TransitDataProvide
     }
     return result;
   }
+
+  private record FilterKey(
+    boolean requireBikesAllowed,
+    boolean wheelchairEnabled,
+    WheelchairPreferences wheelchairPreferences,
+    boolean includePlannedCancellations,
+    boolean includeRealtimeCancellations
+  ) {}
 }
@@ -1,6 +1,7 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 
 import java.util.BitSet;
+import javax.annotation.Nullable;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
 import org.opentripplanner.transit.model.network.RoutingTripPattern;
 import org.opentripplanner.transit.model.timetable.TripTimes;
@@ -37,4 +38,15 @@ public interface TransitDataProviderFilter {
     BitSet boardingPossible,
     BoardAlight boardAlight
   );
+
+  /**
+   * Return a key identifying the result of applying this filter. Two filters with equal keys
+   * must produce the same transit data, this allow the data to be shared between requests. Return
+   * {@code null}(default) if the filter is not possible to identify, then the transit data is
+   * created for each request.
+   */
+  @Nullable
+  default Object filterKey() {
+    return null;
+  }
 }
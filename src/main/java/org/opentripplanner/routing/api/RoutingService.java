@@ -1,5 +1,8 @@
 package org.opentripplanner.routing.api;
 
+import java.util.List;
+import java.util.function.Consumer;
+import org.opentripplanner.model.GenericLocation;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.RouteViaRequest;
 import org.opentripplanner.routing.api.response.RoutingResponse;
@@ -9,4 +12,16 @@ public interface RoutingService {
   RoutingResponse route(RouteRequest request);
 
   ViaRoutingResponse route(RouteViaRequest request);
+
+  /**
+   * Plan trips from the origin of the request to each of the destinations, the destination of the
+   * request is ignored. The transit search is shared by the destinations if the request allows
+   * it. The response for each destination is passed to the given consumer in the order of the
+   * destinations, as soon as it is ready.
+   */
+  void route(
+    RouteRequest request,
+    List<GenericLocation> destinations,
+    Consumer<RoutingResponse> onResponse
+  );
 }
@@ -13,4 +13,13 @@ public interface FareService extends Serializable {
    * @param itinerary the OTP2 Itinerary for which we want to compute a fare
    */
   ItineraryFares calculateFares(Itinerary itinerary);
+
+  /**
+   * Return the fare service to use for the itineraries of one routing request. The itineraries of
+   * a request share many legs, so a service may return a copy which remembers the fares of the
+   * legs it has seen. The default is to use this service.
+   */
+  default FareService requestScoped() {
+    return this;
+  }
 }
@@ -8,6 +8,7 @@ import io.micrometer.core.instrument.Timer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import org.opentripplanner.api.resource.DebugOutput;
 import org.opentripplanner.api.resource.TransitTimingOutput;
 import org.opentripplanner.routing.api.request.RoutingTag;
@@ -30,6 +31,8 @@ public class DebugTimingAggregator {
 
   private final Timer directStreetRouterTimer;
   private final Timer directFlexRouterTimer;
+  private final Timer flexTemplatesTimer;
+  private final Timer flexPathsTimer;
 
   private final Timer accessTimer;
   private final Timer egressTimer;
@@ -53,6 +56,10 @@ public class DebugTimingAggregator {
   private long directStreetRouterTime;
   private Timer.Sample startedDirectFlexRouter;
   private long directFlexRouterTime;
+
+  /** The flex searches may run in parallel, so the time of all searches is added atomically. */
+  private final AtomicLong flexTemplatesTime = new AtomicLong();
+  private final AtomicLong flexPathsTime = new AtomicLong();
   private Timer.Sample finishedPatternFiltering;
   private Timer.Sample finishedAccessEgress;
   private Timer.Sample finishedRaptorSearch;
@@ -105,6 +112,8 @@ public class DebugTimingAggregator {
     egressTimer = Timer.builder("routing.egress").tags(tags).register(registry);
     accessTimer = Timer.builder("routing.access").tags(tags).register(registry);
     directFlexRouterTimer = Timer.builder("routing.directFlex").tags(tags).register(registry);
+    flexTemplatesTimer = Timer.builder("routing.flexTemplates").tags(tags).register(registry);
+    flexPathsTimer = Timer.builder("routing.flexPaths").tags(tags).register(registry);
     directStreetRouterTimer = Timer.builder("routing.directStreet").tags(tags).register(registry);
   }
 
@@ -149,6 +158,24 @@ public class DebugTimingAggregator {
     directFlexRouterTime = startedDirectFlexRouter.stop(directFlexRouterTimer);
   }
 
+  /**
+   * Start timing a phase of a flex search. The direct, access and egress flex searches may run at
+   * the same time, so each phase is timed with its own sample.
+   */
+  public Timer.Sample startedFlexPhase() {
+    return Timer.start(clock);
+  }
+
+  /** Record the time used to create the flex access, egress or direct templates. */
+  public void finishedFlexTemplates(Timer.Sample started) {
+    flexTemplatesTime.addAndGet(started.stop(flexTemplatesTimer));
+  }
+
+  /** Record the time used to calculate the flex paths of the templates. */
+  public void finishedFlexPaths(Timer.Sample started) {
+    flexPathsTime.addAndGet(started.stop(flexPathsTimer));
+  }
+
   /** Record the time when starting the transit router search. */
   public void startedTransitRouting() {
     startedTransitRouterTime = Timer.start(clock);
@@ -244,6 +271,10 @@ public class DebugTimingAggregator {
     if (directFlexRouterTime > 0) {
       log("├  Direct flex routing", directFlexRouterTime);
     }
+    if (flexPathsTime.get() > 0) {
+      log("├  Flex templates (all flex searches)", flexTemplatesTime.get());
+      log("├  Flex paths (all flex searches)", flexPathsTime.get());
+    }
 
     if (transitRouterTime > 0) {
       log("│┌ Creating raptor data model", tripPatternFilterTime);
@@ -5,6 +5,7 @@ import jakarta.inject.Inject;
 import java.io.Serializable;
 import java.time.Instant;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -19,6 +20,7 @@ import org.opentripplanner.ext.dataoverlay.configuration.DataOverlayParameterBin
 import org.opentripplanner.ext.geocoder.LuceneIndex;
 import org.opentripplanner.framework.geometry.CompactElevationProfile;
 import org.opentripplanner.framework.geometry.GeometryUtils;
+import org.opentripplanner.inspector.vector.TilePyramid;
 import org.opentripplanner.model.calendar.openinghours.OpeningHoursCalendarService;
 import org.opentripplanner.routing.fares.FareService;
 import org.opentripplanner.routing.graph.index.StreetIndex;
@@ -30,6 +32,9 @@ import org.opentripplanner.street.model.edge.StreetEdge;
 import org.opentripplanner.street.model.vertex.TransitStopVertex;
 import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.street.model.vertex.VertexLabel;
+import org.opentripplanner.street.search.TraverseMode;
+import org.opentripplanner.street.search.ch.ContractionHierarchy;
+import org.opentripplanner.street.search.landmark.Landmarks;
 import org.opentripplanner.transit.model.framework.Deduplicator;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.service.StopModel;
@@ -58,6 +63,9 @@ public class Graph implements Serializable {
 
   private transient StreetIndex streetIndex;
 
+  /** Incremented by the realtime updaters, see {@link #realtimeStreetUpdate()}. */
+  private transient volatile long realtimeStreetVersion = 0;
+
   //ConvexHull of all the graph vertices. Generated at Graph build time.
   private Geometry convexHull = null;
 
@@ -98,6 +106,17 @@ public class Graph implements Serializable {
   private final VehicleParkingService vehicleParkingService = new VehicleParkingService();
   private FareService fareService;
 
+  /** Optional contraction hierarchies used for direct street routing, by mode. */
+  private final Map<TraverseMode, ContractionHierarchy> contractionHierarchies = new HashMap<>();
+
+  /** Optional landmark distances used by the street search heuristic. */
+  @Nullable
+  private Landmarks landmarks;
+
+  /** Optional pre-rendered tiles of the static vector tile layers. */
+  @Nullable
+  private TilePyramid vectorTilePyramid;
+
   /**
    * Hack. I've tried three different ways of generating unique labels. Previously we were just
    * tolerating edge label collisions. For some reason we're repeatedly generating splits on the
@@ -290,6 +309,23 @@ public class Graph implements Serializable {
     return this.streetIndex;
   }
 
+  /**
+   * The version of the realtime state of the street graph, like the vehicle rental stations and
+   * the vehicle parking availability. Use it to detect that cached street search results are out
+   * of date.
+   */
+  public long getRealtimeStreetVersion() {
+    return realtimeStreetVersion;
+  }
+
+  /**
+   * Must be called by the graph updaters when they change the realtime state of the street graph.
+   * This is only called from the graph writer thread, so the increment does not need to be atomic.
+   */
+  public void realtimeStreetUpdate() {
+    realtimeStreetVersion++;
+  }
+
   /**
    * Get streetIndex during graph build, both OSM street data and transit data must be loaded
    * before calling this.
@@ -362,6 +398,43 @@ public class Graph implements Serializable {
     this.fareService = fareService;
   }
 
+  /**
+   * Return the contraction hierarchy for the given mode, or {@code null} if it is not built.
+   */
+  @Nullable
+  public ContractionHierarchy getContractionHierarchy(TraverseMode mode) {
+    return contractionHierarchies.get(mode);
+  }
+
+  public void addContractionHierarchy(ContractionHierarchy contractionHierarchy) {
+    contractionHierarchies.put(contractionHierarchy.mode(), contractionHierarchy);
+  }
+
+  /**
+   * Return the landmark distances for the street search heuristic, or {@code null} if they are
+   * not built.
+   */
+  @Nullable
+  public Landmarks getLandmarks() {
+    return landmarks;
+  }
+
+  public void setLandmarks(Landmarks landmarks) {
+    this.landmarks = landmarks;
+  }
+
+  /**
+   * Return the pre-rendered vector tiles, or {@code null} if they are not built.
+   */
+  @Nullable
+  public TilePyramid getVectorTilePyramid() {
+    return vectorTilePyramid;
+  }
+
+  public void setVectorTilePyramid(TilePyramid vectorTilePyramid) {
+    this.vectorTilePyramid = vectorTilePyramid;
+  }
+
   public LuceneIndex getLuceneIndex() {
     return luceneIndex;
   }
@@ -0,0 +1,100 @@
+package org.opentripplanner.routing.graph;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+
+/**
+ * Read one section of the graph file written by {@link SectionOutputStream}. The stream ends at
+ * the end of the section. The checksum is computed while the content is read, call
+ * {@link #finish()} when done to check it.
+ * <p>
+ * Closing this stream does NOT close the underlying stream.
+ */
+class SectionInputStream extends InputStream {
+
+  private final DataInputStream in;
+  private final CRC32 checksum = new CRC32();
+  private byte[] block = new byte[0];
+  private int position = 0;
+  private int blockSize = 0;
+  private long size = 0;
+  private boolean end = false;
+  private boolean checksumMatches = false;
+
+  SectionInputStream(DataInputStream in) {
+    this.in = in;
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (!nextBlockIfEmpty()) {
+      return -1;
+    }
+    return block[position++] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (!nextBlockIfEmpty()) {
+      return -1;
+    }
+    int n = Math.min(len, blockSize - position);
+    System.arraycopy(block, position, b, off, n);
+    position += n;
+    return n;
+  }
+
+  @Override
+  public int available() {
+    return blockSize - position;
+  }
+
+  /**
+   * Skip the rest of the section and verify the checksum. Return {@code true} if all the content
+   * was read before this method was called and the checksum matches.
+   */
+  boolean finish() throws IOException {
+    boolean allRead = available() == 0;
+    while (nextBlockIfEmpty()) {
+      allRead = false;
+      position = blockSize;
+    }
+    return allRead && checksumMatches;
+  }
+
+  /** The number of content bytes read from the section. */
+  long size() {
+    return size;
+  }
+
+  private boolean nextBlockIfEmpty() throws IOException {
+    while (position == blockSize) {
+      if (end) {
+        return false;
+      }
+      int length = in.readInt();
+      if (length < 0 || length > SectionOutputStream.BLOCK_SIZE) {
+        throw new IOException("Invalid section block length: " + length);
+      }
+      if (length == 0) {
+        end = true;
+        checksumMatches = in.readLong() == checksum.getValue();
+        return false;
+      }
+      if (length > block.length) {
+        block = new byte[length];
+      }
+      in.readFully(block, 0, length);
+      checksum.update(block, 0, length);
+      size += length;
+      position = 0;
+      blockSize = length;
+    }
+    return true;
+  }
+}
@@ -0,0 +1,94 @@
+package org.opentripplanner.routing.graph;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+
+/**
+ * Write one section of the graph file. The content is written in blocks, each block is prefixed
+ * with its length. The section ends with an empty block followed by the CRC32 checksum of the
+ * content. The size of a section does not need to be known before it is written, and a reader
+ * can not read past the end of the section, see {@link SectionInputStream}.
+ * <p>
+ * Closing this stream ends the section, the underlying stream is NOT closed.
+ */
+class SectionOutputStream extends OutputStream {
+
+  static final int BLOCK_SIZE = 1 << 20;
+
+  private final DataOutputStream out;
+  private final CRC32 checksum = new CRC32();
+  private final byte[] block;
+  private int blockSize = 0;
+  private long size = 0;
+  private boolean closed = false;
+
+  SectionOutputStream(DataOutputStream out) {
+    this(out, BLOCK_SIZE);
+  }
+
+  SectionOutputStream(DataOutputStream out, int blockSize) {
+    this.out = out;
+    this.block = new byte[blockSize];
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    if (blockSize == block.length) {
+      writeBlock();
+    }
+    block[blockSize++] = (byte) b;
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    while (len > 0) {
+      if (blockSize == block.length) {
+        writeBlock();
+      }
+      int n = Math.min(len, block.length - blockSize);
+      System.arraycopy(b, off, block, blockSize, n);
+      blockSize += n;
+      off += n;
+      len -= n;
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    writeBlock();
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    writeBlock();
+    out.writeInt(0);
+    out.writeLong(checksum.getValue());
+    out.flush();
+    closed = true;
+  }
+
+  /** The number of content bytes written to the section. */
+  long size() {
+    return size;
+  }
+
+  private void writeBlock() throws IOException {
+    if (blockSize == 0) {
+      return;
+    }
+    if (closed) {
+      throw new IOException("Section closed");
+    }
+    out.writeInt(blockSize);
+    out.write(block, 0, blockSize);
+    checksum.update(block, 0, blockSize);
+    size += blockSize;
+    blockSize = 0;
+  }
+}
@@ -6,6 +6,9 @@ import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.KryoException;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -13,8 +16,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import javax.annotation.Nullable;
 import org.opentripplanner.datastore.api.DataSource;
 import org.opentripplanner.ext.emissions.EmissionsDataModel;
@@ -23,6 +30,8 @@ import org.opentripplanner.framework.application.OtpAppException;
 import org.opentripplanner.framework.geometry.CompactElevationProfile;
 import org.opentripplanner.framework.lang.OtpNumberFormat;
 import org.opentripplanner.framework.logging.ProgressTracker;
+import org.opentripplanner.framework.text.FileSizeToTextConverter;
+import org.opentripplanner.framework.time.DurationUtils;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
 import org.opentripplanner.model.projectinfo.GraphFileHeader;
 import org.opentripplanner.model.projectinfo.OtpProjectInfo;
@@ -48,11 +57,49 @@ import org.slf4j.LoggerFactory;
  * serializer to know that vertices referenced by the edges are the same vertices stored in the
  * graph itself. The easiest way to do this is to make only one serialization call, serializing a
  * single object that contains both the graph and the edge collection.
+ * <p>
+ * The file is split into sections, see {@link SectionOutputStream}. Each section has a checksum,
+ * which is verified when the graph is loaded. The graph, the transit model and the edges are in
+ * one section, the other parts of this object do not reference them. These small sections are
+ * serialized and deserialized in parallel, each with its own Kryo instance.
+ * <p>
+ * The file is read as a stream, it is not memory mapped. Kryo creates every vertex, edge and trip
+ * times object on the heap, so the heap used by a loaded graph is the same whichever way the bytes
+ * are read. While loading, the only buffers are the current section block of 1 MB and the Kryo
+ * buffer of 64 KB, independent of the size of the graph. A memory mapped file would only save the
+ * copy from the OS page cache into the section block: one copy of the file, for a 2 GB graph less
+ * than a second at the usual memory bandwidth of several GB/s. The rest of the load time is spent
+ * creating the objects and indexing them, and a stream read uses the shared page cache as well.
+ * Using the file in place, without deserialization, would need primitive views in place of the
+ * linked vertex, edge and trip times objects.
  */
 public class SerializedGraphObject implements Serializable {
 
   private static final Logger LOG = LoggerFactory.getLogger(SerializedGraphObject.class);
 
+  /**
+   * The graph is read in large blocks, the default Kryo buffer of 4 KB adds a lot of calls to the
+   * underlying stream. For a graph file of 2 GB, Kryo fills its buffer about 500 000 times with a
+   * 4 KB buffer and about 32 000 times with a 64 KB buffer. Each fill is a copy from the 1 MB
+   * section block, see {@link SectionInputStream}, so a buffer larger than 64 KB does not help much.
+   */
+  private static final int INPUT_BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * The sections of the graph file which do not reference the graph or the transit model, in the
+   * order they are written. See {@link #independentSectionValues()}.
+   */
+  private static final List<String> INDEPENDENT_SECTIONS = List.of(
+    "buildConfig",
+    "routerConfig",
+    "issueSummary",
+    "worldEnvelope",
+    "emissions",
+    "stopConsolidation"
+  );
+
+  private static final String STREET_AND_TRANSIT_SECTION = "streetAndTransitModel";
+
   public final Graph graph;
   public final TransitModel transitModel;
   public final WorldEnvelopeRepository worldEnvelopeRepository;
@@ -101,6 +148,20 @@ public class SerializedGraphObject implements Serializable {
     this.stopConsolidationRepository = stopConsolidationRepository;
   }
 
+  private SerializedGraphObject(StreetAndTransitModel model, List<Object> independentSections) {
+    this.graph = model.graph;
+    this.edges = model.edges;
+    this.transitModel = model.transitModel;
+    this.allTransitSubModes = model.allTransitSubModes;
+    this.routingTripPatternCounter = model.routingTripPatternCounter;
+    this.buildConfig = (BuildConfig) independentSections.get(0);
+    this.routerConfig = (RouterConfig) independentSections.get(1);
+    this.issueSummary = (DataImportIssueSummary) independentSections.get(2);
+    this.worldEnvelopeRepository = (WorldEnvelopeRepository) independentSections.get(3);
+    this.emissionsDataModel = (EmissionsDataModel) independentSections.get(4);
+    this.stopConsolidationRepository = (StopConsolidationRepository) independentSections.get(5);
+  }
+
   public static void verifyTheOutputGraphIsWritableIfDataSourceExist(DataSource graphOutput) {
     if (graphOutput != null) {
       // Abort building a graph if the file can not be saved
@@ -118,12 +179,12 @@ public class SerializedGraphObject implements Serializable {
   }
 
   public static SerializedGraphObject load(DataSource source) {
-    return load(source.asInputStream(), source.path());
+    return load(source.asInputStream(), source.size(), source.path());
   }
 
   public static SerializedGraphObject load(File file) {
     try {
-      return load(new FileInputStream(file), file.getAbsolutePath());
+      return load(new FileInputStream(file), file.length(), file.getAbsolutePath());
     } catch (FileNotFoundException e) {
       LOG.error("Graph file not found: " + file, e);
       throw new OtpAppException(e.getMessage());
@@ -160,28 +221,48 @@ public class SerializedGraphObject implements Serializable {
 
   /* private methods */
 
-  private static SerializedGraphObject load(InputStream inputStream, String sourceDescription) {
-    // TODO store version information, halt load if versions mismatch
-    try (inputStream) {
+  private static SerializedGraphObject load(
+    InputStream inputStream,
+    long size,
+    String sourceDescription
+  ) {
+    try (var in = new DataInputStream(wrapInputStreamWithProgressTracker(inputStream, size))) {
       LOG.info("Reading graph from '{}'", sourceDescription);
-      Input input = new Input(inputStream);
+      var header = new byte[GraphFileHeader.headerLength()];
+      in.readFully(header);
+      validateGraphSerializationId(header, sourceDescription);
 
-      validateGraphSerializationId(
-        input.readBytes(GraphFileHeader.headerLength()),
-        sourceDescription
+      // The small sections are deserialized while the rest of the file is read
+      List<CompletableFuture<Object>> independentSections = new ArrayList<>();
+      for (String name : INDEPENDENT_SECTIONS) {
+        byte[] bytes = readSection(in, name, sourceDescription, InputStream::readAllBytes);
+        independentSections.add(CompletableFuture.supplyAsync(() -> deserialize(bytes)));
+      }
+      var model = readSection(
+        in,
+        STREET_AND_TRANSIT_SECTION,
+        sourceDescription,
+        section ->
+          (StreetAndTransitModel) KryoBuilder
+            .create()
+            .readClassAndObject(new Input(section, INPUT_BUFFER_SIZE))
       );
-
-      Kryo kryo = KryoBuilder.create();
-      SerializedGraphObject serObj = (SerializedGraphObject) kryo.readClassAndObject(input);
-      SubMode.deserializeSubModeCache(serObj.allTransitSubModes);
-      RoutingTripPattern.initIndexCounter(serObj.routingTripPatternCounter);
+      SubMode.deserializeSubModeCache(model.allTransitSubModes);
+      RoutingTripPattern.initIndexCounter(model.routingTripPatternCounter);
       CompactElevationProfile.setDistanceBetweenSamplesM(
-        serObj.graph.getDistanceBetweenElevationSamples()
+        model.graph.getDistanceBetweenElevationSamples()
+      );
+      var serObj = new SerializedGraphObject(
+        model,
+        independentSections.stream().map(SerializedGraphObject::join).toList()
       );
       LOG.debug("Graph read.");
-      serObj.reconstructEdgeLists();
+
+      // The street graph and the transit model do not depend on each other, index them in parallel
+      var edgeLists = CompletableFuture.runAsync(serObj::reconstructEdgeLists);
       serObj.transitModel.getStopModel().reindexAfterDeserialization();
       serObj.transitModel.index();
+      join(edgeLists);
       logSerializationCompleteStatus(serObj.graph, serObj.transitModel);
       return serObj;
     } catch (IOException e) {
@@ -206,6 +287,21 @@ public class SerializedGraphObject implements Serializable {
     }
   }
 
+  @SuppressWarnings("Convert2MethodRef")
+  private static InputStream wrapInputStreamWithProgressTracker(
+    InputStream inputStream,
+    long size
+  ) {
+    return ProgressTracker.track(
+      "Read graph",
+      500_000,
+      size,
+      inputStream,
+      // Keep this to get correct logging info for class and line number
+      msg -> LOG.info(msg)
+    );
+  }
+
   @SuppressWarnings("Convert2MethodRef")
   private static OutputStream wrapOutputStreamWithProgressTracker(
     OutputStream outputStream,
@@ -241,15 +337,129 @@ public class SerializedGraphObject implements Serializable {
 
   private void save(OutputStream outputStream, String graphName, long size) {
     LOG.info("Writing graph {}  ...", graphName);
-    outputStream = wrapOutputStreamWithProgressTracker(outputStream, size);
-    Kryo kryo = KryoBuilder.create();
-    Output output = new Output(outputStream);
-    output.write(OtpProjectInfo.projectInfo().graphFileHeaderInfo.header());
-    kryo.writeClassAndObject(output, this);
-    output.close();
+    // The small sections are serialized in parallel, before the file is written
+    List<byte[]> independentSections = independentSectionValues()
+      .parallelStream()
+      .map(SerializedGraphObject::serialize)
+      .toList();
+    var model = new StreetAndTransitModel(this);
+
+    try (var out = new DataOutputStream(wrapOutputStreamWithProgressTracker(outputStream, size))) {
+      out.write(OtpProjectInfo.projectInfo().graphFileHeaderInfo.header());
+      for (int i = 0; i < INDEPENDENT_SECTIONS.size(); ++i) {
+        byte[] bytes = independentSections.get(i);
+        writeSection(out, INDEPENDENT_SECTIONS.get(i), section -> section.write(bytes));
+      }
+      writeSection(
+        out,
+        STREET_AND_TRANSIT_SECTION,
+        section -> {
+          Kryo kryo = KryoBuilder.create();
+          Output output = new Output(section);
+          kryo.writeClassAndObject(output, model);
+          output.flush();
+          // Summarize serialized classes and associated serializers to stdout:
+          // ((InstanceCountingClassResolver) kryo.getClassResolver()).summarize();
+        }
+      );
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to write graph " + graphName + ": " + e.getMessage(), e);
+    }
     LOG.info("Graph written: {}", graphName);
-    // Summarize serialized classes and associated serializers to stdout:
-    // ((InstanceCountingClassResolver) kryo.getClassResolver()).summarize();
+  }
+
+  /**
+   * The values of the {@link #INDEPENDENT_SECTIONS}, in the same order. Some of them may be
+   * {@code null}.
+   */
+  private List<Object> independentSectionValues() {
+    return Arrays.asList(
+      buildConfig,
+      routerConfig,
+      issueSummary,
+      worldEnvelopeRepository,
+      emissionsDataModel,
+      stopConsolidationRepository
+    );
+  }
+
+  private static byte[] serialize(Object value) {
+    var buffer = new ByteArrayOutputStream();
+    Output output = new Output(buffer);
+    KryoBuilder.create().writeClassAndObject(output, value);
+    output.close();
+    return buffer.toByteArray();
+  }
+
+  private static Object deserialize(byte[] bytes) {
+    return KryoBuilder.create().readClassAndObject(new Input(bytes));
+  }
+
+  private static void writeSection(DataOutputStream out, String name, SectionWriter writer)
+    throws IOException {
+    long startTime = System.currentTimeMillis();
+    out.writeUTF(name);
+    var section = new SectionOutputStream(out);
+    writer.write(section);
+    section.close();
+    LOG.info(
+      "Graph section '{}' written: {} in {}",
+      name,
+      FileSizeToTextConverter.fileSizeToString(section.size()),
+      DurationUtils.msToSecondsStr(System.currentTimeMillis() - startTime)
+    );
+  }
+
+  /**
+   * Read the section with the given name, and verify the checksum of it. The graph can not be
+   * loaded if the section is not the expected one, or if the checksum does not match.
+   */
+  private static <T> T readSection(
+    DataInputStream in,
+    String name,
+    String sourceDescription,
+    SectionReader<T> reader
+  ) throws IOException {
+    long startTime = System.currentTimeMillis();
+    String sectionName = in.readUTF();
+    if (!name.equals(sectionName)) {
+      throw new OtpAppException(
+        "The graph file is corrupt. The section '%s' was expected, but '%s' was found in '%s'.",
+        name,
+        sectionName,
+        sourceDescription
+      );
+    }
+    var section = new SectionInputStream(in);
+    T value = reader.read(section);
+    if (!section.finish()) {
+      throw new OtpAppException(
+        "The graph file is corrupt. The checksum of the section '%s' does not match in '%s'.",
+        name,
+        sourceDescription
+      );
+    }
+    LOG.info(
+      "Graph section '{}' read: {} in {}",
+      name,
+      FileSizeToTextConverter.fileSizeToString(section.size()),
+      DurationUtils.msToSecondsStr(System.currentTimeMillis() - startTime)
+    );
+    return value;
+  }
+
+  /**
+   * Wait for the given task to complete, and rethrow the exception thrown by the task - if any.
+   */
+  private static <T> T join(CompletableFuture<T> task) {
+    try {
+      return task.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
   }
 
   private static void logSerializationCompleteStatus(Graph graph, TransitModel transitModel) {
@@ -268,4 +478,36 @@ public class SerializedGraphObject implements Serializable {
       nTransfers
     );
   }
+
+  @FunctionalInterface
+  private interface SectionWriter {
+    void write(OutputStream section) throws IOException;
+  }
+
+  @FunctionalInterface
+  private interface SectionReader<T> {
+    T read(InputStream section) throws IOException;
+  }
+
+  /**
+   * The graph, the transit model and the edges reference the same objects, so they must be
+   * serialized with one Kryo instance. The SubMode cache and the pattern index counter are
+   * static state used by the transit model.
+   */
+  private static final class StreetAndTransitModel implements Serializable {
+
+    private final Graph graph;
+    private final TransitModel transitModel;
+    private final Collection<Edge> edges;
+    private final List<SubMode> allTransitSubModes;
+    private final int routingTripPatternCounter;
+
+    private StreetAndTransitModel(SerializedGraphObject source) {
+      this.graph = source.graph;
+      this.transitModel = source.transitModel;
+      this.edges = source.edges;
+      this.allTransitSubModes = source.allTransitSubModes;
+      this.routingTripPatternCounter = source.routingTripPatternCounter;
+    }
+  }
 }
@@ -0,0 +1,272 @@
+package org.opentripplanner.routing.graph.index;
+
+import gnu.trove.map.TObjectIntMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+
+/**
+ * A frozen, compact copy of the street graph stored in compressed-sparse-row(CSR) format. The
+ * vertices and edges are numbered from zero, and the adjacency lists are stored as offsets into
+ * int arrays. The static edge attributes used by the street cost model are stored in primitive
+ * columns indexed by the edge index. This makes it possible to run graph algorithms, like
+ * many-to-many searches and preprocessing of routing data, without chasing pointers between
+ * vertex and edge objects.
+ * <p>
+ * The edges are numbered in the order of their from-vertex, so the outgoing edges of a vertex is
+ * a consecutive range of edge indexes. The incoming edges are stored in a separate index array.
+ * The {@link Edge} objects are not copied, {@link #edge(int)} returns the original edge - use it
+ * for things not in the columns, like the geometry or the name.
+ * <p>
+ * The graph is a snapshot. Vertices and edges added after it is created, like realtime vehicle
+ * rental stations or request-scoped temporary vertices, are not part of it, use
+ * {@link #vertexIndex(Vertex)} to check. Non-street edges(links, elevators, platforms and so on)
+ * are included with their length, but without permission and {@link #FLAG_STREET} unset.
+ * <p>
+ * The compact graph is only used when the graph is built. The graph builder modules creating the
+ * direct transfers, the contraction hierarchies and the landmarks create a copy, use it and drop
+ * it. It is not kept in the {@link org.opentripplanner.routing.graph.Graph}, and the A* street
+ * search used when routing still traverses the {@link Vertex} and {@link Edge} objects. The A*
+ * search needs the request-scoped temporary vertices and edges, and the full cost model in
+ * {@link StreetEdge#traverse}, which the columns here do not cover.
+ * <p>
+ * THIS CLASS IS IMMUTABLE AND THREAD-SAFE.
+ */
+public class CompactStreetGraph {
+
+  public static final int NOT_FOUND = -1;
+
+  /** The edge is a {@link StreetEdge}. */
+  public static final int FLAG_STREET = 1;
+  public static final int FLAG_BACK = 1 << 1;
+  public static final int FLAG_ROUNDABOUT = 1 << 2;
+  public static final int FLAG_STAIRS = 1 << 3;
+  public static final int FLAG_WHEELCHAIR_ACCESSIBLE = 1 << 4;
+  public static final int FLAG_WALK_NO_THRU_TRAFFIC = 1 << 5;
+  public static final int FLAG_BICYCLE_NO_THRU_TRAFFIC = 1 << 6;
+  public static final int FLAG_MOTOR_VEHICLE_NO_THRU_TRAFFIC = 1 << 7;
+
+  private final Vertex[] vertices;
+  private final TObjectIntMap<Vertex> vertexIndex;
+  private final double[] lat;
+  private final double[] lon;
+
+  /** The outgoing edges of vertex {@code v} are {@code [outOffsets[v], outOffsets[v+1])}. */
+  private final int[] outOffsets;
+  /** The incoming edges of vertex {@code v} are {@code inEdges[inOffsets[v]..inOffsets[v+1]]}. */
+  private final int[] inOffsets;
+  private final int[] inEdges;
+
+  private final Edge[] edges;
+  private final int[] fromVertex;
+  private final int[] toVertex;
+  private final int[] lengthMm;
+  private final byte[] permission;
+  private final short[] flags;
+  private final float[] carSpeed;
+  private final float[] bicycleSafetyFactor;
+  private final float[] walkSafetyFactor;
+
+  private CompactStreetGraph(Collection<? extends Vertex> graphVertices) {
+    // Copy the vertices first, the collection may be a live view of the graph
+    this.vertices = graphVertices.toArray(Vertex[]::new);
+    int nVertices = vertices.length;
+    this.vertexIndex = new TObjectIntHashMap<>(nVertices, 0.5f, NOT_FOUND);
+    this.lat = new double[nVertices];
+    this.lon = new double[nVertices];
+
+    for (int v = 0; v < nVertices; ++v) {
+      Vertex it = vertices[v];
+      vertexIndex.put(it, v);
+      lat[v] = it.getLat();
+      lon[v] = it.getLon();
+    }
+
+    // Collect the edges in a single pass, the edges of a vertex may change while we do this
+    this.outOffsets = new int[nVertices + 1];
+    List<Edge> graphEdges = new ArrayList<>();
+    for (int v = 0; v < nVertices; ++v) {
+      outOffsets[v] = graphEdges.size();
+      for (Edge it : vertices[v].getOutgoing()) {
+        // Skip edges to vertices not in the graph
+        if (vertexIndex.containsKey(it.getToVertex())) {
+          graphEdges.add(it);
+        }
+      }
+    }
+    int nEdges = graphEdges.size();
+    outOffsets[nVertices] = nEdges;
+
+    this.inOffsets = new int[nVertices + 1];
+    this.inEdges = new int[nEdges];
+    this.edges = graphEdges.toArray(Edge[]::new);
+    this.fromVertex = new int[nEdges];
+    this.toVertex = new int[nEdges];
+    this.lengthMm = new int[nEdges];
+    this.permission = new byte[nEdges];
+    this.flags = new short[nEdges];
+    this.carSpeed = new float[nEdges];
+    this.bicycleSafetyFactor = new float[nEdges];
+    this.walkSafetyFactor = new float[nEdges];
+
+    for (int e = 0; e < nEdges; ++e) {
+      Edge it = edges[e];
+      int to = vertexIndex.get(it.getToVertex());
+      fromVertex[e] = vertexIndex.get(it.getFromVertex());
+      toVertex[e] = to;
+      setEdgeAttributes(e, it);
+      ++inOffsets[to + 1];
+    }
+
+    // Turn the in-degree counts into offsets, and then fill in the incoming edges
+    for (int v = 0; v < nVertices; ++v) {
+      inOffsets[v + 1] += inOffsets[v];
+    }
+    int[] next = new int[nVertices];
+    for (int e = 0; e < nEdges; ++e) {
+      int to = toVertex[e];
+      inEdges[inOffsets[to] + next[to]++] = e;
+    }
+  }
+
+  public static CompactStreetGraph of(Collection<? extends Vertex> vertices) {
+    return new CompactStreetGraph(vertices);
+  }
+
+  public int numberOfVertices() {
+    return vertices.length;
+  }
+
+  public int numberOfEdges() {
+    return edges.length;
+  }
+
+  /**
+   * Return the index of the given vertex, or {@link #NOT_FOUND} if the vertex is not part of
+   * this graph.
+   */
+  public int vertexIndex(Vertex vertex) {
+    return vertexIndex.get(vertex);
+  }
+
+  public Vertex vertex(int vertexIndex) {
+    return vertices[vertexIndex];
+  }
+
+  public double lat(int vertexIndex) {
+    return lat[vertexIndex];
+  }
+
+  public double lon(int vertexIndex) {
+    return lon[vertexIndex];
+  }
+
+  /** The index of the first outgoing edge of the given vertex. */
+  public int outgoingEdgesStart(int vertexIndex) {
+    return outOffsets[vertexIndex];
+  }
+
+  /** The index after the last outgoing edge of the given vertex (exclusive). */
+  public int outgoingEdgesEnd(int vertexIndex) {
+    return outOffsets[vertexIndex + 1];
+  }
+
+  public int inDegree(int vertexIndex) {
+    return inOffsets[vertexIndex + 1] - inOffsets[vertexIndex];
+  }
+
+  /**
+   * Return the edge index of incoming edge number {@code i} of the given vertex, where
+   * {@code 0 <= i < inDegree(vertexIndex)}.
+   */
+  public int incomingEdge(int vertexIndex, int i) {
+    return inEdges[inOffsets[vertexIndex] + i];
+  }
+
+  /** Return the original edge object. */
+  public Edge edge(int edgeIndex) {
+    return edges[edgeIndex];
+  }
+
+  public int fromVertex(int edgeIndex) {
+    return fromVertex[edgeIndex];
+  }
+
+  public int toVertex(int edgeIndex) {
+    return toVertex[edgeIndex];
+  }
+
+  public int lengthMm(int edgeIndex) {
+    return lengthMm[edgeIndex];
+  }
+
+  public StreetTraversalPermission permission(int edgeIndex) {
+    return StreetTraversalPermission.get(permission[edgeIndex]);
+  }
+
+  /** Return {@code true} if the edge is a street which can be traversed with the given mode. */
+  public boolean allows(int edgeIndex, TraverseMode mode) {
+    return permission(edgeIndex).allows(mode);
+  }
+
+  public boolean hasFlag(int edgeIndex, int flag) {
+    return (flags[edgeIndex] & flag) != 0;
+  }
+
+  /** The car speed in meters per second, zero for non-street edges. */
+  public float carSpeed(int edgeIndex) {
+    return carSpeed[edgeIndex];
+  }
+
+  public float bicycleSafetyFactor(int edgeIndex) {
+    return bicycleSafetyFactor[edgeIndex];
+  }
+
+  public float walkSafetyFactor(int edgeIndex) {
+    return walkSafetyFactor[edgeIndex];
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(CompactStreetGraph.class)
+      .addNum("vertices", numberOfVertices())
+      .addNum("edges", numberOfEdges())
+      .toString();
+  }
+
+  private void setEdgeAttributes(int e, Edge edge) {
+    lengthMm[e] = (int) Math.round(edge.getDistanceMeters() * 1000.0);
+
+    if (edge instanceof StreetEdge street) {
+      permission[e] = (byte) street.getPermission().code;
+      flags[e] = streetFlags(street);
+      carSpeed[e] = street.getCarSpeed();
+      bicycleSafetyFactor[e] = street.getBicycleSafetyFactor();
+      walkSafetyFactor[e] = street.getWalkSafetyFactor();
+    } else {
+      permission[e] = (byte) StreetTraversalPermission.NONE.code;
+      bicycleSafetyFactor[e] = 1f;
+      walkSafetyFactor[e] = 1f;
+    }
+  }
+
+  private static short streetFlags(StreetEdge edge) {
+    int result = FLAG_STREET;
+    result |= edge.isBack() ? FLAG_BACK : 0;
+    result |= edge.isRoundabout() ? FLAG_ROUNDABOUT : 0;
+    result |= edge.isStairs() ? FLAG_STAIRS : 0;
+    result |= edge.isWheelchairAccessible() ? FLAG_WHEELCHAIR_ACCESSIBLE : 0;
+    result |= edge.isWalkNoThruTraffic() ? FLAG_WALK_NO_THRU_TRAFFIC : 0;
+    result |= edge.isBicycleNoThruTraffic() ? FLAG_BICYCLE_NO_THRU_TRAFFIC : 0;
+    result |= edge.isMotorVehicleNoThruTraffic() ? FLAG_MOTOR_VEHICLE_NO_THRU_TRAFFIC : 0;
+    return (short) result;
+  }
+}
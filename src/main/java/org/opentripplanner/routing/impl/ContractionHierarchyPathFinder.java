@@ -0,0 +1,127 @@
+package org.opentripplanner.routing.impl;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.preference.StreetPreferences;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+import org.opentripplanner.street.search.ch.ContractionHierarchy;
+import org.opentripplanner.street.search.intersection_model.IntersectionTraversalCalculator;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.request.StreetSearchRequestMapper;
+import org.opentripplanner.street.search.state.State;
+
+/**
+ * Find a direct street path using the {@link ContractionHierarchy} for the request mode, and
+ * traverse the edges with the request to create the states. An empty list is returned if the
+ * hierarchy can not be used for the request, or if the path found is not valid for the request
+ * (e.g. because of a turn restriction). The caller should then use the {@link GraphPathFinder}.
+ * <p>
+ * Only plain WALK, BIKE and CAR requests are supported. Requests with wheelchair accessibility,
+ * vehicle rental (geofencing), a data overlay or a debug traverse visitor use the A* search.
+ */
+public class ContractionHierarchyPathFinder {
+
+  private final Graph graph;
+
+  public ContractionHierarchyPathFinder(Graph graph) {
+    this.graph = graph;
+  }
+
+  public List<GraphPath<State, Edge, Vertex>> findPaths(
+    RouteRequest request,
+    Set<Vertex> from,
+    Set<Vertex> to
+  ) {
+    var contractionHierarchy = contractionHierarchy(request);
+    if (contractionHierarchy == null) {
+      return Collections.emptyList();
+    }
+    OTPRequestTimeoutException.checkForTimeout();
+
+    List<Edge> edges = contractionHierarchy.findPath(from, to);
+    if (edges == null || edges.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    StreetMode mode = request.journey().direct().mode();
+    StreetPreferences preferences = request.preferences().street();
+    StreetSearchRequest streetRequest = StreetSearchRequestMapper
+      .map(request)
+      .withMode(mode)
+      .withArriveBy(request.arriveBy())
+      .build();
+    streetRequest.setIntersectionTraversalCalculator(
+      IntersectionTraversalCalculator.create(
+        preferences.intersectionTraversalModel(),
+        preferences.drivingDirection()
+      )
+    );
+
+    State state = traverse(edges, streetRequest);
+    if (state == null) {
+      return Collections.emptyList();
+    }
+    long maxDuration = preferences.maxDirectDuration().valueOf(mode).toSeconds();
+    if (state.getElapsedTimeSeconds() > maxDuration) {
+      return Collections.emptyList();
+    }
+    return List.of(new GraphPath<>(state));
+  }
+
+  @Nullable
+  private ContractionHierarchy contractionHierarchy(RouteRequest request) {
+    if (OTPFeature.ContractionHierarchies.isOff() || request.wheelchair()) {
+      return null;
+    }
+    TraverseMode mode =
+      switch (request.journey().direct().mode()) {
+        case WALK -> TraverseMode.WALK;
+        case BIKE -> TraverseMode.BICYCLE;
+        case CAR -> TraverseMode.CAR;
+        default -> null;
+      };
+    return mode == null ? null : graph.getContractionHierarchy(mode);
+  }
+
+  /**
+   * Traverse the edges from the origin, or backwards from the destination for arrive-by
+   * requests. Return the last state, or {@code null} if an edge can not be traversed.
+   */
+  @Nullable
+  private static State traverse(List<Edge> edges, StreetSearchRequest request) {
+    boolean arriveBy = request.arriveBy();
+    Vertex start = arriveBy
+      ? edges.get(edges.size() - 1).getToVertex()
+      : edges.get(0).getFromVertex();
+
+    // There is only one initial state for the plain WALK, BIKE and CAR modes
+    State state = State.getInitialStates(Set.of(start), request).iterator().next();
+
+    for (int i = 0; i < edges.size() && state != null; ++i) {
+      Edge edge = edges.get(arriveBy ? edges.size() - 1 - i : i);
+      state = bestState(edge.traverse(state));
+    }
+    return state;
+  }
+
+  @Nullable
+  private static State bestState(State[] states) {
+    State best = null;
+    for (State it : states) {
+      if (it != null && (best == null || it.getWeight() < best.getWeight())) {
+        best = it;
+      }
+    }
+    return best;
+  }
+}
@@ -6,6 +6,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import javax.annotation.Nullable;
+import org.opentripplanner.astar.model.DAryHeap;
 import org.opentripplanner.astar.model.GraphPath;
 import org.opentripplanner.astar.spi.TraverseVisitor;
 import org.opentripplanner.astar.strategy.DurationSkipEdgeStrategy;
@@ -19,9 +20,11 @@ import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.street.search.StreetSearchBuilder;
 import org.opentripplanner.street.search.TemporaryVerticesContainer;
+import org.opentripplanner.street.search.landmark.Landmarks;
 import org.opentripplanner.street.search.state.State;
 import org.opentripplanner.street.search.strategy.DominanceFunctions;
 import org.opentripplanner.street.search.strategy.EuclideanRemainingWeightHeuristic;
+import org.opentripplanner.street.search.strategy.LandmarkRemainingWeightHeuristic;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -56,6 +59,9 @@ public class GraphPathFinder {
 
   private final DataOverlayContext dataOverlayContext;
 
+  @Nullable
+  private final Landmarks landmarks;
+
   public GraphPathFinder(@Nullable TraverseVisitor<State, Edge> traverseVisitor) {
     this(traverseVisitor, null);
   }
@@ -63,9 +69,22 @@ public class GraphPathFinder {
   public GraphPathFinder(
     @Nullable TraverseVisitor<State, Edge> traverseVisitor,
     @Nullable DataOverlayContext dataOverlayContext
+  ) {
+    this(traverseVisitor, dataOverlayContext, null);
+  }
+
+  /**
+   * @param landmarks if set, the landmark distances are used to guide the search, see
+   *                  {@link LandmarkRemainingWeightHeuristic}.
+   */
+  public GraphPathFinder(
+    @Nullable TraverseVisitor<State, Edge> traverseVisitor,
+    @Nullable DataOverlayContext dataOverlayContext,
+    @Nullable Landmarks landmarks
   ) {
     this.traverseVisitor = traverseVisitor;
     this.dataOverlayContext = dataOverlayContext;
+    this.landmarks = landmarks;
   }
 
   /**
@@ -81,7 +100,11 @@ public class GraphPathFinder {
 
     StreetSearchBuilder aStar = StreetSearchBuilder
       .of()
-      .setHeuristic(new EuclideanRemainingWeightHeuristic())
+      .setHeuristic(
+        landmarks == null
+          ? new EuclideanRemainingWeightHeuristic()
+          : new LandmarkRemainingWeightHeuristic(landmarks)
+      )
       .setSkipEdgeStrategy(
         new DurationSkipEdgeStrategy(
           preferences.maxDirectDuration().valueOf(request.journey().direct().mode())
@@ -89,6 +112,7 @@ public class GraphPathFinder {
       )
       // FORCING the dominance function to weight only
       .setDominanceFunction(new DominanceFunctions.MinimumWeight())
+      .setPriorityQueue(DAryHeap::new)
       .setRequest(request)
       .setStreetRequest(request.journey().direct())
       .setFrom(from)
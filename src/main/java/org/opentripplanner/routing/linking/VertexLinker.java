@@ -472,7 +472,8 @@ public class VertexLinker {
         x,
         y,
         originalEdge,
-        direction == LinkingDirection.OUTGOING
+        direction == LinkingDirection.OUTGOING,
+        scope == Scope.REQUEST
       );
       tsv.setWheelchairAccessible(originalEdge.isWheelchairAccessible());
       v = tsv;
@@ -1,10 +1,14 @@
 package org.opentripplanner.routing.service;
 
 import java.time.ZoneId;
+import java.util.List;
+import java.util.function.Consumer;
 import org.opentripplanner.framework.application.OTPRequestTimeoutException;
 import org.opentripplanner.framework.time.ZoneIdFallback;
 import org.opentripplanner.framework.tostring.MultiLineToStringBuilder;
+import org.opentripplanner.model.GenericLocation;
 import org.opentripplanner.model.plan.Itinerary;
+import org.opentripplanner.routing.algorithm.OneToManyRoutingWorker;
 import org.opentripplanner.routing.algorithm.RoutingWorker;
 import org.opentripplanner.routing.algorithm.via.ViaRoutingWorker;
 import org.opentripplanner.routing.api.RoutingService;
@@ -58,6 +62,26 @@ public class DefaultRoutingService implements RoutingService {
     return viaRoutingWorker.route();
   }
 
+  @Override
+  public void route(
+    RouteRequest request,
+    List<GenericLocation> destinations,
+    Consumer<RoutingResponse> onResponse
+  ) {
+    LOG.debug("Request: {}, destinations: {}", request, destinations);
+    OTPRequestTimeoutException.checkForTimeout();
+    for (GenericLocation destination : destinations) {
+      var destinationRequest = request.clone();
+      destinationRequest.setTo(destination);
+      destinationRequest.validateOriginAndDestination();
+    }
+    var worker = new OneToManyRoutingWorker(serverContext, request, destinations, timeZone);
+    worker.route(response -> {
+      logResponse(response);
+      onResponse.accept(response);
+    });
+  }
+
   private void logResponse(RoutingResponse response) {
     if (response.getTripPlan().itineraries.isEmpty() && response.getRoutingErrors().isEmpty()) {
       // We should provide an error if there is no results, this is important for the client so
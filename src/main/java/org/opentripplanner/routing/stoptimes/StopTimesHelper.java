@@ -202,10 +202,9 @@ public class StopTimesHelper {
     // datesUntil is exclusive in the end, so need to add one day
     List<LocalDate> serviceDates = startDate.datesUntil(endDate.plusDays(1)).toList();
 
-    // The bounded priority Q is used to keep a sorted short list of trip times. We can not
-    // rely on the trip times to be in order because of real-time updates. This code can
-    // probably be optimized, and the trip search in the Raptor search does almost the same
-    // thing. This is no part of a routing request, but is a used frequently in some
+    // The bounded priority Q is used to keep a sorted short list of trip times. The trips are
+    // found using the departure index of each timetable, which is sorted by the real-time
+    // departure times. This is no part of a routing request, but is a used frequently in some
     // operation like Entur for "departure boards" (apps, widgets, screens on platforms, and
     // hotel lobbies). Setting the numberOfDepartures and timeRange to a big number for a
     // transit hub could result in a DOS attack, but there are probably other more effective
@@ -244,7 +243,27 @@ public class StopTimesHelper {
             continue;
           }
 
-          for (TripTimes tripTimes : timetable.getTripTimes()) {
+          var departures = timetable.getDepartureIndex().departuresAt(stopIndex);
+          int fromTime = secondsSinceMidnight;
+          int toTime = secondsSinceMidnight + timeRangeSeconds;
+
+          // Only look at the trips departing in the time range, widened by the dwell times at
+          // the stop if the arrival times are used. The trips are sorted by departure time,
+          // which is the priority of the queue, so stop when enough trips are found.
+          if (arrivalDeparture != DEPARTURES) {
+            fromTime += departures.minDwellTime();
+            toTime += departures.maxDwellTime();
+          }
+          int found = 0;
+
+          for (
+            int i = departures.findFirstDepartureAtOrAfter(fromTime);
+            i < departures.size() &&
+            departures.departureTime(i) <= toTime &&
+            found < numberOfDepartures;
+            ++i
+          ) {
+            TripTimes tripTimes = departures.tripTimes(i);
             if (!servicesRunning.contains(tripTimes.getServiceCode())) {
               continue;
             }
@@ -276,6 +295,7 @@ public class StopTimesHelper {
               pq.add(
                 new TripTimeOnDate(tripTimes, stopIndex, pattern, serviceDate, midnight.toInstant())
               );
+              ++found;
             }
           }
           // TODO Add back support for frequency entries
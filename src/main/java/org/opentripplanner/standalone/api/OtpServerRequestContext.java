@@ -12,8 +12,10 @@ import org.opentripplanner.ext.stopconsolidation.StopConsolidationService;
 import org.opentripplanner.ext.vectortiles.VectorTilesResource;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.inspector.raster.TileRendererManager;
+import org.opentripplanner.inspector.vector.VectorTileCache;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuningParameters;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.api.RoutingService;
@@ -98,6 +100,17 @@ public interface OtpServerRequestContext {
   @Nullable
   StopConsolidationService stopConsolidationService();
 
+  /**
+   * The cache of access and egress stops, shared by all requests to the server.
+   */
+  AccessEgressCache accessEgressCache();
+
+  /**
+   * The cache of encoded vector tile layers, shared by all requests to the server. The realtime
+   * updaters invalidate the realtime layers of the cache.
+   */
+  VectorTileCache vectorTileCache();
+
   MeterRegistry meterRegistry();
 
   @Nullable
@@ -21,6 +21,7 @@ import org.opentripplanner.datastore.api.OtpDataStoreConfig;
 import org.opentripplanner.ext.dataoverlay.configuration.DataOverlayConfig;
 import org.opentripplanner.ext.emissions.EmissionsConfig;
 import org.opentripplanner.ext.fares.FaresConfiguration;
+import org.opentripplanner.ext.vectortiles.VectorTilePyramidConfig;
 import org.opentripplanner.framework.geometry.CompactElevationProfile;
 import org.opentripplanner.framework.lang.ObjectUtils;
 import org.opentripplanner.graph_builder.module.ned.parameter.DemExtractParameters;
@@ -184,6 +185,8 @@ public class BuildConfig implements OtpDataStoreConfig {
 
   public final String stopConsolidationFile;
 
+  public final VectorTilePyramidConfig vectorTilePyramid;
+
   /**
    * Set all parameters from the given Jackson JSON tree, applying defaults. Supplying
    * MissingNode.getInstance() will cause all the defaults to be applied. This could be done
@@ -616,6 +619,7 @@ Netex data is also often supplied in a ZIP file.
     demDefaults = DemConfig.mapDemDefaultsConfig(root, "demDefaults");
     dem = DemConfig.mapDemConfig(root, "dem", demDefaults);
     emissions = new EmissionsConfig("emissions", root);
+    vectorTilePyramid = new VectorTilePyramidConfig("vectorTilePyramid", root);
 
     netexDefaults = NetexConfig.mapNetexDefaultParameters(root, "netexDefaults");
     gtfsDefaults = GtfsConfig.mapGtfsDefaultParameters(root, "gtfsDefaults");
@@ -2,6 +2,7 @@ package org.opentripplanner.standalone.config.sandbox;
 
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_1;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_3;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_5;
 
 import java.time.Duration;
 import org.opentripplanner.standalone.config.framework.json.NodeAdapter;
@@ -25,12 +26,14 @@ public class FlexConfig {
   private final Duration maxFlexTripDuration;
   private final Duration maxAccessWalkDuration;
   private final Duration maxEgressWalkDuration;
+  private final int streetPathCacheSize;
 
   private FlexConfig() {
     maxTransferDuration = Duration.ofMinutes(5);
     maxFlexTripDuration = Duration.ofMinutes(45);
     maxAccessWalkDuration = Duration.ofMinutes(45);
     maxEgressWalkDuration = Duration.ofMinutes(45);
+    streetPathCacheSize = 200_000;
   }
 
   public FlexConfig(NodeAdapter root, String parameterName) {
@@ -91,6 +94,21 @@ public class FlexConfig {
         )
         .description(ACCESS_EGRESS_DESCRIPTION)
         .asDuration(DEFAULT.maxEgressWalkDuration);
+
+    streetPathCacheSize =
+      json
+        .of("streetPathCacheSize")
+        .since(V2_5)
+        .summary(
+          "The maximum number of vertices in the flex car search trees shared between requests."
+        )
+        .description(
+          "The car search tree from a flex stop is the same for all requests, so it is kept " +
+          "and reused by later requests. Each vertex of a tree uses a few hundred bytes of " +
+          "memory. The least recently used trees are dropped when the limit is reached. " +
+          "0 disables the sharing, the trees are then only kept for one request."
+        )
+        .asInt(DEFAULT.streetPathCacheSize);
   }
 
   public Duration maxFlexTripDuration() {
@@ -108,4 +126,8 @@ public class FlexConfig {
   public Duration maxEgressWalkDuration() {
     return maxEgressWalkDuration;
   }
+
+  public int streetPathCacheSize() {
+    return streetPathCacheSize;
+  }
 }
@@ -160,7 +160,8 @@ public class ConstructApplication {
       realtimeVehicleRepository(),
       vehicleRentalRepository(),
       transitModel(),
-      routerConfig().updaterConfig()
+      routerConfig().updaterConfig(),
+      factory.vectorTileCache()
     );
 
     initEllipsoidToGeoidDifference();
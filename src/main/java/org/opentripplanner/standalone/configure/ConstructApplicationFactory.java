@@ -11,6 +11,7 @@ import org.opentripplanner.ext.ridehailing.configure.RideHailingServicesModule;
 import org.opentripplanner.ext.stopconsolidation.StopConsolidationRepository;
 import org.opentripplanner.ext.stopconsolidation.configure.StopConsolidationServiceModule;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
+import org.opentripplanner.inspector.vector.VectorTileCache;
 import org.opentripplanner.raptor.configure.RaptorConfig;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.graph.Graph;
@@ -75,6 +76,7 @@ public interface ConstructApplicationFactory {
 
   TransitService transitService();
   OtpServerRequestContext createServerContext();
+  VectorTileCache vectorTileCache();
 
   MetricsLogging metricsLogging();
 
@@ -3,6 +3,7 @@ package org.opentripplanner.standalone.configure;
 import dagger.Module;
 import dagger.Provides;
 import io.micrometer.core.instrument.Metrics;
+import jakarta.inject.Singleton;
 import java.util.List;
 import javax.annotation.Nullable;
 import org.opentripplanner.astar.spi.TraverseVisitor;
@@ -10,7 +11,9 @@ import org.opentripplanner.ext.emissions.EmissionsService;
 import org.opentripplanner.ext.interactivelauncher.api.LauncherRequestDecorator;
 import org.opentripplanner.ext.ridehailing.RideHailingService;
 import org.opentripplanner.ext.stopconsolidation.StopConsolidationService;
+import org.opentripplanner.inspector.vector.VectorTileCache;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.service.realtimevehicles.RealtimeVehicleService;
@@ -36,6 +39,8 @@ public class ConstructApplicationModule {
     VehicleRentalService vehicleRentalService,
     List<RideHailingService> rideHailingServices,
     @Nullable StopConsolidationService stopConsolidationService,
+    AccessEgressCache accessEgressCache,
+    VectorTileCache vectorTileCache,
     @Nullable TraverseVisitor<?, ?> traverseVisitor,
     EmissionsService emissionsService,
     LauncherRequestDecorator launcherRequestDecorator
@@ -57,10 +62,18 @@ public class ConstructApplicationModule {
       routerConfig.flexConfig(),
       rideHailingServices,
       stopConsolidationService,
+      accessEgressCache,
+      vectorTileCache,
       traverseVisitor
     );
   }
 
+  @Provides
+  @Singleton
+  VectorTileCache providesVectorTileCache(Graph graph) {
+    return new VectorTileCache(graph.getVectorTilePyramid(), graph::getRealtimeStreetVersion);
+  }
+
   @Provides
   @Nullable
   TraverseVisitor<?, ?> traverseVisitor(@Nullable GraphVisualizer graphVisualizer) {
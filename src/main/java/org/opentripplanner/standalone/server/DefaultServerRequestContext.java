@@ -10,8 +10,10 @@ import org.opentripplanner.ext.ridehailing.RideHailingService;
 import org.opentripplanner.ext.stopconsolidation.StopConsolidationService;
 import org.opentripplanner.ext.vectortiles.VectorTilesResource;
 import org.opentripplanner.inspector.raster.TileRendererManager;
+import org.opentripplanner.inspector.vector.VectorTileCache;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuningParameters;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.api.RoutingService;
@@ -47,6 +49,8 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
   private final VehicleRentalService vehicleRentalService;
   private final EmissionsService emissionsService;
   private final StopConsolidationService stopConsolidationService;
+  private final AccessEgressCache accessEgressCache;
+  private final VectorTileCache vectorTileCache;
 
   /**
    * Make sure all mutable components are copied/cloned before calling this constructor.
@@ -66,6 +70,8 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     EmissionsService emissionsService,
     List<RideHailingService> rideHailingServices,
     StopConsolidationService stopConsolidationService,
+    AccessEgressCache accessEgressCache,
+    VectorTileCache vectorTileCache,
     FlexConfig flexConfig,
     TraverseVisitor traverseVisitor
   ) {
@@ -85,6 +91,8 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     this.rideHailingServices = rideHailingServices;
     this.emissionsService = emissionsService;
     this.stopConsolidationService = stopConsolidationService;
+    this.accessEgressCache = accessEgressCache;
+    this.vectorTileCache = vectorTileCache;
   }
 
   /**
@@ -105,6 +113,8 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     FlexConfig flexConfig,
     List<RideHailingService> rideHailingServices,
     @Nullable StopConsolidationService stopConsolidationService,
+    AccessEgressCache accessEgressCache,
+    VectorTileCache vectorTileCache,
     @Nullable TraverseVisitor traverseVisitor
   ) {
     return new DefaultServerRequestContext(
@@ -122,6 +132,8 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
       emissionsService,
       rideHailingServices,
       stopConsolidationService,
+      accessEgressCache,
+      vectorTileCache,
       flexConfig,
       traverseVisitor
     );
@@ -199,6 +211,16 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     return stopConsolidationService;
   }
 
+  @Override
+  public AccessEgressCache accessEgressCache() {
+    return accessEgressCache;
+  }
+
+  @Override
+  public VectorTileCache vectorTileCache() {
+    return vectorTileCache;
+  }
+
   @Override
   public MeterRegistry meterRegistry() {
     return meterRegistry;
@@ -9,6 +9,7 @@ import org.locationtech.jts.geom.LineString;
 import org.opentripplanner.astar.spi.AStarEdge;
 import org.opentripplanner.framework.i18n.I18NString;
 import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TemporaryEdgeOverlay;
 import org.opentripplanner.street.search.state.State;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -167,8 +168,12 @@ public abstract class Edge implements AStarEdge<State, Edge, Vertex>, Serializab
     for (Edge edge : this.fromv.getIncoming()) {
       edge.removeTurnRestrictionsTo(this);
     }
-    this.fromv.removeOutgoing(this);
-    this.tov.removeIncoming(this);
+    if (isInEdgeListOfFromVertex()) {
+      this.fromv.removeOutgoing(this);
+    }
+    if (isInEdgeListOfToVertex()) {
+      this.tov.removeIncoming(this);
+    }
   }
 
   public void removeTurnRestrictionsTo(Edge origin) {}
@@ -178,10 +183,17 @@ public abstract class Edge implements AStarEdge<State, Edge, Vertex>, Serializab
    * and the list of incoming edges of the destination vertex. Once connected, the edge becomes
    * visible from other threads. This should not be done inside the constructor, otherwise the edge
    * might become reachable before being fully constructed.
+   * <p>
+   * An edge between a request scoped vertex and a vertex in the graph is only added to the edge
+   * list of the request scoped vertex, see {@link TemporaryEdgeOverlay}.
    */
   protected void connectToGraph() {
-    fromv.addOutgoing(this);
-    tov.addIncoming(this);
+    if (isInEdgeListOfFromVertex()) {
+      fromv.addOutgoing(this);
+    }
+    if (isInEdgeListOfToVertex()) {
+      tov.addIncoming(this);
+    }
   }
 
   protected static <T extends Edge> T connectToGraph(T edge) {
@@ -189,6 +201,18 @@ public abstract class Edge implements AStarEdge<State, Edge, Vertex>, Serializab
     return edge;
   }
 
+  private boolean isInEdgeListOfFromVertex() {
+    return (
+      TemporaryEdgeOverlay.isRequestScoped(fromv) || !TemporaryEdgeOverlay.isRequestScoped(tov)
+    );
+  }
+
+  private boolean isInEdgeListOfToVertex() {
+    return (
+      TemporaryEdgeOverlay.isRequestScoped(tov) || !TemporaryEdgeOverlay.isRequestScoped(fromv)
+    );
+  }
+
   /* SERIALIZATION */
 
   private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
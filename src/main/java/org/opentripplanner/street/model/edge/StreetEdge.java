@@ -32,6 +32,7 @@ import org.opentripplanner.street.model.vertex.BarrierVertex;
 import org.opentripplanner.street.model.vertex.IntersectionVertex;
 import org.opentripplanner.street.model.vertex.SplitterVertex;
 import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.search.TemporaryEdgeOverlay;
 import org.opentripplanner.street.search.TraverseMode;
 import org.opentripplanner.street.search.TraverseModeSet;
 import org.opentripplanner.street.search.state.State;
@@ -918,7 +919,12 @@ public class StreetEdge
    */
   private static void copyRestrictionsToSplitEdges(StreetEdge edge, SplitStreetEdge splitEdges) {
     // Copy turn restriction which have a .to of this edge (present on the incoming edges of fromv)
-    if (splitEdges.head() != null) {
+    // The edges in the graph are not changed for a request scoped split, the restrictions already
+    // apply to the split edge, because it is equivalent to this edge.
+    if (
+      splitEdges.head() != null &&
+      !TemporaryEdgeOverlay.isRequestScoped(splitEdges.head().getToVertex())
+    ) {
       edge
         .getFromVertex()
         .getIncoming()
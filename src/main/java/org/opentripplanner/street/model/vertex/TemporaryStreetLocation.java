@@ -51,4 +51,9 @@ public final class TemporaryStreetLocation extends StreetLocation implements Tem
   public boolean isEndVertex() {
     return endVertex;
   }
+
+  @Override
+  public boolean isRequestScoped() {
+    return true;
+  }
 }
@@ -23,4 +23,14 @@ public interface TemporaryVertex {
   }
 
   boolean isEndVertex();
+
+  /**
+   * Return {@code true} if this vertex is only used by one routing request. The edges between a
+   * request scoped vertex and the vertices in the graph are not added to the vertices in the graph
+   * if the {@link org.opentripplanner.framework.application.OTPFeature#TemporaryEdgeOverlay}
+   * feature is on, see {@link org.opentripplanner.street.search.TemporaryEdgeOverlay}.
+   */
+  default boolean isRequestScoped() {
+    return false;
+  }
 }
@@ -2,12 +2,16 @@ package org.opentripplanner.street.search;
 
 import java.time.Duration;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import javax.annotation.Nonnull;
 import org.opentripplanner.astar.AStarBuilder;
 import org.opentripplanner.astar.spi.DominanceFunction;
 import org.opentripplanner.astar.spi.RemainingWeightHeuristic;
 import org.opentripplanner.ext.dataoverlay.routing.DataOverlayContext;
+import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.preference.StreetPreferences;
 import org.opentripplanner.routing.api.request.request.StreetRequest;
@@ -26,6 +30,7 @@ public class StreetSearchBuilder extends AStarBuilder<State, Edge, Vertex, Stree
   private StreetRequest streetRequest = new StreetRequest();
   private IntersectionTraversalCalculator intersectionTraversalCalculator;
   private DataOverlayContext dataOverlayContext;
+  private Collection<Vertex> temporaryVertices = List.of();
 
   public static StreetSearchBuilder of() {
     return new StreetSearchBuilder();
@@ -53,6 +58,18 @@ public class StreetSearchBuilder extends AStarBuilder<State, Edge, Vertex, Stree
     return this;
   }
 
+  /**
+   * The temporary vertices of the request. With the {@link OTPFeature#TemporaryEdgeOverlay}
+   * feature the temporary edges connected to these vertices are traversed by the search, in
+   * addition to the temporary edges connected to the origin and destination. This is needed for a
+   * one-to-many search from a vertex in the graph, which should reach the temporary vertices of
+   * the request.
+   */
+  public StreetSearchBuilder setTemporaryVertices(Collection<Vertex> temporaryVertices) {
+    this.temporaryVertices = temporaryVertices;
+    return this;
+  }
+
   public StreetSearchBuilder setIntersectionTraversalCalculator(
     IntersectionTraversalCalculator intersectionTraversalCalculator
   ) {
@@ -124,4 +141,24 @@ public class StreetSearchBuilder extends AStarBuilder<State, Edge, Vertex, Stree
   protected DominanceFunction<State> createDefaultDominanceFunction() {
     return new DominanceFunctions.Pareto();
   }
+
+  @Override
+  protected Map<Vertex, List<Edge>> createEdgeOverlay(
+    Collection<State> initialStates,
+    Set<Vertex> destination,
+    boolean arriveBy
+  ) {
+    if (OTPFeature.TemporaryEdgeOverlay.isOff()) {
+      return Map.of();
+    }
+    Set<Vertex> vertices = new HashSet<>();
+    for (State state : initialStates) {
+      vertices.add(state.getVertex());
+    }
+    if (destination != null) {
+      vertices.addAll(destination);
+    }
+    vertices.addAll(temporaryVertices);
+    return TemporaryEdgeOverlay.create(vertices, arriveBy);
+  }
 }
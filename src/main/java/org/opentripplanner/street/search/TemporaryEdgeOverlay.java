@@ -0,0 +1,86 @@
+package org.opentripplanner.street.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.TemporaryVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+/**
+ * The temporary vertices and edges of a routing request link the origin and destination to the
+ * street graph. With the {@link OTPFeature#TemporaryEdgeOverlay} feature turned on, an edge
+ * between a request scoped vertex and a vertex in the graph is only added to the edge list of the
+ * request scoped vertex, see {@link TemporaryVertex#isRequestScoped()}. The graph is not changed
+ * by the request, so requests do not see each other's temporary edges, and they do not contend
+ * for the locks of popular vertices.
+ * <p>
+ * The search still needs to traverse these edges from the vertex in the graph, for example from
+ * the street into the split street edge leading to the destination. This class finds these edges
+ * by walking the temporary part of the graph from the origin and destination vertices of the
+ * search, and indexes them by the graph vertex the search reaches them from.
+ */
+public class TemporaryEdgeOverlay {
+
+  private TemporaryEdgeOverlay() {}
+
+  /**
+   * Return the edges between the request scoped vertices connected to the given vertices and the
+   * vertices in the graph, by the graph vertex. If the search is arrive-by the edges going from the
+   * request scoped vertices are returned, indexed by their to-vertex. If not, the edges going to
+   * the request scoped vertices are returned, indexed by their from-vertex.
+   */
+  public static Map<Vertex, List<Edge>> create(Collection<Vertex> vertices, boolean arriveBy) {
+    Map<Vertex, List<Edge>> result = new HashMap<>();
+    Set<Vertex> visited = new HashSet<>();
+    var queue = new ArrayDeque<Vertex>();
+
+    for (Vertex it : vertices) {
+      if (isRequestScoped(it) && visited.add(it)) {
+        queue.add(it);
+      }
+    }
+    while (!queue.isEmpty()) {
+      Vertex vertex = queue.poll();
+      for (Edge edge : vertex.getIncoming()) {
+        Vertex from = edge.getFromVertex();
+        if (isRequestScoped(from)) {
+          if (visited.add(from)) {
+            queue.add(from);
+          }
+        } else if (!arriveBy) {
+          result.computeIfAbsent(from, v -> new ArrayList<>()).add(edge);
+        }
+      }
+      for (Edge edge : vertex.getOutgoing()) {
+        Vertex to = edge.getToVertex();
+        if (isRequestScoped(to)) {
+          if (visited.add(to)) {
+            queue.add(to);
+          }
+        } else if (arriveBy) {
+          result.computeIfAbsent(to, v -> new ArrayList<>()).add(edge);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Return {@code true} if edges between the given vertex and the vertices in the graph are only
+   * added to the edge lists of the given vertex.
+   */
+  public static boolean isRequestScoped(Vertex vertex) {
+    return (
+      OTPFeature.TemporaryEdgeOverlay.isOn() &&
+      vertex instanceof TemporaryVertex temporaryVertex &&
+      temporaryVertex.isRequestScoped()
+    );
+  }
+}
@@ -80,6 +80,21 @@ public class TemporaryVerticesContainer implements AutoCloseable {
     return toVertices;
   }
 
+  /**
+   * The from- and to-vertices. All temporary vertices and edges of the request are connected to
+   * one of these.
+   */
+  public Set<Vertex> getFromAndToVertices() {
+    Set<Vertex> result = new HashSet<>();
+    if (fromVertices != null) {
+      result.addAll(fromVertices);
+    }
+    if (toVertices != null) {
+      result.addAll(toVertices);
+    }
+    return result;
+  }
+
   /* PRIVATE METHODS */
 
   private void checkIfVerticesFound() {
@@ -0,0 +1,406 @@
+package org.opentripplanner.street.search.ch;
+
+import gnu.trove.impl.Constants;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.TIntIntMap;
+import gnu.trove.map.TObjectIntMap;
+import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.opentripplanner.framework.collection.LongMinHeap;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.routing.api.request.preference.BikePreferences;
+import org.opentripplanner.routing.api.request.preference.WalkPreferences;
+import org.opentripplanner.routing.graph.index.CompactStreetGraph;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.edge.TemporaryFreeEdge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+
+/**
+ * A contraction hierarchy over the street graph for one traverse mode. The hierarchy is built
+ * from a static cost model: the travel time at the car speed of each street for CAR, and the
+ * length multiplied by the safety factor at the default speed for BICYCLE and WALK. Request
+ * preferences like reluctance, turn costs and turn restrictions are not part of it, so the path
+ * found is the best path according to the static cost, not the request cost. The caller must
+ * traverse the returned edges with the request to get the real cost - and fall back to a normal
+ * search if that fails.
+ * <p>
+ * The hierarchy keeps references to the graph vertices and edges, not to the indexes of a
+ * {@link CompactStreetGraph}, so it can be serialized with the graph.
+ * <p>
+ * THIS CLASS IS IMMUTABLE AND THREAD-SAFE.
+ */
+public class ContractionHierarchy implements Serializable {
+
+  /**
+   * The origin and destination are usually temporary vertices, which are not part of the
+   * hierarchy. Search at most this number of vertices around them to find the hierarchy nodes to
+   * start the search from.
+   */
+  private static final int MAX_ACCESS_VERTICES = 100;
+
+  private static final int NONE = -1;
+
+  private final TraverseMode mode;
+  private final Vertex[] vertices;
+
+  private final int[] arcFrom;
+  private final int[] arcTo;
+  private final int[] arcWeight;
+  /** The two arcs a shortcut replaces, or -1 if the arc is an original edge. */
+  private final int[] arcChild1;
+  private final int[] arcChild2;
+  /** The original edge of each arc, {@code null} for shortcuts. */
+  private final Edge[] arcEdges;
+
+  /** Arcs to nodes with a higher rank, indexed by the from-node. */
+  private final int[] upOffsets;
+  private final int[] upArcs;
+  /** Arcs from nodes with a higher rank, indexed by the to-node. */
+  private final int[] downOffsets;
+  private final int[] downArcs;
+
+  private transient volatile TObjectIntMap<Vertex> vertexIndex;
+
+  ContractionHierarchy(
+    TraverseMode mode,
+    Vertex[] vertices,
+    int[] arcFrom,
+    int[] arcTo,
+    int[] arcWeight,
+    int[] arcChild1,
+    int[] arcChild2,
+    Edge[] arcEdges,
+    int[] upOffsets,
+    int[] upArcs,
+    int[] downOffsets,
+    int[] downArcs
+  ) {
+    this.mode = mode;
+    this.vertices = vertices;
+    this.arcFrom = arcFrom;
+    this.arcTo = arcTo;
+    this.arcWeight = arcWeight;
+    this.arcChild1 = arcChild1;
+    this.arcChild2 = arcChild2;
+    this.arcEdges = arcEdges;
+    this.upOffsets = upOffsets;
+    this.upArcs = upArcs;
+    this.downOffsets = downOffsets;
+    this.downArcs = downArcs;
+  }
+
+  /**
+   * Build a contraction hierarchy for the given mode. This is slow, do it during graph build.
+   *
+   * @param mode CAR, BICYCLE or WALK
+   */
+  public static ContractionHierarchy build(CompactStreetGraph graph, TraverseMode mode) {
+    if (mode != TraverseMode.CAR && mode != TraverseMode.BICYCLE && mode != TraverseMode.WALK) {
+      throw new IllegalArgumentException("Mode not supported: " + mode);
+    }
+    return new ContractionHierarchyBuilder(graph, mode).build();
+  }
+
+  public TraverseMode mode() {
+    return mode;
+  }
+
+  public int numberOfNodes() {
+    return vertices.length;
+  }
+
+  public int numberOfArcs() {
+    return arcFrom.length;
+  }
+
+  /**
+   * Find the path with the lowest static cost from any of the origin vertices to any of the
+   * destination vertices. Return {@code null} if no path is found, or if the origin and
+   * destination are connected without going through the hierarchy (e.g. both are on the same
+   * street) - use a normal search in these cases.
+   */
+  @Nullable
+  public List<Edge> findPath(Set<Vertex> from, Set<Vertex> to) {
+    var sources = findAccess(from, to, true);
+    var targets = findAccess(to, from, false);
+    if (sources == null || targets == null || sources.isEmpty() || targets.isEmpty()) {
+      return null;
+    }
+
+    var forward = new Search(true);
+    var backward = new Search(false);
+    sources.forEach((node, access) -> forward.add(node, access.weight, NONE));
+    targets.forEach((node, access) -> backward.add(node, access.weight, NONE));
+
+    int best = Integer.MAX_VALUE;
+    int meetingNode = NONE;
+
+    while (!forward.queue.isEmpty() || !backward.queue.isEmpty()) {
+      var search = backward.queue.isEmpty() ||
+        (!forward.queue.isEmpty() && forward.queue.peek() <= backward.queue.peek())
+        ? forward
+        : backward;
+      var other = search == forward ? backward : forward;
+
+      long next = search.queue.extractMin();
+      int d = LongMinHeap.key(next);
+      int v = LongMinHeap.index(next);
+
+      // Nothing better can be found in this direction
+      if (d >= best) {
+        search.queue.clear();
+        continue;
+      }
+      if (d > search.distance(v)) {
+        continue;
+      }
+      int otherDistance = other.distance(v);
+      if (otherDistance != Integer.MAX_VALUE && d + otherDistance < best) {
+        best = d + otherDistance;
+        meetingNode = v;
+      }
+      search.relaxArcs(v, d);
+    }
+
+    if (meetingNode == NONE) {
+      return null;
+    }
+
+    var path = new ArrayList<Edge>();
+    int source = meetingNode;
+    var upArcsOnPath = new TIntArrayList();
+    for (int a = forward.arc(source); a != NONE; a = forward.arc(source)) {
+      upArcsOnPath.add(a);
+      source = arcFrom[a];
+    }
+    path.addAll(sources.get(source).edges);
+    for (int i = upArcsOnPath.size() - 1; i >= 0; --i) {
+      unpack(upArcsOnPath.get(i), path);
+    }
+    int target = meetingNode;
+    for (int a = backward.arc(target); a != NONE; a = backward.arc(target)) {
+      unpack(a, path);
+      target = arcTo[a];
+    }
+    path.addAll(targets.get(target).edges);
+    return path;
+  }
+
+  /**
+   * The static weight in milliseconds of traversing a street with the given mode, or -1 if the
+   * street can not be traversed.
+   */
+  static int weightMs(
+    TraverseMode mode,
+    StreetTraversalPermission permission,
+    int lengthMm,
+    float carSpeed,
+    float bicycleSafetyFactor,
+    float walkSafetyFactor
+  ) {
+    if (!permission.allows(mode)) {
+      return -1;
+    }
+    // The length in millimeters divided by a speed in meters per second is milliseconds
+    double ms =
+      switch (mode) {
+        case CAR -> carSpeed > 0f ? lengthMm / carSpeed : -1.0;
+        case BICYCLE -> lengthMm * bicycleSafetyFactor / BikePreferences.DEFAULT.speed();
+        case WALK -> lengthMm * walkSafetyFactor / WalkPreferences.DEFAULT.speed();
+        default -> -1.0;
+      };
+    return ms < 0.0 ? -1 : (int) Math.round(ms);
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(ContractionHierarchy.class)
+      .addEnum("mode", mode)
+      .addNum("nodes", numberOfNodes())
+      .addNum("arcs", numberOfArcs())
+      .toString();
+  }
+
+  private int weightMs(Edge edge) {
+    if (edge instanceof TemporaryFreeEdge) {
+      return 0;
+    }
+    if (edge instanceof StreetEdge street) {
+      return weightMs(
+        mode,
+        street.getPermission(),
+        (int) Math.round(street.getDistanceMeters() * 1000.0),
+        street.getCarSpeed(),
+        street.getBicycleSafetyFactor(),
+        street.getWalkSafetyFactor()
+      );
+    }
+    return -1;
+  }
+
+  /**
+   * Search from the given vertices, following the edges of the graph, until the hierarchy nodes
+   * are reached. Return the best access path for each node reached, or {@code null} if one of
+   * the {@code others} vertices is reached on the way.
+   */
+  @Nullable
+  private Map<Integer, Access> findAccess(
+    Collection<Vertex> start,
+    Set<Vertex> others,
+    boolean forward
+  ) {
+    var index = vertexIndex();
+    var result = new HashMap<Integer, Access>();
+    var queue = new PriorityQueue<Access>((a, b) -> Integer.compare(a.weight, b.weight));
+    var visited = new HashMap<Vertex, Integer>();
+
+    for (Vertex v : start) {
+      queue.add(new Access(v, 0, List.of()));
+    }
+
+    while (!queue.isEmpty() && visited.size() < MAX_ACCESS_VERTICES) {
+      var access = queue.poll();
+      if (visited.putIfAbsent(access.vertex, access.weight) != null) {
+        continue;
+      }
+      if (access.edges.size() > 0 && others.contains(access.vertex)) {
+        return null;
+      }
+      int node = index.get(access.vertex);
+      if (node != NONE) {
+        result.putIfAbsent(node, access);
+        continue;
+      }
+      var edges = forward ? access.vertex.getOutgoing() : access.vertex.getIncoming();
+      for (Edge e : edges) {
+        int weight = weightMs(e);
+        if (weight < 0) {
+          continue;
+        }
+        var next = forward ? e.getToVertex() : e.getFromVertex();
+        if (!visited.containsKey(next)) {
+          queue.add(new Access(next, access.weight + weight, access.append(e, forward)));
+        }
+      }
+    }
+    return result;
+  }
+
+  /** Expand the given arc into the original edges and add them to the path. */
+  private void unpack(int arc, List<Edge> path) {
+    var stack = new TIntArrayList();
+    stack.add(arc);
+    while (!stack.isEmpty()) {
+      int a = stack.removeAt(stack.size() - 1);
+      if (arcEdges[a] != null) {
+        path.add(arcEdges[a]);
+      } else {
+        stack.add(arcChild2[a]);
+        stack.add(arcChild1[a]);
+      }
+    }
+  }
+
+  private TObjectIntMap<Vertex> vertexIndex() {
+    var index = vertexIndex;
+    if (index == null) {
+      synchronized (this) {
+        index = vertexIndex;
+        if (index == null) {
+          index = new TObjectIntHashMap<>(vertices.length, 0.5f, NONE);
+          for (int v = 0; v < vertices.length; ++v) {
+            index.put(vertices[v], v);
+          }
+          vertexIndex = index;
+        }
+      }
+    }
+    return index;
+  }
+
+  /**
+   * A path from (or to) a vertex outside the hierarchy, the edges are in travel order.
+   */
+  private record Access(Vertex vertex, int weight, List<Edge> edges) {
+    List<Edge> append(Edge edge, boolean forward) {
+      var result = new ArrayList<Edge>(edges.size() + 1);
+      if (forward) {
+        result.addAll(edges);
+        result.add(edge);
+      } else {
+        result.add(edge);
+        result.addAll(edges);
+      }
+      return result;
+    }
+  }
+
+  /**
+   * One direction of the bidirectional search. The forward search follows the arcs up from the
+   * origin, the backward search follows the arcs up from the destination in reverse.
+   */
+  private class Search {
+
+    private final boolean forward;
+    private final TIntIntMap distance = new TIntIntHashMap(
+      Constants.DEFAULT_CAPACITY,
+      Constants.DEFAULT_LOAD_FACTOR,
+      NONE,
+      Integer.MAX_VALUE
+    );
+    private final TIntIntMap arc = new TIntIntHashMap(
+      Constants.DEFAULT_CAPACITY,
+      Constants.DEFAULT_LOAD_FACTOR,
+      NONE,
+      NONE
+    );
+    private final LongMinHeap queue = new LongMinHeap();
+
+    Search(boolean forward) {
+      this.forward = forward;
+    }
+
+    int distance(int node) {
+      return distance.get(node);
+    }
+
+    int arc(int node) {
+      return arc.get(node);
+    }
+
+    void add(int node, int d, int viaArc) {
+      if (d < distance.get(node)) {
+        distance.put(node, d);
+        arc.put(node, viaArc);
+        queue.insert(LongMinHeap.pack(d, node));
+      }
+    }
+
+    void relaxArcs(int v, int d) {
+      if (forward) {
+        for (int i = upOffsets[v]; i < upOffsets[v + 1]; ++i) {
+          int a = upArcs[i];
+          add(arcTo[a], d + arcWeight[a], a);
+        }
+      } else {
+        for (int i = downOffsets[v]; i < downOffsets[v + 1]; ++i) {
+          int a = downArcs[i];
+          add(arcFrom[a], d + arcWeight[a], a);
+        }
+      }
+    }
+  }
+}
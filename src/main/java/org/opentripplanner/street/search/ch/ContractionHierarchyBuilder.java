@@ -0,0 +1,349 @@
+package org.opentripplanner.street.search.ch;
+
+import gnu.trove.list.array.TIntArrayList;
+import java.util.Arrays;
+import org.opentripplanner.framework.collection.LongMinHeap;
+import org.opentripplanner.framework.logging.ProgressTracker;
+import org.opentripplanner.routing.graph.index.CompactStreetGraph;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Contract the nodes of a street graph one by one and add the shortcuts needed to keep the
+ * shortest paths between the remaining nodes. The nodes are ordered by a lazily updated priority:
+ * the edge difference (shortcuts added minus arcs removed) plus the number of contracted
+ * neighbours, which spreads the contraction evenly over the graph.
+ * <p>
+ * The witness search used to decide if a shortcut is needed is limited, so some unnecessary
+ * shortcuts may be added. This does not affect the correctness of the queries, only the size of
+ * the hierarchy.
+ */
+class ContractionHierarchyBuilder {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ContractionHierarchyBuilder.class);
+
+  /** Stop the witness search after settling this many nodes. */
+  private static final int WITNESS_SEARCH_MAX_SETTLED = 500;
+
+  /** Added to the priority, so it is never negative when packed into the heap. */
+  private static final int PRIORITY_OFFSET = 1 << 20;
+
+  private final CompactStreetGraph graph;
+  private final TraverseMode mode;
+  private final int nNodes;
+
+  private final TIntArrayList arcFrom = new TIntArrayList();
+  private final TIntArrayList arcTo = new TIntArrayList();
+  private final TIntArrayList arcWeight = new TIntArrayList();
+  private final TIntArrayList arcEdge = new TIntArrayList();
+  private final TIntArrayList arcChild1 = new TIntArrayList();
+  private final TIntArrayList arcChild2 = new TIntArrayList();
+
+  private final TIntArrayList[] outArcs;
+  private final TIntArrayList[] inArcs;
+  private final boolean[] contracted;
+  private final int[] contractedNeighbours;
+  private final int[] rank;
+
+  // Witness search working data, reset after each search
+  private final int[] witnessDistance;
+  private final TIntArrayList witnessReached = new TIntArrayList();
+  private final LongMinHeap witnessQueue = new LongMinHeap();
+
+  ContractionHierarchyBuilder(CompactStreetGraph graph, TraverseMode mode) {
+    this.graph = graph;
+    this.mode = mode;
+    this.nNodes = graph.numberOfVertices();
+    this.outArcs = new TIntArrayList[nNodes];
+    this.inArcs = new TIntArrayList[nNodes];
+    this.contracted = new boolean[nNodes];
+    this.contractedNeighbours = new int[nNodes];
+    this.rank = new int[nNodes];
+    this.witnessDistance = new int[nNodes];
+    Arrays.fill(witnessDistance, Integer.MAX_VALUE);
+
+    for (int v = 0; v < nNodes; ++v) {
+      outArcs[v] = new TIntArrayList(4);
+      inArcs[v] = new TIntArrayList(4);
+    }
+  }
+
+  ContractionHierarchy build() {
+    LOG.info("Create contraction hierarchy for {}...", mode);
+    addOriginalArcs();
+    contractAll();
+    LOG.info(
+      "Contraction hierarchy for {} done: {} nodes, {} arcs({} shortcuts)",
+      mode,
+      nNodes,
+      arcFrom.size(),
+      arcFrom.size() - numberOfOriginalArcs()
+    );
+    return createHierarchy();
+  }
+
+  private void addOriginalArcs() {
+    for (int e = 0; e < graph.numberOfEdges(); ++e) {
+      int from = graph.fromVertex(e);
+      int to = graph.toVertex(e);
+      if (from == to || !graph.hasFlag(e, CompactStreetGraph.FLAG_STREET)) {
+        continue;
+      }
+      int weight = ContractionHierarchy.weightMs(
+        mode,
+        graph.permission(e),
+        graph.lengthMm(e),
+        graph.carSpeed(e),
+        graph.bicycleSafetyFactor(e),
+        graph.walkSafetyFactor(e)
+      );
+      if (weight >= 0) {
+        addArc(from, to, weight, e, -1, -1);
+      }
+    }
+  }
+
+  private void contractAll() {
+    var queue = new LongMinHeap();
+    for (int v = 0; v < nNodes; ++v) {
+      queue.insert(LongMinHeap.pack(priority(v), v));
+    }
+
+    var progress = ProgressTracker.track("Contract " + mode + " nodes", 100_000, nNodes);
+    int nextRank = 0;
+
+    while (!queue.isEmpty()) {
+      int v = LongMinHeap.index(queue.extractMin());
+
+      // Lazy update, the priority may have changed since the node was inserted
+      if (!queue.isEmpty()) {
+        long updated = LongMinHeap.pack(priority(v), v);
+        if (updated > queue.peek()) {
+          queue.insert(updated);
+          continue;
+        }
+      }
+      contract(v);
+      rank[v] = nextRank++;
+
+      //noinspection Convert2MethodRef
+      progress.step(m -> LOG.info(m));
+    }
+    LOG.info(progress.completeMessage());
+  }
+
+  private int priority(int v) {
+    int removedArcs = 0;
+    for (int i = 0; i < inArcs[v].size(); ++i) {
+      removedArcs += contracted[arcFrom.get(inArcs[v].get(i))] ? 0 : 1;
+    }
+    for (int i = 0; i < outArcs[v].size(); ++i) {
+      removedArcs += contracted[arcTo.get(outArcs[v].get(i))] ? 0 : 1;
+    }
+    int shortcuts = findShortcuts(v, false);
+    return PRIORITY_OFFSET + shortcuts - removedArcs + contractedNeighbours[v];
+  }
+
+  private void contract(int v) {
+    findShortcuts(v, true);
+    contracted[v] = true;
+
+    for (int i = 0; i < inArcs[v].size(); ++i) {
+      ++contractedNeighbours[arcFrom.get(inArcs[v].get(i))];
+    }
+    for (int i = 0; i < outArcs[v].size(); ++i) {
+      ++contractedNeighbours[arcTo.get(outArcs[v].get(i))];
+    }
+  }
+
+  /**
+   * Find the shortcuts needed to contract the given node, and add them if {@code add} is true.
+   * Return the number of shortcuts.
+   */
+  private int findShortcuts(int v, boolean add) {
+    int count = 0;
+    var in = inArcs[v];
+    var out = outArcs[v];
+
+    for (int i = 0; i < in.size(); ++i) {
+      int inArc = in.get(i);
+      int u = arcFrom.get(inArc);
+      if (contracted[u]) {
+        continue;
+      }
+      int inWeight = arcWeight.get(inArc);
+
+      int maxWeight = -1;
+      for (int j = 0; j < out.size(); ++j) {
+        int w = arcTo.get(out.get(j));
+        if (!contracted[w] && w != u) {
+          maxWeight = Math.max(maxWeight, inWeight + arcWeight.get(out.get(j)));
+        }
+      }
+      if (maxWeight < 0) {
+        continue;
+      }
+
+      witnessSearch(u, v, maxWeight);
+
+      for (int j = 0; j < out.size(); ++j) {
+        int outArc = out.get(j);
+        int w = arcTo.get(outArc);
+        if (contracted[w] || w == u) {
+          continue;
+        }
+        int weight = inWeight + arcWeight.get(outArc);
+        if (witnessDistance[w] > weight) {
+          ++count;
+          if (add) {
+            addArc(u, w, weight, -1, inArc, outArc);
+            // Do not add another shortcut to w if there are parallel arcs from v to w
+            if (witnessDistance[w] == Integer.MAX_VALUE) {
+              witnessReached.add(w);
+            }
+            witnessDistance[w] = weight;
+          }
+        }
+      }
+      clearWitnessSearch();
+    }
+    return count;
+  }
+
+  /**
+   * Find the shortest paths from the source to the other nodes not going via the node that is
+   * contracted.
+   */
+  private void witnessSearch(int source, int excluded, int maxWeight) {
+    relaxWitness(source, 0);
+    int settled = 0;
+
+    while (!witnessQueue.isEmpty() && settled < WITNESS_SEARCH_MAX_SETTLED) {
+      long next = witnessQueue.extractMin();
+      int d = LongMinHeap.key(next);
+      int x = LongMinHeap.index(next);
+
+      if (d > maxWeight) {
+        break;
+      }
+      if (d > witnessDistance[x]) {
+        continue;
+      }
+      ++settled;
+
+      var out = outArcs[x];
+      for (int i = 0; i < out.size(); ++i) {
+        int arc = out.get(i);
+        int y = arcTo.get(arc);
+        if (y != excluded && !contracted[y]) {
+          relaxWitness(y, d + arcWeight.get(arc));
+        }
+      }
+    }
+  }
+
+  private void relaxWitness(int v, int d) {
+    if (d < witnessDistance[v]) {
+      if (witnessDistance[v] == Integer.MAX_VALUE) {
+        witnessReached.add(v);
+      }
+      witnessDistance[v] = d;
+      witnessQueue.insert(LongMinHeap.pack(d, v));
+    }
+  }
+
+  private void clearWitnessSearch() {
+    for (int i = 0; i < witnessReached.size(); ++i) {
+      witnessDistance[witnessReached.get(i)] = Integer.MAX_VALUE;
+    }
+    witnessReached.resetQuick();
+    witnessQueue.clear();
+  }
+
+  private void addArc(int from, int to, int weight, int edge, int child1, int child2) {
+    int arc = arcFrom.size();
+    arcFrom.add(from);
+    arcTo.add(to);
+    arcWeight.add(weight);
+    arcEdge.add(edge);
+    arcChild1.add(child1);
+    arcChild2.add(child2);
+    outArcs[from].add(arc);
+    inArcs[to].add(arc);
+  }
+
+  private int numberOfOriginalArcs() {
+    int n = 0;
+    for (int i = 0; i < arcEdge.size(); ++i) {
+      n += arcEdge.get(i) < 0 ? 0 : 1;
+    }
+    return n;
+  }
+
+  /**
+   * Split the arcs into the upward graph, used by the forward search, and the downward graph,
+   * used by the backward search. Both are stored in CSR format.
+   */
+  private ContractionHierarchy createHierarchy() {
+    int nArcs = arcFrom.size();
+    int[] upOffsets = new int[nNodes + 1];
+    int[] downOffsets = new int[nNodes + 1];
+
+    for (int a = 0; a < nArcs; ++a) {
+      int from = arcFrom.get(a);
+      int to = arcTo.get(a);
+      if (rank[from] < rank[to]) {
+        ++upOffsets[from + 1];
+      } else {
+        ++downOffsets[to + 1];
+      }
+    }
+    for (int v = 0; v < nNodes; ++v) {
+      upOffsets[v + 1] += upOffsets[v];
+      downOffsets[v + 1] += downOffsets[v];
+    }
+
+    int[] upArcs = new int[upOffsets[nNodes]];
+    int[] downArcs = new int[downOffsets[nNodes]];
+    int[] upNext = Arrays.copyOf(upOffsets, nNodes);
+    int[] downNext = Arrays.copyOf(downOffsets, nNodes);
+
+    for (int a = 0; a < nArcs; ++a) {
+      int from = arcFrom.get(a);
+      int to = arcTo.get(a);
+      if (rank[from] < rank[to]) {
+        upArcs[upNext[from]++] = a;
+      } else {
+        downArcs[downNext[to]++] = a;
+      }
+    }
+
+    var vertices = new Vertex[nNodes];
+    for (int v = 0; v < nNodes; ++v) {
+      vertices[v] = graph.vertex(v);
+    }
+    var edges = new Edge[nArcs];
+    for (int a = 0; a < nArcs; ++a) {
+      int e = arcEdge.get(a);
+      edges[a] = e < 0 ? null : graph.edge(e);
+    }
+
+    return new ContractionHierarchy(
+      mode,
+      vertices,
+      arcFrom.toArray(),
+      arcTo.toArray(),
+      arcWeight.toArray(),
+      arcChild1.toArray(),
+      arcChild2.toArray(),
+      edges,
+      upOffsets,
+      upArcs,
+      downOffsets,
+      downArcs
+    );
+  }
+}
@@ -0,0 +1,280 @@
+package org.opentripplanner.street.search.landmark;
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.TObjectIntMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+import java.io.Serializable;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.routing.graph.index.CompactStreetGraph;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+import org.opentripplanner.street.search.matrix.StreetDistanceMatrix;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The shortest distances between a few landmark vertices and all other vertices in the street
+ * graph. They are used to compute a lower bound for the distance between any two vertices with
+ * the triangle inequality, this is the ALT (A*, Landmarks and Triangle inequality) algorithm:
+ * <pre>
+ *   d(a, b) >= d(L, b) - d(L, a)
+ *   d(a, b) >= d(a, L) - d(b, L)
+ * </pre>
+ * The distances are over the streets where driving is allowed. Non-street edges, like links, have
+ * zero length. The distances are stored in decimeters, and the length of each edge is rounded
+ * down, so a bound is never longer than the real distance.
+ * <p>
+ * Only the car distances are kept, since the traversal time of walking and cycling uses the
+ * effective distance of an edge. With elevation data that is shorter than the length on downhill
+ * streets, so the length would not give a lower bound for the time.
+ * <p>
+ * The landmarks are chosen with the "farthest" strategy: each new landmark is the vertex furthest
+ * away from the landmarks already chosen, so they end up on the edges of the graph.
+ * <p>
+ * The table keeps references to the graph vertices, not to the indexes of a
+ * {@link CompactStreetGraph}, so they can be serialized with the graph. The table uses
+ * {@code 2 x numberOfLandmarks} integers per vertex.
+ * <p>
+ * THIS CLASS IS IMMUTABLE AND THREAD-SAFE.
+ */
+public class Landmarks implements Serializable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(Landmarks.class);
+
+  public static final int NOT_FOUND = -1;
+
+  private static final int UNREACHED = StreetDistanceMatrix.UNREACHED;
+
+  /** Avoid integer overflow in the searches, this is more than 100 000 km in decimeters. */
+  private static final int MAX_DISTANCE_DM = Integer.MAX_VALUE / 2;
+
+  /**
+   * The number of vertices to try as the start of the landmark selection, if the first one is
+   * not part of the main street network.
+   */
+  private static final int MAX_START_CANDIDATES = 10;
+
+  private final Vertex[] vertices;
+  private final Vertex[] landmarks;
+  private final DistanceTable carStreets;
+
+  private transient volatile TObjectIntMap<Vertex> vertexIndex;
+
+  private Landmarks(
+    Vertex[] vertices,
+    Vertex[] landmarks,
+    DistanceTable carStreets
+  ) {
+    this.vertices = vertices;
+    this.landmarks = landmarks;
+    this.carStreets = carStreets;
+  }
+
+  /**
+   * Choose the landmarks and compute the distance table for all vertices in the given graph.
+   */
+  public static Landmarks build(CompactStreetGraph graph, int numberOfLandmarks) {
+    LOG.info("Select {} landmarks...", numberOfLandmarks);
+    int[] landmarks = selectLandmarks(graph, numberOfLandmarks);
+
+    LOG.info("Compute landmark distances for {} vertices...", graph.numberOfVertices());
+    var carStreets = DistanceTable.compute(
+      graph,
+      landmarks,
+      e -> lengthDm(graph, e, TraverseMode.CAR)
+    );
+
+    var vertices = new Vertex[graph.numberOfVertices()];
+    for (int v = 0; v < vertices.length; ++v) {
+      vertices[v] = graph.vertex(v);
+    }
+    var landmarkVertices = new Vertex[landmarks.length];
+    for (int i = 0; i < landmarks.length; ++i) {
+      landmarkVertices[i] = graph.vertex(landmarks[i]);
+    }
+    var result = new Landmarks(vertices, landmarkVertices, carStreets);
+    LOG.info("Landmark distances done: {}", result);
+    return result;
+  }
+
+  /** Return the index of the given vertex in the table, or {@link #NOT_FOUND}. */
+  public int vertexIndex(Vertex vertex) {
+    return vertexIndex().get(vertex);
+  }
+
+  public int numberOfLandmarks() {
+    return landmarks.length;
+  }
+
+  /**
+   * Return a lower bound for the distance in meters driving from one vertex to another, both
+   * given by their index in the table. The bound is only valid for searches driving all the way.
+   */
+  public double lowerBoundMeters(int from, int to) {
+    var table = carStreets;
+    int k = landmarks.length;
+    int fromOffset = from * k;
+    int toOffset = to * k;
+    int bestDm = 0;
+
+    for (int l = 0; l < k; ++l) {
+      int landmarkToFrom = table.fromLandmark[fromOffset + l];
+      int landmarkToTo = table.fromLandmark[toOffset + l];
+      if (landmarkToFrom != UNREACHED && landmarkToTo != UNREACHED) {
+        bestDm = Math.max(bestDm, landmarkToTo - landmarkToFrom);
+      }
+      int fromToLandmark = table.toLandmark[fromOffset + l];
+      int toToLandmark = table.toLandmark[toOffset + l];
+      if (fromToLandmark != UNREACHED && toToLandmark != UNREACHED) {
+        bestDm = Math.max(bestDm, fromToLandmark - toToLandmark);
+      }
+    }
+    return bestDm / 10.0;
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(Landmarks.class)
+      .addNum("vertices", vertices.length)
+      .addNum("landmarks", landmarks.length)
+      .toString();
+  }
+
+  /**
+   * The length of the edge in decimeters, rounded down. Non-street edges have zero length, and
+   * the streets where the given mode is not allowed are not traversable.
+   */
+  private static int lengthDm(CompactStreetGraph graph, int e, TraverseMode mode) {
+    if (!graph.hasFlag(e, CompactStreetGraph.FLAG_STREET)) {
+      return 0;
+    }
+    if (mode != null && !graph.allows(e, mode)) {
+      return StreetDistanceMatrix.NOT_TRAVERSABLE;
+    }
+    return graph.lengthMm(e) / 100;
+  }
+
+  private static int[] selectLandmarks(CompactStreetGraph graph, int numberOfLandmarks) {
+    int nVertices = graph.numberOfVertices();
+    if (nVertices == 0) {
+      return new int[0];
+    }
+    var search = new StreetDistanceMatrix(graph, false, e -> lengthDm(graph, e, null))
+      .newSearch();
+
+    // Find a start vertex in the main street network, a vertex in a small island would only give
+    // landmarks in the same island
+    int start = 0;
+    int maxReached = 0;
+    for (int i = 0; i < MAX_START_CANDIDATES; ++i) {
+      int candidate = (int) ((long) i * nVertices / MAX_START_CANDIDATES);
+      search.run(candidate, MAX_DISTANCE_DM);
+      if (search.numberOfReachedVertices() > maxReached) {
+        start = candidate;
+        maxReached = search.numberOfReachedVertices();
+      }
+      if (2 * maxReached > nVertices) {
+        break;
+      }
+    }
+
+    search.run(start, MAX_DISTANCE_DM);
+    var selected = new TIntArrayList();
+    int next = farthest(search);
+
+    while (selected.size() < numberOfLandmarks && next != NOT_FOUND) {
+      selected.add(next);
+      search.run(selected.toArray(), new int[selected.size()], MAX_DISTANCE_DM);
+      next = farthest(search);
+    }
+    return selected.toArray();
+  }
+
+  /** Return the reached vertex furthest away from the sources, or NOT_FOUND if all are sources. */
+  private static int farthest(StreetDistanceMatrix.Search search) {
+    int result = NOT_FOUND;
+    int maxDistance = 0;
+    for (int i = 0; i < search.numberOfReachedVertices(); ++i) {
+      int v = search.reachedVertex(i);
+      int d = search.distanceMm(v);
+      if (d > maxDistance || (d == maxDistance && d > 0 && v < result)) {
+        result = v;
+        maxDistance = d;
+      }
+    }
+    return result;
+  }
+
+  private TObjectIntMap<Vertex> vertexIndex() {
+    var index = vertexIndex;
+    if (index == null) {
+      synchronized (this) {
+        index = vertexIndex;
+        if (index == null) {
+          index = new TObjectIntHashMap<>(vertices.length, 0.5f, NOT_FOUND);
+          for (int v = 0; v < vertices.length; ++v) {
+            index.put(vertices[v], v);
+          }
+          vertexIndex = index;
+        }
+      }
+    }
+    return index;
+  }
+
+  /**
+   * The distances from and to each landmark, in decimeters. The distances for one vertex are
+   * stored together, {@code [vertex * numberOfLandmarks + landmark]}, since all landmarks are
+   * used each time a bound is computed.
+   */
+  private static class DistanceTable implements Serializable {
+
+    private final int[] fromLandmark;
+    private final int[] toLandmark;
+
+    private DistanceTable(int[] fromLandmark, int[] toLandmark) {
+      this.fromLandmark = fromLandmark;
+      this.toLandmark = toLandmark;
+    }
+
+    private static DistanceTable compute(
+      CompactStreetGraph graph,
+      int[] landmarks,
+      IntUnaryOperator lengthDm
+    ) {
+      int k = landmarks.length;
+      int nVertices = graph.numberOfVertices();
+      var forward = new StreetDistanceMatrix(graph, false, lengthDm);
+      var backward = new StreetDistanceMatrix(graph, true, lengthDm);
+      int[] fromLandmark = new int[nVertices * k];
+      int[] toLandmark = new int[nVertices * k];
+
+      // Each landmark writes to its own slots in the arrays, so they can be computed in parallel
+      IntStream
+        .range(0, k)
+        .parallel()
+        .forEach(l -> {
+          copyDistances(forward.newSearch(), landmarks[l], fromLandmark, l, k);
+          copyDistances(backward.newSearch(), landmarks[l], toLandmark, l, k);
+        });
+      return new DistanceTable(fromLandmark, toLandmark);
+    }
+
+    private static void copyDistances(
+      StreetDistanceMatrix.Search search,
+      int landmark,
+      int[] table,
+      int l,
+      int k
+    ) {
+      search.run(landmark, MAX_DISTANCE_DM);
+      int nVertices = table.length / k;
+      for (int v = 0; v < nVertices; ++v) {
+        table[v * k + l] = search.distanceMm(v);
+      }
+    }
+  }
+}
@@ -0,0 +1,247 @@
+package org.opentripplanner.street.search.matrix;
+
+import gnu.trove.list.array.TIntArrayList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+import org.opentripplanner.framework.collection.LongMinHeap;
+import org.opentripplanner.routing.graph.index.CompactStreetGraph;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.ElevatorEdge;
+import org.opentripplanner.street.model.edge.EscalatorEdge;
+import org.opentripplanner.street.model.edge.FreeEdge;
+import org.opentripplanner.street.model.edge.PathwayEdge;
+import org.opentripplanner.street.model.edge.StreetTransitEntityLink;
+import org.opentripplanner.street.model.vertex.TransitStopVertex;
+import org.opentripplanner.street.search.TraverseMode;
+
+/**
+ * Compute walking distances from one or many sources to all vertices within a distance limit,
+ * using a one-to-many Dijkstra search over the {@link CompactStreetGraph}. A many-to-many matrix
+ * is computed by running one search for each source - the searches are independent and can run
+ * in parallel, use one {@link Search} instance per thread.
+ * <p>
+ * The cost is the walking distance, not the generalized cost used by the A* street search. Walk
+ * reluctance, slope, stairs and wheelchair accessibility are NOT taken into account. The shortest
+ * path is returned as a list of edges, the caller should traverse these with the real cost model
+ * if the cost is needed.
+ * <p>
+ * The search does not continue from a transit stop, unless the stop is a source. A path through a
+ * stop, in on one link and out on another, can not be traversed by the street search, see
+ * {@link StreetTransitEntityLink}.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE, THE {@link Search} IS NOT.
+ */
+public class StreetDistanceMatrix {
+
+  public static final int UNREACHED = Integer.MAX_VALUE;
+
+  /** Returned by the edge length function for the edges that can not be traversed. */
+  public static final int NOT_TRAVERSABLE = -1;
+
+  private final CompactStreetGraph graph;
+  private final boolean arriveBy;
+  private final int[] edgeLengthMm;
+  private final BitSet transitStops;
+
+  /**
+   * @param arriveBy if {@code true} the search is done backwards, and the distances are from each
+   *                 vertex TO the sources.
+   */
+  public StreetDistanceMatrix(CompactStreetGraph graph, boolean arriveBy) {
+    this(graph, arriveBy, e -> isWalkable(graph, e) ? graph.lengthMm(e) : NOT_TRAVERSABLE);
+  }
+
+  /**
+   * Create a matrix using another metric than the walking distance. The distances returned are
+   * in the same unit as the edge lengths, overflow is not checked - keep the max distance below
+   * {@code Integer.MAX_VALUE / 2}.
+   *
+   * @param edgeLengthMm the length of each edge, normally in millimeters, or
+   *                     {@link #NOT_TRAVERSABLE}.
+   */
+  public StreetDistanceMatrix(
+    CompactStreetGraph graph,
+    boolean arriveBy,
+    IntUnaryOperator edgeLengthMm
+  ) {
+    this.graph = graph;
+    this.arriveBy = arriveBy;
+    this.edgeLengthMm = new int[graph.numberOfEdges()];
+
+    for (int e = 0; e < graph.numberOfEdges(); ++e) {
+      this.edgeLengthMm[e] = edgeLengthMm.applyAsInt(e);
+    }
+    this.transitStops = new BitSet(graph.numberOfVertices());
+    for (int v = 0; v < graph.numberOfVertices(); ++v) {
+      if (graph.vertex(v) instanceof TransitStopVertex) {
+        transitStops.set(v);
+      }
+    }
+  }
+
+  public CompactStreetGraph graph() {
+    return graph;
+  }
+
+  /**
+   * Create a new search. The search keeps its working arrays between runs, so reuse it for many
+   * sources in the same thread.
+   */
+  public Search newSearch() {
+    return new Search();
+  }
+
+  /**
+   * Compute the distance in millimeters from each source to each target, {@link #UNREACHED} if
+   * the target is further away than the given limit.
+   */
+  public int[][] distancesMm(int[] sources, int[] targets, int maxDistanceMm) {
+    var search = newSearch();
+    int[][] result = new int[sources.length][targets.length];
+    for (int i = 0; i < sources.length; ++i) {
+      search.run(sources[i], maxDistanceMm);
+      for (int j = 0; j < targets.length; ++j) {
+        result[i][j] = search.distanceMm(targets[j]);
+      }
+    }
+    return result;
+  }
+
+  private static boolean isWalkable(CompactStreetGraph graph, int e) {
+    if (graph.hasFlag(e, CompactStreetGraph.FLAG_STREET)) {
+      return graph.allows(e, TraverseMode.WALK);
+    }
+    // Only allow the non-street edges that a pedestrian can traverse without doing anything
+    // else, like renting or parking a vehicle
+    var edge = graph.edge(e);
+    return (
+      edge instanceof StreetTransitEntityLink<?> ||
+      edge instanceof PathwayEdge ||
+      edge instanceof ElevatorEdge ||
+      edge instanceof EscalatorEdge ||
+      edge instanceof FreeEdge
+    );
+  }
+
+  /**
+   * A one-to-many search. The result is available until the next run.
+   */
+  public class Search {
+
+    private final int[] distanceMm;
+    private final int[] predecessorEdge;
+    private final TIntArrayList reached = new TIntArrayList();
+    private final LongMinHeap queue = new LongMinHeap();
+
+    private Search() {
+      this.distanceMm = new int[graph.numberOfVertices()];
+      this.predecessorEdge = new int[graph.numberOfVertices()];
+      Arrays.fill(distanceMm, UNREACHED);
+    }
+
+    public void run(int source, int maxDistanceMm) {
+      run(new int[] { source }, new int[] { 0 }, maxDistanceMm);
+    }
+
+    /**
+     * Search from many sources at once, each with an initial distance. Use this to start from a
+     * location which is not part of the graph, like a coordinate linked to the closest streets.
+     */
+    public void run(int[] sources, int[] initialDistanceMm, int maxDistanceMm) {
+      clear();
+      for (int i = 0; i < sources.length; ++i) {
+        relax(sources[i], initialDistanceMm[i], CompactStreetGraph.NOT_FOUND, maxDistanceMm);
+      }
+
+      while (!queue.isEmpty()) {
+        long next = queue.extractMin();
+        int d = LongMinHeap.key(next);
+        int v = LongMinHeap.index(next);
+
+        // The vertex is already reached with a shorter distance
+        if (d > distanceMm[v]) {
+          continue;
+        }
+        // Do not walk through a stop, only out of a stop the search starts from
+        if (transitStops.get(v) && predecessorEdge[v] != CompactStreetGraph.NOT_FOUND) {
+          continue;
+        }
+        if (arriveBy) {
+          for (int i = 0; i < graph.inDegree(v); ++i) {
+            int e = graph.incomingEdge(v, i);
+            if (edgeLengthMm[e] != NOT_TRAVERSABLE) {
+              relax(graph.fromVertex(e), d + edgeLengthMm[e], e, maxDistanceMm);
+            }
+          }
+        } else {
+          for (int e = graph.outgoingEdgesStart(v); e < graph.outgoingEdgesEnd(v); ++e) {
+            if (edgeLengthMm[e] != NOT_TRAVERSABLE) {
+              relax(graph.toVertex(e), d + edgeLengthMm[e], e, maxDistanceMm);
+            }
+          }
+        }
+      }
+    }
+
+    /** The number of vertices reached in the last run, including the sources. */
+    public int numberOfReachedVertices() {
+      return reached.size();
+    }
+
+    /** Return reached vertex number {@code i}, the vertices are NOT sorted by distance. */
+    public int reachedVertex(int i) {
+      return reached.get(i);
+    }
+
+    /** The distance to the given vertex, or {@link #UNREACHED}. */
+    public int distanceMm(int vertex) {
+      return distanceMm[vertex];
+    }
+
+    /**
+     * Return the edges of the shortest path between the source and the given vertex, in travel
+     * order. The list is empty for a source and for a vertex which is not reached.
+     */
+    public List<Edge> path(int vertex) {
+      if (distanceMm[vertex] == UNREACHED) {
+        return List.of();
+      }
+      var edges = new ArrayList<Edge>();
+      int e = predecessorEdge[vertex];
+      while (e != CompactStreetGraph.NOT_FOUND) {
+        edges.add(graph.edge(e));
+        e = predecessorEdge[arriveBy ? graph.toVertex(e) : graph.fromVertex(e)];
+      }
+      // The backwards search finds the edges in travel order
+      if (!arriveBy) {
+        Collections.reverse(edges);
+      }
+      return edges;
+    }
+
+    private void relax(int v, int d, int edge, int maxDistanceMm) {
+      if (d > maxDistanceMm || d >= distanceMm[v]) {
+        return;
+      }
+      if (distanceMm[v] == UNREACHED) {
+        reached.add(v);
+      }
+      distanceMm[v] = d;
+      predecessorEdge[v] = edge;
+      queue.insert(LongMinHeap.pack(d, v));
+    }
+
+    /** Reset only the vertices reached in the last run, not the whole array. */
+    private void clear() {
+      for (int i = 0; i < reached.size(); ++i) {
+        distanceMm[reached.get(i)] = UNREACHED;
+      }
+      reached.resetQuick();
+      queue.clear();
+    }
+  }
+}
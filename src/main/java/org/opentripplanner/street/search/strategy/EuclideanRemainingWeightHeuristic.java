@@ -71,6 +71,11 @@ public class EuclideanRemainingWeightHeuristic implements RemainingWeightHeurist
       lon
     );
 
+    return euclideanDistance / streetSpeed(s);
+  }
+
+  /** The highest speed possible for the rest of the search from the given state. */
+  protected double streetSpeed(State s) {
     // After parking or finishing the rental of a vehicle, you can't ever move faster than walking speed.
     boolean useWalkSpeed;
     if (arriveBy) {
@@ -79,8 +84,6 @@ public class EuclideanRemainingWeightHeuristic implements RemainingWeightHeurist
       useWalkSpeed =
         s.isVehicleParked() || s.getVehicleRentalState() == VehicleRentalState.HAVE_RENTED;
     }
-
-    final double streetSpeed = useWalkSpeed ? walkingSpeed : maxStreetSpeed;
-    return euclideanDistance / streetSpeed;
+    return useWalkSpeed ? walkingSpeed : maxStreetSpeed;
   }
 }
@@ -0,0 +1,120 @@
+package org.opentripplanner.street.search.strategy;
+
+import gnu.trove.list.array.TIntArrayList;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Set;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.landmark.Landmarks;
+import org.opentripplanner.street.search.state.State;
+
+/**
+ * A remaining weight strategy using the precomputed {@link Landmarks} distances. The estimate is
+ * the largest of the Euclidean estimate and the landmark distance bound divided by the same
+ * street speed, so it is never weaker than the {@link EuclideanRemainingWeightHeuristic}. The
+ * landmark bound is a lot better where the streets are far from a straight line, like around
+ * water and mountains.
+ * <p>
+ * The landmark distances are only used when driving all the way. Walking and cycling use the
+ * effective distance of the edges, which is shorter than the length on downhill streets, so the
+ * landmark distance is not a lower bound for them. The other modes get the Euclidean estimate.
+ * <p>
+ * The destination is usually a temporary vertex, which is not part of the landmark table. The
+ * bound is computed to the "gateways" instead - the vertices in the table the search must pass
+ * through to reach the destination. Only the Euclidean estimate is used for states at vertices
+ * which are not in the table.
+ */
+public class LandmarkRemainingWeightHeuristic extends EuclideanRemainingWeightHeuristic {
+
+  /**
+   * Search at most this number of vertices around the destination to find the gateways. If there
+   * are more, the landmarks are not used.
+   */
+  private static final int MAX_GATEWAY_SEARCH_VERTICES = 100;
+
+  private final Landmarks landmarks;
+
+  private boolean arriveBy;
+  private int[] gateways = new int[0];
+
+  public LandmarkRemainingWeightHeuristic(Landmarks landmarks) {
+    this.landmarks = landmarks;
+  }
+
+  @Override
+  public void initialize(
+    StreetMode streetMode,
+    Set<Vertex> toVertices,
+    boolean arriveBy,
+    RoutingPreferences preferences
+  ) {
+    super.initialize(streetMode, toVertices, arriveBy, preferences);
+    this.arriveBy = arriveBy;
+    // The car distances are only a lower bound if the search can not leave the car
+    this.gateways = streetMode == StreetMode.CAR ? findGateways(toVertices) : new int[0];
+  }
+
+  @Override
+  public double estimateRemainingWeight(State s) {
+    double estimate = super.estimateRemainingWeight(s);
+    if (gateways.length == 0) {
+      return estimate;
+    }
+    int v = landmarks.vertexIndex(s.getVertex());
+    if (v == Landmarks.NOT_FOUND) {
+      return estimate;
+    }
+    double distance = Double.MAX_VALUE;
+    for (int gateway : gateways) {
+      // An arrive-by search goes backwards, the remaining distance is from the origin
+      distance =
+        Math.min(
+          distance,
+          arriveBy
+            ? landmarks.lowerBoundMeters(gateway, v)
+            : landmarks.lowerBoundMeters(v, gateway)
+        );
+    }
+    return Math.max(estimate, distance / streetSpeed(s));
+  }
+
+  /**
+   * Find the vertices in the landmark table the search must pass through last to reach one of
+   * the given vertices. Return an empty array if there are none, or if there are too many
+   * vertices to search.
+   */
+  private int[] findGateways(Set<Vertex> toVertices) {
+    var result = new TIntArrayList();
+    var visited = new HashSet<Vertex>();
+    var queue = new ArrayDeque<Vertex>();
+
+    for (Vertex it : toVertices) {
+      if (visited.add(it)) {
+        queue.add(it);
+      }
+    }
+
+    while (!queue.isEmpty()) {
+      Vertex vertex = queue.poll();
+      int index = landmarks.vertexIndex(vertex);
+      if (index != Landmarks.NOT_FOUND) {
+        result.add(index);
+        continue;
+      }
+      if (visited.size() > MAX_GATEWAY_SEARCH_VERTICES) {
+        return new int[0];
+      }
+      // Look backwards from the destination, or forward from the origin if the search is arrive-by
+      for (Edge edge : arriveBy ? vertex.getOutgoing() : vertex.getIncoming()) {
+        Vertex next = arriveBy ? edge.getToVertex() : edge.getFromVertex();
+        if (visited.add(next)) {
+          queue.add(next);
+        }
+      }
+    }
+    return result.toArray();
+  }
+}
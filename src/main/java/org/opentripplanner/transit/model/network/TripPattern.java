@@ -337,7 +337,7 @@ public final class TripPattern
    * @param removeTrip it the predicate returns true
    */
   public void removeTrips(Predicate<Trip> removeTrip) {
-    scheduledTimetable.getTripTimes().removeIf(tt -> removeTrip.test(tt.getTrip()));
+    scheduledTimetable.removeTripTimes(tt -> removeTrip.test(tt.getTrip()));
   }
 
   /**
@@ -11,6 +11,7 @@ import org.opentripplanner.ext.siri.updater.azure.SiriAzureSXUpdater;
 import org.opentripplanner.ext.vehiclerentalservicedirectory.VehicleRentalServiceDirectoryFetcher;
 import org.opentripplanner.ext.vehiclerentalservicedirectory.api.VehicleRentalServiceDirectoryFetcherParameters;
 import org.opentripplanner.framework.io.OtpHttpClient;
+import org.opentripplanner.inspector.vector.VectorTileCache;
 import org.opentripplanner.model.calendar.openinghours.OpeningHoursCalendarService;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.service.realtimevehicles.RealtimeVehicleRepository;
@@ -43,6 +44,7 @@ public class UpdaterConfigurator {
   private final UpdatersParameters updatersParameters;
   private final RealtimeVehicleRepository realtimeVehicleRepository;
   private final VehicleRentalRepository vehicleRentalRepository;
+  private final VectorTileCache vectorTileCache;
   private SiriTimetableSnapshotSource siriTimetableSnapshotSource = null;
   private TimetableSnapshotSource gtfsTimetableSnapshotSource = null;
 
@@ -51,13 +53,15 @@ public class UpdaterConfigurator {
     RealtimeVehicleRepository realtimeVehicleRepository,
     VehicleRentalRepository vehicleRentalRepository,
     TransitModel transitModel,
-    UpdatersParameters updatersParameters
+    UpdatersParameters updatersParameters,
+    VectorTileCache vectorTileCache
   ) {
     this.graph = graph;
     this.realtimeVehicleRepository = realtimeVehicleRepository;
     this.vehicleRentalRepository = vehicleRentalRepository;
     this.transitModel = transitModel;
     this.updatersParameters = updatersParameters;
+    this.vectorTileCache = vectorTileCache;
   }
 
   public static void configure(
@@ -65,14 +69,16 @@ public class UpdaterConfigurator {
     RealtimeVehicleRepository realtimeVehicleRepository,
     VehicleRentalRepository vehicleRentalRepository,
     TransitModel transitModel,
-    UpdatersParameters updatersParameters
+    UpdatersParameters updatersParameters,
+    VectorTileCache vectorTileCache
   ) {
     new UpdaterConfigurator(
       graph,
       realtimeVehicleRepository,
       vehicleRentalRepository,
       transitModel,
-      updatersParameters
+      updatersParameters,
+      vectorTileCache
     )
       .configure();
   }
@@ -123,7 +129,8 @@ public class UpdaterConfigurator {
     return VehicleRentalServiceDirectoryFetcher.createUpdatersFromEndpoint(
       parameters,
       graph.getLinker(),
-      vehicleRentalRepository
+      vehicleRentalRepository,
+      vectorTileCache::invalidateRealtimeLayers
     );
   }
 
@@ -144,7 +151,13 @@ public class UpdaterConfigurator {
           otpHttpClient
         );
         updaters.add(
-          new VehicleRentalUpdater(configItem, source, graph.getLinker(), vehicleRentalRepository)
+          new VehicleRentalUpdater(
+            configItem,
+            source,
+            graph.getLinker(),
+            vehicleRentalRepository,
+            vectorTileCache::invalidateRealtimeLayers
+          )
         );
       }
     }
@@ -184,7 +197,8 @@ public class UpdaterConfigurator {
           configItem,
           source,
           graph.getLinker(),
-          graph.getVehicleParkingService()
+          graph.getVehicleParkingService(),
+          vectorTileCache::invalidateRealtimeLayers
         )
       );
     }
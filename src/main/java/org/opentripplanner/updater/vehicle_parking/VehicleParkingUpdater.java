@@ -6,8 +6,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import org.locationtech.jts.geom.Envelope;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.linking.DisposableEdgeCollection;
 import org.opentripplanner.routing.linking.LinkingDirection;
@@ -46,11 +48,15 @@ public class VehicleParkingUpdater extends PollingGraphUpdater {
 
   private final VehicleParkingService vehicleParkingService;
 
+  /** Notified with the changed area after each update, like the cache of the vector tiles. */
+  private final Consumer<Envelope> realtimeStreetUpdateListener;
+
   public VehicleParkingUpdater(
     VehicleParkingUpdaterParameters parameters,
     DataSource<VehicleParking> source,
     VertexLinker vertexLinker,
-    VehicleParkingService vehicleParkingService
+    VehicleParkingService vehicleParkingService,
+    Consumer<Envelope> realtimeStreetUpdateListener
   ) {
     super(parameters);
     this.source = source;
@@ -58,6 +64,7 @@ public class VehicleParkingUpdater extends PollingGraphUpdater {
     this.linker = vertexLinker;
     // Adding a vehicle parking station service needs a graph writer runnable
     this.vehicleParkingService = vehicleParkingService;
+    this.realtimeStreetUpdateListener = realtimeStreetUpdateListener;
 
     LOG.info("Creating vehicle-parking updater running every {}: {}", pollingPeriod(), source);
   }
@@ -105,15 +112,18 @@ public class VehicleParkingUpdater extends PollingGraphUpdater {
       Set<VehicleParking> toRemove = new HashSet<>();
 
       var vehicleParkingHelper = new VehicleParkingHelper(graph);
+      // The area of the updated parkings and their groups
+      var changedArea = new Envelope();
 
       for (VehicleParking updatedVehicleParking : updatedVehicleParkings) {
+        expandToInclude(changedArea, updatedVehicleParking);
         var operational = updatedVehicleParking.getState().equals(VehicleParkingState.OPERATIONAL);
         var alreadyExists = oldVehicleParkings.contains(updatedVehicleParking);
 
         if (alreadyExists) {
-          oldVehicleParkingsById
-            .get(updatedVehicleParking.getId())
-            .updateAvailability(updatedVehicleParking.getAvailability());
+          var oldVehicleParking = oldVehicleParkingsById.get(updatedVehicleParking.getId());
+          oldVehicleParking.updateAvailability(updatedVehicleParking.getAvailability());
+          expandToInclude(changedArea, oldVehicleParking);
         } else {
           toAdd.add(updatedVehicleParking);
           if (operational) {
@@ -127,6 +137,7 @@ public class VehicleParkingUpdater extends PollingGraphUpdater {
         if (updatedVehicleParkings.contains(oldVehicleParking)) {
           continue;
         }
+        expandToInclude(changedArea, oldVehicleParking);
 
         if (verticesByPark.containsKey(oldVehicleParking)) {
           tempEdgesByPark.get(oldVehicleParking).forEach(DisposableEdgeCollection::disposeEdges);
@@ -158,6 +169,17 @@ public class VehicleParkingUpdater extends PollingGraphUpdater {
 
       oldVehicleParkings.removeAll(toRemove);
       oldVehicleParkings.addAll(toAdd);
+
+      graph.realtimeStreetUpdate();
+      realtimeStreetUpdateListener.accept(changedArea);
+    }
+
+    private static void expandToInclude(Envelope area, VehicleParking vehicleParking) {
+      area.expandToInclude(vehicleParking.getCoordinate().asJtsCoordinate());
+      var group = vehicleParking.getVehicleParkingGroup();
+      if (group != null) {
+        area.expandToInclude(group.coordinate().asJtsCoordinate());
+      }
     }
 
     private List<DisposableEdgeCollection> linkVehicleParkingVertexToStreets(
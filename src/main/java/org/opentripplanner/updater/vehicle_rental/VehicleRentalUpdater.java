@@ -8,8 +8,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import org.locationtech.jts.geom.Envelope;
 import org.opentripplanner.framework.lang.ObjectUtils;
 import org.opentripplanner.framework.logging.Throttle;
 import org.opentripplanner.framework.time.DurationUtils;
@@ -64,11 +66,15 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
 
   private final VehicleRentalRepository service;
 
+  /** Notified with the changed area after each update, like the cache of the vector tiles. */
+  private final Consumer<Envelope> realtimeStreetUpdateListener;
+
   public VehicleRentalUpdater(
     VehicleRentalUpdaterParameters parameters,
     VehicleRentalDatasource source,
     VertexLinker vertexLinker,
-    VehicleRentalRepository repository
+    VehicleRentalRepository repository,
+    Consumer<Envelope> realtimeStreetUpdateListener
   ) throws IllegalArgumentException {
     super(parameters);
     // Configure updater
@@ -87,6 +93,7 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
 
     // Adding a vehicle rental station service needs a graph writer runnable
     this.service = repository;
+    this.realtimeStreetUpdateListener = realtimeStreetUpdateListener;
 
     try {
       // Do any setup if needed
@@ -160,11 +167,14 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
       // Apply stations to graph
       Set<FeedScopedId> stationSet = new HashSet<>();
       var vertexFactory = new VertexFactory(graph);
+      // The area of the updated places, both before and after the update
+      var changedArea = new Envelope();
 
       /* add any new stations and update vehicle counts for existing stations */
       for (VehicleRentalPlace station : stations) {
         service.addVehicleRentalStation(station);
         stationSet.add(station.getId());
+        changedArea.expandToInclude(station.getLongitude(), station.getLatitude());
         VehicleRentalPlaceVertex vehicleRentalVertex = verticesByStation.get(station.getId());
 
         if (vehicleRentalVertex == null) {
@@ -212,6 +222,8 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
           verticesByStation.put(station.getId(), vehicleRentalVertex);
           tempEdgesByStation.put(station.getId(), tempEdges);
         } else {
+          var previous = vehicleRentalVertex.getStation();
+          changedArea.expandToInclude(previous.getLongitude(), previous.getLatitude());
           vehicleRentalVertex.setStation(station);
         }
       }
@@ -222,6 +234,8 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
         FeedScopedId station = entry.getKey();
         if (stationSet.contains(station)) continue;
         toRemove.add(station);
+        var removed = entry.getValue().getStation();
+        changedArea.expandToInclude(removed.getLongitude(), removed.getLatitude());
         service.removeVehicleRentalStation(station);
       }
       for (FeedScopedId station : toRemove) {
@@ -252,6 +266,9 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
           nameForLogging
         );
       }
+
+      graph.realtimeStreetUpdate();
+      realtimeStreetUpdateListener.accept(changedArea);
     }
   }
 }
@@ -7,7 +7,9 @@ import java.util.List;
 import org.opentripplanner.ext.emissions.DefaultEmissionsService;
 import org.opentripplanner.ext.emissions.EmissionsDataModel;
 import org.opentripplanner.ext.emissions.EmissionsService;
+import org.opentripplanner.inspector.vector.VectorTileCache;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.service.realtimevehicles.RealtimeVehicleService;
 import org.opentripplanner.service.realtimevehicles.internal.DefaultRealtimeVehicleService;
@@ -50,6 +52,8 @@ public class TestServerContext {
       routerConfig.flexConfig(),
       List.of(),
       null,
+      new AccessEgressCache(),
+      new VectorTileCache(graph.getVectorTilePyramid(), graph::getRealtimeStreetVersion),
       null
     );
     creatTransitLayerForRaptor(transitModel, routerConfig.transitTuningConfig());
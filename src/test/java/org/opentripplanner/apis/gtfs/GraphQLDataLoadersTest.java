@@ -0,0 +1,144 @@
+package org.opentripplanner.apis.gtfs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironmentImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import org.dataloader.DataLoaderRegistry;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.apis.gtfs.datafetchers.StopImpl;
+import org.opentripplanner.model.StopTimesInPattern;
+import org.opentripplanner.routing.stoptimes.ArrivalDeparture;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.site.StopLocation;
+import org.opentripplanner.transit.service.DefaultTransitService;
+import org.opentripplanner.transit.service.TransitModel;
+
+class GraphQLDataLoadersTest {
+
+  private final List<String> loadedKeys = new ArrayList<>();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Test
+  void loadEachKeyOncePerBatch() {
+    var loader = GraphQLDataLoaders.newDataLoader(
+      "test",
+      (String key) -> {
+        loadedKeys.add(key);
+        return key.length();
+      },
+      meterRegistry
+    );
+
+    var a = loader.load("A");
+    var bb = loader.load("BB");
+    var a2 = loader.load("A");
+    loader.dispatchAndJoin();
+
+    assertEquals(1, a.join());
+    assertEquals(2, bb.join());
+    assertEquals(1, a2.join());
+    assertEquals(List.of("A", "BB"), loadedKeys);
+
+    // A cached key is not loaded again
+    var a3 = loader.load("A");
+    loader.dispatchAndJoin();
+    assertEquals(1, a3.join());
+    assertEquals(List.of("A", "BB"), loadedKeys);
+
+    var batchSize = meterRegistry
+      .get(GraphQLDataLoaders.BATCH_SIZE_METRIC_NAME)
+      .tag("loader", "test")
+      .summary();
+    assertEquals(1, batchSize.count());
+    assertEquals(2, batchSize.totalAmount());
+  }
+
+  @Test
+  void withoutMeterRegistry() {
+    var loader = GraphQLDataLoaders.newDataLoader("test", (String key) -> key.length(), null);
+
+    var a = loader.load("A");
+    loader.dispatch();
+
+    assertEquals(1, a.join());
+  }
+
+  @Test
+  void loadStopTimesOfRepeatedStopOnce() throws Exception {
+    var stopTimesStartTimes = new ArrayList<Instant>();
+    var transitService = new DefaultTransitService(new TransitModel()) {
+      @Override
+      public List<StopTimesInPattern> stopTimesForStop(
+        StopLocation stop,
+        Instant startTime,
+        Duration timeRange,
+        int numberOfDepartures,
+        ArrivalDeparture arrivalDeparture,
+        boolean includeCancelledTrips
+      ) {
+        stopTimesStartTimes.add(startTime);
+        return List.of();
+      }
+    };
+    var registry = GraphQLDataLoaders.createRegistry(transitService, null);
+    var stop = TransitModelForTest.of().stop("A").build();
+    DataFetcher<?> stoptimes = new StopImpl().stoptimesForPatterns();
+
+    // The same stop times field of the same stop, with the default start time, in one query level
+    var first = stoptimes.get(environment(registry, stop, 0L));
+    var second = stoptimes.get(environment(registry, stop, 0L));
+    registry.dispatchAll();
+    ((CompletableFuture<?>) first).join();
+    ((CompletableFuture<?>) second).join();
+    assertEquals(1, stopTimesStartTimes.size());
+
+    // In a later query level
+    var third = stoptimes.get(environment(registry, stop, 0L));
+    registry.dispatchAll();
+    ((CompletableFuture<?>) third).join();
+    assertEquals(1, stopTimesStartTimes.size());
+
+    // Another start time is another key
+    var fourth = stoptimes.get(environment(registry, stop, 1_700_000_000L));
+    registry.dispatchAll();
+    ((CompletableFuture<?>) fourth).join();
+    assertEquals(2, stopTimesStartTimes.size());
+    assertEquals(Instant.ofEpochSecond(1_700_000_000L), stopTimesStartTimes.get(1));
+    assertNotEquals(stopTimesStartTimes.get(0), stopTimesStartTimes.get(1));
+  }
+
+  private static DataFetchingEnvironmentImpl environment(
+    DataLoaderRegistry registry,
+    StopLocation stop,
+    long startTime
+  ) {
+    return DataFetchingEnvironmentImpl
+      .newDataFetchingEnvironment()
+      .source(stop)
+      .dataLoaderRegistry(registry)
+      .arguments(
+        Map.of(
+          "startTime",
+          startTime,
+          "timeRange",
+          86400,
+          "numberOfDepartures",
+          5,
+          "omitNonPickups",
+          false,
+          "omitCanceled",
+          true
+        )
+      )
+      .build();
+  }
+}
@@ -297,7 +297,8 @@ class GraphQLIntegrationTest {
       2000,
       2000,
       Locale.ENGLISH,
-      context
+      context,
+      null
     );
     var actualJson = responseBody(response);
     assertEquals(200, response.getStatus());
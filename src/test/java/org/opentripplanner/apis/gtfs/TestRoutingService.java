@@ -3,6 +3,8 @@ package org.opentripplanner.apis.gtfs;
 import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.function.Consumer;
+import org.opentripplanner.model.GenericLocation;
 import org.opentripplanner.model.plan.Itinerary;
 import org.opentripplanner.model.plan.PlanTestConstants;
 import org.opentripplanner.model.plan.TripPlan;
@@ -39,4 +41,13 @@ public class TestRoutingService implements RoutingService {
   public ViaRoutingResponse route(RouteViaRequest request) {
     throw new RuntimeException("Not implemented yet!");
   }
+
+  @Override
+  public void route(
+    RouteRequest request,
+    List<GenericLocation> destinations,
+    Consumer<RoutingResponse> onResponse
+  ) {
+    destinations.forEach(it -> onResponse.accept(routingResponse));
+  }
 }
@@ -0,0 +1,71 @@
+package org.opentripplanner.astar.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class BucketQueueTest {
+
+  @Test
+  void extractInKeyOrder() {
+    var random = new Random(7);
+    var subject = new BucketQueue<Double>(1.0);
+    var expected = new ArrayList<Double>();
+
+    for (int i = 0; i < 10_000; ++i) {
+      double key = random.nextInt(10_000) / 10.0;
+      subject.insert(key, key);
+      expected.add(key);
+    }
+    expected.sort(Double::compareTo);
+
+    assertEquals(expected.size(), subject.size());
+    assertEquals((double) expected.get(0), subject.peekMinKey());
+    assertEquals(expected, extractAll(subject));
+  }
+
+  @Test
+  void insertKeyBeforeCurrentBucket() {
+    var subject = new BucketQueue<String>(10.0);
+    subject.insert("B", 25.0);
+    subject.insert("D", 45.0);
+    assertEquals("B", subject.extractMin());
+
+    // The current bucket is [20, 30), "A" is before it and "C" is in the next bucket
+    subject.insert("A", 5.0);
+    subject.insert("C", 35.0);
+    assertEquals(List.of("A", "C", "D"), extractAll(subject));
+  }
+
+  @Test
+  void largeKeysAreKeptInOrder() {
+    var subject = new BucketQueue<String>(1.0);
+    subject.insert("C", Double.MAX_VALUE);
+    subject.insert("B", 1e9);
+    subject.insert("A", 3.0);
+    assertEquals(List.of("A", "B", "C"), extractAll(subject));
+  }
+
+  @Test
+  void emptyQueue() {
+    var subject = new BucketQueue<String>(1.0);
+    assertTrue(subject.isEmpty());
+    assertNull(subject.extractMin());
+    assertThrows(IllegalStateException.class, subject::peekMinKey);
+    assertThrows(IllegalArgumentException.class, () -> new BucketQueue<String>(0.0));
+  }
+
+  private static <T> List<T> extractAll(BucketQueue<T> queue) {
+    var result = new ArrayList<T>();
+    while (!queue.isEmpty()) {
+      result.add(queue.extractMin());
+    }
+    return result;
+  }
+}
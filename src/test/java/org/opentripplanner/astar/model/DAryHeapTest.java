@@ -0,0 +1,59 @@
+package org.opentripplanner.astar.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class DAryHeapTest {
+
+  @Test
+  void extractInKeyOrder() {
+    var random = new Random(7);
+    var subject = new DAryHeap<Double>(4);
+    var expected = new ArrayList<Double>();
+
+    for (int i = 0; i < 10_000; ++i) {
+      double key = random.nextInt(1000) / 10.0;
+      subject.insert(key, key);
+      expected.add(key);
+    }
+    expected.sort(Double::compareTo);
+
+    assertEquals(expected.size(), subject.size());
+    assertEquals((double) expected.get(0), subject.peekMinKey());
+    assertEquals(expected, extractAll(subject));
+  }
+
+  @Test
+  void insertAndExtractInterleaved() {
+    var subject = new DAryHeap<String>();
+    subject.insert("C", 3.0);
+    subject.insert("A", 1.0);
+    assertEquals("A", subject.extractMin());
+    subject.insert("B", 2.0);
+    subject.insert("D", 4.0);
+    assertEquals(List.of("B", "C", "D"), extractAll(subject));
+  }
+
+  @Test
+  void emptyQueue() {
+    var subject = new DAryHeap<String>();
+    assertTrue(subject.isEmpty());
+    assertNull(subject.extractMin());
+    assertThrows(IllegalStateException.class, subject::peekMinKey);
+  }
+
+  private static <T> List<T> extractAll(DAryHeap<T> heap) {
+    var result = new ArrayList<T>();
+    while (!heap.isEmpty()) {
+      result.add(heap.extractMin());
+    }
+    return result;
+  }
+}
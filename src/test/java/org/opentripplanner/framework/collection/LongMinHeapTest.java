@@ -0,0 +1,48 @@
+package org.opentripplanner.framework.collection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class LongMinHeapTest {
+
+  @Test
+  void pack() {
+    long value = LongMinHeap.pack(17, 1_000_000);
+    assertEquals(17, LongMinHeap.key(value));
+    assertEquals(1_000_000, LongMinHeap.index(value));
+    assertTrue(LongMinHeap.pack(1, 5) < LongMinHeap.pack(2, 0));
+    assertTrue(LongMinHeap.pack(1, 5) < LongMinHeap.pack(1, 6));
+  }
+
+  @Test
+  void extractInOrder() {
+    var subject = new LongMinHeap();
+    var random = new Random(7);
+    for (int i = 0; i < 1000; ++i) {
+      subject.insert(random.nextInt(100));
+    }
+    assertEquals(1000, subject.size());
+
+    long prev = Long.MIN_VALUE;
+    while (!subject.isEmpty()) {
+      long peek = subject.peek();
+      long value = subject.extractMin();
+      assertEquals(peek, value);
+      assertTrue(prev <= value);
+      prev = value;
+    }
+  }
+
+  @Test
+  void emptyHeap() {
+    var subject = new LongMinHeap();
+    subject.insert(3);
+    subject.clear();
+    assertTrue(subject.isEmpty());
+    assertThrows(IllegalStateException.class, subject::extractMin);
+  }
+}
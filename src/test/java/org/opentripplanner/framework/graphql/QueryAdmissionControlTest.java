@@ -0,0 +1,66 @@
+package org.opentripplanner.framework.graphql;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import graphql.execution.AbortExecutionException;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class QueryAdmissionControlTest {
+
+  private static final long MAX_COST = 1000;
+  private static final long EXPENSIVE = 100;
+
+  @Test
+  void rejectQueryAboveMaxCost() {
+    var subject = new QueryAdmissionControl(MAX_COST, EXPENSIVE, 1, 1, Duration.ZERO);
+    try (var admission = subject.newAdmission(null)) {
+      assertDoesNotThrow(() -> admission.admit(MAX_COST));
+    }
+    try (var admission = subject.newAdmission(null)) {
+      assertThrows(AbortExecutionException.class, () -> admission.admit(MAX_COST + 1));
+    }
+  }
+
+  @Test
+  void cheapQueriesAreNotLimited() {
+    var subject = new QueryAdmissionControl(MAX_COST, EXPENSIVE, 1, 1, Duration.ZERO);
+    try (var expensive = subject.newAdmission("A"); var cheap = subject.newAdmission("A")) {
+      expensive.admit(EXPENSIVE);
+      assertDoesNotThrow(() -> cheap.admit(EXPENSIVE - 1));
+    }
+  }
+
+  @Test
+  void limitExpensiveQueries() {
+    var subject = new QueryAdmissionControl(MAX_COST, EXPENSIVE, 1, 1, Duration.ZERO);
+    try (var first = subject.newAdmission("A")) {
+      first.admit(EXPENSIVE);
+      try (var second = subject.newAdmission("B")) {
+        assertThrows(AbortExecutionException.class, () -> second.admit(EXPENSIVE));
+      }
+    }
+    // The permit is released when the first admission is closed
+    try (var third = subject.newAdmission("B")) {
+      assertDoesNotThrow(() -> third.admit(EXPENSIVE));
+    }
+  }
+
+  @Test
+  void limitExpensiveQueriesPerClient() {
+    var subject = new QueryAdmissionControl(MAX_COST, EXPENSIVE, 2, 1, Duration.ZERO);
+    try (var first = subject.newAdmission("A")) {
+      first.admit(EXPENSIVE);
+      try (var second = subject.newAdmission("A")) {
+        assertThrows(AbortExecutionException.class, () -> second.admit(EXPENSIVE));
+      }
+      try (var otherClient = subject.newAdmission("B")) {
+        assertDoesNotThrow(() -> otherClient.admit(EXPENSIVE));
+      }
+    }
+    try (var afterClose = subject.newAdmission("A")) {
+      assertDoesNotThrow(() -> afterClose.admit(EXPENSIVE));
+    }
+  }
+}
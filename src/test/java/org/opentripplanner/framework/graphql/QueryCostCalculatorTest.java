@@ -0,0 +1,105 @@
+package org.opentripplanner.framework.graphql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import graphql.execution.CoercedVariables;
+import graphql.parser.Parser;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.UnExecutableSchemaGenerator;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class QueryCostCalculatorTest {
+
+  private static final GraphQLSchema SCHEMA = UnExecutableSchemaGenerator.makeUnExecutableSchema(
+    new SchemaParser()
+      .parse(
+        """
+        type Query {
+          stops(first: Int): [Stop]
+          trip(searchWindow: Int, numTripPatterns: Int): Trip
+        }
+        type Stop {
+          name: String
+          departures(numberOfDepartures: Int): [Departure]
+        }
+        type Departure {
+          time: Int
+          trip: Trip
+        }
+        type Trip {
+          duration: Int
+        }
+        """
+      )
+  );
+
+  private final QueryCostCalculator subject = new QueryCostCalculator(
+    Set.of("trip"),
+    ChronoUnit.MINUTES
+  );
+
+  @Test
+  void eachFieldCostsOne() {
+    assertEquals(3, cost("{ stops { name departures { time } } }"));
+  }
+
+  @Test
+  void typeNameIsFree() {
+    assertEquals(2, cost("{ __typename stops { __typename name } }"));
+  }
+
+  @Test
+  void childrenAreMultipliedByListSize() {
+    var query =
+      "{ stops(first: 10) { name departures(numberOfDepartures: 5) { time trip { duration } } } }";
+
+    // stops: 1 + 10 * (name + departures: 1 + 5 * (time + trip: 1 + duration))
+    assertEquals(1 + 10 * (1 + 1 + 5 * (1 + 2)), cost(query));
+  }
+
+  @Test
+  void listSizeFromVariable() {
+    assertEquals(21, cost("query Q($n: Int) { stops(first: $n) { name } }", Map.of("n", 20)));
+  }
+
+  @Test
+  void routingFieldCostsPerStartedHourOfSearchWindow() {
+    int routing = QueryCostCalculator.ROUTING_COST;
+    assertEquals(2 + routing, cost("{ trip { duration } }"));
+    assertEquals(2 + routing, cost("{ trip(searchWindow: 60) { duration } }"));
+    assertEquals(2 + 2 * routing, cost("{ trip(searchWindow: 61) { duration } }"));
+    assertEquals(
+      6 + 3 * routing,
+      cost("{ trip(searchWindow: 180, numTripPatterns: 5) { duration } }")
+    );
+  }
+
+  @Test
+  void onlyRoutingFieldsOnTheQueryTypeAreRoutingSearches() {
+    assertEquals(4, cost("{ stops { departures { trip { duration } } } }"));
+  }
+
+  @Test
+  void saturateInsteadOfOverflow() {
+    assertEquals(
+      Long.MAX_VALUE,
+      cost(
+        "{ stops(first: 2147483647) { departures(numberOfDepartures: 2147483647) " +
+        "{ trip { duration } } } trip(searchWindow: 2147483647) { duration } }"
+      )
+    );
+  }
+
+  private long cost(String query) {
+    return cost(query, Map.of());
+  }
+
+  private long cost(String query, Map<String, Object> variables) {
+    var document = Parser.parse(query);
+    return subject.calculate(SCHEMA, document, null, CoercedVariables.of(variables));
+  }
+}
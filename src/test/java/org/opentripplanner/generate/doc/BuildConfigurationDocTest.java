@@ -35,6 +35,7 @@ public class BuildConfigurationDocTest {
     .skip("fares", "sandbox/Fares.md")
     .skip("transferRequests", "RouteRequest.md")
     .skip("emissions", "sandbox/Emissions.md")
+    .skip("vectorTilePyramid", "sandbox/MapboxVectorTilesApi.md")
     .build();
 
   /**
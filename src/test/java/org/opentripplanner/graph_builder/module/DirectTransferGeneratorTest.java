@@ -16,6 +16,7 @@ import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
 import org.opentripplanner.TestOtpModel;
+import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.model.PathTransfer;
@@ -273,6 +274,78 @@ class DirectTransferGeneratorTest extends GraphRoutingTest {
     assertTrue(transitModel.getAllPathTransfers().isEmpty());
   }
 
+  /**
+   * The stop S2 is the only link between the streets of S1 and S3. The shortest path from S1 to S3
+   * goes through S2, in on one link and out on the other. The street search does not allow this,
+   * so the transfer must take the longer street.
+   */
+  @Test
+  public void testTransferDoesNotCutThroughAThirdStop() {
+    for (var distanceMatrix : List.of(false, true)) {
+      var model = modelOf(
+        new Builder() {
+          @Override
+          public void build() {
+            S11 = stop("S1", 47.500, 19.000);
+            S12 = stop("S2", 47.500, 19.005);
+            S13 = stop("S3", 47.500, 19.010);
+            V11 = intersection("V1", 47.500, 19.000);
+            V13 = intersection("V3", 47.500, 19.010);
+
+            biLink(V11, S11);
+            biLink(V11, S12);
+            biLink(V13, S12);
+            biLink(V13, S13);
+            street(V11, V13, 1000, StreetTraversalPermission.PEDESTRIAN);
+
+            var agency = TransitModelForTest.agency("Agency");
+            for (var stop : List.of(S11, S12, S13)) {
+              var id = stop.getStop().getId().getId();
+              tripPattern(
+                TripPattern
+                  .of(TransitModelForTest.id("TP-" + id))
+                  .withRoute(route("R-" + id, TransitMode.BUS, agency))
+                  .withStopPattern(new StopPattern(List.of(st(stop), st(stop))))
+                  .build()
+              );
+            }
+          }
+        }
+      );
+      var graph = model.graph();
+      graph.hasStreets = true;
+      var transitModel = model.transitModel();
+      var req = new RouteRequest();
+      req.journey().transfer().setMode(StreetMode.WALK);
+
+      Runnable buildTransfers = () ->
+        new DirectTransferGenerator(
+          graph,
+          transitModel,
+          DataImportIssueStore.NOOP,
+          MAX_TRANSFER_DURATION,
+          List.of(req)
+        )
+          .buildGraph();
+      if (distanceMatrix) {
+        OTPFeature.DistanceMatrixTransfers.testOn(buildTransfers);
+      } else {
+        OTPFeature.DistanceMatrixTransfers.testOff(buildTransfers);
+      }
+
+      var transfer = transitModel
+        .getAllPathTransfers()
+        .stream()
+        .filter(it -> it.from == S11.getStop() && it.to == S13.getStop())
+        .findFirst()
+        .orElseThrow();
+      assertTrue(
+        tr(S11, 1000, List.of(V11, V13), S13).matches(transfer),
+        "Distance matrix: " + distanceMatrix + ", transfer: " + transfer
+      );
+    }
+  }
+
   private TestOtpModel model(boolean addPatterns) {
     return model(addPatterns, false);
   }
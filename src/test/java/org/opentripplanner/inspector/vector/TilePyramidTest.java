@@ -0,0 +1,127 @@
+package org.opentripplanner.inspector.vector;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.inspector.vector.KeyValue.kv;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.opentripplanner.api.resource.WebMercatorTile;
+import org.opentripplanner.apis.support.mapping.PropertyMapper;
+import org.opentripplanner.framework.geometry.GeometryUtils;
+
+class TilePyramidTest {
+
+  private static final Coordinate OSLO_S = new Coordinate(10.75, 59.91);
+
+  /** The tile containing Oslo S on zoom 10. */
+  private static final int X = 542;
+  private static final int Y = 297;
+  private static final int Z = 10;
+
+  private static final Layer STOPS = new Layer("stops");
+
+  private final TilePyramid subject = new TilePyramidBuilder(Locale.ENGLISH)
+    .addLayer(STOPS, 11, () -> new PointLayerBuilder(STOPS))
+    .build();
+
+  private enum LayerType {
+    STOPS,
+  }
+
+  private record Layer(String name) implements LayerParameters<LayerType> {
+    @Override
+    public LayerType type() {
+      return LayerType.STOPS;
+    }
+
+    @Override
+    public String mapper() {
+      return "Test";
+    }
+  }
+
+  private static class PointLayerBuilder extends LayerBuilder<String> {
+
+    PointLayerBuilder(LayerParameters<?> parameters) {
+      super(
+        new PropertyMapper<>() {
+          @Override
+          protected Collection<KeyValue> map(String input) {
+            return List.of(kv("name", input));
+          }
+        },
+        parameters.name(),
+        parameters.expansionFactor()
+      );
+    }
+
+    @Override
+    protected List<Geometry> getGeometries(Envelope query) {
+      if (!query.contains(OSLO_S)) {
+        return List.of();
+      }
+      Geometry point = GeometryUtils.getGeometryFactory().createPoint(OSLO_S);
+      point.setUserData("Oslo S");
+      return List.of(point);
+    }
+  }
+
+  @Test
+  void findPreRenderedTile() {
+    assertTrue(WebMercatorTile.tile2Envelope(X, Y, Z).contains(OSLO_S));
+
+    var expected = VectorTileResponseFactory.encode(
+      new PointLayerBuilder(STOPS).build(WebMercatorTile.tile2Envelope(X, Y, Z))
+    );
+    assertEquals(ByteBuffer.wrap(expected), subject.find(STOPS, Locale.ENGLISH, X, Y, Z));
+  }
+
+  @Test
+  void emptyTile() {
+    var tile = subject.find(STOPS, Locale.ENGLISH, X + 10, Y, Z);
+    assertNotNull(tile);
+    assertEquals(0, tile.remaining());
+  }
+
+  @Test
+  void tileNotPreRendered() {
+    assertNull(subject.find(STOPS, Locale.ENGLISH, X * 4, Y * 4, Z + 2));
+    assertNull(subject.find(STOPS, Locale.GERMAN, X, Y, Z));
+    assertNull(subject.find(new Layer("stations"), Locale.ENGLISH, X, Y, Z));
+  }
+
+  @Test
+  void storeOnlyTilesWithObjects() {
+    // One tile on zoom 9 to 11, and at most one neighbour on each zoom level
+    int n = subject.numberOfTiles();
+    assertTrue(n >= 3 && n <= 6, "tiles: " + n);
+  }
+
+  @Test
+  void serveFromCache() {
+    var cache = new VectorTileCache(subject, () -> 0);
+    var tile = cache.get(
+      STOPS,
+      X,
+      Y,
+      Z,
+      Locale.ENGLISH,
+      new Envelope(),
+      false,
+      () -> {
+        throw new IllegalStateException("Pre-rendered tile built again");
+      }
+    );
+    assertTrue(tile.remaining() > 0);
+    assertEquals(0, cache.size());
+  }
+}
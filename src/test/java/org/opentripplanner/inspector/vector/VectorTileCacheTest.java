@@ -0,0 +1,115 @@
+package org.opentripplanner.inspector.vector;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Envelope;
+
+class VectorTileCacheTest {
+
+  private static final Envelope OSLO = new Envelope(10.6, 10.9, 59.8, 60.0);
+  private static final Envelope BERGEN = new Envelope(5.2, 5.4, 60.3, 60.45);
+  private static final byte[] LAYER = { 1, 2, 3 };
+
+  private enum LayerType {
+    STOPS,
+  }
+
+  private record Layer(String name) implements LayerParameters<LayerType> {
+    @Override
+    public LayerType type() {
+      return LayerType.STOPS;
+    }
+
+    @Override
+    public String mapper() {
+      return "Test";
+    }
+  }
+
+  private final AtomicLong realtimeVersion = new AtomicLong();
+  private final AtomicInteger builds = new AtomicInteger();
+  private final VectorTileCache subject = new VectorTileCache(null, realtimeVersion::get);
+
+  @Test
+  void buildEachLayerOnce() {
+    assertEquals(ByteBuffer.wrap(LAYER), get("stops", 1, OSLO, false));
+    assertEquals(ByteBuffer.wrap(LAYER), get("stops", 1, OSLO, false));
+    assertEquals(1, builds.get());
+
+    // Another layer, tile or locale is a new entry
+    get("stations", 1, OSLO, false);
+    get("stops", 2, OSLO, false);
+    subject.get(new Layer("stops"), 1, 1, 10, Locale.GERMAN, OSLO, false, this::build);
+    assertEquals(4, builds.get());
+  }
+
+  @Test
+  void invalidateRealtimeLayersInChangedArea() {
+    get("stops", 1, OSLO, false);
+    get("rental", 1, OSLO, true);
+    get("rental", 2, BERGEN, true);
+    assertEquals(3, builds.get());
+
+    realtimeVersion.incrementAndGet();
+    subject.invalidateRealtimeLayers(new Envelope(10.7, 10.8, 59.9, 59.95));
+
+    get("stops", 1, OSLO, false);
+    get("rental", 2, BERGEN, true);
+    assertEquals(3, builds.get());
+
+    get("rental", 1, OSLO, true);
+    assertEquals(4, builds.get());
+  }
+
+  @Test
+  void doNotKeepRealtimeLayerBuiltDuringAnUpdate() {
+    subject.get(
+      new Layer("rental"),
+      1,
+      1,
+      10,
+      Locale.ENGLISH,
+      OSLO,
+      true,
+      () -> {
+        realtimeVersion.incrementAndGet();
+        return build();
+      }
+    );
+    get("rental", 1, OSLO, true);
+    assertEquals(2, builds.get());
+  }
+
+  @Test
+  void limitCachedBytes() {
+    var cache = new VectorTileCache(10, null, realtimeVersion::get);
+    for (int x = 0; x < 10; x++) {
+      cache.get(new Layer("stops"), x, 1, 10, Locale.ENGLISH, OSLO, false, this::build);
+    }
+    assertTrue(cache.size() <= 4, "size: " + cache.size());
+  }
+
+  private ByteBuffer get(String layer, int x, Envelope envelope, boolean realtime) {
+    return subject.get(
+      new Layer(layer),
+      x,
+      1,
+      10,
+      Locale.ENGLISH,
+      envelope,
+      realtime,
+      this::build
+    );
+  }
+
+  private byte[] build() {
+    builds.incrementAndGet();
+    return LAYER;
+  }
+}
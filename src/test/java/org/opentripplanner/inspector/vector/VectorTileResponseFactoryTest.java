@@ -6,8 +6,10 @@ import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Response;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
 import org.opentripplanner.TestServerContext;
+import org.opentripplanner.inspector.vector.VectorTileResponseFactory.LayerBuilderFactory;
 import org.opentripplanner.inspector.vector.geofencing.GeofencingZonesLayerBuilder;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
@@ -58,6 +60,25 @@ class VectorTileResponseFactoryTest {
     );
   }
 
+  private static Response computeResponse(
+    List<String> layers,
+    LayerBuilderFactory<LayerType> factory,
+    VectorTileCache cache
+  ) {
+    return VectorTileResponseFactory.create(
+      1,
+      1,
+      1,
+      Locale.ENGLISH,
+      layers,
+      LAYERS,
+      factory,
+      SERVER_CONTEXT,
+      cache,
+      type -> false
+    );
+  }
+
   @Test
   void return404WhenAllLayersNotFound() {
     var resp = computeResponse(List.of("yellow", "blue"));
@@ -82,6 +103,23 @@ class VectorTileResponseFactoryTest {
     );
   }
 
+  @Test
+  void reuseCachedLayers() {
+    var cache = new VectorTileCache(null, () -> 0);
+    var builds = new AtomicInteger();
+    LayerBuilderFactory<LayerType> factory = (params, locale, context) -> {
+      builds.incrementAndGet();
+      return createLayerBuilder(params, locale, context);
+    };
+
+    var first = computeResponse(List.of("red", "green"), factory, cache);
+    var second = computeResponse(List.of("green"), factory, cache);
+
+    assertEquals(2, builds.get());
+    assertEquals(Response.Status.OK.getStatusCode(), first.getStatus());
+    assertEquals(Response.Status.OK.getStatusCode(), second.getStatus());
+  }
+
   @Test
   void return200WhenAllLayersFound() {
     var resp = computeResponse(List.of("red", "green"));
@@ -0,0 +1,99 @@
+package org.opentripplanner.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.basic.TransitMode;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+import org.opentripplanner.transit.model.timetable.TripTimesFactory;
+
+class TimetableDepartureIndexTest {
+
+  private static final TransitModelForTest TEST_MODEL = TransitModelForTest.of();
+
+  private final TripPattern pattern = TEST_MODEL
+    .pattern(TransitMode.BUS)
+    .withStopPattern(TEST_MODEL.stopPattern(2))
+    .build();
+
+  private final TripTimes t900 = tripTimes("T900", 900);
+  private final TripTimes t300 = tripTimes("T300", 300);
+  private final TripTimes t600 = tripTimes("T600", 600);
+
+  @Test
+  void departuresAreSortedByTime() {
+    var timetable = timetable(t900, t300, t600);
+    var subject = timetable.getDepartureIndex().departuresAt(0);
+
+    assertEquals(3, subject.size());
+    assertEquals(t300, subject.tripTimes(0));
+    assertEquals(t600, subject.tripTimes(1));
+    assertEquals(t900, subject.tripTimes(2));
+    assertEquals(600, subject.departureTime(1));
+
+    // The second stop is 5 minutes later
+    assertEquals(1200, timetable.getDepartureIndex().departuresAt(1).departureTime(2));
+  }
+
+  @Test
+  void findFirstDepartureAtOrAfter() {
+    var subject = timetable(t900, t300, t600).getDepartureIndex().departuresAt(0);
+
+    assertEquals(0, subject.findFirstDepartureAtOrAfter(0));
+    assertEquals(0, subject.findFirstDepartureAtOrAfter(300));
+    assertEquals(1, subject.findFirstDepartureAtOrAfter(301));
+    assertEquals(2, subject.findFirstDepartureAtOrAfter(900));
+    assertEquals(3, subject.findFirstDepartureAtOrAfter(901));
+  }
+
+  @Test
+  void dwellTimes() {
+    var trip = TransitModelForTest.trip("DWELL").build();
+    var stopTimes = TEST_MODEL.stopTimesEvery5Minutes(2, trip, 1000);
+    stopTimes.get(0).setArrivalTime(940);
+    var withDwellTime = TripTimesFactory.tripTimes(trip, stopTimes, new Deduplicator());
+
+    var subject = timetable(t300, withDwellTime).getDepartureIndex().departuresAt(0);
+
+    assertEquals(0, subject.minDwellTime());
+    assertEquals(60, subject.maxDwellTime());
+  }
+
+  @Test
+  void indexIsReplacedWhenTheTripsAreChanged() {
+    var timetable = timetable(t900, t300);
+    var index = timetable.getDepartureIndex();
+    assertSame(index, timetable.getDepartureIndex());
+
+    timetable.addTripTimes(t600);
+    assertNotSame(index, timetable.getDepartureIndex());
+    assertEquals(3, timetable.getDepartureIndex().departuresAt(0).size());
+
+    index = timetable.getDepartureIndex();
+    timetable.removeTripTimes(t -> t == t300);
+    assertNotSame(index, timetable.getDepartureIndex());
+    assertEquals(t600, timetable.getDepartureIndex().departuresAt(0).tripTimes(0));
+  }
+
+  private Timetable timetable(TripTimes... tripTimes) {
+    var timetable = new Timetable(pattern);
+    for (TripTimes it : tripTimes) {
+      timetable.addTripTimes(it);
+    }
+    return timetable;
+  }
+
+  private static TripTimes tripTimes(String id, int departureTime) {
+    var trip = TransitModelForTest.trip(id).build();
+    return TripTimesFactory.tripTimes(
+      trip,
+      TEST_MODEL.stopTimesEvery5Minutes(2, trip, departureTime),
+      new Deduplicator()
+    );
+  }
+}
@@ -0,0 +1,141 @@
+package org.opentripplanner.raptor.moduletests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.opentripplanner.raptor._data.api.PathUtils.pathsToStringDetailed;
+import static org.opentripplanner.raptor._data.transit.TestAccessEgress.walk;
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTransfer.transfer;
+import static org.opentripplanner.raptor._data.transit.TestTripPattern.pattern;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.opentripplanner.framework.time.TimeUtils;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+
+/**
+ * FEATURE UNDER TEST
+ * <p>
+ * The multi-criteria search skips creating a transfer arrival if it is dominated by the existing
+ * arrivals at the target stop. Raptor should return the same paths, and the same best arrival
+ * times at each stop, with and without this check.
+ * <p>
+ * The check is turned off when a stop arrival debug listener is attached to the request, see
+ * {@code McRangeRaptorConfig#rejectDominatedTransfersEarly()}. For this reason this test does
+ * NOT use the {@code ModuleTestDebugLogging}, it would turn the check off for both searches.
+ * <p>
+ * The networks are generated, with many transfers between the stops, so many of the transfer
+ * arrivals are dominated. Each network has a route from the access stop to the egress stop, so
+ * there is always at least one path.
+ */
+public class C04_RejectDominatedTransfersEarlyTest implements RaptorTestConstants {
+
+  private static final int N_STOPS = STOP_M;
+  private static final int N_ROUTES = 8;
+  private static final int N_TRANSFERS = 30;
+
+  private final TestTransitData data = new TestTransitData();
+  private final RaptorRequestBuilder<TestTripSchedule> requestBuilder = new RaptorRequestBuilder<>();
+  private final RaptorService<TestTripSchedule> raptorService = new RaptorService<>(
+    RaptorConfig.defaultConfigForTest()
+  );
+
+  @ParameterizedTest
+  @ValueSource(ints = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 })
+  void rejectingDominatedTransfersEarlyDoesNotChangeTheResult(int seed) {
+    var random = new Random(seed);
+    createNetwork(random);
+
+    requestBuilder
+      .profile(RaptorProfile.MULTI_CRITERIA)
+      .searchParams()
+      .addAccessPaths(walk(STOP_A, D1m), walk(randomStop(random), D5m))
+      .addEgressPaths(walk(STOP_M, D30s), walk(randomStop(random), D2m))
+      .earliestDepartureTime(T00_00)
+      .searchWindow(Duration.ofMinutes(30))
+      .timetable(true);
+
+    var expected = route();
+
+    // Attaching a stop arrival listener turns the check off
+    requestBuilder.debug().stopArrivalListener(event -> {});
+    var result = route();
+
+    assertFalse(expected.isBlank());
+    assertEquals(expected, result);
+  }
+
+  /**
+   * Create a network with one route from A to M, and {@link #N_ROUTES} routes visiting 4 random
+   * stops. Each route has 3 trips. The transfers connect random pairs of stops.
+   */
+  private void createNetwork(Random random) {
+    data.withRoute(
+      route(pattern("R0", STOP_A, STOP_M)).withTimetable(schedules(random, STOP_A, STOP_M))
+    );
+    List<Integer> stops = new ArrayList<>(IntStream.rangeClosed(STOP_A, N_STOPS).boxed().toList());
+    for (int i = 1; i <= N_ROUTES; ++i) {
+      Collections.shuffle(stops, random);
+      int[] stopIndexes = stops.subList(0, 4).stream().mapToInt(Integer::intValue).toArray();
+      data.withRoute(
+        route(pattern("R" + i, stopIndexes)).withTimetable(schedules(random, stopIndexes))
+      );
+    }
+    for (int i = 0; i < N_TRANSFERS; ++i) {
+      int from = randomStop(random);
+      int to = randomStop(random);
+      if (from != to) {
+        data.withTransfer(from, transfer(to, D1m * (1 + random.nextInt(6))));
+      }
+    }
+  }
+
+  /** Three trips departing 10 to 20 minutes apart, with 2 to 8 minutes between each stop. */
+  private static TestTripSchedule.Builder[] schedules(Random random, int... stops) {
+    var schedules = new TestTripSchedule.Builder[3];
+    int departure = D1m * random.nextInt(20);
+    for (int i = 0; i < schedules.length; ++i) {
+      int[] times = new int[stops.length];
+      times[0] = departure;
+      for (int s = 1; s < stops.length; ++s) {
+        times[s] = times[s - 1] + D1m * (2 + random.nextInt(7));
+      }
+      schedules[i] = schedule().times(times);
+      departure += D1m * (10 + random.nextInt(11));
+    }
+    return schedules;
+  }
+
+  private static int randomStop(Random random) {
+    return STOP_A + random.nextInt(N_STOPS);
+  }
+
+  private String route() {
+    var response = raptorService.route(requestBuilder.build(), data);
+    var arrivals = response.getArrivals();
+    var buf = new StringBuilder(pathsToStringDetailed(response));
+    for (int stop = STOP_A; stop <= N_STOPS; ++stop) {
+      buf
+        .append('\n')
+        .append(stopIndexToName(stop))
+        .append(": ")
+        .append(
+          arrivals.reached(stop) ? TimeUtils.timeToStrLong(arrivals.bestArrivalTime(stop)) : "-"
+        );
+    }
+    return buf.toString();
+  }
+}
@@ -0,0 +1,167 @@
+package org.opentripplanner.raptor.moduletests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.opentripplanner.raptor._data.api.PathUtils.pathsToString;
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTransfer.transfer;
+import static org.opentripplanner.raptor._data.transit.TestTripPattern.pattern;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.opentripplanner.framework.time.TimeUtils;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.request.Optimization;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.raptor.moduletests.support.ModuleTestDebugLogging;
+
+/**
+ * FEATURE UNDER TEST
+ * <p>
+ * Raptor should return the same paths if the search-window is split into slices and routed in
+ * parallel, as when all iterations are routed sequentially. The search-window is split into an
+ * even and an uneven number of iterations per slice. Both the paths and the best arrival times at
+ * each stop are compared. Only the multi-criteria search is split, the other profiles should not
+ * be affected by the optimization.
+ */
+public class L01_ParallelSearchWindowTest implements RaptorTestConstants {
+
+  private final TestTransitData data = new TestTransitData();
+  private final RaptorRequestBuilder<TestTripSchedule> requestBuilder = new RaptorRequestBuilder<>();
+  private RaptorConfig<TestTripSchedule> config;
+
+  /**
+   * Schedule:
+   *   Stop:    A       B       C
+   *    R1:   00:02 - 00:10 - 00:20
+   *          00:12 - 00:20 - 00:30
+   *          00:22 - 00:30 - 00:40
+   *    R2:           00:05 - 00:11
+   *                  00:25 - 00:31
+   *    R3:   00:07 ------- 00:24
+   *    R4:   Stop D to C   00:14 - 00:21
+   *                        00:34 - 00:41
+   *
+   * Transfers:
+   *   B -> D  1m
+   *
+   * Access (toStop & duration):
+   *   A  1m
+   *   B  8m
+   *
+   * Egress (fromStop & duration):
+   *   C  30s
+   */
+  @BeforeEach
+  void setup() {
+    data.withRoutes(
+      route(pattern("R1", STOP_A, STOP_B, STOP_C))
+        .withTimetable(
+          schedule("00:02 00:10 00:20"),
+          schedule("00:12 00:20 00:30"),
+          schedule("00:22 00:30 00:40")
+        ),
+      route(pattern("R2", STOP_B, STOP_C))
+        .withTimetable(schedule("00:05 00:11"), schedule("00:25 00:31")),
+      route(pattern("R3", STOP_A, STOP_C)).withTimetable(schedule("00:07 00:24")),
+      route(pattern("R4", STOP_D, STOP_C))
+        .withTimetable(schedule("00:14 00:21"), schedule("00:34 00:41"))
+    );
+    data.withTransfer(STOP_B, transfer(STOP_D, D1m));
+    requestBuilder
+      .searchParams()
+      .addAccessPaths(TestAccessEgress.walk(STOP_A, D1m), TestAccessEgress.walk(STOP_B, D8m))
+      .addEgressPaths(TestAccessEgress.walk(STOP_C, D30s))
+      .earliestDepartureTime(T00_00)
+      .timetable(true);
+
+    ModuleTestDebugLogging.setupDebugLogging(data, requestBuilder);
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (config != null) {
+      config.shutdown();
+    }
+  }
+
+  /**
+   * With a 60s iteration step the search-window has one iteration per minute. The number of
+   * slices is the thread pool size plus one (the caller thread).
+   */
+  static List<Arguments> testCases() {
+    return List.of(
+      // 30 iterations in 3 slices of 10
+      Arguments.of(RaptorProfile.MULTI_CRITERIA, 2, 30),
+      // 30 iterations in 4 slices of 7 or 8
+      Arguments.of(RaptorProfile.MULTI_CRITERIA, 3, 30),
+      // 31 iterations in 3 slices of 10 or 11
+      Arguments.of(RaptorProfile.MULTI_CRITERIA, 2, 31),
+      // More threads than iterations
+      Arguments.of(RaptorProfile.MULTI_CRITERIA, 7, 3),
+      Arguments.of(RaptorProfile.STANDARD, 2, 30),
+      Arguments.of(RaptorProfile.BEST_TIME, 2, 30),
+      Arguments.of(RaptorProfile.BEST_TIME, 3, 31)
+    );
+  }
+
+  @ParameterizedTest
+  @MethodSource("testCases")
+  void parallelSearchWindowReturnSameResultAsSequentialSearch(
+    RaptorProfile profile,
+    int threadPoolSize,
+    int searchWindowMinutes
+  ) {
+    config =
+      new RaptorConfig<>(
+        new RaptorTuningParameters() {
+          @Override
+          public int searchThreadPoolSize() {
+            return threadPoolSize;
+          }
+        }
+      );
+    var raptorService = new RaptorService<>(config);
+    requestBuilder
+      .profile(profile)
+      .searchParams()
+      .searchWindow(Duration.ofMinutes(searchWindowMinutes));
+
+    var expected = route(raptorService);
+
+    requestBuilder.enableOptimization(Optimization.PARALLEL_SEARCH_WINDOW);
+    var result = route(raptorService);
+
+    assertFalse(expected.isBlank());
+    assertEquals(expected, result);
+  }
+
+  private String route(RaptorService<TestTripSchedule> raptorService) {
+    var response = raptorService.route(requestBuilder.build(), data);
+    var arrivals = response.getArrivals();
+    var buf = new StringBuilder(pathsToString(response));
+    for (int stop : new int[] { STOP_A, STOP_B, STOP_C, STOP_D }) {
+      buf
+        .append('\n')
+        .append(stopIndexToName(stop))
+        .append(": ")
+        .append(
+          arrivals.reached(stop) ? TimeUtils.timeToStrLong(arrivals.bestArrivalTime(stop)) : "-"
+        );
+    }
+    return buf.toString();
+  }
+}
@@ -0,0 +1,163 @@
+package org.opentripplanner.raptor.moduletests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
+import org.opentripplanner.raptor.api.model.SearchDirection;
+import org.opentripplanner.raptor.api.path.RaptorPath;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.raptor.moduletests.support.ModuleTestDebugLogging;
+
+/**
+ * FEATURE UNDER TEST
+ * <p>
+ * Raptor should find the optimal paths to each destination, when routing from one origin to many
+ * destinations in one multi-criteria search. A path to one destination should not exclude a path
+ * to another destination.
+ */
+public class L02_ManyDestinationsTest implements RaptorTestConstants {
+
+  private final TestTransitData data = new TestTransitData();
+  private final RaptorRequestBuilder<TestTripSchedule> requestBuilder = new RaptorRequestBuilder<>();
+  private final RaptorService<TestTripSchedule> raptorService = new RaptorService<>(
+    RaptorConfig.defaultConfigForTest()
+  );
+
+  private final RaptorAccessEgress egressD = TestAccessEgress.walk(STOP_D, D1m);
+  private final RaptorAccessEgress egressG = TestAccessEgress.walk(STOP_G, D1s);
+
+  /**
+   * The path to D arrives earlier and has a lower cost than the path to G. H can only be reached
+   * with one transfer.
+   */
+  @BeforeEach
+  void setup() {
+    data.withRoutes(
+      route("R1", STOP_B, STOP_C, STOP_D, STOP_E, STOP_F, STOP_G)
+        .withTimetable(schedule("0:10, 0:14, 0:18, 0:20, 0:24, 0:28")),
+      route("R2", STOP_E, STOP_H).withTimetable(schedule("0:22, 0:26"))
+    );
+
+    requestBuilder
+      .searchParams()
+      .addAccessPaths(TestAccessEgress.walk(STOP_B, D20s))
+      .earliestDepartureTime(T00_00)
+      .latestArrivalTime(T00_30);
+
+    ModuleTestDebugLogging.setupDebugLogging(data, requestBuilder);
+  }
+
+  @Test
+  void oneDestination() {
+    requestBuilder.searchParams().addEgressPaths(egressD, egressG);
+
+    assertEquals(Set.of(STOP_D), egressStops(route()));
+  }
+
+  @Test
+  void manyDestinations() {
+    requestBuilder
+      .searchParams()
+      .addEgressPathsForDestination(List.of(egressD))
+      .addEgressPathsForDestination(List.of(egressG));
+
+    assertEquals(Set.of(STOP_D, STOP_G), egressStops(route()));
+  }
+
+  @Test
+  void pathsAreReturnedByDestination() {
+    requestBuilder
+      .searchParams()
+      .addEgressPathsForDestination(List.of(egressG))
+      .addEgressPathsForDestination(List.of(egressD));
+
+    var result = raptorService.route(requestBuilder.build(), data).pathsByDestination();
+
+    assertEquals(2, result.size());
+    assertEquals(Set.of(STOP_G), egressStops(result.get(0)));
+    assertEquals(Set.of(STOP_D), egressStops(result.get(1)));
+  }
+
+  @Test
+  void destinationsWithTheSameEgressStop() {
+    var egressD1 = TestAccessEgress.walk(STOP_D, D1m);
+    var egressD2 = TestAccessEgress.walk(STOP_D, D1m);
+    requestBuilder
+      .searchParams()
+      .addEgressPathsForDestination(List.of(egressD1))
+      .addEgressPathsForDestination(List.of(egressD2));
+
+    var result = raptorService.route(requestBuilder.build(), data).pathsByDestination();
+
+    assertEquals(2, result.size());
+    assertEquals(1, result.get(0).size());
+    assertSame(egressD1, result.get(0).iterator().next().egressLeg().egress());
+    assertEquals(1, result.get(1).size());
+    assertSame(egressD2, result.get(1).iterator().next().egressLeg().egress());
+  }
+
+  @Test
+  void sameEgressPathForTwoDestinationsIsNotAllowed() {
+    requestBuilder
+      .searchParams()
+      .addEgressPathsForDestination(List.of(egressD))
+      .addEgressPathsForDestination(List.of(egressD, egressG));
+
+    assertThrows(IllegalArgumentException.class, requestBuilder::build);
+  }
+
+  /**
+   * D is reached in the first round, but H needs a transfer. The round limit must be set by H, not
+   * by D, the destination reached first.
+   */
+  @Test
+  void roundLimitIsSetByTheDestinationNeedingMostTransfers() {
+    var egressH = TestAccessEgress.walk(STOP_H, D1m);
+    requestBuilder
+      .searchParams()
+      .numberOfAdditionalTransfers(0)
+      .addEgressPathsForDestination(List.of(egressD))
+      .addEgressPathsForDestination(List.of(egressH));
+
+    var result = raptorService.route(requestBuilder.build(), data).pathsByDestination();
+
+    assertEquals(Set.of(STOP_D), egressStops(result.get(0)));
+    assertEquals(Set.of(STOP_H), egressStops(result.get(1)));
+    assertEquals(1, result.get(1).iterator().next().numberOfTransfers());
+  }
+
+  @Test
+  void manyDestinationsInReverseSearchIsNotAllowed() {
+    requestBuilder
+      .searchDirection(SearchDirection.REVERSE)
+      .searchParams()
+      .addEgressPathsForDestination(List.of(egressD))
+      .addEgressPathsForDestination(List.of(egressG));
+
+    assertThrows(IllegalArgumentException.class, requestBuilder::build);
+  }
+
+  private Collection<RaptorPath<TestTripSchedule>> route() {
+    return raptorService.route(requestBuilder.build(), data).paths();
+  }
+
+  private static Set<Integer> egressStops(Collection<RaptorPath<TestTripSchedule>> paths) {
+    return paths.stream().map(it -> it.egressLeg().egress().stop()).collect(Collectors.toSet());
+  }
+}
@@ -0,0 +1,89 @@
+package org.opentripplanner.raptor.moduletests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.opentripplanner.framework.time.TimeUtils.hm2time;
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTripPattern.pattern;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.raptor.moduletests.support.ModuleTestDebugLogging;
+
+/**
+ * FEATURE UNDER TEST
+ * <p>
+ * Raptor should notify the stop arrivals listener at the end of each iteration, with the best
+ * arrival times for a trip departing at the iteration departure time or later.
+ */
+public class L03_StopArrivalsListenerTest implements RaptorTestConstants {
+
+  private static final int NOT_REACHED = -1;
+
+  private final TestTransitData data = new TestTransitData();
+  private final RaptorRequestBuilder<TestTripSchedule> requestBuilder = new RaptorRequestBuilder<>();
+  private final RaptorService<TestTripSchedule> raptorService = new RaptorService<>(
+    RaptorConfig.defaultConfigForTest()
+  );
+
+  /** The transit arrival time at stop B by iteration departure time */
+  private final Map<Integer, Integer> arrivalsAtB = new HashMap<>();
+
+  /**
+   * Schedule:
+   *   Stop:    A       B
+   *    R1:   00:02 - 00:10
+   *          00:12 - 00:20
+   *
+   * Access (toStop & duration):
+   *   A  1m
+   *
+   * Egress (fromStop & duration):
+   *   B  30s
+   */
+  @BeforeEach
+  void setup() {
+    data.withRoute(
+      route(pattern("R1", STOP_A, STOP_B))
+        .withTimetable(schedule("00:02 00:10"), schedule("00:12 00:20"))
+    );
+    requestBuilder
+      .profile(RaptorProfile.BEST_TIME)
+      .stopArrivalsListener((departureTime, arrivals) ->
+        arrivalsAtB.put(
+          departureTime,
+          arrivals.reachedByTransit(STOP_B) ? arrivals.bestTransitArrivalTime(STOP_B) : NOT_REACHED
+        )
+      )
+      .searchParams()
+      .addAccessPaths(TestAccessEgress.walk(STOP_A, D1m))
+      .addEgressPaths(TestAccessEgress.walk(STOP_B, D30s))
+      .earliestDepartureTime(T00_00)
+      .latestArrivalTime(T00_30)
+      .searchWindow(Duration.ofMinutes(20));
+
+    ModuleTestDebugLogging.setupDebugLogging(data, requestBuilder);
+  }
+
+  @Test
+  void listenerIsNotifiedForEachIteration() {
+    raptorService.route(requestBuilder.build(), data);
+
+    assertFalse(arrivalsAtB.isEmpty());
+    assertEquals(T00_10, arrivalsAtB.get(T00_00));
+    assertEquals(T00_20, arrivalsAtB.get(hm2time(0, 5)));
+    assertEquals(NOT_REACHED, arrivalsAtB.get(hm2time(0, 15)));
+  }
+}
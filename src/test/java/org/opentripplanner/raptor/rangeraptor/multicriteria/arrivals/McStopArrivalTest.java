@@ -124,6 +124,28 @@ class McStopArrivalTest {
     );
   }
 
+  @Test
+  void testDominatesTransfer() {
+    // The transfer arrive in pareto-round 2
+    var previous = new A(ARRIVAL_TIME_EARLY, PARETO_ROUND_ONE, C1_100, C1_100, ARRIVED_ON_BOARD);
+
+    // Same values should not dominate
+    var subject = new A(ARRIVAL_TIME_LATE, PARETO_ROUND_TWO, C1_777, C1_100, ARRIVED_ON_BOARD);
+    assertFalse(subject.dominatesTransfer(previous, ARRIVAL_TIME_LATE, C1_777));
+
+    // Transfer is worse for one criteria
+    assertTrue(subject.dominatesTransfer(previous, ARRIVAL_TIME_LATE + 1, C1_777));
+    assertTrue(subject.dominatesTransfer(previous, ARRIVAL_TIME_LATE, C1_777 + 1));
+
+    subject = new A(ARRIVAL_TIME_LATE, PARETO_ROUND_ONE, C1_777, C1_100, ARRIVED_ON_FOOT);
+    assertTrue(subject.dominatesTransfer(previous, ARRIVAL_TIME_LATE, C1_777));
+
+    // Transfer is better for one criteria
+    subject = new A(ARRIVAL_TIME_LATE, PARETO_ROUND_TWO, C1_777, C1_100, ARRIVED_ON_BOARD);
+    assertFalse(subject.dominatesTransfer(previous, ARRIVAL_TIME_EARLY, C1_777 + 1));
+    assertFalse(subject.dominatesTransfer(previous, ARRIVAL_TIME_LATE + 1, C1_100));
+  }
+
   private static class A extends McStopArrival<TestTripSchedule> {
 
     int c2;
@@ -0,0 +1,92 @@
+package org.opentripplanner.routing.algorithm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.ConstantsForTests;
+import org.opentripplanner.TestServerContext;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.model.plan.Itinerary;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.response.RoutingResponse;
+import org.opentripplanner.standalone.api.OtpServerRequestContext;
+
+/**
+ * Routing from one origin to many destinations in one transit search should give the same
+ * itineraries as routing to each destination on its own, when the search-window is set in the
+ * request.
+ */
+class OneToManyRoutingWorkerTest {
+
+  private static final GenericLocation ORIGIN = new GenericLocation(
+    "SE Stark St. & SE 17th Ave.",
+    null,
+    45.519320,
+    -122.648567
+  );
+
+  /**
+   * The same destination is listed twice, the two destinations get their own egress paths with
+   * the same stops.
+   */
+  private static final List<GenericLocation> DESTINATIONS = List.of(
+    new GenericLocation("NW Northrup St. & NW 22nd Ave.", null, 45.53122, -122.69659),
+    new GenericLocation("NE Thompson St. & NE 18th Ave.", null, 45.53896, -122.64699),
+    new GenericLocation("NW Northrup St. & NW 24th Ave.", null, 45.53100, -122.70029),
+    new GenericLocation("NW Northrup St. & NW 22nd Ave.", null, 45.53122, -122.69659),
+    GenericLocation.fromStopId("Rose Quarter Transit Center", "prt", "79-tc")
+  );
+
+  private static OtpServerRequestContext serverContext;
+  private static ZoneId zoneId;
+
+  @BeforeAll
+  static void setup() {
+    var model = ConstantsForTests.getInstance().getCachedPortlandGraph();
+    serverContext = TestServerContext.createServerContext(model.graph(), model.transitModel());
+    zoneId = serverContext.transitService().getTimeZone();
+  }
+
+  @Test
+  void routeToManyDestinationsReturnSameItinerariesAsRoutingEachDestination() {
+    var request = createRequest();
+
+    var expected = new ArrayList<List<String>>();
+    for (GenericLocation destination : DESTINATIONS) {
+      var destinationRequest = request.clone();
+      destinationRequest.setTo(destination);
+      expected.add(toStr(new RoutingWorker(serverContext, destinationRequest, zoneId).route()));
+    }
+
+    var result = new ArrayList<List<String>>();
+    new OneToManyRoutingWorker(serverContext, request, DESTINATIONS, zoneId)
+      .route(it -> result.add(toStr(it)));
+
+    assertFalse(expected.stream().allMatch(List::isEmpty));
+    assertEquals(expected, result);
+  }
+
+  private static RouteRequest createRequest() {
+    var request = serverContext.defaultRouteRequest();
+    request.setDateTime(LocalDateTime.of(2009, 11, 17, 10, 0).atZone(zoneId).toInstant());
+    request.setFrom(ORIGIN);
+    request.setSearchWindow(Duration.ofHours(1));
+    request.journey().access().setMode(StreetMode.WALK);
+    request.journey().egress().setMode(StreetMode.WALK);
+    request.journey().direct().setMode(StreetMode.WALK);
+    request.journey().transfer().setMode(StreetMode.WALK);
+    return request;
+  }
+
+  private static List<String> toStr(RoutingResponse response) {
+    return response.getTripPlan().itineraries.stream().map(Itinerary::toStr).toList();
+  }
+}
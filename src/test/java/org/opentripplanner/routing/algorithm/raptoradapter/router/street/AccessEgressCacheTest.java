@@ -0,0 +1,256 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.router.street;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.opentripplanner.framework.i18n.NonLocalizedString;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.routing.graphfinder.NearbyStop;
+import org.opentripplanner.street.model.edge.TemporaryFreeEdge;
+import org.opentripplanner.street.model.vertex.TemporaryStreetLocation;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.StreetSearchBuilder;
+import org.opentripplanner.street.search.state.State;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.site.RegularStop;
+
+class AccessEgressCacheTest {
+
+  private static final Duration DURATION_LIMIT = Duration.ofMinutes(45);
+  private static final int MAX_STOP_COUNT = 500;
+  private static final Instant TIME = Instant.parse("2023-11-20T12:00:00Z");
+  private static final RegularStop STOP = TransitModelForTest.of().stop("S", 60.001, 10.0).build();
+
+  private final AccessEgressCache subject = new AccessEgressCache();
+  private int searchCount = 0;
+
+  @Test
+  void repeatedRequestIsCached() {
+    var request = request(60.0, 10.0);
+
+    get(request, StreetMode.WALK, false, 0);
+    get(request, StreetMode.WALK, false, 0);
+    // A new request object for the same location
+    get(request(60.0, 10.0), StreetMode.WALK, false, 0);
+
+    assertEquals(1, searchCount);
+    assertEquals(1, subject.size());
+  }
+
+  @Test
+  void keyIncludesLocationModeAndDirection() {
+    var request = request(60.0, 10.0);
+
+    get(request, StreetMode.WALK, false, 0);
+    get(request, StreetMode.WALK, true, 0);
+    get(request, StreetMode.BIKE, false, 0);
+    get(request(60.0, 10.1), StreetMode.WALK, false, 0);
+
+    assertEquals(4, searchCount);
+  }
+
+  @Test
+  void keyIncludesPreferences() {
+    var request = request(60.0, 10.0);
+    get(request, StreetMode.WALK, false, 0);
+
+    request.withPreferences(p -> p.withWalk(w -> w.withSpeed(1.0)));
+    get(request, StreetMode.WALK, false, 0);
+
+    assertEquals(2, searchCount);
+  }
+
+  @Test
+  void realtimeUpdatesOnlyAffectRentalAndParking() {
+    var request = request(60.0, 10.0);
+
+    get(request, StreetMode.WALK, false, 0);
+    get(request, StreetMode.WALK, false, 1);
+    assertEquals(1, searchCount);
+
+    get(request, StreetMode.BIKE_RENTAL, false, 0);
+    get(request, StreetMode.BIKE_RENTAL, false, 0);
+    assertEquals(2, searchCount);
+    get(request, StreetMode.BIKE_RENTAL, false, 1);
+    assertEquals(3, searchCount);
+
+    get(request, StreetMode.CAR_TO_PARK, false, 1);
+    request.setDateTime(TIME.plus(Duration.ofHours(1)));
+    get(request, StreetMode.CAR_TO_PARK, false, 1);
+    assertEquals(5, searchCount);
+  }
+
+  @Test
+  void emptyResultWeighsOne() {
+    var cache = new AccessEgressCache(2);
+
+    for (int i = 0; i < 10; ++i) {
+      cache.get(
+        request(60.0, 10.0 + i / 100.0),
+        new StreetRequest(StreetMode.WALK),
+        false,
+        Set.of(),
+        DURATION_LIMIT,
+        MAX_STOP_COUNT,
+        0,
+        List::of
+      );
+    }
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  void sizeIsLimitedByTheNumberOfEdges() {
+    var a = intersectionVertex("A", 60.0, 10.0);
+    var b = intersectionVertex("B", 60.001, 10.0);
+    streetEdge(a, b);
+    var origin = location(a);
+    TemporaryFreeEdge.createTemporaryFreeEdge(origin, a);
+
+    // Each result has one stop and a path of two edges, so only one result fits
+    var cache = new AccessEgressCache(5);
+    getStopsAt(cache, request(60.0, 10.0), origin, b);
+    assertEquals(1, cache.size());
+    getStopsAt(cache, request(60.0, 10.01), origin, b);
+    assertEquals(1, cache.size());
+    assertEquals(2, searchCount);
+  }
+
+  @Test
+  void statesAreRebuiltFromTheTemporaryVerticesOfTheRequest() {
+    var a = intersectionVertex("A", 60.0, 10.0);
+    var b = intersectionVertex("B", 60.001, 10.0);
+    streetEdge(a, b);
+
+    var firstOrigin = location(a);
+    var firstEdge = TemporaryFreeEdge.createTemporaryFreeEdge(firstOrigin, a);
+    var firstRequest = request(60.0, 10.0);
+    var first = getStopsAt(firstRequest, firstOrigin, b);
+    firstEdge.remove();
+
+    // The next request from the same location has its own temporary vertices and start time
+    var secondOrigin = location(a);
+    TemporaryFreeEdge.createTemporaryFreeEdge(secondOrigin, a);
+    var secondRequest = request(60.0, 10.0);
+    secondRequest.setDateTime(TIME.plus(Duration.ofMinutes(5)));
+    var second = getStopsAt(secondRequest, secondOrigin, b);
+
+    assertEquals(1, searchCount);
+    var firstState = first.iterator().next().state;
+    var secondState = second.iterator().next().state;
+    assertSame(secondOrigin, firstVertex(secondState));
+    assertEquals(b, secondState.getVertex());
+    assertEquals(firstState.getWeight(), secondState.getWeight(), 0.001);
+    assertEquals(firstState.getTime().plus(Duration.ofMinutes(5)), secondState.getTime());
+  }
+
+  @Test
+  void searchIsRepeatedIfThePathCanNotBeRebuilt() {
+    var a = intersectionVertex("A", 60.0, 10.0);
+    var b = intersectionVertex("B", 60.001, 10.0);
+    streetEdge(a, b);
+
+    var firstOrigin = location(a);
+    var firstEdge = TemporaryFreeEdge.createTemporaryFreeEdge(firstOrigin, a);
+    getStopsAt(request(60.0, 10.0), firstOrigin, b);
+    firstEdge.remove();
+
+    // The origin is not linked to the street in the same way
+    var secondOrigin = location(a);
+    TemporaryFreeEdge.createTemporaryFreeEdge(secondOrigin, b);
+    getStopsAt(request(60.0, 10.0), secondOrigin, b);
+
+    assertEquals(2, searchCount);
+  }
+
+  private Collection<NearbyStop> getStopsAt(RouteRequest request, Vertex origin, Vertex stop) {
+    return getStopsAt(subject, request, origin, stop);
+  }
+
+  private Collection<NearbyStop> getStopsAt(
+    AccessEgressCache cache,
+    RouteRequest request,
+    Vertex origin,
+    Vertex stop
+  ) {
+    var streetRequest = new StreetRequest(StreetMode.WALK);
+    return cache.get(
+      request,
+      streetRequest,
+      false,
+      Set.of(origin),
+      DURATION_LIMIT,
+      MAX_STOP_COUNT,
+      0,
+      () -> {
+        ++searchCount;
+        var path = StreetSearchBuilder
+          .of()
+          .setRequest(request)
+          .setStreetRequest(streetRequest)
+          .setFrom(origin)
+          .setTo(stop)
+          .getPathsToTarget()
+          .get(0);
+        return List.of(NearbyStop.nearbyStopForState(path.states.getLast(), STOP));
+      }
+    );
+  }
+
+  private static Vertex firstVertex(State state) {
+    while (state.getBackState() != null) {
+      state = state.getBackState();
+    }
+    return state.getVertex();
+  }
+
+  private static TemporaryStreetLocation location(Vertex at) {
+    return new TemporaryStreetLocation(
+      "origin",
+      new Coordinate(at.getX(), at.getY()),
+      new NonLocalizedString("origin"),
+      false
+    );
+  }
+
+  private Collection<NearbyStop> get(
+    RouteRequest request,
+    StreetMode mode,
+    boolean fromTarget,
+    long realtimeStreetVersion
+  ) {
+    return subject.get(
+      request,
+      new StreetRequest(mode),
+      fromTarget,
+      Set.of(),
+      DURATION_LIMIT,
+      MAX_STOP_COUNT,
+      realtimeStreetVersion,
+      () -> {
+        ++searchCount;
+        return List.of();
+      }
+    );
+  }
+
+  private static RouteRequest request(double lat, double lng) {
+    var request = new RouteRequest();
+    request.setFrom(new GenericLocation(lat, lng));
+    request.setTo(new GenericLocation(59.0, 11.0));
+    request.setDateTime(TIME);
+    return request;
+  }
+}
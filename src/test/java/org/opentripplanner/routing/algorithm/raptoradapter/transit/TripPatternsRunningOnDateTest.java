@@ -0,0 +1,109 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.model.StopTime;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+import org.opentripplanner.transit.model.network.Route;
+import org.opentripplanner.transit.model.network.StopPattern;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.site.RegularStop;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+import org.opentripplanner.transit.model.timetable.TripTimesFactory;
+
+class TripPatternsRunningOnDateTest {
+
+  private static final TransitModelForTest TEST_MODEL = TransitModelForTest.of();
+  private static final RegularStop STOP = TEST_MODEL.stop("TEST:STOP", 0, 0).build();
+  private static final Route ROUTE = TransitModelForTest.route("1").build();
+  private static final LocalDate DATE = LocalDate.of(2024, 3, 1);
+  private static final TripTimes TRIP_TIMES = TripTimesFactory.tripTimes(
+    TransitModelForTest.trip("1").withRoute(ROUTE).build(),
+    List.of(new StopTime()),
+    new Deduplicator()
+  );
+
+  /** Enough patterns to fill a few chunks */
+  private final List<TripPatternForDate> patterns = createPatterns(200);
+
+  @Test
+  void emptyAndOf() {
+    assertTrue(TripPatternsRunningOnDate.EMPTY.isEmpty());
+
+    var subject = TripPatternsRunningOnDate.of(patterns);
+    assertEquals(patterns.size(), subject.size());
+    assertEquals(new HashSet<>(patterns), toSet(subject));
+  }
+
+  @Test
+  void update() {
+    var original = TripPatternsRunningOnDate.of(patterns.subList(0, 150));
+    var removed = List.of(patterns.get(3), patterns.get(100));
+    var added = List.of(patterns.get(199), patterns.get(160));
+
+    var subject = original.update(removed, added);
+
+    Set<TripPatternForDate> expected = new HashSet<>(patterns.subList(0, 150));
+    removed.forEach(expected::remove);
+    expected.addAll(added);
+    assertEquals(expected, toSet(subject));
+    assertEquals(expected.size(), subject.size());
+
+    // The original is not changed
+    assertEquals(new HashSet<>(patterns.subList(0, 150)), toSet(original));
+  }
+
+  @Test
+  void updateWithExistingOrMissingPatterns() {
+    var original = TripPatternsRunningOnDate.of(patterns.subList(0, 10));
+
+    // Adding a pattern which exists, or removing one which does not, does nothing
+    var subject = original.update(List.of(patterns.get(150)), List.of(patterns.get(5)));
+    assertEquals(10, subject.size());
+    assertEquals(toSet(original), toSet(subject));
+
+    assertSame(original, original.update(List.of(), List.of()));
+  }
+
+  @Test
+  void removeAll() {
+    var original = TripPatternsRunningOnDate.of(patterns);
+    var subject = original.update(patterns, List.of());
+    assertTrue(subject.isEmpty());
+    assertEquals(0, toSet(subject).size());
+  }
+
+  private static Set<TripPatternForDate> toSet(TripPatternsRunningOnDate subject) {
+    var result = new HashSet<TripPatternForDate>();
+    for (TripPatternForDate it : subject) {
+      assertTrue(result.add(it), "Duplicate: " + it);
+    }
+    return result;
+  }
+
+  private static List<TripPatternForDate> createPatterns(int n) {
+    var stopTime = new StopTime();
+    stopTime.setStop(STOP);
+    var stopPattern = new StopPattern(List.of(stopTime));
+    var result = new ArrayList<TripPatternForDate>();
+    for (int i = 0; i < n; ++i) {
+      var pattern = TripPattern
+        .of(TransitModelForTest.id("P" + i))
+        .withRoute(ROUTE)
+        .withStopPattern(stopPattern)
+        .build()
+        .getRoutingTripPattern();
+      result.add(new TripPatternForDate(pattern, List.of(TRIP_TIMES), List.of(), DATE));
+    }
+    return result;
+  }
+}
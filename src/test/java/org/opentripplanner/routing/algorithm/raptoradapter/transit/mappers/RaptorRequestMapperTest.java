@@ -2,10 +2,17 @@ package org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import io.micrometer.core.instrument.Metrics;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
 import java.util.List;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.framework.CostLinearFunction;
 
 class RaptorRequestMapperTest {
@@ -33,4 +40,28 @@ class RaptorRequestMapperTest {
     var calcCost = RaptorRequestMapper.mapRelaxCost(input);
     assertEquals(expected, calcCost.relax(cost));
   }
+
+  @Test
+  void mapRequestToManyDestinations() {
+    var request = new RouteRequest();
+    var time = Instant.parse("2023-11-20T12:00:00Z");
+    request.setDateTime(time);
+    var access = List.of(TestAccessEgress.walk(1, 60));
+    var egressA = List.of(TestAccessEgress.walk(2, 60), TestAccessEgress.walk(3, 120));
+    var egressB = List.of(TestAccessEgress.walk(4, 60));
+
+    var result = RaptorRequestMapper.mapRequestToManyDestinations(
+      request,
+      time.atZone(ZoneId.of("UTC")),
+      false,
+      access,
+      List.of(egressA, egressB),
+      Duration.ZERO,
+      Metrics.globalRegistry
+    );
+
+    var searchParams = result.searchParams();
+    assertEquals(3, searchParams.egressPaths().size());
+    assertEquals(List.of(egressA, egressB), searchParams.egressPathsByDestination());
+  }
 }
@@ -0,0 +1,80 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner._support.time.ZoneIds;
+import org.opentripplanner.framework.time.ServiceDateUtils;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTransitDataCache.TransitDataForDates;
+
+class RaptorRequestTransitDataCacheTest {
+
+  private static final LocalDate DATE = LocalDate.of(2024, 2, 14);
+  private static final ZonedDateTime TIME_ZERO = ServiceDateUtils.asStartOfService(
+    DATE,
+    ZoneIds.OSLO
+  );
+  private static final Object FILTER_KEY = "filter";
+
+  @Test
+  void cacheEntriesAreShared() {
+    var subject = new RaptorRequestTransitDataCache();
+    var first = subject.get(TIME_ZERO, 1, 2, FILTER_KEY, RaptorRequestTransitDataCacheTest::data);
+    var second = subject.get(TIME_ZERO, 1, 2, FILTER_KEY, RaptorRequestTransitDataCacheTest::data);
+
+    assertSame(first, second);
+    assertEquals(1, subject.size());
+
+    // Another search window is not the same entry
+    var third = subject.get(TIME_ZERO, 1, 1, FILTER_KEY, RaptorRequestTransitDataCacheTest::data);
+    assertNotSame(first, third);
+    assertEquals(2, subject.size());
+  }
+
+  @Test
+  void requestWithoutFilterKeyIsNotCached() {
+    var subject = new RaptorRequestTransitDataCache();
+    var first = subject.get(TIME_ZERO, 1, 2, null, RaptorRequestTransitDataCacheTest::data);
+    var second = subject.get(TIME_ZERO, 1, 2, null, RaptorRequestTransitDataCacheTest::data);
+
+    assertNotSame(first, second);
+    assertEquals(0, subject.size());
+  }
+
+  @Test
+  void invalidateDate() {
+    var subject = new RaptorRequestTransitDataCache();
+    subject.get(TIME_ZERO, 1, 2, FILTER_KEY, RaptorRequestTransitDataCacheTest::data);
+
+    // Outside the search window [DATE-1, DATE+2]
+    subject.invalidateDate(DATE.minusDays(2));
+    subject.invalidateDate(DATE.plusDays(3));
+    assertEquals(1, subject.size());
+
+    subject.invalidateDate(DATE.plusDays(2));
+    assertEquals(0, subject.size());
+  }
+
+  @Test
+  void copyIsIndependentOfOriginal() {
+    var original = new RaptorRequestTransitDataCache();
+    var data = original.get(TIME_ZERO, 0, 0, FILTER_KEY, RaptorRequestTransitDataCacheTest::data);
+
+    var copy = original.copy();
+    var copyData = copy.get(TIME_ZERO, 0, 0, FILTER_KEY, RaptorRequestTransitDataCacheTest::data);
+    assertSame(data, copyData);
+
+    copy.invalidateDate(DATE);
+    assertEquals(0, copy.size());
+    assertEquals(1, original.size());
+  }
+
+  private static TransitDataForDates data() {
+    return new TransitDataForDates(List.of(), List.of());
+  }
+}
@@ -0,0 +1,98 @@
+package org.opentripplanner.routing.graph;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+class SectionInputStreamTest {
+
+  private static final int BLOCK_SIZE = 8;
+
+  @Test
+  void readSectionsWrittenInBlocks() throws IOException {
+    byte[] a = content(20);
+    byte[] b = content(3);
+    var in = input(write(a, b));
+
+    var section = new SectionInputStream(in);
+    assertArrayEquals(a, section.readAllBytes());
+    assertTrue(section.finish());
+    assertEquals(20, section.size());
+
+    section = new SectionInputStream(in);
+    assertEquals(b[0] & 0xFF, section.read());
+    assertArrayEquals(new byte[] { b[1], b[2] }, section.readAllBytes());
+    assertEquals(-1, section.read());
+    assertTrue(section.finish());
+  }
+
+  @Test
+  void emptySection() throws IOException {
+    var section = new SectionInputStream(input(write(new byte[0])));
+    assertEquals(-1, section.read());
+    assertTrue(section.finish());
+  }
+
+  @Test
+  void finishSkipsTheRestOfTheSection() throws IOException {
+    byte[] a = content(20);
+    byte[] b = content(5);
+    var in = input(write(a, b));
+
+    var section = new SectionInputStream(in);
+    assertEquals(a[0] & 0xFF, section.read());
+    // Not all the content is read
+    assertFalse(section.finish());
+
+    section = new SectionInputStream(in);
+    assertArrayEquals(b, section.readAllBytes());
+    assertTrue(section.finish());
+  }
+
+  @Test
+  void checksumMismatch() throws IOException {
+    byte[] file = write(content(20));
+    // Change the last byte of the content, the section has two full blocks and one with 4 bytes
+    file[3 * 4 + 2 * BLOCK_SIZE + 3] ^= 1;
+
+    var section = new SectionInputStream(input(file));
+    section.readAllBytes();
+    assertFalse(section.finish());
+  }
+
+  private static byte[] write(byte[]... sections) throws IOException {
+    var buffer = new ByteArrayOutputStream();
+    var out = new DataOutputStream(buffer);
+    for (byte[] content : sections) {
+      var section = new SectionOutputStream(out, BLOCK_SIZE);
+      // Write the first byte alone, to test both write methods
+      if (content.length > 0) {
+        section.write(content[0]);
+        section.write(content, 1, content.length - 1);
+      }
+      section.close();
+      assertEquals(content.length, section.size());
+    }
+    return buffer.toByteArray();
+  }
+
+  private static DataInputStream input(byte[] file) {
+    return new DataInputStream(new ByteArrayInputStream(file));
+  }
+
+  private static byte[] content(int size) {
+    var content = new byte[size];
+    for (int i = 0; i < size; ++i) {
+      content[i] = (byte) (i * 13);
+    }
+    return content;
+  }
+}
@@ -0,0 +1,140 @@
+package org.opentripplanner.routing.graph.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdgeBuilder;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.routing.graph.SimpleConcreteEdge;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.IntersectionVertex;
+import org.opentripplanner.street.search.TraverseMode;
+
+class CompactStreetGraphTest {
+
+  private final IntersectionVertex A = intersectionVertex("A", 60.0, 10.0);
+  private final IntersectionVertex B = intersectionVertex("B", 60.001, 10.0);
+  private final IntersectionVertex C = intersectionVertex("C", 60.001, 10.001);
+  private final IntersectionVertex OUTSIDE = intersectionVertex("X", 60.002, 10.001);
+
+  private final StreetEdge AB = streetEdge(A, B, 100.0, StreetTraversalPermission.ALL);
+  private final StreetEdge BA = streetEdge(B, A, 100.0, StreetTraversalPermission.ALL);
+  private final StreetEdge BC = streetEdgeBuilder(
+    B,
+    C,
+    55.5,
+    StreetTraversalPermission.PEDESTRIAN
+  )
+    .withStairs(true)
+    .withCarSpeed(0f)
+    .withBicycleSafetyFactor(1.5f)
+    .buildAndConnect();
+  private final SimpleConcreteEdge CA = SimpleConcreteEdge.createSimpleConcreteEdge(C, A);
+  private final StreetEdge CX = streetEdge(C, OUTSIDE, 10.0, StreetTraversalPermission.ALL);
+
+  private final CompactStreetGraph subject = CompactStreetGraph.of(List.of(A, B, C));
+
+  @Test
+  void size() {
+    assertEquals(3, subject.numberOfVertices());
+    // The edge to a vertex outside the graph is not included
+    assertEquals(4, subject.numberOfEdges());
+    assertEquals(CompactStreetGraph.NOT_FOUND, subject.vertexIndex(OUTSIDE));
+  }
+
+  @Test
+  void vertices() {
+    for (var v : List.of(A, B, C)) {
+      int i = subject.vertexIndex(v);
+      assertSame(v, subject.vertex(i));
+      assertEquals(v.getLat(), subject.lat(i));
+      assertEquals(v.getLon(), subject.lon(i));
+    }
+  }
+
+  @Test
+  void outgoingEdges() {
+    assertEquals(Set.of(AB), outgoing(subject.vertexIndex(A)));
+    assertEquals(Set.of(BA, BC), outgoing(subject.vertexIndex(B)));
+    assertEquals(Set.of(CA), outgoing(subject.vertexIndex(C)));
+  }
+
+  @Test
+  void incomingEdges() {
+    assertEquals(Set.of(BA, CA), incoming(subject.vertexIndex(A)));
+    assertEquals(Set.of(AB), incoming(subject.vertexIndex(B)));
+    assertEquals(Set.of(BC), incoming(subject.vertexIndex(C)));
+  }
+
+  @Test
+  void edgeEndpoints() {
+    for (int e = 0; e < subject.numberOfEdges(); ++e) {
+      var edge = subject.edge(e);
+      assertSame(edge.getFromVertex(), subject.vertex(subject.fromVertex(e)));
+      assertSame(edge.getToVertex(), subject.vertex(subject.toVertex(e)));
+    }
+  }
+
+  @Test
+  void streetEdgeAttributes() {
+    int ab = edgeIndex(AB);
+    assertEquals(100_000, subject.lengthMm(ab));
+    assertEquals(StreetTraversalPermission.ALL, subject.permission(ab));
+    assertTrue(subject.allows(ab, TraverseMode.CAR));
+    assertTrue(subject.hasFlag(ab, CompactStreetGraph.FLAG_STREET));
+    assertFalse(subject.hasFlag(ab, CompactStreetGraph.FLAG_STAIRS));
+    assertEquals(AB.getCarSpeed(), subject.carSpeed(ab));
+
+    int bc = edgeIndex(BC);
+    assertEquals(55_500, subject.lengthMm(bc));
+    assertTrue(subject.allows(bc, TraverseMode.WALK));
+    assertFalse(subject.allows(bc, TraverseMode.CAR));
+    assertTrue(subject.hasFlag(bc, CompactStreetGraph.FLAG_STAIRS));
+    assertEquals(1.5f, subject.bicycleSafetyFactor(bc));
+    assertEquals(BC.getWalkSafetyFactor(), subject.walkSafetyFactor(bc));
+  }
+
+  @Test
+  void nonStreetEdgeAttributes() {
+    int ca = edgeIndex(CA);
+    assertEquals(Math.round(CA.getDistanceMeters() * 1000.0), subject.lengthMm(ca));
+    assertEquals(StreetTraversalPermission.NONE, subject.permission(ca));
+    assertFalse(subject.hasFlag(ca, CompactStreetGraph.FLAG_STREET));
+  }
+
+  private int edgeIndex(Object edge) {
+    for (int e = 0; e < subject.numberOfEdges(); ++e) {
+      if (subject.edge(e) == edge) {
+        return e;
+      }
+    }
+    throw new IllegalArgumentException("Edge not found: " + edge);
+  }
+
+  private Set<Object> outgoing(int v) {
+    Set<Object> result = new HashSet<>();
+    for (int e = subject.outgoingEdgesStart(v); e < subject.outgoingEdgesEnd(v); ++e) {
+      assertEquals(v, subject.fromVertex(e));
+      result.add(subject.edge(e));
+    }
+    return result;
+  }
+
+  private Set<Object> incoming(int v) {
+    Set<Object> result = new HashSet<>();
+    for (int i = 0; i < subject.inDegree(v); ++i) {
+      int e = subject.incomingEdge(v, i);
+      assertEquals(v, subject.toVertex(e));
+      result.add(subject.edge(e));
+    }
+    return result;
+  }
+}
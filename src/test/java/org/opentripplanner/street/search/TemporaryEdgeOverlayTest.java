@@ -0,0 +1,97 @@
+package org.opentripplanner.street.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.framework.i18n.NonLocalizedString;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.street.model.edge.TemporaryFreeEdge;
+import org.opentripplanner.street.model.vertex.IntersectionVertex;
+import org.opentripplanner.street.model.vertex.TemporaryStreetLocation;
+
+class TemporaryEdgeOverlayTest {
+
+  private final IntersectionVertex a = intersectionVertex("A", 60.0, 10.0);
+  private final IntersectionVertex b = intersectionVertex("B", 60.001, 10.0);
+
+  @Test
+  void edgesToTheGraphAreOnlyAddedToTheRequestScopedVertices() {
+    OTPFeature.TemporaryEdgeOverlay.testOn(() -> {
+      var origin = location("origin", a, false);
+      var destination = location("destination", b, true);
+      var toStreet = TemporaryFreeEdge.createTemporaryFreeEdge(origin, a);
+      var fromStreet = TemporaryFreeEdge.createTemporaryFreeEdge(b, destination);
+
+      assertEquals(List.of(toStreet), origin.getOutgoing());
+      assertEquals(List.of(fromStreet), destination.getIncoming());
+      // The graph is not changed
+      assertTrue(a.getIncoming().isEmpty());
+      assertTrue(b.getOutgoing().isEmpty());
+
+      var vertices = Set.of(origin, destination);
+      assertEquals(Map.of(b, List.of(fromStreet)), TemporaryEdgeOverlay.create(vertices, false));
+      assertEquals(Map.of(a, List.of(toStreet)), TemporaryEdgeOverlay.create(vertices, true));
+
+      // Removing the edges does not change the graph either
+      toStreet.remove();
+      assertTrue(origin.getOutgoing().isEmpty());
+    });
+  }
+
+  @Test
+  void searchThroughTheOverlay() {
+    streetEdge(a, b);
+    OTPFeature.TemporaryEdgeOverlay.testOn(() -> {
+      var origin = location("origin", a, false);
+      var destination = location("destination", b, true);
+      TemporaryFreeEdge.createTemporaryFreeEdge(origin, a);
+      TemporaryFreeEdge.createTemporaryFreeEdge(b, destination);
+
+      for (boolean arriveBy : new boolean[] { false, true }) {
+        var request = new RouteRequest();
+        request.setArriveBy(arriveBy);
+        var paths = StreetSearchBuilder
+          .of()
+          .setRequest(request)
+          .setFrom(origin)
+          .setTo(destination)
+          .getPathsToTarget();
+
+        assertEquals(1, paths.size());
+        assertEquals(3, paths.get(0).edges.size());
+      }
+    });
+  }
+
+  @Test
+  void featureIsOff() {
+    OTPFeature.TemporaryEdgeOverlay.testOff(() -> {
+      var origin = location("origin", a, false);
+      var toStreet = TemporaryFreeEdge.createTemporaryFreeEdge(origin, a);
+
+      assertEquals(List.of(toStreet), a.getIncoming());
+      assertTrue(TemporaryEdgeOverlay.create(Set.of(origin), true).isEmpty());
+    });
+  }
+
+  private static TemporaryStreetLocation location(
+    String name,
+    IntersectionVertex at,
+    boolean endVertex
+  ) {
+    return new TemporaryStreetLocation(
+      name,
+      new Coordinate(at.getX(), at.getY()),
+      new NonLocalizedString(name),
+      endVertex
+    );
+  }
+}
@@ -0,0 +1,126 @@
+package org.opentripplanner.street.search.ch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.routing.graph.index.CompactStreetGraph;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.IntersectionVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+import org.opentripplanner.street.search.matrix.StreetDistanceMatrix;
+
+class ContractionHierarchyTest {
+
+  private static final int SIZE = 6;
+
+  @Test
+  void shortestPathsInGridAreTheSameAsDijkstra() {
+    var random = new Random(11);
+    var vertices = new IntersectionVertex[SIZE][SIZE];
+    for (int i = 0; i < SIZE; ++i) {
+      for (int j = 0; j < SIZE; ++j) {
+        vertices[i][j] = intersectionVertex(i + "_" + j, 60.0 + i * 0.001, 10.0 + j * 0.001);
+      }
+    }
+    for (int i = 0; i < SIZE; ++i) {
+      for (int j = 0; j < SIZE; ++j) {
+        if (i + 1 < SIZE) {
+          connect(vertices[i][j], vertices[i + 1][j], random);
+        }
+        if (j + 1 < SIZE) {
+          connect(vertices[i][j], vertices[i][j + 1], random);
+        }
+      }
+    }
+    List<Vertex> all = new ArrayList<>();
+    for (var row : vertices) {
+      all.addAll(List.of(row));
+    }
+    var graph = CompactStreetGraph.of(all);
+    var subject = ContractionHierarchy.build(graph, TraverseMode.WALK);
+    var dijkstra = new StreetDistanceMatrix(graph, false).newSearch();
+
+    for (Vertex from : all) {
+      dijkstra.run(graph.vertexIndex(from), Integer.MAX_VALUE / 2);
+      for (Vertex to : all) {
+        if (from == to) {
+          continue;
+        }
+        var path = subject.findPath(Set.of(from), Set.of(to));
+        assertEquals(from, path.get(0).getFromVertex());
+        assertEquals(to, path.get(path.size() - 1).getToVertex());
+        assertConnected(path);
+        assertEquals(dijkstra.distanceMm(graph.vertexIndex(to)), lengthMm(path));
+      }
+    }
+  }
+
+  @Test
+  void accessFromVertexOutsideTheHierarchy() {
+    var a = intersectionVertex("A", 60.0, 10.0);
+    var b = intersectionVertex("B", 60.001, 10.0);
+    var c = intersectionVertex("C", 60.002, 10.0);
+    var outside = intersectionVertex("X", 60.0, 10.001);
+    var xa = streetEdge(outside, a, 10.0, StreetTraversalPermission.ALL);
+    var ab = streetEdge(a, b, 100.0, StreetTraversalPermission.ALL);
+    var bc = streetEdge(b, c, 100.0, StreetTraversalPermission.ALL);
+
+    var subject = ContractionHierarchy.build(
+      CompactStreetGraph.of(List.of(a, b, c)),
+      TraverseMode.CAR
+    );
+
+    assertEquals(List.of(xa, ab, bc), subject.findPath(Set.of(outside), Set.of(c)));
+    // There is no path back to the vertex outside the hierarchy
+    assertNull(subject.findPath(Set.of(c), Set.of(outside)));
+  }
+
+  @Test
+  void modeNotAllowed() {
+    var a = intersectionVertex("A", 60.0, 10.0);
+    var b = intersectionVertex("B", 60.001, 10.0);
+    streetEdge(a, b, 100.0, StreetTraversalPermission.PEDESTRIAN);
+    var subject = ContractionHierarchy.build(
+      CompactStreetGraph.of(List.of(a, b)),
+      TraverseMode.CAR
+    );
+
+    assertNull(subject.findPath(Set.of(a), Set.of(b)));
+  }
+
+  @Test
+  void unsupportedMode() {
+    var graph = CompactStreetGraph.of(List.of());
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> ContractionHierarchy.build(graph, TraverseMode.SCOOTER)
+    );
+  }
+
+  private static void connect(IntersectionVertex a, IntersectionVertex b, Random random) {
+    // Whole meters, the walk weight is proportional to the length (the safety factor is 1.0)
+    double length = 1 + random.nextInt(20);
+    streetEdge(a, b, length, StreetTraversalPermission.ALL);
+    streetEdge(b, a, length, StreetTraversalPermission.ALL);
+  }
+
+  private static void assertConnected(List<Edge> path) {
+    for (int i = 1; i < path.size(); ++i) {
+      assertEquals(path.get(i - 1).getToVertex(), path.get(i).getFromVertex());
+    }
+  }
+
+  private static int lengthMm(List<Edge> path) {
+    return path.stream().mapToInt(e -> (int) Math.round(e.getDistanceMeters() * 1000.0)).sum();
+  }
+}
@@ -0,0 +1,102 @@
+package org.opentripplanner.street.search.landmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.routing.graph.index.CompactStreetGraph;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.vertex.IntersectionVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.matrix.StreetDistanceMatrix;
+
+class LandmarksTest {
+
+  private static final int SIZE = 6;
+
+  @Test
+  void lowerBoundIsNeverLongerThanTheShortestPath() {
+    var random = new Random(7);
+    var vertices = new IntersectionVertex[SIZE][SIZE];
+    for (int i = 0; i < SIZE; ++i) {
+      for (int j = 0; j < SIZE; ++j) {
+        vertices[i][j] = intersectionVertex(i + "_" + j, 60.0 + i * 0.001, 10.0 + j * 0.001);
+      }
+    }
+    for (int i = 0; i < SIZE; ++i) {
+      for (int j = 0; j < SIZE; ++j) {
+        if (i + 1 < SIZE) {
+          connect(vertices[i][j], vertices[i + 1][j], random);
+        }
+        if (j + 1 < SIZE) {
+          connect(vertices[i][j], vertices[i][j + 1], random);
+        }
+      }
+    }
+    List<Vertex> all = new ArrayList<>();
+    for (var row : vertices) {
+      all.addAll(List.of(row));
+    }
+    var graph = CompactStreetGraph.of(all);
+    var subject = Landmarks.build(graph, 4);
+    var dijkstra = new StreetDistanceMatrix(graph, false).newSearch();
+
+    assertEquals(4, subject.numberOfLandmarks());
+    int positiveBounds = 0;
+    for (Vertex from : all) {
+      dijkstra.run(graph.vertexIndex(from), Integer.MAX_VALUE / 2);
+      for (Vertex to : all) {
+        double distance = dijkstra.distanceMm(graph.vertexIndex(to)) / 1000.0;
+        double bound = subject.lowerBoundMeters(subject.vertexIndex(from), subject.vertexIndex(to));
+        assertTrue(bound <= distance, from + " -> " + to + ": " + bound + " > " + distance);
+        positiveBounds += bound > 0 ? 1 : 0;
+      }
+    }
+    assertTrue(positiveBounds > all.size() * all.size() / 2);
+  }
+
+  @Test
+  void exactBoundWithLandmarksAtTheEnds() {
+    var a = intersectionVertex("A", 60.0, 10.0);
+    var b = intersectionVertex("B", 60.001, 10.0);
+    var c = intersectionVertex("C", 60.002, 10.0);
+    var d = intersectionVertex("D", 60.003, 10.0);
+    connect(a, b, 100.0, StreetTraversalPermission.ALL);
+    connect(b, c, 150.0, StreetTraversalPermission.PEDESTRIAN);
+    connect(c, d, 50.0, StreetTraversalPermission.ALL);
+    // A detour for cars
+    var x = intersectionVertex("X", 60.0015, 10.001);
+    connect(b, x, 200.0, StreetTraversalPermission.ALL);
+    connect(x, c, 200.0, StreetTraversalPermission.ALL);
+
+    var subject = Landmarks.build(CompactStreetGraph.of(List.of(a, b, c, d, x)), 2);
+    int ia = subject.vertexIndex(a);
+    int id = subject.vertexIndex(d);
+
+    // The pedestrian street is not part of the car distances
+    assertEquals(550.0, subject.lowerBoundMeters(ia, id));
+    assertEquals(550.0, subject.lowerBoundMeters(id, ia));
+    assertEquals(0.0, subject.lowerBoundMeters(ia, ia));
+    assertEquals(Landmarks.NOT_FOUND, subject.vertexIndex(intersectionVertex("Y", 60.0, 10.0)));
+  }
+
+  private static void connect(IntersectionVertex a, IntersectionVertex b, Random random) {
+    // Whole meters, so rounding the lengths down to decimeters does not change them
+    connect(a, b, 1 + random.nextInt(20), StreetTraversalPermission.ALL);
+  }
+
+  private static void connect(
+    IntersectionVertex a,
+    IntersectionVertex b,
+    double length,
+    StreetTraversalPermission permission
+  ) {
+    streetEdge(a, b, length, permission);
+    streetEdge(b, a, length, permission);
+  }
+}
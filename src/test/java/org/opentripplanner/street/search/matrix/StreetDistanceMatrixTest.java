@@ -0,0 +1,93 @@
+package org.opentripplanner.street.search.matrix;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+import static org.opentripplanner.street.search.matrix.StreetDistanceMatrix.UNREACHED;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.routing.graph.index.CompactStreetGraph;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.IntersectionVertex;
+
+class StreetDistanceMatrixTest {
+
+  private final IntersectionVertex A = intersectionVertex("A", 60.0, 10.0);
+  private final IntersectionVertex B = intersectionVertex("B", 60.001, 10.0);
+  private final IntersectionVertex C = intersectionVertex("C", 60.001, 10.001);
+  private final IntersectionVertex D = intersectionVertex("D", 60.0, 10.001);
+
+  // A -> B -> C is shorter than A -> D -> C, and D -> C is a car only road
+  private final StreetEdge AB = streetEdge(A, B, 100.0, StreetTraversalPermission.ALL);
+  private final StreetEdge BC = streetEdge(B, C, 100.0, StreetTraversalPermission.ALL);
+  private final StreetEdge AD = streetEdge(A, D, 50.0, StreetTraversalPermission.ALL);
+  private final StreetEdge DC = streetEdge(D, C, 50.0, StreetTraversalPermission.CAR);
+
+  private final CompactStreetGraph graph = CompactStreetGraph.of(List.of(A, B, C, D));
+
+  @Test
+  void forwardSearch() {
+    var search = new StreetDistanceMatrix(graph, false).newSearch();
+    search.run(index(A), 1_000_000);
+
+    assertEquals(4, search.numberOfReachedVertices());
+    assertEquals(0, search.distanceMm(index(A)));
+    assertEquals(100_000, search.distanceMm(index(B)));
+    assertEquals(200_000, search.distanceMm(index(C)));
+    assertEquals(50_000, search.distanceMm(index(D)));
+    assertEquals(List.of(AB, BC), search.path(index(C)));
+    assertEquals(List.of(), search.path(index(A)));
+  }
+
+  @Test
+  void arriveBySearch() {
+    var search = new StreetDistanceMatrix(graph, true).newSearch();
+    search.run(index(C), 1_000_000);
+
+    assertEquals(200_000, search.distanceMm(index(A)));
+    assertEquals(UNREACHED, search.distanceMm(index(D)));
+    assertEquals(List.of(AB, BC), search.path(index(A)));
+  }
+
+  @Test
+  void maxDistance() {
+    var search = new StreetDistanceMatrix(graph, false).newSearch();
+    search.run(index(A), 150_000);
+    assertEquals(UNREACHED, search.distanceMm(index(C)));
+    assertEquals(List.of(), search.path(index(C)));
+
+    // The search is reused, the previous result must be cleared
+    search.run(index(B), 150_000);
+    assertEquals(UNREACHED, search.distanceMm(index(A)));
+    assertEquals(100_000, search.distanceMm(index(C)));
+  }
+
+  @Test
+  void multipleSources() {
+    var search = new StreetDistanceMatrix(graph, false).newSearch();
+    search.run(new int[] { index(A), index(B) }, new int[] { 10_000, 20_000 }, 1_000_000);
+    assertEquals(10_000, search.distanceMm(index(A)));
+    assertEquals(20_000, search.distanceMm(index(B)));
+    assertEquals(120_000, search.distanceMm(index(C)));
+    assertEquals(List.of(BC), search.path(index(C)));
+  }
+
+  @Test
+  void distancesMm() {
+    var subject = new StreetDistanceMatrix(graph, false);
+    int[][] result = subject.distancesMm(
+      new int[] { index(A), index(C) },
+      new int[] { index(B), index(C) },
+      1_000_000
+    );
+    assertArrayEquals(new int[] { 100_000, 200_000 }, result[0]);
+    assertArrayEquals(new int[] { UNREACHED, 0 }, result[1]);
+  }
+
+  private int index(IntersectionVertex v) {
+    return graph.vertexIndex(v);
+  }
+}
@@ -16,8 +16,10 @@ import java.util.function.Predicate;
 import org.opentripplanner.TestServerContext;
 import org.opentripplanner.datastore.OtpDataStore;
 import org.opentripplanner.framework.application.OtpAppException;
+import org.opentripplanner.inspector.vector.VectorTileCache;
 import org.opentripplanner.model.plan.Itinerary;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.api.response.RoutingResponse;
 import org.opentripplanner.routing.framework.DebugTimingAggregator;
 import org.opentripplanner.routing.graph.Graph;
@@ -91,13 +93,18 @@ public class SpeedTest {
     this.expectedResultsByTcId = tcIO.readExpectedResults();
 
     var transitService = new DefaultTransitService(transitModel);
+    var vectorTileCache = new VectorTileCache(
+      graph.getVectorTilePyramid(),
+      graph::getRealtimeStreetVersion
+    );
 
     UpdaterConfigurator.configure(
       graph,
       new DefaultRealtimeVehicleService(transitService),
       new DefaultVehicleRentalService(),
       transitModel,
-      config.updatersConfig
+      config.updatersConfig,
+      vectorTileCache
     );
     if (transitModel.getUpdaterManager() != null) {
       transitModel.getUpdaterManager().startUpdaters();
@@ -119,6 +126,8 @@ public class SpeedTest {
         config.flexConfig,
         List.of(),
         null,
+        new AccessEgressCache(),
+        vectorTileCache,
         null
       );
     // Creating transitLayerForRaptor should be integrated into the TransitModel, but for now
@@ -31,7 +31,8 @@ class VehicleRentalUpdaterTest {
       new VehicleRentalUpdaterParameters("A", Duration.ofMinutes(1), new FakeParams()),
       source,
       null,
-      new DefaultVehicleRentalService()
+      new DefaultVehicleRentalService(),
+      area -> {}
     );
 
     assertFalse(updater.isPrimed());